@@ -0,0 +1,121 @@
+package uis.edu.tutouis_project.benchmarks;
+
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.StoredCredential;
+import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
+import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
+import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
+import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.store.FileDataStoreFactory;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.CalendarScopes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uis.edu.tutouis_project.servicio.ClienteGoogleCalendar;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Costo de obtener un cliente de Google Calendar antes de cada create/delete.
+ *
+ * antesConstruirPorLlamada reproduce el GoogleCalendarService original (transporte nuevo, lectura de
+ * credentials.json, flujo OAuth y FileDataStoreFactory por llamada). despuesClienteCacheado usa
+ * ClienteGoogleCalendar. Ambos leen un token guardado con vencimiento lejano, así que no hay red.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClienteGoogleCalendarBenchmark {
+
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final List<String> SCOPES = Collections.singletonList(CalendarScopes.CALENDAR);
+
+    private Path directorio;
+    private String rutaCredenciales;
+    private String rutaTokens;
+    private ClienteGoogleCalendar clienteCacheado;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        directorio = Files.createTempDirectory("tutouis-bench-calendar");
+        Path credenciales = directorio.resolve("credentials.json");
+        Files.writeString(credenciales, """
+                {"installed":{"client_id":"bench.apps.googleusercontent.com","client_secret":"bench",
+                "auth_uri":"https://accounts.google.com/o/oauth2/auth","token_uri":"https://oauth2.googleapis.com/token",
+                "redirect_uris":["http://localhost"]}}
+                """);
+        rutaCredenciales = credenciales.toString();
+        rutaTokens = directorio.resolve("tokens").toString();
+
+        StoredCredential token = new StoredCredential()
+                .setAccessToken("token-bench")
+                .setRefreshToken("refresh-bench")
+                .setExpirationTimeMilliseconds(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30));
+        new FileDataStoreFactory(new File(rutaTokens))
+                .<StoredCredential>getDataStore(StoredCredential.DEFAULT_DATA_STORE_ID)
+                .set("user", token);
+
+        clienteCacheado = new ClienteGoogleCalendar(rutaCredenciales, rutaTokens, 300, 20, new RegistroMetricas());
+        clienteCacheado.obtener();
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws Exception {
+        clienteCacheado.cerrar();
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            archivos.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public Calendar antesConstruirPorLlamada() throws Exception {
+        NetHttpTransport transporte = GoogleNetHttpTransport.newTrustedTransport();
+        GoogleClientSecrets clientSecrets;
+        try (FileInputStream fis = new FileInputStream(rutaCredenciales);
+             InputStreamReader reader = new InputStreamReader(fis)) {
+            clientSecrets = GoogleClientSecrets.load(JSON_FACTORY, reader);
+        }
+        GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
+                transporte, JSON_FACTORY, clientSecrets, SCOPES)
+                .setDataStoreFactory(new FileDataStoreFactory(new File(rutaTokens)))
+                .setAccessType("offline")
+                .build();
+        LocalServerReceiver receiver = new LocalServerReceiver.Builder().setPort(8888).build();
+        Credential credencial = new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
+        return new Calendar.Builder(transporte, JSON_FACTORY, credencial)
+                .setApplicationName("TutoUIS Calendar Integration")
+                .build();
+    }
+
+    @Benchmark
+    public Calendar despuesClienteCacheado() throws Exception {
+        return clienteCacheado.obtener();
+    }
+}
@@ -0,0 +1,93 @@
+package uis.edu.tutouis_project.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dos archivos de resultados JMH en JSON (-rf json) y marca las regresiones.
+ *
+ * Uso: java -cp target/benchmarks.jar uis.edu.tutouis_project.benchmarks.CompararResultados base.json nuevo.json [umbral%]
+ *
+ * Cada benchmark se identifica por su nombre, parámetros e hilos. Es regresión si empeora más del
+ * umbral (10% por defecto) y la diferencia supera la suma de los márgenes de error de ambas corridas.
+ * En los modos de tiempo (avgt, sample, ss) empeorar es subir; en thrpt es bajar.
+ * Termina con código 1 si hay regresiones, para usarlo en un script o en CI.
+ */
+public class CompararResultados {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararResultados base.json nuevo.json [umbral%]");
+            System.exit(2);
+        }
+        double umbral = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Resultado> base = leer(new File(args[0]));
+        Map<String, Resultado> nuevo = leer(new File(args[1]));
+
+        int regresiones = 0;
+        System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s%n", "benchmark", "base", "nuevo", "cambio");
+        for (Map.Entry<String, Resultado> entrada : nuevo.entrySet()) {
+            Resultado actual = entrada.getValue();
+            Resultado anterior = base.get(entrada.getKey());
+            if (anterior == null) {
+                System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s%n", entrada.getKey(), "-",
+                        actual.formato(), "nuevo");
+                continue;
+            }
+            double cambio = (actual.puntaje - anterior.puntaje) / anterior.puntaje * 100.0;
+            double empeora = actual.mayorEsMejor ? -cambio : cambio;
+            boolean fueraDelError = Math.abs(actual.puntaje - anterior.puntaje) > actual.error + anterior.error;
+            String estado = "";
+            if (empeora > umbral && fueraDelError) {
+                estado = "  REGRESIÓN";
+                regresiones++;
+            } else if (empeora < -umbral && fueraDelError) {
+                estado = "  mejora";
+            }
+            System.out.printf(Locale.ROOT, "%-90s %14s %14s %+8.1f%%%s%n", entrada.getKey(), anterior.formato(),
+                    actual.formato(), cambio, estado);
+        }
+        base.keySet().stream()
+                .filter(clave -> !nuevo.containsKey(clave))
+                .forEach(clave -> System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s%n", clave,
+                        base.get(clave).formato(), "-", "quitado"));
+
+        System.out.printf(Locale.ROOT, "%n%d regresión(es) con umbral de %.1f%%%n", regresiones, umbral);
+        System.exit(regresiones > 0 ? 1 : 0);
+    }
+
+    static Map<String, Resultado> leer(File archivo) throws IOException {
+        Map<String, Resultado> resultados = new TreeMap<>();
+        for (JsonNode nodo : new ObjectMapper().readTree(archivo)) {
+            StringBuilder clave = new StringBuilder(nodo.path("benchmark").asText());
+            JsonNode params = nodo.path("params");
+            if (params.isObject()) {
+                Map<String, String> ordenados = new TreeMap<>();
+                for (Map.Entry<String, JsonNode> campo : params.properties()) {
+                    ordenados.put(campo.getKey(), campo.getValue().asText());
+                }
+                clave.append(ordenados);
+            }
+            clave.append(" x").append(nodo.path("threads").asInt(1));
+
+            JsonNode metrica = nodo.path("primaryMetric");
+            double error = metrica.path("scoreError").asDouble(0.0);
+            resultados.put(clave.toString(), new Resultado(metrica.path("score").asDouble(),
+                    Double.isNaN(error) ? 0.0 : error, metrica.path("scoreUnit").asText(),
+                    "thrpt".equals(nodo.path("mode").asText())));
+        }
+        return resultados;
+    }
+
+    record Resultado(double puntaje, double error, String unidad, boolean mayorEsMejor) {
+        String formato() {
+            return String.format(Locale.ROOT, "%.3f %s", puntaje, unidad);
+        }
+    }
+}
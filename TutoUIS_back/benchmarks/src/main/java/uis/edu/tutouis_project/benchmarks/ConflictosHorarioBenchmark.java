@@ -0,0 +1,96 @@
+package uis.edu.tutouis_project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uis.edu.tutouis_project.util.IndiceHorarios;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detección de cruces de horario al crear una tutoría con un lote de disponibilidades
+ * (TutoriaService.validarConflictosHorario, sin la consulta de los horarios del tutor).
+ *
+ * indice construye IndiceHorarios con los horarios ocupados y revisa el lote, como el servicio.
+ * todosContraTodos es la referencia directa: cada franja nueva contra cada ocupada y contra las demás del lote.
+ * Los datos no tienen cruces, así que ambos recorren todo (peor caso).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConflictosHorarioBenchmark {
+
+    @Param({"50", "5000"})
+    public int ocupadas;
+
+    @Param({"20", "200"})
+    public int lote;
+
+    private List<IndiceHorarios.Franja> horariosOcupados;
+    private List<IndiceHorarios.Franja> nuevas;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        LocalDate inicio = LocalDate.of(2025, 2, 3);
+        // Ocupadas: bloques de 7:00 a 9:00 y de 14:00 a 16:00, dos por día
+        horariosOcupados = new ArrayList<>(ocupadas);
+        for (int i = 0; i < ocupadas; i++) {
+            LocalTime desde = i % 2 == 0 ? LocalTime.of(7, 0) : LocalTime.of(14, 0);
+            horariosOcupados.add(new IndiceHorarios.Franja(inicio.plusDays(i / 2), desde, desde.plusHours(2)));
+        }
+        // Nuevas: franjas de una hora entre 9:00 y 14:00 y desde las 16:00, sin cruces entre sí
+        nuevas = new ArrayList<>(lote);
+        for (int i = 0; i < lote; i++) {
+            LocalTime desde = (i % 10 < 5 ? LocalTime.of(9, 0) : LocalTime.of(16, 0)).plusHours(i % 5);
+            nuevas.add(new IndiceHorarios.Franja(inicio.plusDays(i / 10), desde, desde.plusHours(1)));
+        }
+        if (indice() != null || todosContraTodos() != null) {
+            throw new IllegalStateException("Los datos del benchmark no deben tener cruces");
+        }
+    }
+
+    @Benchmark
+    public IndiceHorarios.Conflicto indice() {
+        return new IndiceHorarios(horariosOcupados).buscarConflicto(nuevas);
+    }
+
+    @Benchmark
+    public IndiceHorarios.Conflicto todosContraTodos() {
+        for (int i = 0; i < nuevas.size(); i++) {
+            IndiceHorarios.Franja franja = nuevas.get(i);
+            for (IndiceHorarios.Franja ocupada : horariosOcupados) {
+                if (seCruzan(franja, ocupada)) {
+                    return new IndiceHorarios.Conflicto(i, null);
+                }
+            }
+        }
+        for (int i = 0; i < nuevas.size(); i++) {
+            for (int j = 0; j < i; j++) {
+                if (seCruzan(nuevas.get(i), nuevas.get(j))) {
+                    return new IndiceHorarios.Conflicto(i, j);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean seCruzan(IndiceHorarios.Franja a, IndiceHorarios.Franja b) {
+        return a.fecha().equals(b.fecha()) && a.inicio().isBefore(b.fin()) && a.fin().isAfter(b.inicio());
+    }
+}
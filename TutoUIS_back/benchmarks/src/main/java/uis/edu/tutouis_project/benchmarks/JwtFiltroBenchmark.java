@@ -0,0 +1,159 @@
+package uis.edu.tutouis_project.benchmarks;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import uis.edu.tutouis_project.config.JwtAuthenticationFilter;
+import uis.edu.tutouis_project.util.JwtUtil;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Field;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por petición de JwtAuthenticationFilter a 1, 8 y 32 hilos.
+ *
+ * antes* reproduce el filtro original: isTokenExpired + validateToken + getCodigoFromToken, cada uno
+ * recalculando la llave y reconstruyendo el parser (tres verificaciones HMAC por petición).
+ * despues* ejecuta el filtro actual (una verificación, luego caché por SHA-256 del token).
+ * Se usa un grupo de tokens de varios usuarios para que la caché trabaje con más de una entrada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtFiltroBenchmark {
+
+    static final String SECRET = "MyVerySecureJWTSecretKey123456789012345678901234567890ABCDE";
+    private static final int TOKENS_DISTINTOS = 256;
+
+    @State(Scope.Benchmark)
+    public static class Contexto {
+        JwtAuthenticationFilter filtro;
+        /** Los mismos contadores que el filtro actualiza en la aplicación (jwt.cache.aciertos, jwt.verificacion) */
+        RegistroMetricas metricas = new RegistroMetricas();
+        String[] headers;
+        FilterChain cadena = (request, response) -> { };
+
+        @Setup(Level.Trial)
+        public void preparar() throws Exception {
+            JwtUtil jwtUtil = crearJwtUtil(10_000, metricas);
+            filtro = new JwtAuthenticationFilter();
+            asignar(filtro, "jwtUtil", jwtUtil);
+
+            headers = new String[TOKENS_DISTINTOS];
+            for (int i = 0; i < TOKENS_DISTINTOS; i++) {
+                headers[i] = "Bearer " + jwtUtil.generateToken("22" + String.format("%05d", i));
+            }
+        }
+    }
+
+    /**
+     * JwtUtil armado como lo deja Spring, con las mismas dependencias
+     * @param maxEntradasCache 0 desactiva la caché de tokens verificados
+     */
+    static JwtUtil crearJwtUtil(int maxEntradasCache, RegistroMetricas metricas) throws Exception {
+        JwtUtil jwtUtil = new JwtUtil();
+        asignar(jwtUtil, "secret", SECRET);
+        asignar(jwtUtil, "expiration", TimeUnit.DAYS.toMillis(1));
+        asignar(jwtUtil, "maxEntradasCache", maxEntradasCache);
+        asignar(jwtUtil, "ttlCacheMs", 600_000L);
+        asignar(jwtUtil, "metricas", metricas);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    static void asignar(Object destino, String campo, Object valor) throws Exception {
+        Field field = destino.getClass().getDeclaredField(campo);
+        field.setAccessible(true);
+        field.set(destino, valor);
+    }
+
+    // ==================== Filtro original (tres parseos por petición) ====================
+
+    private static SecretKey llaveOriginal() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+
+    private static Claims parseOriginal(String token) {
+        return Jwts.parser().verifyWith(llaveOriginal()).build().parseSignedClaims(token).getPayload();
+    }
+
+    private static String filtroOriginal(Contexto ctx) {
+        String token = ctx.headers[ThreadLocalRandom.current().nextInt(TOKENS_DISTINTOS)].substring(7);
+        boolean expirado = parseOriginal(token).getExpiration().before(new Date());
+        if (!expirado) {
+            parseOriginal(token);
+            return parseOriginal(token).getSubject();
+        }
+        return null;
+    }
+
+    private static Object filtroActual(Contexto ctx) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas/mis-reservas");
+        request.addHeader("Authorization", ctx.headers[ThreadLocalRandom.current().nextInt(TOKENS_DISTINTOS)]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            ctx.filtro.doFilter(request, response, ctx.cadena);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String antes_1hilo(Contexto ctx) {
+        return filtroOriginal(ctx);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String antes_8hilos(Contexto ctx) {
+        return filtroOriginal(ctx);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public String antes_32hilos(Contexto ctx) {
+        return filtroOriginal(ctx);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object despues_1hilo(Contexto ctx) throws Exception {
+        return filtroActual(ctx);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Object despues_8hilos(Contexto ctx) throws Exception {
+        return filtroActual(ctx);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Object despues_32hilos(Contexto ctx) throws Exception {
+        return filtroActual(ctx);
+    }
+}
@@ -0,0 +1,68 @@
+package uis.edu.tutouis_project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uis.edu.tutouis_project.util.JwtUtil;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Firma y verificación de tokens con JwtUtil, sin el filtro ni el contexto de seguridad.
+ *
+ * firmar es el costo del login. verificarSinCache es el HMAC completo (caché desactivada) y
+ * verificarConCache el caso normal de una petición autenticada: SHA-256 del token y búsqueda en el mapa.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtUtilBenchmark {
+
+    private static final int TOKENS_DISTINTOS = 256;
+
+    private JwtUtil conCache;
+    private JwtUtil sinCache;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        conCache = JwtFiltroBenchmark.crearJwtUtil(10_000, new RegistroMetricas());
+        sinCache = JwtFiltroBenchmark.crearJwtUtil(0, new RegistroMetricas());
+        tokens = new String[TOKENS_DISTINTOS];
+        for (int i = 0; i < TOKENS_DISTINTOS; i++) {
+            tokens[i] = conCache.generateToken("22" + String.format("%05d", i));
+        }
+    }
+
+    private String token() {
+        return tokens[ThreadLocalRandom.current().nextInt(TOKENS_DISTINTOS)];
+    }
+
+    @Benchmark
+    public String firmar() {
+        return conCache.generateToken("2212345");
+    }
+
+    @Benchmark
+    public String verificarSinCache() {
+        return sinCache.getCodigoFromValidToken(token());
+    }
+
+    @Benchmark
+    public String verificarConCache() {
+        return conCache.getCodigoFromValidToken(token());
+    }
+}
@@ -0,0 +1,93 @@
+package uis.edu.tutouis_project.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uis.edu.tutouis_project.modelo.dto.ReservaResponseDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de ReservaResponseDto como la hace la aplicación.
+ *
+ * lista es la respuesta de los listados (List serializada por el convertidor de Spring MVC) y
+ * ndjson reproduce ReservaService.exportarReservas: un generador y un ObjectWriter compartidos,
+ * una línea por reserva. El ObjectMapper se construye con los mismos valores por defecto de Spring Boot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReservaJsonBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int reservas;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writerNdjson;
+    private List<ReservaResponseDto> lista;
+    private ByteArrayOutputStream salida;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writerNdjson = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        salida = new ByteArrayOutputStream(reservas * 1024);
+
+        lista = new ArrayList<>(reservas);
+        Timestamp creacion = Timestamp.valueOf("2025-05-20 14:03:11");
+        for (int i = 0; i < reservas; i++) {
+            lista.add(new ReservaResponseDto(
+                    i + 1, 300 + i % 40, LocalTime.of(8, 0), LocalTime.of(10, 0),
+                    Date.valueOf(LocalDate.of(2025, 6, 2).plusDays(i % 30)), "Lunes",
+                    1000 + i, "Estudiante de prueba " + i, 1, "Confirmada",
+                    i % 3 == 0 ? "Traer los ejercicios del taller 2" : null,
+                    creacion, null, null, LocalTime.of(8, 0), LocalTime.of(10, 0),
+                    "Cálculo Diferencial", "Tutor de prueba", "Virtual",
+                    "https://meet.google.com/abc-defg-hij", "Edificio Camilo Torres 301"));
+        }
+    }
+
+    @Benchmark
+    public byte[] lista() throws IOException {
+        return objectMapper.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public int ndjson() throws IOException {
+        salida.reset();
+        try (JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            for (ReservaResponseDto reserva : lista) {
+                writerNdjson.writeValue(generador, reserva);
+                generador.writeRaw('\n');
+            }
+        }
+        return salida.size();
+    }
+}
@@ -0,0 +1,80 @@
+package uis.edu.tutouis_project.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uis.edu.tutouis_project.servicio.TutoriaEstadoService;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TutoriaEstadoService.calcularEstadoTutoria sobre listas grandes de disponibilidades.
+ *
+ * El escenario decide cuánto recorre: FINALIZADA y PROGRAMADA recorren toda la lista y EN_CURSO
+ * la corta en la disponibilidad que está en curso, que se deja al final (peor caso).
+ * El método es de paquete, así que se invoca por un MethodHandle estático (el JIT lo trata como llamada directa).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TutoriaEstadoBenchmark {
+
+    private static final MethodHandle CALCULAR_ESTADO;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(TutoriaEstadoService.class, MethodHandles.lookup());
+            CALCULAR_ESTADO = lookup.findStatic(TutoriaEstadoService.class, "calcularEstadoTutoria",
+                    MethodType.methodType(int.class, List.class, LocalDateTime.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Param({"10", "1000", "100000"})
+    public int disponibilidades;
+
+    @Param({"FINALIZADA", "PROGRAMADA", "EN_CURSO"})
+    public String escenario;
+
+    private List<LocalDateTime[]> intervalos;
+    private LocalDateTime ahora;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        ahora = LocalDateTime.of(2025, 6, 2, 10, 30);
+        // Franjas de una hora, una por día, hacia atrás o hacia adelante según el escenario
+        int sentido = escenario.equals("PROGRAMADA") ? 1 : -1;
+        intervalos = new ArrayList<>(disponibilidades);
+        for (int i = 1; i <= disponibilidades; i++) {
+            LocalDateTime inicio = ahora.plusDays((long) sentido * i).withHour(8);
+            intervalos.add(new LocalDateTime[]{inicio, inicio.plusHours(1)});
+        }
+        if (escenario.equals("EN_CURSO")) {
+            intervalos.set(disponibilidades - 1, new LocalDateTime[]{ahora.minusMinutes(30), ahora.plusMinutes(30)});
+        }
+    }
+
+    @Benchmark
+    public int calcularEstado() throws Throwable {
+        return (int) CALCULAR_ESTADO.invokeExact(intervalos, ahora);
+    }
+}
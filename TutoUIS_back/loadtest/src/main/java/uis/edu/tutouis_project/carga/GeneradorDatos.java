@@ -0,0 +1,409 @@
+package uis.edu.tutouis_project.carga;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Llena una base MySQL local con un semestre sintético: usuarios (estudiantes y tutores), tutorías,
+ * disponibilidades semanales y reservas, con los mismos estados que usa la aplicación.
+ *
+ * - Con la misma semilla genera siempre los mismos datos (ids, horarios, estudiantes por sesión).
+ * - Inserta por lotes con JDBC (rewriteBatchedStatements) y ids explícitos a partir del máximo existente.
+ * - Las asignaturas tienen popularidad sesgada (unas pocas concentran la demanda, como al inicio de semestre)
+ *   y ninguna sesión activa supera su aforo máximo.
+ * - Todos los usuarios comparten la contraseña --contrasena; los estudiantes generados se escriben en
+ *   --salida-estudiantes (CSV id_usuario,codigo) para PruebaCarga.
+ *
+ * El esquema lo crea la aplicación (arrancarla una vez con el perfil carga). Generar con la aplicación
+ * detenida: al arrancar reconcilia el aforo, reconstruye las estadísticas y el índice de franjas.
+ */
+public class GeneradorDatos {
+
+    static final String[] DIAS = {"Lunes", "Martes", "Miércoles", "Jueves", "Viernes"};
+    static final int ROL_TUTOR = 2;
+    static final int ROL_ESTUDIANTE = 3;
+    static final int MINUTOS_FRANJA = 15;
+
+    private static final int LOTE = 5_000;
+    private static final String[] NOMBRES = {"Ana", "Andrés", "Camila", "Carlos", "Daniela", "David", "Laura", "Juan",
+            "María", "Santiago", "Valentina", "Sebastián", "Natalia", "Felipe", "Paula", "Diego", "Sofía", "Mateo"};
+    private static final String[] APELLIDOS = {"Gómez", "Rodríguez", "Martínez", "García", "López", "Hernández",
+            "Díaz", "Pérez", "Sánchez", "Ramírez", "Torres", "Rojas", "Vargas", "Moreno", "Castro", "Ortiz"};
+    private static final String[] TABLAS_LIMPIEZA = {"asistencia", "multa", "notificacion", "evento_calendario_outbox",
+            "estadistica_reserva", "estadistica_estudiante", "actividad", "reserva", "disponibilidad",
+            "plantilla_disponibilidad", "tutoria", "historial_usuario", "usuario"};
+
+    private final Connection conexion;
+    private final Opciones opciones;
+    private final Random aleatorio;
+
+    GeneradorDatos(Connection conexion, Opciones opciones) {
+        this.conexion = conexion;
+        this.opciones = opciones;
+        this.aleatorio = new Random(opciones.largo("semilla", 42));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Opciones opciones = new Opciones(args);
+        String url = opciones.texto("url",
+                "jdbc:mysql://localhost:3306/tutouis_carga?serverTimezone=UTC&rewriteBatchedStatements=true");
+        if (opciones.bandera("limpiar") && !url.contains("carga") && !opciones.bandera("forzar")) {
+            throw new IllegalStateException("--limpiar borra usuarios, tutorías y reservas: solo se permite sobre una base "
+                    + "cuyo nombre contenga 'carga' (o con --forzar)");
+        }
+        try (Connection conexion = DriverManager.getConnection(url, opciones.texto("usuario", "root"),
+                opciones.texto("clave", ""))) {
+            new GeneradorDatos(conexion, opciones).generar();
+        }
+    }
+
+    void generar() throws SQLException, IOException {
+        long inicio = System.nanoTime();
+        conexion.setAutoCommit(false);
+        try (Statement sentencia = conexion.createStatement()) {
+            // Solo para esta sesión: los ids y referencias los garantiza el generador
+            sentencia.execute("SET SESSION foreign_key_checks = 0");
+            sentencia.execute("SET SESSION unique_checks = 0");
+        }
+
+        if (opciones.bandera("limpiar")) {
+            limpiar();
+        }
+        datosDeReferencia();
+        int[] carreras = catalogo("carrera", "id_carrera", "codigo", opciones.entero("carreras", 20),
+                "INSERT IGNORE INTO carrera (nombre, descripcion, codigo) VALUES (?, 'Generada para pruebas de carga', ?)",
+                i -> new Object[]{"Carrera de carga " + i, "CC-" + i}, "CC-%");
+        int[] asignaturas = catalogo("asignatura", "id_asignatura", "nombre", opciones.entero("asignaturas", 200),
+                "INSERT IGNORE INTO asignatura (nombre, facultad) VALUES (?, ?)",
+                i -> new Object[]{String.format("Asignatura de carga %03d", i), "Facultad de carga " + (i % 8)},
+                "Asignatura de carga %");
+
+        String hash = new BCryptPasswordEncoder().encode(opciones.texto("contrasena", "Carga2025*"));
+        int[] tutores = usuarios(opciones.entero("tutores", 2_000), ROL_TUTOR, "CT", hash, carreras);
+        int[] estudiantes = usuarios(opciones.entero("estudiantes", 30_000), ROL_ESTUDIANTE, "CE", hash, carreras);
+        escribirEstudiantes(estudiantes);
+
+        Tutorias tutorias = tutorias(tutores, asignaturas, opciones.entero("tutorias-por-tutor", 3));
+        long[] totales = disponibilidadesYReservas(tutorias, estudiantes);
+
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("SET SESSION foreign_key_checks = 1");
+            sentencia.execute("SET SESSION unique_checks = 1");
+        }
+        System.out.printf("✅ Datos generados en %.1f s: %d tutores, %d estudiantes, %d tutorías, %d disponibilidades, %d reservas%n",
+                (System.nanoTime() - inicio) / 1e9, tutores.length, estudiantes.length, tutorias.ids.length,
+                totales[0], totales[1]);
+    }
+
+    private void limpiar() throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            for (String tabla : TABLAS_LIMPIEZA) {
+                try {
+                    sentencia.execute("TRUNCATE TABLE " + tabla);
+                } catch (SQLException e) {
+                    System.out.println("⚠️ No se pudo vaciar " + tabla + ": " + e.getMessage());
+                }
+            }
+        }
+        conexion.commit();
+        System.out.println("🗑️ Tablas de datos vaciadas");
+    }
+
+    /**
+     * Roles y estados con los ids que la aplicación usa directamente en el código
+     */
+    private void datosDeReferencia() throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("INSERT IGNORE INTO rol (id_rol, nombre, descripcion) VALUES "
+                    + "(1, 'Administrador', NULL), (2, 'Tutor', NULL), (3, 'Estudiante', NULL)");
+            sentencia.execute("INSERT IGNORE INTO estado_reserva (id_estado, nombre) VALUES "
+                    + "(1, 'Activa'), (2, 'Cancelada'), (3, 'Realizada'), (4, 'No Asistida')");
+            sentencia.execute("INSERT IGNORE INTO estado_tutoria (id_estado, nombre) VALUES "
+                    + "(1, 'Pendiente'), (2, 'Programada'), (3, 'En Curso'), (4, 'Finalizada'), (5, 'Cancelada')");
+            sentencia.execute("INSERT IGNORE INTO estado_disponibilidad (id_estado, nombre) VALUES "
+                    + "(1, 'Activa'), (2, 'Inactiva'), (3, 'Cancelada')");
+        }
+        conexion.commit();
+    }
+
+    private interface Fila {
+        Object[] valores(int indice);
+    }
+
+    /**
+     * Inserta (si faltan) las filas de catálogo generadas y retorna los ids de todas ellas
+     */
+    private int[] catalogo(String tabla, String columnaId, String columnaClave, int cantidad, String insert,
+                           Fila fila, String patron) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement(insert)) {
+            for (int i = 1; i <= cantidad; i++) {
+                Object[] valores = fila.valores(i);
+                for (int j = 0; j < valores.length; j++) {
+                    sentencia.setObject(j + 1, valores[j]);
+                }
+                sentencia.addBatch();
+            }
+            sentencia.executeBatch();
+        }
+        conexion.commit();
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement consulta = conexion.prepareStatement(
+                "SELECT " + columnaId + " FROM " + tabla + " WHERE " + columnaClave + " LIKE ? ORDER BY " + columnaId)) {
+            consulta.setString(1, patron);
+            try (ResultSet filas = consulta.executeQuery()) {
+                while (filas.next()) {
+                    ids.add(filas.getInt(1));
+                }
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int[] usuarios(int cantidad, int rol, String prefijo, String hash, int[] carreras) throws SQLException {
+        int siguiente = siguienteId("usuario", "id_usuario");
+        int[] ids = new int[cantidad];
+        try (PreparedStatement sentencia = conexion.prepareStatement("INSERT INTO usuario (id_usuario, nombre, apellido, "
+                + "codigo, correo, contrasena, telefono, id_rol, id_carrera, activo, bloqueado) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, TRUE, FALSE)")) {
+            for (int i = 0; i < cantidad; i++) {
+                int id = siguiente + i;
+                String codigo = prefijo + String.format("%07d", id);
+                sentencia.setInt(1, id);
+                sentencia.setString(2, NOMBRES[aleatorio.nextInt(NOMBRES.length)]);
+                sentencia.setString(3, APELLIDOS[aleatorio.nextInt(APELLIDOS.length)] + " "
+                        + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)]);
+                sentencia.setString(4, codigo);
+                sentencia.setString(5, codigo.toLowerCase() + "@carga.tutouis.test");
+                sentencia.setString(6, hash);
+                sentencia.setString(7, "3" + String.format("%09d", aleatorio.nextInt(1_000_000_000)));
+                sentencia.setInt(8, rol);
+                sentencia.setInt(9, carreras[aleatorio.nextInt(carreras.length)]);
+                sentencia.addBatch();
+                ids[i] = id;
+                if ((i + 1) % LOTE == 0) {
+                    sentencia.executeBatch();
+                    conexion.commit();
+                }
+            }
+            sentencia.executeBatch();
+        }
+        conexion.commit();
+        System.out.printf("👥 %d usuarios con rol %d (%s%07d - %s%07d)%n", cantidad, rol, prefijo, siguiente,
+                prefijo, siguiente + cantidad - 1);
+        return ids;
+    }
+
+    private void escribirEstudiantes(int[] estudiantes) throws IOException {
+        Path archivo = Path.of(opciones.texto("salida-estudiantes", "estudiantes-carga.csv"));
+        try (PrintWriter salida = new PrintWriter(Files.newBufferedWriter(archivo, StandardCharsets.UTF_8))) {
+            salida.println("id_usuario,codigo");
+            for (int id : estudiantes) {
+                salida.println(id + ",CE" + String.format("%07d", id));
+            }
+        }
+        System.out.println("📄 Estudiantes escritos en " + archivo.toAbsolutePath());
+    }
+
+    /** Tutorías generadas: id, índice de la tutoría dentro de su tutor y popularidad relativa */
+    private record Tutorias(int[] ids, int[] posicionEnTutor, double[] popularidad) {
+    }
+
+    private Tutorias tutorias(int[] tutores, int[] asignaturas, int porTutor) throws SQLException {
+        int siguiente = siguienteId("tutoria", "id_tutoria");
+        int total = tutores.length * porTutor;
+        int[] ids = new int[total];
+        int[] posicion = new int[total];
+        double[] popularidad = new double[total];
+        try (PreparedStatement sentencia = conexion.prepareStatement("INSERT INTO tutoria (id_tutoria, id_tutor, "
+                + "id_asignatura, lugar, descripcion, id_estado_tutoria) VALUES (?, ?, ?, ?, ?, 2)")) {
+            int n = 0;
+            for (int tutor : tutores) {
+                for (int j = 0; j < porTutor; j++, n++) {
+                    // r² concentra las tutorías (y la demanda) en las primeras asignaturas
+                    double r = aleatorio.nextDouble();
+                    int asignatura = (int) (asignaturas.length * r * r);
+                    ids[n] = siguiente + n;
+                    posicion[n] = j;
+                    popularidad[n] = 0.2 + 1.6 * (1.0 - r);
+                    sentencia.setInt(1, ids[n]);
+                    sentencia.setInt(2, tutor);
+                    sentencia.setInt(3, asignaturas[asignatura]);
+                    sentencia.setString(4, "Edificio " + (1 + aleatorio.nextInt(30)) + ", salón " + (100 + aleatorio.nextInt(300)));
+                    sentencia.setString(5, "Tutoría generada para pruebas de carga");
+                    sentencia.addBatch();
+                }
+            }
+            sentencia.executeBatch();
+        }
+        conexion.commit();
+        System.out.printf("📚 %d tutorías%n", total);
+        return new Tutorias(ids, posicion, popularidad);
+    }
+
+    /**
+     * Dos sesiones semanales por tutoría durante el semestre, cada una con sus reservas.
+     * Las sesiones de un mismo tutor no se cruzan: cada tutoría suya va en otro par de días y otra hora
+     * @return {disponibilidades, reservas}
+     */
+    private long[] disponibilidadesYReservas(Tutorias tutorias, int[] estudiantes) throws SQLException {
+        int semanas = opciones.entero("semanas", 16);
+        int semanasPasadas = opciones.entero("semanas-pasadas", 2);
+        int aforoMaximo = opciones.entero("aforo-maximo", 10);
+        int horasSesion = 2;
+        int franjas = horasSesion * 60 / MINUTOS_FRANJA;
+        long reservasObjetivo = opciones.largo("reservas", 1_000_000);
+        long totalDisponibilidades = (long) tutorias.ids.length * semanas * 2;
+        double promedio = (double) reservasObjetivo / totalDisponibilidades;
+
+        LocalDate hoy = LocalDate.now();
+        LocalDate lunesInicial = hoy.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(semanasPasadas);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        int idDisponibilidad = siguienteId("disponibilidad", "id_disponibilidad");
+        long disponibilidades = 0;
+        long reservas = 0;
+        int[] elegidos = new int[aforoMaximo];
+
+        try (PreparedStatement insertDisponibilidad = conexion.prepareStatement("INSERT INTO disponibilidad "
+                + "(id_disponibilidad, id_tutoria, dia_semana, fecha, hora_inicio, hora_fin, aforo, aforo_maximo, id_estado) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 1)");
+             PreparedStatement insertReserva = conexion.prepareStatement("INSERT INTO reserva (id_disponibilidad, "
+                     + "id_estudiante, id_estado, fecha_creacion, fecha_cancelacion, razon_cancelacion, hora_inicio, "
+                     + "hora_fin, modalidad) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            int pendientes = 0;
+            for (int t = 0; t < tutorias.ids.length; t++) {
+                int posicion = tutorias.posicionEnTutor[t];
+                int[] dias = {(posicion * 2) % DIAS.length, (posicion * 2 + 1) % DIAS.length};
+                LocalTime horaInicio = LocalTime.of(7 + (posicion * 3) % 12, 0);
+                String modalidad = aleatorio.nextInt(4) == 0 ? "Virtual" : "Presencial";
+
+                for (int semana = 0; semana < semanas; semana++) {
+                    for (int dia : dias) {
+                        LocalDate fecha = lunesInicial.plusWeeks(semana).plusDays(dia);
+                        boolean pasada = fecha.isBefore(hoy);
+
+                        // Cantidad de reservas de la sesión según la popularidad de la tutoría, sin pasar del aforo
+                        double esperado = promedio * tutorias.popularidad[t];
+                        int cantidad = Math.min(Math.min(aforoMaximo, estudiantes.length),
+                                (int) esperado + (aleatorio.nextDouble() < esperado - (int) esperado ? 1 : 0));
+                        int activas = 0;
+                        for (int k = 0; k < cantidad; k++) {
+                            elegidos[k] = estudianteDistinto(estudiantes, elegidos, k);
+                            int franja = aleatorio.nextInt(franjas);
+                            LocalTime inicioFranja = horaInicio.plusMinutes((long) franja * MINUTOS_FRANJA);
+                            int estado = estadoReserva(pasada);
+                            if (estado == 1) {
+                                activas++;
+                            }
+                            LocalDateTime creacion = fecha.atStartOfDay().minusDays(1 + aleatorio.nextInt(14))
+                                    .plusSeconds(aleatorio.nextInt(86_400));
+                            if (creacion.isAfter(ahora)) {
+                                creacion = ahora.minusMinutes(1 + aleatorio.nextInt(10_000));
+                            }
+                            insertReserva.setInt(1, idDisponibilidad);
+                            insertReserva.setInt(2, elegidos[k]);
+                            insertReserva.setInt(3, estado);
+                            insertReserva.setTimestamp(4, Timestamp.valueOf(creacion));
+                            if (estado == 2) {
+                                LocalDateTime cancelacion = creacion.plusHours(1 + aleatorio.nextInt(48));
+                                insertReserva.setTimestamp(5, Timestamp.valueOf(cancelacion.isAfter(ahora) ? ahora : cancelacion));
+                                insertReserva.setString(6, "Cruce con otra actividad");
+                            } else {
+                                insertReserva.setTimestamp(5, null);
+                                insertReserva.setString(6, null);
+                            }
+                            insertReserva.setTime(7, Time.valueOf(inicioFranja));
+                            insertReserva.setTime(8, Time.valueOf(inicioFranja.plusMinutes(MINUTOS_FRANJA)));
+                            insertReserva.setString(9, modalidad);
+                            insertReserva.addBatch();
+                            pendientes++;
+                        }
+
+                        insertDisponibilidad.setInt(1, idDisponibilidad);
+                        insertDisponibilidad.setInt(2, tutorias.ids[t]);
+                        insertDisponibilidad.setString(3, DIAS[dia]);
+                        insertDisponibilidad.setDate(4, Date.valueOf(fecha));
+                        insertDisponibilidad.setTime(5, Time.valueOf(horaInicio));
+                        insertDisponibilidad.setTime(6, Time.valueOf(horaInicio.plusHours(horasSesion)));
+                        insertDisponibilidad.setInt(7, activas);
+                        insertDisponibilidad.setInt(8, aforoMaximo);
+                        insertDisponibilidad.addBatch();
+                        pendientes++;
+
+                        idDisponibilidad++;
+                        disponibilidades++;
+                        long antes = reservas;
+                        reservas += cantidad;
+                        if (pendientes >= LOTE) {
+                            insertDisponibilidad.executeBatch();
+                            insertReserva.executeBatch();
+                            conexion.commit();
+                            pendientes = 0;
+                        }
+                        if (reservas / 100_000 != antes / 100_000) {
+                            System.out.printf("   … %d reservas, %d disponibilidades%n", reservas, disponibilidades);
+                        }
+                    }
+                }
+            }
+            insertDisponibilidad.executeBatch();
+            insertReserva.executeBatch();
+        }
+        conexion.commit();
+        return new long[]{disponibilidades, reservas};
+    }
+
+    /**
+     * Sesiones pasadas: realizadas, no asistidas o canceladas. Futuras: activas o canceladas
+     */
+    private int estadoReserva(boolean pasada) {
+        double r = aleatorio.nextDouble();
+        if (pasada) {
+            return r < 0.70 ? 3 : r < 0.80 ? 4 : 2;
+        }
+        return r < 0.85 ? 1 : 2;
+    }
+
+    private int estudianteDistinto(int[] estudiantes, int[] elegidos, int cantidad) {
+        while (true) {
+            int candidato = estudiantes[aleatorio.nextInt(estudiantes.length)];
+            boolean repetido = false;
+            for (int i = 0; i < cantidad && !repetido; i++) {
+                repetido = elegidos[i] == candidato;
+            }
+            if (!repetido) {
+                return candidato;
+            }
+        }
+    }
+
+    private int siguienteId(String tabla, String columna) throws SQLException {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT COALESCE(MAX(" + columna + "), 0) + 1 FROM " + tabla)) {
+            filas.next();
+            return filas.getInt(1);
+        }
+    }
+}
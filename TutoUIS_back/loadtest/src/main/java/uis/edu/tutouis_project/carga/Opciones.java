@@ -0,0 +1,49 @@
+package uis.edu.tutouis_project.carga;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opciones de línea de comandos con la forma --nombre=valor
+ */
+final class Opciones {
+
+    private final Map<String, String> valores = new HashMap<>();
+
+    Opciones(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Opción inválida (se espera --nombre=valor): " + arg);
+            }
+            int igual = arg.indexOf('=');
+            if (igual < 0) {
+                valores.put(arg.substring(2), "true");
+            } else {
+                valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+            }
+        }
+    }
+
+    String texto(String nombre, String defecto) {
+        return valores.getOrDefault(nombre, defecto);
+    }
+
+    int entero(String nombre, int defecto) {
+        String valor = valores.get(nombre);
+        return valor != null ? Integer.parseInt(valor.replace("_", "")) : defecto;
+    }
+
+    long largo(String nombre, long defecto) {
+        String valor = valores.get(nombre);
+        return valor != null ? Long.parseLong(valor.replace("_", "")) : defecto;
+    }
+
+    double decimal(String nombre, double defecto) {
+        String valor = valores.get(nombre);
+        return valor != null ? Double.parseDouble(valor) : defecto;
+    }
+
+    boolean bandera(String nombre) {
+        return Boolean.parseBoolean(valores.getOrDefault(nombre, "false"));
+    }
+}
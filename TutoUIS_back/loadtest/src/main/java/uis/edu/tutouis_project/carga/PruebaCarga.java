@@ -0,0 +1,246 @@
+package uis.edu.tutouis_project.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escenario de inicio de semestre contra la aplicación corriendo (perfil carga): cada usuario virtual
+ * repite login → búsqueda de franjas libres → reserva → cancelación (con probabilidad --cancelar),
+ * usando los estudiantes que escribió GeneradorDatos.
+ *
+ * Los tiempos de cada endpoint se registran en un RegistroMetricas propio (los mismos histogramas de
+ * /api/metricas) y al terminar ReporteCarga imprime y guarda throughput, errores y p50/p95/p99 por endpoint.
+ * Un 409 al reservar (horario ya reservado) o un 400 (sin cupo) es el resultado esperado con contención
+ * y se cuenta como conflicto, no como error.
+ *
+ * Con --comparar=a.json,b.json no corre el escenario: compara dos resultados guardados.
+ */
+public class PruebaCarga {
+
+    static final String LOGIN = "POST /auth/login";
+    static final String BUSCAR = "GET /api/disponibilidades/franjas-libres/buscar";
+    static final String RESERVAR = "POST /api/reservas/";
+    static final String CANCELAR = "PUT /api/reservas/{id}/cancelar";
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final RegistroMetricas metricas = new RegistroMetricas();
+    private final HttpClient cliente;
+    private final String baseUrl;
+    private final String contrasena;
+    private final List<String> codigos;
+    private final double probabilidadCancelar;
+    private final long pausaMs;
+    private final int limiteBusqueda;
+    private List<Integer> asignaturas = List.of();
+
+    PruebaCarga(Opciones opciones, List<String> codigos) {
+        this.baseUrl = opciones.texto("base-url", "http://localhost:8080");
+        this.contrasena = opciones.texto("contrasena", "Carga2025*");
+        this.codigos = codigos;
+        this.probabilidadCancelar = opciones.decimal("cancelar", 0.3);
+        this.pausaMs = opciones.largo("pausa-ms", 500);
+        this.limiteBusqueda = opciones.entero("limite-busqueda", 20);
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Opciones opciones = new Opciones(args);
+        String comparar = opciones.texto("comparar", null);
+        if (comparar != null) {
+            String[] archivos = comparar.split(",");
+            if (archivos.length != 2) {
+                throw new IllegalArgumentException("--comparar espera dos resultados: --comparar=a.json,b.json");
+            }
+            System.out.println(ReporteCarga.comparar(Path.of(archivos[0].trim()), Path.of(archivos[1].trim())));
+            return;
+        }
+        List<String> codigos = leerCodigos(Path.of(opciones.texto("estudiantes", "estudiantes-carga.csv")));
+        int usuarios = opciones.entero("usuarios", 200);
+        Duration duracion = Duration.ofSeconds(opciones.largo("duracion-s", 120));
+        Duration rampa = Duration.ofSeconds(opciones.largo("rampa-s", 30));
+
+        PruebaCarga prueba = new PruebaCarga(opciones, codigos);
+        prueba.cargarAsignaturas();
+        System.out.printf("🚀 %d usuarios virtuales durante %d s (rampa de %d s) contra %s, %d asignaturas%n",
+                usuarios, duracion.toSeconds(), rampa.toSeconds(), prueba.baseUrl, prueba.asignaturas.size());
+
+        long inicio = System.nanoTime();
+        prueba.ejecutar(usuarios, duracion, rampa);
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+
+        ReporteCarga reporte = new ReporteCarga(prueba.metricas, segundos, usuarios, opciones.texto("etiqueta", ""));
+        System.out.println(reporte.tabla());
+        Path salida = Path.of(opciones.texto("salida", "resultado-carga.json"));
+        reporte.guardar(salida);
+        System.out.println("📄 Resultado guardado en " + salida.toAbsolutePath());
+    }
+
+    static List<String> leerCodigos(Path archivo) throws IOException {
+        List<String> codigos = new ArrayList<>();
+        for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+            String[] partes = linea.split(",");
+            if (partes.length == 2 && !partes[0].equals("id_usuario")) {
+                codigos.add(partes[1].trim());
+            }
+        }
+        if (codigos.isEmpty()) {
+            throw new IllegalStateException("Sin estudiantes en " + archivo + ": ejecutar antes GeneradorDatos");
+        }
+        return codigos;
+    }
+
+    /**
+     * Ids de asignaturas para las búsquedas, con la sesión del primer estudiante
+     */
+    void cargarAsignaturas() throws IOException, InterruptedException {
+        Sesion sesion = login(codigos.get(0));
+        if (sesion == null) {
+            throw new IllegalStateException("No se pudo iniciar sesión con " + codigos.get(0) + " en " + baseUrl);
+        }
+        HttpResponse<String> respuesta = cliente.send(peticion("/api/asignaturas/list", sesion).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<Integer> ids = new ArrayList<>();
+        for (JsonNode asignatura : json.readTree(respuesta.body())) {
+            ids.add(asignatura.path("idAsignatura").asInt());
+        }
+        asignaturas = ids;
+    }
+
+    void ejecutar(int usuarios, Duration duracion, Duration rampa) throws InterruptedException {
+        long fin = System.nanoTime() + duracion.toNanos();
+        ExecutorService hilos = Executors.newFixedThreadPool(usuarios);
+        for (int i = 0; i < usuarios; i++) {
+            long espera = rampa.toMillis() * i / usuarios;
+            hilos.execute(() -> usuarioVirtual(espera, fin));
+        }
+        hilos.shutdown();
+        if (!hilos.awaitTermination(duracion.toSeconds() + 60, TimeUnit.SECONDS)) {
+            hilos.shutdownNow();
+        }
+    }
+
+    private void usuarioVirtual(long esperaInicialMs, long fin) {
+        try {
+            Thread.sleep(esperaInicialMs);
+            while (System.nanoTime() < fin) {
+                iteracion();
+                Thread.sleep(pausaMs > 0 ? ThreadLocalRandom.current().nextLong(pausaMs * 2) : 0);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void iteracion() throws InterruptedException {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        try {
+            Sesion sesion = login(codigos.get(aleatorio.nextInt(codigos.size())));
+            if (sesion == null || asignaturas.isEmpty()) {
+                return;
+            }
+
+            int idAsignatura = asignaturas.get(aleatorio.nextInt(asignaturas.size()));
+            HttpResponse<String> busqueda = medir(BUSCAR, peticion("/api/disponibilidades/franjas-libres/buscar?idAsignatura="
+                    + idAsignatura + "&limite=" + limiteBusqueda, sesion).GET());
+            if (busqueda == null || busqueda.statusCode() != 200) {
+                return;
+            }
+            JsonNode franjas = json.readTree(busqueda.body()).path("franjas");
+            if (franjas.isEmpty()) {
+                metricas.incrementar(ReporteCarga.PREFIJO + "sin_franjas");
+                return;
+            }
+
+            JsonNode franja = franjas.get(aleatorio.nextInt(franjas.size()));
+            ObjectNode reserva = json.createObjectNode();
+            reserva.set("idDisponibilidad", franja.get("idDisponibilidad"));
+            reserva.set("idPlantilla", franja.get("idPlantilla"));
+            reserva.set("fecha", franja.get("fecha"));
+            reserva.put("idEstudiante", sesion.idUsuario);
+            reserva.set("horaInicio", franja.get("horaInicio"));
+            reserva.set("horaFin", franja.get("horaFin"));
+            reserva.put("modalidad", "Presencial");
+            reserva.put("observaciones", "Prueba de carga");
+            HttpResponse<String> creada = medir(RESERVAR, peticion("/api/reservas/", sesion)
+                    .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(reserva))));
+            if (creada == null || creada.statusCode() != 201) {
+                return;
+            }
+
+            if (aleatorio.nextDouble() < probabilidadCancelar) {
+                int idReserva = json.readTree(creada.body()).path("idReserva").asInt();
+                medir(CANCELAR, peticion("/api/reservas/" + idReserva + "/cancelar", sesion)
+                        .PUT(HttpRequest.BodyPublishers.ofString("{\"razonCancelacion\":\"Prueba de carga\"}")));
+            }
+        } catch (IOException e) {
+            metricas.incrementar(ReporteCarga.PREFIJO + "respuestas_invalidas");
+        }
+    }
+
+    private record Sesion(String token, int idUsuario) {
+    }
+
+    private Sesion login(String codigo) throws IOException, InterruptedException {
+        ObjectNode cuerpo = json.createObjectNode().put("codigo", codigo).put("contrasena", contrasena);
+        HttpResponse<String> respuesta = medir(LOGIN, HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(cuerpo))));
+        if (respuesta == null || respuesta.statusCode() != 200) {
+            return null;
+        }
+        JsonNode datos = json.readTree(respuesta.body());
+        return new Sesion(datos.path("token").asText(), datos.path("idUsuario").asInt());
+    }
+
+    private HttpRequest.Builder peticion(String ruta, Sesion sesion) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + ruta))
+                .header("Authorization", "Bearer " + sesion.token)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    /**
+     * Envía la petición y registra su tiempo y resultado bajo el nombre del endpoint
+     * @return la respuesta, o null si falló la conexión o venció el timeout
+     */
+    private HttpResponse<String> medir(String endpoint, HttpRequest.Builder peticion) throws InterruptedException {
+        long inicio = System.nanoTime();
+        try {
+            HttpResponse<String> respuesta = cliente.send(peticion.build(), HttpResponse.BodyHandlers.ofString());
+            metricas.registrarTiempo(ReporteCarga.PREFIJO + endpoint, System.nanoTime() - inicio);
+            int estado = respuesta.statusCode();
+            if ((estado == 400 || estado == 409) && endpoint.equals(RESERVAR)) {
+                metricas.incrementar(ReporteCarga.PREFIJO + endpoint + ".conflictos");
+            } else if (estado >= 400) {
+                metricas.incrementar(ReporteCarga.PREFIJO + endpoint + ".errores");
+            }
+            return respuesta;
+        } catch (IOException e) {
+            metricas.registrarTiempo(ReporteCarga.PREFIJO + endpoint, System.nanoTime() - inicio);
+            metricas.incrementar(ReporteCarga.PREFIJO + endpoint + ".errores");
+            return null;
+        }
+    }
+}
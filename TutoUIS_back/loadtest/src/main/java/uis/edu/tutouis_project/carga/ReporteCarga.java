@@ -0,0 +1,136 @@
+package uis.edu.tutouis_project.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resumen de una corrida de PruebaCarga por endpoint: peticiones, errores, conflictos, peticiones por
+ * segundo y p50/p95/p99/máximo en ms (estimados desde los histogramas de RegistroMetricas).
+ * El JSON guardado sirve para comparar corridas antes y después de un cambio (comparar()), por ejemplo
+ * hilos de plataforma contra hilos virtuales con la misma latencia de calendario.
+ */
+class ReporteCarga {
+
+    static final String PREFIJO = "carga.";
+
+    private static final List<String> ENDPOINTS = List.of(
+            PruebaCarga.LOGIN, PruebaCarga.BUSCAR, PruebaCarga.RESERVAR, PruebaCarga.CANCELAR);
+
+    private final RegistroMetricas metricas;
+    private final double segundos;
+    private final int usuarios;
+    private final String etiqueta;
+
+    ReporteCarga(RegistroMetricas metricas, double segundos, int usuarios, String etiqueta) {
+        this.metricas = metricas;
+        this.segundos = segundos;
+        this.usuarios = usuarios;
+        this.etiqueta = etiqueta;
+    }
+
+    record Fila(String endpoint, long peticiones, long errores, long conflictos, double rps,
+                double p50Ms, double p95Ms, double p99Ms, double maximoMs) {
+    }
+
+    List<Fila> filas() {
+        return ENDPOINTS.stream().map(this::fila).toList();
+    }
+
+    private Fila fila(String endpoint) {
+        RegistroMetricas.Temporizador temporizador = metricas.obtenerTemporizador(PREFIJO + endpoint);
+        long peticiones = temporizador != null ? temporizador.getCuenta() : 0;
+        return new Fila(endpoint, peticiones,
+                metricas.obtenerContador(PREFIJO + endpoint + ".errores"),
+                metricas.obtenerContador(PREFIJO + endpoint + ".conflictos"),
+                segundos > 0 ? peticiones / segundos : 0.0,
+                temporizador != null ? temporizador.percentilMs(0.50) : 0.0,
+                temporizador != null ? temporizador.percentilMs(0.95) : 0.0,
+                temporizador != null ? temporizador.percentilMs(0.99) : 0.0,
+                temporizador != null ? temporizador.getMaximoNanos() / 1_000_000.0 : 0.0);
+    }
+
+    String tabla() {
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "%n📊 %s%d usuarios, %.1f s%n",
+                etiqueta.isEmpty() ? "" : etiqueta + ": ", usuarios, segundos));
+        texto.append(String.format(Locale.ROOT, "%-50s %10s %8s %10s %9s %9s %9s %9s %9s%n", "endpoint",
+                "peticiones", "errores", "conflictos", "rps", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Fila fila : filas()) {
+            texto.append(String.format(Locale.ROOT, "%-50s %10d %8d %10d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    fila.endpoint(), fila.peticiones(), fila.errores(), fila.conflictos(), fila.rps(),
+                    fila.p50Ms(), fila.p95Ms(), fila.p99Ms(), fila.maximoMs()));
+        }
+        texto.append(String.format(Locale.ROOT, "Búsquedas sin franjas: %d, respuestas inválidas: %d%n",
+                metricas.obtenerContador(PREFIJO + "sin_franjas"),
+                metricas.obtenerContador(PREFIJO + "respuestas_invalidas")));
+        return texto.toString();
+    }
+
+    void guardar(Path archivo) throws IOException {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("etiqueta", etiqueta);
+        resultado.put("usuarios", usuarios);
+        resultado.put("segundos", segundos);
+        resultado.put("endpoints", filas());
+        resultado.put("busquedasSinFranjas", metricas.obtenerContador(PREFIJO + "sin_franjas"));
+        resultado.put("respuestasInvalidas", metricas.obtenerContador(PREFIJO + "respuestas_invalidas"));
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(archivo.toFile(), resultado);
+    }
+
+    /**
+     * Tabla de dos corridas guardadas, endpoint por endpoint: rps, p95, p99 y errores de cada una y la
+     * variación porcentual de la segunda respecto de la primera
+     */
+    static String comparar(Path base, Path otra) throws IOException {
+        ObjectMapper json = new ObjectMapper();
+        JsonNode a = json.readTree(base.toFile());
+        JsonNode b = json.readTree(otra.toFile());
+        StringBuilder texto = new StringBuilder();
+        texto.append(String.format(Locale.ROOT, "%n📊 %s (A) contra %s (B)%n", nombre(a, base), nombre(b, otra)));
+        texto.append(String.format(Locale.ROOT, "%-50s %9s %9s %7s %9s %9s %7s %9s %9s %7s %8s %8s%n", "endpoint",
+                "rps A", "rps B", "Δ", "p95 A", "p95 B", "Δ", "p99 A", "p99 B", "Δ", "err A", "err B"));
+        for (String endpoint : ENDPOINTS) {
+            JsonNode filaA = buscar(a, endpoint);
+            JsonNode filaB = buscar(b, endpoint);
+            texto.append(String.format(Locale.ROOT,
+                    "%-50s %9.1f %9.1f %7s %9.1f %9.1f %7s %9.1f %9.1f %7s %8d %8d%n", endpoint,
+                    filaA.path("rps").asDouble(), filaB.path("rps").asDouble(), variacion(filaA, filaB, "rps"),
+                    filaA.path("p95Ms").asDouble(), filaB.path("p95Ms").asDouble(), variacion(filaA, filaB, "p95Ms"),
+                    filaA.path("p99Ms").asDouble(), filaB.path("p99Ms").asDouble(), variacion(filaA, filaB, "p99Ms"),
+                    filaA.path("errores").asLong(), filaB.path("errores").asLong()));
+        }
+        return texto.toString();
+    }
+
+    private static String nombre(JsonNode resultado, Path archivo) {
+        String etiqueta = resultado.path("etiqueta").asText("");
+        return etiqueta.isEmpty() ? archivo.getFileName().toString() : etiqueta;
+    }
+
+    private static JsonNode buscar(JsonNode resultado, String endpoint) {
+        for (JsonNode fila : resultado.path("endpoints")) {
+            if (endpoint.equals(fila.path("endpoint").asText())) {
+                return fila;
+            }
+        }
+        return MissingNode.getInstance();
+    }
+
+    private static String variacion(JsonNode a, JsonNode b, String campo) {
+        double antes = a.path(campo).asDouble();
+        if (antes == 0) {
+            return "-";
+        }
+        return String.format(Locale.ROOT, "%+.0f%%", (b.path(campo).asDouble() - antes) * 100 / antes);
+    }
+}
@@ -0,0 +1,55 @@
+package uis.edu.tutouis_project.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Modo de ejecución de las peticiones, elegido con spring.threads.virtual.enabled (TUTOUIS_HILOS_VIRTUALES).
+ *
+ * En modo virtual Spring Boot atiende en hilos virtuales las peticiones de Tomcat, las tareas @Scheduled
+ * (outbox de calendario, reconstrucción del buscador, verificaciones nocturnas) y la ejecución asíncrona de
+ * MVC (exportación NDJSON), y LimitePeticionesFilter reemplaza al pool de Tomcat como tope. Los hilos
+ * virtuales necesitan Java 21: en una JVM anterior la opción se ignora y todo sigue en hilos de plataforma.
+ * Al arrancar se informa el modo efectivo.
+ */
+@Configuration
+public class EjecucionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EjecucionConfig.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean hilosVirtualesSolicitados;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int hilosTomcat;
+
+    @Value("${ejecucion.peticiones.max-concurrentes:200}")
+    private int peticionesVirtuales;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int conexiones;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void informarModo() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("🧵 Peticiones, tareas programadas y trabajo asíncrono en hilos virtuales: hasta {} peticiones a la vez "
+                    + "({} conexiones a MySQL)", peticionesVirtuales, conexiones);
+            return;
+        }
+        if (hilosVirtualesSolicitados) {
+            log.warn("⚠️ spring.threads.virtual.enabled=true necesita Java 21 o superior y esta JVM es Java {}: "
+                    + "se usan hilos de plataforma", Runtime.version().feature());
+        }
+        log.info("🧵 Hilos de plataforma: hasta {} peticiones a la vez ({} conexiones a MySQL)", hilosTomcat, conexiones);
+    }
+}
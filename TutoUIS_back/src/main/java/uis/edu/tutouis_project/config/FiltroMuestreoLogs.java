@@ -0,0 +1,121 @@
+package uis.edu.tutouis_project.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Filtro de logback que limita cuántos eventos por segundo deja pasar cada logger, para que un endpoint
+ * muy llamado no sature la cola del appender asíncrono ni la consola.
+ *
+ * - limitePorSegundo: límite por defecto de cada logger (0 = sin límite).
+ * - limites: límites por prefijo de logger, "prefijo=n,prefijo=n"; gana el prefijo más largo.
+ * - nivelSiempre: los eventos de este nivel o superior (WARN por defecto) nunca se descartan.
+ *
+ * Los eventos descartados se cuentan por logger (descartados()) y se exponen en /api/logs.
+ */
+public class FiltroMuestreoLogs extends Filter<ILoggingEvent> {
+
+    private static final Map<String, LongAdder> DESCARTADOS = new ConcurrentHashMap<>();
+
+    private int limitePorSegundo = 100;
+    private final Map<String, Integer> limites = new ConcurrentHashMap<>();
+    private Level nivelSiempre = Level.WARN;
+
+    private final Map<String, Ventana> ventanas = new ConcurrentHashMap<>();
+
+    LongSupplier reloj = System::currentTimeMillis;
+
+    @Override
+    public FilterReply decide(ILoggingEvent evento) {
+        if (!isStarted() || evento.getLevel().isGreaterOrEqual(nivelSiempre)) {
+            return FilterReply.NEUTRAL;
+        }
+        String logger = evento.getLoggerName();
+        Ventana ventana = ventanas.computeIfAbsent(logger, l -> new Ventana(limiteDe(l)));
+        if (ventana.limite <= 0 || ventana.admitir(reloj.getAsLong() / 1000)) {
+            return FilterReply.NEUTRAL;
+        }
+        DESCARTADOS.computeIfAbsent(logger, l -> new LongAdder()).increment();
+        return FilterReply.DENY;
+    }
+
+    int limiteDe(String logger) {
+        String mejor = null;
+        for (String prefijo : limites.keySet()) {
+            boolean coincide = logger.equals(prefijo) || logger.startsWith(prefijo + ".");
+            if (coincide && (mejor == null || prefijo.length() > mejor.length())) {
+                mejor = prefijo;
+            }
+        }
+        return mejor != null ? limites.get(mejor) : limitePorSegundo;
+    }
+
+    public void setLimitePorSegundo(int limitePorSegundo) {
+        this.limitePorSegundo = limitePorSegundo;
+        ventanas.clear();
+    }
+
+    public void setLimites(String texto) {
+        limites.clear();
+        ventanas.clear();
+        if (texto == null || texto.isBlank()) {
+            return;
+        }
+        for (String entrada : texto.split(",")) {
+            String[] partes = entrada.split("=");
+            if (partes.length != 2) {
+                addWarn("Límite de logs ignorado (se espera prefijo=n): " + entrada);
+                continue;
+            }
+            try {
+                limites.put(partes[0].trim(), Integer.parseInt(partes[1].trim()));
+            } catch (NumberFormatException e) {
+                addWarn("Límite de logs ignorado (no es un número): " + entrada);
+            }
+        }
+    }
+
+    public void setNivelSiempre(String nivel) {
+        this.nivelSiempre = Level.toLevel(nivel, Level.WARN);
+    }
+
+    /**
+     * Eventos descartados por logger desde el arranque
+     */
+    public static Map<String, Long> descartados() {
+        Map<String, Long> resultado = new TreeMap<>();
+        DESCARTADOS.forEach((logger, contador) -> resultado.put(logger, contador.sum()));
+        return resultado;
+    }
+
+    /**
+     * Ventana fija de un segundo por logger. Es más simple que un token bucket y basta para
+     * acotar ráfagas: como mucho deja pasar el doble del límite en el cambio de segundo
+     */
+    private static final class Ventana {
+
+        private final int limite;
+        private long segundo = -1;
+        private int emitidos;
+
+        private Ventana(int limite) {
+            this.limite = limite;
+        }
+
+        private synchronized boolean admitir(long segundoActual) {
+            if (segundoActual != segundo) {
+                segundo = segundoActual;
+                emitidos = 0;
+            }
+            return ++emitidos <= limite;
+        }
+    }
+}
@@ -4,20 +4,28 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.List;
 
 import uis.edu.tutouis_project.util.JwtUtil;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private static final List<GrantedAuthority> ROLES_ADMINISTRADOR = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -27,28 +35,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         try {
             String authHeader = request.getHeader("Authorization");
-            String token = null;
-            String codigo = null;
+            JwtUtil.Identidad identidad = null;
             
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                token = authHeader.substring(7);
-                
-                // Primero validar que el token no esté expirado
-                if (!jwtUtil.isTokenExpired(token) && jwtUtil.validateToken(token)) {
-                    codigo = jwtUtil.getCodigoFromToken(token);
-                }
+                // Una sola verificación (firma + expiración); los tokens ya verificados salen de caché
+                identidad = jwtUtil.verificar(authHeader.substring(7));
             }
             
-            if (codigo != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (identidad != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                List<GrantedAuthority> roles = identidad.esAdministrador() ? ROLES_ADMINISTRADOR : List.of();
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(codigo, null, new ArrayList<>());
+                        new UsernamePasswordAuthenticationToken(identidad.codigo(), null, roles);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-                System.out.println("✅ Token validado para usuario: " + codigo);
             }
         } catch (Exception e) {
-            System.err.println("❌ Error en JWT Filter: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("❌ Error en JWT Filter: {}", e.getMessage(), e);
         }
         
         filterChain.doFilter(request, response);
@@ -0,0 +1,80 @@
+package uis.edu.tutouis_project.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tope de peticiones atendidas a la vez cuando Tomcat corre en hilos virtuales.
+ *
+ * Con hilos de plataforma el tope lo pone el pool de Tomcat (server.tomcat.threads.max); con hilos virtuales
+ * cada petición tiene su propio hilo y una ráfaga se convertiría en miles de hilos esperando una conexión de
+ * Hikari hasta agotar connection-timeout. Aquí esperan un turno como máximo ejecucion.peticiones.espera-ms y,
+ * si no lo consiguen, reciben 503 con Retry-After. Solo existe en modo virtual (Java 21+ y
+ * spring.threads.virtual.enabled=true).
+ *
+ * Métricas: ejecucion.peticiones.espera (histograma del tiempo hasta obtener turno) y
+ * ejecucion.peticiones.rechazadas.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class LimitePeticionesFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    private final Semaphore turnos;
+    private final long esperaMs;
+
+    public LimitePeticionesFilter(@Value("${ejecucion.peticiones.max-concurrentes:200}") int maxConcurrentes,
+                                  @Value("${ejecucion.peticiones.espera-ms:2000}") long esperaMs) {
+        this.turnos = new Semaphore(maxConcurrentes, true);
+        this.esperaMs = esperaMs;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        boolean conTurno;
+        try {
+            conTurno = turnos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            conTurno = false;
+        }
+        metricas.registrarTiempo("ejecucion.peticiones.espera", System.nanoTime() - inicio);
+        if (!conTurno) {
+            metricas.incrementar("ejecucion.peticiones.rechazadas");
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"error\":\"SOBRECARGA\",\"mensaje\":\"El servidor está atendiendo demasiadas peticiones, intenta de nuevo en un momento\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            turnos.release();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package uis.edu.tutouis_project.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uis.edu.tutouis_project.util.ContadorSentencias;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+/**
+ * Métricas por método público de servicio:
+ * - servicio.&lt;Clase.método&gt;: histograma de la duración de cada llamada (percentiles en /api/metricas
+ *   y en /api/metricas/prometheus).
+ * - sql.metodo.&lt;Clase.método&gt;.*: sentencias SQL, filas y tiempo en la base de datos, si la medición
+ *   de SQL está habilitada (sql.medicion.habilitada).
+ * Las cifras incluyen lo que ejecuten los servicios que llama; las llamadas internas dentro de la
+ * misma clase no pasan por el proxy y no se cuentan aparte. Fuera de una petición HTTP (tareas
+ * programadas) abre su propia medición de SQL.
+ */
+@Aspect
+@Component
+public class MedicionServiciosAspect {
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Value("${sql.medicion.habilitada:true}")
+    private boolean medirSql;
+
+    @Around("execution(public * uis.edu.tutouis_project.servicio..*(..))")
+    public Object medir(ProceedingJoinPoint punto) throws Throwable {
+        String metodo = punto.getSignature().getDeclaringType().getSimpleName() + "." + punto.getSignature().getName();
+        if (!medirSql) {
+            long inicio = System.nanoTime();
+            try {
+                return punto.proceed();
+            } finally {
+                metricas.registrarTiempo("servicio." + metodo, System.nanoTime() - inicio);
+            }
+        }
+
+        ContadorSentencias.Medicion propia = ContadorSentencias.iniciar();
+        ContadorSentencias.Medicion medicion = propia != null ? propia : ContadorSentencias.actual();
+        long sentencias = medicion.getSentencias();
+        long filas = medicion.getFilas();
+        long nanos = medicion.getNanos();
+        long inicio = System.nanoTime();
+        try {
+            return punto.proceed();
+        } finally {
+            metricas.registrarTiempo("servicio." + metodo, System.nanoTime() - inicio);
+            ContadorSentencias.terminar(propia);
+            String prefijo = "sql.metodo." + metodo;
+            metricas.incrementar(prefijo + ".llamadas");
+            metricas.incrementar(prefijo + ".sentencias", medicion.getSentencias() - sentencias);
+            metricas.incrementar(prefijo + ".filas", medicion.getFilas() - filas);
+            metricas.registrarTiempo(prefijo + ".tiempo", medicion.getNanos() - nanos);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package uis.edu.tutouis_project.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uis.edu.tutouis_project.util.DataSourceContador;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource de la aplicación en un DataSourceContador para medir las sentencias SQL
+ * por petición (MedicionSqlFilter) y por método de servicio (MedicionServiciosAspect).
+ * Se desactiva con sql.medicion.habilitada=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.medicion.habilitada", havingValue = "true", matchIfMissing = true)
+public class MedicionSqlConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicionSqlConfig.class);
+
+    // static: los BeanPostProcessor se crean antes que el resto de beans de la configuración
+    @Bean
+    public static BeanPostProcessor contadorSentenciasPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceContador)) {
+                    log.info("📊 Medición de sentencias SQL activa sobre el DataSource '{}'", beanName);
+                    return new DataSourceContador(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
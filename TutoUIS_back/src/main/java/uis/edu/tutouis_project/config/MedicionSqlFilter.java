@@ -0,0 +1,166 @@
+package uis.edu.tutouis_project.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import uis.edu.tutouis_project.util.ContadorSentencias;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mide las sentencias SQL de cada petición HTTP.
+ *
+ * - Acumula en RegistroMetricas, por ruta, las peticiones, sentencias, filas y el tiempo en la base de datos
+ *   (sql.peticion.&lt;MÉTODO ruta&gt;.*).
+ * - Las formas de SQL que se repiten sql.medicion.umbral-repeticiones veces o más en una misma petición
+ *   se registran como posible N+1 (log y contador sql.n_mas_1).
+ * - Con sql.medicion.cabeceras=true (desarrollo) agrega X-SQL-Sentencias, X-SQL-Filas, X-SQL-Tiempo-Ms
+ *   y X-SQL-Repetidas a la respuesta. Se escriben justo antes de enviar el cuerpo, así que no incluyen
+ *   las sentencias que se ejecuten mientras se serializa la respuesta.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MedicionSqlFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicionSqlFilter.class);
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Value("${sql.medicion.habilitada:true}")
+    private boolean habilitada;
+
+    @Value("${sql.medicion.cabeceras:false}")
+    private boolean cabeceras;
+
+    @Value("${sql.medicion.umbral-repeticiones:5}")
+    private int umbralRepeticiones;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !habilitada;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        ContadorSentencias.Medicion medicion = ContadorSentencias.iniciar();
+        if (medicion == null) {
+            // Ya se está midiendo en este hilo (forward interno): cuenta en la medición existente
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RespuestaConCabeceras respuesta = cabeceras ? new RespuestaConCabeceras(response, medicion) : null;
+        try {
+            filterChain.doFilter(request, respuesta != null ? respuesta : response);
+        } finally {
+            ContadorSentencias.terminar(medicion);
+            if (respuesta != null) {
+                respuesta.escribirCabeceras();
+            }
+            registrar(request, medicion);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, ContadorSentencias.Medicion medicion) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (patron == null) {
+            // Recursos estáticos, 404 o peticiones rechazadas antes de llegar a un controlador
+            return;
+        }
+        String ruta = request.getMethod() + " " + patron;
+        String prefijo = "sql.peticion." + ruta;
+        metricas.incrementar(prefijo + ".peticiones");
+        metricas.incrementar(prefijo + ".sentencias", medicion.getSentencias());
+        metricas.incrementar(prefijo + ".filas", medicion.getFilas());
+        metricas.registrarTiempo(prefijo + ".tiempo", medicion.getNanos());
+
+        Map<String, Integer> repetidas = medicion.repetidas(umbralRepeticiones);
+        if (!repetidas.isEmpty()) {
+            metricas.incrementar("sql.n_mas_1", repetidas.size());
+            repetidas.forEach((forma, veces) ->
+                    log.warn("⚠️ Posible N+1 en {}: {} ejecuciones de {}", ruta, veces, forma));
+        }
+    }
+
+    /**
+     * Agrega las cabeceras de la medición la primera vez que se va a escribir el cuerpo
+     * (después ya no se pueden modificar) o al terminar la petición si no hubo cuerpo
+     */
+    private final class RespuestaConCabeceras extends HttpServletResponseWrapper {
+
+        private final ContadorSentencias.Medicion medicion;
+        private boolean escritas;
+
+        private RespuestaConCabeceras(HttpServletResponse response, ContadorSentencias.Medicion medicion) {
+            super(response);
+            this.medicion = medicion;
+        }
+
+        private void escribirCabeceras() {
+            if (escritas || isCommitted()) {
+                return;
+            }
+            escritas = true;
+            setHeader("X-SQL-Sentencias", String.valueOf(medicion.getSentencias()));
+            setHeader("X-SQL-Filas", String.valueOf(medicion.getFilas()));
+            setHeader("X-SQL-Tiempo-Ms", String.format(Locale.ROOT, "%.1f", medicion.getNanos() / 1_000_000.0));
+            setHeader("X-SQL-Repetidas", String.valueOf(medicion.repetidas(umbralRepeticiones).size()));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            escribirCabeceras();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            escribirCabeceras();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            escribirCabeceras();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            escribirCabeceras();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            escribirCabeceras();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            escribirCabeceras();
+            super.sendRedirect(location);
+        }
+    }
+}
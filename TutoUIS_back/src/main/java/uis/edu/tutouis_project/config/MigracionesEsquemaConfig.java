@@ -0,0 +1,28 @@
+package uis.edu.tutouis_project.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import uis.edu.tutouis_project.util.MigradorEsquema;
+
+import javax.sql.DataSource;
+
+/**
+ * Aplica las migraciones de db/migracion al arrancar (ver MigradorEsquema).
+ * Depende del entityManagerFactory para correr después de que Hibernate cree o actualice las tablas,
+ * y antes de los ApplicationReadyEvent que recorren reservas y disponibilidades.
+ * Se desactiva con esquema.migraciones.habilitadas=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "esquema.migraciones.habilitadas", havingValue = "true", matchIfMissing = true)
+public class MigracionesEsquemaConfig {
+
+    @Bean(initMethod = "migrar")
+    @DependsOn("entityManagerFactory")
+    public MigradorEsquema migradorEsquema(DataSource dataSource,
+                                           @Value("${esquema.migraciones.ubicacion:classpath:db/migracion/*.sql}") String ubicacion) {
+        return new MigradorEsquema(dataSource, ubicacion);
+    }
+}
@@ -0,0 +1,110 @@
+package uis.edu.tutouis_project.config;
+
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Proveedor de caché de segundo nivel de Hibernate en el mismo proceso, sin dependencias externas.
+ *
+ * Pensado para los datos de referencia (roles, carreras, asignaturas y tablas de estados): pocas filas
+ * que casi nunca cambian. Cada región es un LinkedHashMap en orden de acceso acotado a
+ * tutouis.cache.max-entradas-por-region (se descarta la menos usada). La región de timestamps no se
+ * acota: si se perdiera la marca de una tabla, Hibernate tomaría por vigentes consultas ya obsoletas.
+ * La coherencia entre escrituras y lecturas la dan las estrategias de acceso de Hibernate (READ_WRITE);
+ * con varias instancias cada una tiene su propia copia.
+ */
+public class RegionFactoryEnMemoria extends RegionFactoryTemplate {
+
+    public static final String MAX_ENTRADAS = "tutouis.cache.max-entradas-por-region";
+
+    private int maxEntradas = 10_000;
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        Object valor = configValues.get(MAX_ENTRADAS);
+        if (valor != null) {
+            maxEntradas = Integer.parseInt(valor.toString().trim());
+        }
+    }
+
+    @Override
+    protected void releaseFromUse() {
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return new Almacen(maxEntradas);
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new Almacen(maxEntradas);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory) {
+        return new Almacen(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Contenido de una región. Las regiones de referencia son pequeñas y de muchas lecturas,
+     * un mapa sincronizado basta
+     */
+    static final class Almacen implements DomainDataStorageAccess {
+
+        private final Map<Object, Object> entradas;
+
+        Almacen(int maximo) {
+            this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, Object> mayor) {
+                    return size() > maximo;
+                }
+            };
+        }
+
+        @Override
+        public synchronized Object getFromCache(Object key, SharedSessionContractImplementor session) {
+            return entradas.get(key);
+        }
+
+        @Override
+        public synchronized void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+            entradas.put(key, value);
+        }
+
+        @Override
+        public synchronized boolean contains(Object key) {
+            return entradas.containsKey(key);
+        }
+
+        @Override
+        public synchronized void evictData() {
+            entradas.clear();
+        }
+
+        @Override
+        public synchronized void evictData(Object key) {
+            entradas.remove(key);
+        }
+
+        @Override
+        public void release() {
+            evictData();
+        }
+
+        synchronized int tamano() {
+            return entradas.size();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package uis.edu.tutouis_project.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca un método transaccional de servicio que se repite completo (ReintentoConcurrenciaAspect) cuando
+ * falla por un conflicto de concurrencia: versión optimista desactualizada, deadlock o espera de lock agotada.
+ * El método debe poder repetirse sin efectos fuera de la transacción que no se deshagan al revertirla.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReintentoConcurrencia {
+}
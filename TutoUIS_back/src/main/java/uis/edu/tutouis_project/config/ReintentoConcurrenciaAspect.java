@@ -0,0 +1,92 @@
+package uis.edu.tutouis_project.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uis.edu.tutouis_project.exception.ConflictoConcurrenciaException;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Repite los métodos marcados con @ReintentoConcurrencia cuando fallan por un conflicto de concurrencia
+ * (ConcurrencyFailureException: versión optimista desactualizada, deadlock, lock no obtenido).
+ *
+ * Va por fuera de @Transactional (precedencia más alta), así que cada intento es una transacción nueva que
+ * vuelve a leer las filas; entre intentos espera un backoff exponencial con jitter para que los que chocaron
+ * no vuelvan a chocar. Si el método se llama dentro de una transacción ya abierta no se reintenta: el
+ * conflicto sube hasta quien la abrió. Al agotar los intentos lanza ConflictoConcurrenciaException (409).
+ *
+ * Métricas por método (concurrencia.&lt;Clase.método&gt;.*): conflictos, reintentos, recuperadas (terminó
+ * bien después de reintentar) y agotadas.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReintentoConcurrenciaAspect {
+
+    private static final Logger log = LoggerFactory.getLogger(ReintentoConcurrenciaAspect.class);
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Value("${concurrencia.reintentos.max-intentos:3}")
+    private int maxIntentos;
+
+    @Value("${concurrencia.reintentos.espera-base-ms:20}")
+    private long esperaBaseMs;
+
+    @Around("@annotation(uis.edu.tutouis_project.config.ReintentoConcurrencia)")
+    public Object reintentar(ProceedingJoinPoint punto) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return punto.proceed();
+        }
+
+        String metodo = punto.getSignature().getDeclaringType().getSimpleName() + "." + punto.getSignature().getName();
+        String prefijo = "concurrencia." + metodo;
+        for (int intento = 1; ; intento++) {
+            try {
+                Object resultado = punto.proceed();
+                if (intento > 1) {
+                    metricas.incrementar(prefijo + ".recuperadas");
+                }
+                return resultado;
+            } catch (ConcurrencyFailureException e) {
+                metricas.incrementar(prefijo + ".conflictos");
+                if (intento >= maxIntentos) {
+                    metricas.incrementar(prefijo + ".agotadas");
+                    log.warn("⚠️ {}: conflicto de concurrencia en {} intento(s), se rinde: {}", metodo, intento,
+                            e.getMessage());
+                    throw new ConflictoConcurrenciaException(
+                            "Otra operación modificó los mismos datos al mismo tiempo, intenta de nuevo", e);
+                }
+                metricas.incrementar(prefijo + ".reintentos");
+                log.debug("🔁 {}: conflicto de concurrencia en el intento {}, se reintenta", metodo, intento);
+                esperar(intento, e);
+            }
+        }
+    }
+
+    private void esperar(int intento, ConcurrencyFailureException conflicto) {
+        if (esperaBaseMs <= 0) {
+            return;
+        }
+        long espera = esperaBaseMs * (1L << Math.min(intento - 1, 10))
+                + ThreadLocalRandom.current().nextLong(esperaBaseMs);
+        try {
+            Thread.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoConcurrenciaException("Reintento interrumpido", conflicto);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package uis.edu.tutouis_project.config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -43,6 +44,9 @@ public class SecurityConfig {
                     "/webjars/**",
                     "/swagger-resources/**"
                 ).permitAll()
+                // Operación del servidor: solo administradores (rol en el token, ver JwtAuthenticationFilter)
+                .requestMatchers(HttpMethod.PUT, "/api/logs/**").hasRole("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/metricas/cache/vaciar").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -1,14 +1,19 @@
 package uis.edu.tutouis_project.controlador;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.servicio.BuscadorFranjasService;
 import uis.edu.tutouis_project.servicio.IDisponibilidadService;
+import uis.edu.tutouis_project.util.OcupacionFranjas;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +29,9 @@ public class DisponibilidadController {
     @Autowired
     private uis.edu.tutouis_project.servicio.TutoriaEstadoService tutoriaEstadoService;
 
+    @Autowired
+    private BuscadorFranjasService buscadorFranjasService;
+
     @Operation(summary = "Listar todas las disponibilidades", description = "Requiere autenticación")
     @SecurityRequirement(name = "bearer-jwt")
     @GetMapping("/list")
@@ -43,6 +51,40 @@ public class DisponibilidadController {
         }
     }
 
+    @Operation(summary = "Buscar franjas libres por asignatura",
+            description = "Requiere autenticación. Franjas de 15 minutos con cupo, de la más próxima a la más lejana, "
+                    + "servidas desde un índice en memoria. Paginación por cursor")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/franjas-libres/buscar")
+    public ResponseEntity<?> buscarFranjasLibres(
+            @RequestParam Integer idAsignatura,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaDesde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime horaHasta,
+            @RequestParam(required = false) String modalidad,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite) {
+        try {
+            return ResponseEntity.ok(buscadorFranjasService.buscar(idAsignatura, desde, hasta, horaDesde, horaHasta,
+                    modalidad, cursor, limite));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Franjas libres de una disponibilidad",
+            description = "Requiere autenticación. Franjas de 15 minutos con asientos libres, sin cargar reservas")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/{id}/franjas-libres")
+    public ResponseEntity<List<OcupacionFranjas.Franja>> listarFranjasLibres(@PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(disponibilidadService.listarFranjasLibres(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @Operation(summary = "Listar disponibilidades por tutoría", description = "Requiere autenticación")
     @SecurityRequirement(name = "bearer-jwt")
     @GetMapping("/tutoria/{idTutoria}")
@@ -142,10 +184,11 @@ public class DisponibilidadController {
     @PostMapping("/actualizar-estados-tutorias")
     public ResponseEntity<?> actualizarEstadosTutoriasManualmente() {
         try {
-            tutoriaEstadoService.actualizarEstadosManualmente();
+            int actualizadas = tutoriaEstadoService.actualizarEstadosManualmente();
             return ResponseEntity.ok(Map.of(
                 "mensaje", "Actualización de estados de tutorías completada",
-                "descripcion", "Los estados de las tutorías han sido actualizados según la fecha/hora actual de sus disponibilidades"
+                "descripcion", "Los estados de las tutorías han sido actualizados según la fecha/hora actual de sus disponibilidades",
+                "actualizadas", actualizadas
             ));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
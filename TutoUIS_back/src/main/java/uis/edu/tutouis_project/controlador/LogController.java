@@ -0,0 +1,41 @@
+package uis.edu.tutouis_project.controlador;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import uis.edu.tutouis_project.servicio.ConfiguracionLogsService;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/logs")
+@CrossOrigin("*")
+public class LogController {
+
+    @Autowired
+    private ConfiguracionLogsService configuracionLogsService;
+
+    @Operation(summary = "Niveles de log y estado de la cola",
+            description = "Niveles configurados, eventos descartados por el muestreo y ocupación de la cola asíncrona. Requiere autenticación")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> obtenerEstado() {
+        return ResponseEntity.ok(configuracionLogsService.estado());
+    }
+
+    @Operation(summary = "Cambiar el nivel de un logger",
+            description = "Logger completo o alias (sql, sql-parametros, app). Ejemplo: PUT /api/logs/sql?nivel=DEBUG. "
+                    + "nivel=DEFAULT vuelve al nivel heredado. Solo administradores")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PutMapping("/{logger}")
+    public ResponseEntity<?> cambiarNivel(@PathVariable String logger, @RequestParam(required = false) String nivel) {
+        try {
+            String nombre = configuracionLogsService.cambiarNivel(logger, nivel);
+            return ResponseEntity.ok(Map.of("logger", nombre, "nivel", nivel != null ? nivel.toUpperCase() : "DEFAULT"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
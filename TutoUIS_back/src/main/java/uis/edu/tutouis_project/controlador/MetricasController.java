@@ -0,0 +1,55 @@
+package uis.edu.tutouis_project.controlador;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import uis.edu.tutouis_project.servicio.CacheReferenciaService;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/metricas")
+@CrossOrigin("*")
+public class MetricasController {
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Autowired
+    private CacheReferenciaService cacheReferenciaService;
+
+    @Operation(summary = "Métricas internas", description = "Contadores y tiempos acumulados desde el arranque. Requiere autenticación")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> obtenerMetricas() {
+        return ResponseEntity.ok(metricas.resumen());
+    }
+
+    @Operation(summary = "Métricas en formato Prometheus",
+            description = "Las mismas métricas en el formato de texto de Prometheus, con los tiempos como histogramas. Requiere autenticación")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping(value = "/prometheus", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public ResponseEntity<String> obtenerMetricasPrometheus() {
+        return ResponseEntity.ok(metricas.prometheus());
+    }
+
+    @Operation(summary = "Estadísticas de la caché de segundo nivel",
+            description = "Aciertos/fallos por región, caché de consultas y sentencias SQL por sesión. Requiere autenticación")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasCache() {
+        return ResponseEntity.ok(cacheReferenciaService.estadisticas());
+    }
+
+    @Operation(summary = "Vaciar la caché de datos de referencia",
+            description = "Para cambios hechos directamente en la base de datos. Solo administradores")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/cache/vaciar")
+    public ResponseEntity<Map<String, String>> vaciarCache() {
+        cacheReferenciaService.vaciar();
+        return ResponseEntity.ok(Map.of("mensaje", "Caché de datos de referencia vaciada"));
+    }
+}
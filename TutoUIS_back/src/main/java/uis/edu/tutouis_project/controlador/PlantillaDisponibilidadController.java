@@ -0,0 +1,89 @@
+package uis.edu.tutouis_project.controlador;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import uis.edu.tutouis_project.exception.ConflictoHorarioException;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.modelo.PlantillaDisponibilidad;
+import uis.edu.tutouis_project.servicio.PlantillaDisponibilidadService;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/plantillas")
+@CrossOrigin("*")
+@Tag(name = "plantilla-disponibilidad-controller", description = "Disponibilidades semanales recurrentes - Requiere autenticación")
+public class PlantillaDisponibilidadController {
+
+    @Autowired
+    private PlantillaDisponibilidadService plantillaService;
+
+    @Operation(summary = "Crear plantilla semanal", description = "Requiere autenticación. Las sesiones se generan al consultar /slots; "
+            + "responde 409 si alguna se cruza con otro horario del tutor")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/")
+    public ResponseEntity<?> crearPlantilla(@RequestBody PlantillaDisponibilidad plantilla) {
+        try {
+            return ResponseEntity.ok(plantillaService.crearPlantilla(plantilla));
+        } catch (ConflictoHorarioException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Listar plantillas por tutoría", description = "Requiere autenticación")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/tutoria/{idTutoria}")
+    public ResponseEntity<List<PlantillaDisponibilidad>> listarPorTutoria(@PathVariable Integer idTutoria) {
+        return ResponseEntity.ok(plantillaService.listarPorTutoria(idTutoria));
+    }
+
+    @Operation(summary = "Excluir una fecha de la plantilla", description = "Requiere autenticación")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PostMapping("/{id}/excepciones")
+    public ResponseEntity<?> agregarExcepcion(
+            @PathVariable Integer id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        try {
+            return ResponseEntity.ok(plantillaService.agregarExcepcion(id, fecha));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Desactivar plantilla", description = "Requiere autenticación. Las sesiones ya reservadas se conservan")
+    @SecurityRequirement(name = "bearer-jwt")
+    @PutMapping("/{id}/desactivar")
+    public ResponseEntity<?> desactivarPlantilla(@PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(plantillaService.desactivarPlantilla(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Sesiones en un rango de fechas",
+            description = "Requiere autenticación. Las sesiones sin idDisponibilidad se reservan enviando idPlantilla y fecha")
+    @SecurityRequirement(name = "bearer-jwt")
+    @GetMapping("/slots")
+    public ResponseEntity<?> listarSesiones(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) Integer idTutoria) {
+        try {
+            List<Disponibilidad> sesiones = plantillaService.expandir(idTutoria, desde, hasta);
+            return ResponseEntity.ok(sesiones);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
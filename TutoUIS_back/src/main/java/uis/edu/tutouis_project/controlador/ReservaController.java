@@ -1,19 +1,27 @@
 package uis.edu.tutouis_project.controlador;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import uis.edu.tutouis_project.exception.ReservaDuplicadaException;
 import uis.edu.tutouis_project.modelo.Reserva;
 import uis.edu.tutouis_project.modelo.dto.CreateReservaDto;
 import uis.edu.tutouis_project.modelo.dto.UpdateReservaDto;
 import uis.edu.tutouis_project.modelo.dto.ReservaResponseDto;
+import uis.edu.tutouis_project.modelo.dto.FiltroReservasDto;
+import uis.edu.tutouis_project.modelo.dto.PaginaReservasDto;
 import uis.edu.tutouis_project.servicio.IReservaService;
 
 import java.util.HashMap;
@@ -26,25 +34,53 @@ import java.util.Map;
 @Tag(name = "reserva-controller", description = "CRUD de Reservas - Requiere autenticación")
 public class ReservaController {
 
+    private static final Logger log = LoggerFactory.getLogger(ReservaController.class);
+
     @Autowired
     private IReservaService reservaService;
 
-    @Operation(summary = "Listar todas las reservas", description = "Requiere autenticación")
+    @Operation(summary = "Listar reservas paginadas",
+               description = "Requiere autenticación. Página por cursor de la más reciente a la más antigua; " +
+                             "para la siguiente página enviar el siguienteCursor de la respuesta")
     @SecurityRequirement(name = "bearer-jwt")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Lista de reservas obtenida exitosamente"),
+        @ApiResponse(responseCode = "200", description = "Página de reservas obtenida exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Cursor inválido"),
         @ApiResponse(responseCode = "401", description = "No autorizado")
     })
     @GetMapping("/list")
-    public ResponseEntity<List<ReservaResponseDto>> listarReservas() {
+    public ResponseEntity<?> listarReservas(FiltroReservasDto filtro,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limite) {
         try {
-            List<ReservaResponseDto> reservas = reservaService.listarTodasLasReservas();
-            return ResponseEntity.ok(reservas);
+            PaginaReservasDto pagina = reservaService.listarReservas(filtro, cursor, limite);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("mensaje", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @Operation(summary = "Exportar reservas (NDJSON)",
+               description = "Requiere autenticación. Transmite todas las reservas que cumplen el filtro, una por línea, " +
+                             "sin cargarlas en memoria")
+    @SecurityRequirement(name = "bearer-jwt")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+        @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarReservas(FiltroReservasDto filtro) {
+        StreamingResponseBody cuerpo = salida -> reservaService.exportarReservas(filtro, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservas.ndjson\"")
+                .body(cuerpo);
+    }
+
     @Operation(summary = "Obtener reserva por ID", description = "Requiere autenticación")
     @SecurityRequirement(name = "bearer-jwt")
     @ApiResponses(value = {
@@ -78,18 +114,16 @@ public class ReservaController {
     @GetMapping("/estudiante/{idUsuario}")
     public ResponseEntity<?> misReservas(@PathVariable Integer idUsuario) {
         try {
-            System.out.println("🔍 Obteniendo reservas para usuario ID: " + idUsuario);
             List<ReservaResponseDto> reservas = reservaService.obtenerReservasDtosPorUsuario(idUsuario);
-            System.out.println("✅ Reservas encontradas: " + reservas.size());
+            log.debug("🔍 Reservas del usuario {}: {}", idUsuario, reservas.size());
             return ResponseEntity.ok(reservas);
         } catch (IllegalArgumentException e) {
-            System.out.println("❌ Error de validación: " + e.getMessage());
+            log.debug("❌ Error de validación: {}", e.getMessage());
             Map<String, String> error = new HashMap<>();
             error.put("mensaje", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         } catch (Exception e) {
-            System.out.println("💥 Error interno: " + e.getMessage());
-            e.printStackTrace();
+            log.error("💥 Error obteniendo reservas del usuario {}", idUsuario, e);
             Map<String, String> error = new HashMap<>();
             error.put("mensaje", "Error interno del servidor");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
@@ -148,41 +182,37 @@ public class ReservaController {
         @ApiResponse(responseCode = "201", description = "Reserva creada exitosamente"),
         @ApiResponse(responseCode = "400", description = "Datos inválidos o validación fallida"),
         @ApiResponse(responseCode = "401", description = "No autorizado"),
+        @ApiResponse(responseCode = "409", description = "El estudiante ya tiene una reserva activa en ese horario"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @PostMapping("/")
     public ResponseEntity<?> crearReserva(@Valid @RequestBody CreateReservaDto createDto) {
-        System.out.println("🌐 ReservaController: Recibida petición POST /api/reservas/");
         try {
             ReservaResponseDto nuevaReserva = reservaService.crearReserva(createDto);
-            System.out.println("✅ ReservaController: Reserva creada exitosamente");
             return ResponseEntity.status(HttpStatus.CREATED).body(nuevaReserva);
+        } catch (ReservaDuplicadaException e) {
+            // GlobalExceptionHandler la responde con 409
+            throw e;
         } catch (IllegalArgumentException e) {
-            System.out.println("⚠️ ReservaController: IllegalArgumentException capturada");
-            System.out.println("   Mensaje: " + e.getMessage());
+            log.debug("⚠️ Reserva rechazada: {}", e.getMessage());
             Map<String, String> error = new HashMap<>();
             error.put("mensaje", e.getMessage());
-            System.out.println("   Enviando respuesta 400 con: " + error);
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
                     .header("Content-Type", "application/json")
                     .body(error);
         } catch (RuntimeException e) {
-            System.out.println("❌ ReservaController: RuntimeException capturada");
-            System.out.println("   Mensaje: " + e.getMessage());
+            log.warn("❌ Error creando reserva: {}", e.getMessage());
             Map<String, String> error = new HashMap<>();
             error.put("mensaje", e.getMessage());
-            System.out.println("   Enviando respuesta 400 con: " + error);
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
                     .header("Content-Type", "application/json")
                     .body(error);
         } catch (Exception e) {
-            System.out.println("💥 ReservaController: Exception genérica capturada");
-            System.out.println("   Mensaje: " + e.getMessage());
+            log.error("💥 Error inesperado creando reserva", e);
             Map<String, String> error = new HashMap<>();
             error.put("mensaje", "Error al crear reserva: " + e.getMessage());
-            System.out.println("   Enviando respuesta 500 con: " + error);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
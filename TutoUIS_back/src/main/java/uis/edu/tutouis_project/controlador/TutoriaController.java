@@ -1,5 +1,7 @@
 package uis.edu.tutouis_project.controlador;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -9,6 +11,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import uis.edu.tutouis_project.dto.TutoriaResponseDto;
 import uis.edu.tutouis_project.modelo.Tutoria;
 import uis.edu.tutouis_project.repositorio.TutoriaRepository;
+import uis.edu.tutouis_project.servicio.BuscadorFranjasService;
+import uis.edu.tutouis_project.servicio.IActividadService;
 import uis.edu.tutouis_project.servicio.TutoriaService;
 
 import java.util.List;
@@ -19,31 +23,30 @@ import java.util.List;
 @Tag(name = "tutoria-controller", description = "CRUD de Tutorías - Requiere autenticación")
 public class TutoriaController {
 
+    private static final Logger log = LoggerFactory.getLogger(TutoriaController.class);
+
     @Autowired
     private TutoriaRepository tutoriaRepository;
     
     @Autowired
     private TutoriaService tutoriaService;
 
+    @Autowired
+    private IActividadService actividadService;
+
+    @Autowired
+    private BuscadorFranjasService buscadorFranjasService;
+
     @Operation(summary = "Listar todas las tutorías", description = "Requiere autenticación")
     @SecurityRequirement(name = "bearer-jwt")
     @GetMapping("/list")
     public List<TutoriaResponseDto> listarTutorias() {
-        System.out.println("🔵 TutoriaController: Iniciando listarTutorias()");
         try {
             List<TutoriaResponseDto> tutorias = tutoriaService.obtenerTodasLasTutorias();
-            System.out.println("✅ TutoriaController: Se obtuvieron " + tutorias.size() + " tutorías");
-            if (!tutorias.isEmpty()) {
-                TutoriaResponseDto primera = tutorias.get(0);
-                System.out.println("📊 TutoriaController: Primera tutoría: ID=" + primera.getIdTutoria() + 
-                                 ", Nombre=" + primera.getNombre() + 
-                                 ", Tutor=" + primera.getNombreTutor() + 
-                                 ", Carrera=" + primera.getNombreCarrera());
-            }
+            log.debug("✅ Se obtuvieron {} tutorías", tutorias.size());
             return tutorias;
         } catch (Exception e) {
-            System.err.println("❌ TutoriaController: Error al listar tutorías: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Error al listar tutorías", e);
             throw e;
         }
     }
@@ -83,19 +86,13 @@ public class TutoriaController {
     @PostMapping("/")
     public ResponseEntity<Tutoria> crearTutoria(@RequestBody Tutoria tutoria) {
         try {
-            System.out.println("🔵 TutoriaController.crearTutoria - Datos recibidos:");
-            System.out.println("   idTutor: " + tutoria.getIdTutor());
-            System.out.println("   idAsignatura: " + tutoria.getIdAsignatura());
-            System.out.println("   lugar: " + tutoria.getLugar());
-            System.out.println("   descripcion: " + tutoria.getDescripcion());
-            System.out.println("   idEstadoTutoria: " + tutoria.getIdEstadoTutoria());
-            
             Tutoria nueva = tutoriaRepository.save(tutoria);
-            System.out.println("✅ Tutoría guardada exitosamente con ID: " + nueva.getIdTutoria());
+            log.debug("✅ Tutoría {} guardada: tutor={}, asignatura={}", nueva.getIdTutoria(),
+                    tutoria.getIdTutor(), tutoria.getIdAsignatura());
+            actividadService.registrarTutoria(nueva.getIdTutoria());
             return ResponseEntity.ok(nueva);
         } catch (Exception e) {
-            System.err.println("❌ Error guardando tutoría: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("❌ Error guardando tutoría: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(null);
         }
     }
@@ -104,13 +101,9 @@ public class TutoriaController {
     @SecurityRequirement(name = "bearer-jwt")
     @PostMapping("/con-disponibilidades")
     public ResponseEntity<?> crearTutoriaConDisponibilidades(@RequestBody uis.edu.tutouis_project.dto.CrearTutoriaConDisponibilidadDto dto) {
-        System.out.println("🔵 TutoriaController.crearTutoriaConDisponibilidades - Datos recibidos:");
-        System.out.println("   idTutor: " + dto.getIdTutor());
-        System.out.println("   idAsignatura: " + dto.getIdAsignatura());
-        System.out.println("   disponibilidades: " + (dto.getDisponibilidades() != null ? dto.getDisponibilidades().size() : 0));
-        
         Tutoria tutoriaCreada = tutoriaService.crearTutoriaConDisponibilidades(dto);
-        System.out.println("✅ Tutoría con disponibilidades guardada exitosamente con ID: " + tutoriaCreada.getIdTutoria());
+        log.debug("✅ Tutoría {} guardada con {} disponibilidades", tutoriaCreada.getIdTutoria(),
+                dto.getDisponibilidades() != null ? dto.getDisponibilidades().size() : 0);
         return ResponseEntity.ok(tutoriaCreada);
     }
 
@@ -124,6 +117,7 @@ public class TutoriaController {
                     tutoria.setLugar(tutoriaActualizada.getLugar());
                     tutoria.setDescripcion(tutoriaActualizada.getDescripcion());
                     Tutoria actualizada = tutoriaRepository.save(tutoria);
+                    buscadorFranjasService.invalidar();
                     return ResponseEntity.ok(actualizada);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
@@ -134,14 +128,11 @@ public class TutoriaController {
     @PutMapping("/{id}/editable")
     public ResponseEntity<?> actualizarTutoriaEditable(@PathVariable Integer id, @RequestBody java.util.Map<String, Object> datos) {
         try {
-            System.out.println("📝 TutoriaController.actualizarTutoriaEditable - ID: " + id);
-            System.out.println("   Datos recibidos: " + datos);
-            
             Tutoria tutoriaActualizada = tutoriaService.actualizarTutoriaEditable(id, datos);
-            System.out.println("✅ Tutoría actualizada exitosamente");
+            log.debug("📝 Tutoría {} actualizada: {}", id, datos.keySet());
             return ResponseEntity.ok(tutoriaActualizada);
         } catch (RuntimeException e) {
-            System.err.println("❌ Error actualizando tutoría: " + e.getMessage());
+            log.warn("❌ Error actualizando tutoría {}: {}", id, e.getMessage());
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
@@ -151,12 +142,10 @@ public class TutoriaController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> eliminarTutoria(@PathVariable Integer id) {
         try {
-            System.out.println("🗑️ TutoriaController.eliminarTutoria - Eliminando tutoría ID: " + id);
             tutoriaService.eliminarTutoriaConDependencias(id);
-            System.out.println("✅ Tutoría eliminada exitosamente con todas sus dependencias");
             return ResponseEntity.ok().body("Tutoría eliminada junto con sus disponibilidades y reservas");
         } catch (RuntimeException e) {
-            System.err.println("❌ Error eliminando tutoría: " + e.getMessage());
+            log.warn("❌ Error eliminando tutoría {}: {}", id, e.getMessage());
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
     }
@@ -0,0 +1,98 @@
+package uis.edu.tutouis_project.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Una operación (crear o eliminar evento) dentro de un lote enviado a ICalendarioService.ejecutarLote
+ */
+public class OperacionCalendario {
+
+    public enum Tipo { CREAR, ELIMINAR }
+
+    private final Tipo tipo;
+
+    // Datos para CREAR
+    private final String titulo;
+    private final String descripcion;
+    private final LocalDate fecha;
+    private final LocalTime horaInicio;
+    private final LocalTime horaFin;
+    private final String correoEstudiante;
+    private final String correoTutor;
+    private final boolean incluirMeet;
+
+    // Dato para ELIMINAR
+    private final String eventId;
+
+    private OperacionCalendario(Tipo tipo, String titulo, String descripcion, LocalDate fecha,
+                                LocalTime horaInicio, LocalTime horaFin, String correoEstudiante,
+                                String correoTutor, boolean incluirMeet, String eventId) {
+        this.tipo = tipo;
+        this.titulo = titulo;
+        this.descripcion = descripcion;
+        this.fecha = fecha;
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+        this.correoEstudiante = correoEstudiante;
+        this.correoTutor = correoTutor;
+        this.incluirMeet = incluirMeet;
+        this.eventId = eventId;
+    }
+
+    public static OperacionCalendario crear(String titulo, String descripcion, LocalDate fecha,
+                                            LocalTime horaInicio, LocalTime horaFin,
+                                            String correoEstudiante, String correoTutor,
+                                            boolean incluirMeet) {
+        return new OperacionCalendario(Tipo.CREAR, titulo, descripcion, fecha, horaInicio, horaFin,
+                correoEstudiante, correoTutor, incluirMeet, null);
+    }
+
+    public static OperacionCalendario eliminar(String eventId) {
+        return new OperacionCalendario(Tipo.ELIMINAR, null, null, null, null, null, null, null, false, eventId);
+    }
+
+    public boolean esCreacion() {
+        return tipo == Tipo.CREAR;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public LocalTime getHoraInicio() {
+        return horaInicio;
+    }
+
+    public LocalTime getHoraFin() {
+        return horaFin;
+    }
+
+    public String getCorreoEstudiante() {
+        return correoEstudiante;
+    }
+
+    public String getCorreoTutor() {
+        return correoTutor;
+    }
+
+    public boolean isIncluirMeet() {
+        return incluirMeet;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+}
@@ -0,0 +1,57 @@
+package uis.edu.tutouis_project.dto;
+
+/**
+ * Resultado individual de una operación de un lote de calendario.
+ * Un lote puede tener éxitos y fallos mezclados; cada posición corresponde a la operación enviada
+ */
+public class ResultadoOperacionCalendario {
+
+    private final boolean exito;
+    private final String eventId;
+    private final String meetLink;
+    private final String error;
+    private final Integer codigoHttp;
+
+    private ResultadoOperacionCalendario(boolean exito, String eventId, String meetLink, String error, Integer codigoHttp) {
+        this.exito = exito;
+        this.eventId = eventId;
+        this.meetLink = meetLink;
+        this.error = error;
+        this.codigoHttp = codigoHttp;
+    }
+
+    public static ResultadoOperacionCalendario exito(String eventId, String meetLink) {
+        return new ResultadoOperacionCalendario(true, eventId, meetLink, null, null);
+    }
+
+    public static ResultadoOperacionCalendario fallo(String error, Integer codigoHttp) {
+        return new ResultadoOperacionCalendario(false, null, null, error, codigoHttp);
+    }
+
+    public boolean isExito() {
+        return exito;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getMeetLink() {
+        return meetLink;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Integer getCodigoHttp() {
+        return codigoHttp;
+    }
+
+    @Override
+    public String toString() {
+        return exito
+                ? "ResultadoOperacionCalendario{exito, eventId='" + eventId + "'}"
+                : "ResultadoOperacionCalendario{fallo, codigo=" + codigoHttp + ", error='" + error + "'}";
+    }
+}
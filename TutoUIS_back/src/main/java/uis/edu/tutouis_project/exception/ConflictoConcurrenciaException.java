@@ -0,0 +1,15 @@
+package uis.edu.tutouis_project.exception;
+
+/**
+ * La operación chocó con otra modificación simultánea de los mismos datos y se agotaron los reintentos
+ */
+public class ConflictoConcurrenciaException extends RuntimeException {
+    
+    public ConflictoConcurrenciaException(String mensaje) {
+        super(mensaje);
+    }
+    
+    public ConflictoConcurrenciaException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
@@ -25,6 +25,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
     
+    /**
+     * Maneja las reservas duplicadas (misma franja y estudiante)
+     */
+    @ExceptionHandler(ReservaDuplicadaException.class)
+    public ResponseEntity<Map<String, String>> handleReservaDuplicada(ReservaDuplicadaException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "RESERVA_DUPLICADA");
+        error.put("mensaje", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    /**
+     * Maneja las operaciones que agotaron los reintentos por modificaciones simultáneas
+     */
+    @ExceptionHandler(ConflictoConcurrenciaException.class)
+    public ResponseEntity<Map<String, String>> handleConflictoConcurrencia(ConflictoConcurrenciaException ex) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "CONFLICTO_CONCURRENCIA");
+        error.put("mensaje", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
     /**
      * Maneja excepciones generales
      */
@@ -0,0 +1,15 @@
+package uis.edu.tutouis_project.exception;
+
+/**
+ * El estudiante ya tiene una reserva activa en esa franja de la disponibilidad
+ */
+public class ReservaDuplicadaException extends RuntimeException {
+    
+    public ReservaDuplicadaException(String mensaje) {
+        super(mensaje);
+    }
+    
+    public ReservaDuplicadaException(String mensaje, Throwable causa) {
+        super(mensaje, causa);
+    }
+}
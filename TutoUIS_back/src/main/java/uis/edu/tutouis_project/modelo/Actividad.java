@@ -0,0 +1,105 @@
+package uis.edu.tutouis_project.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "actividad", indexes = @Index(name = "idx_actividad_fecha", columnList = "fecha, id_actividad"))
+@Schema(description = "Modelo Actividad: registro (solo inserciones) de altas de usuarios, tutorías y reservas")
+public class Actividad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_actividad")
+    private Long idActividad;
+
+    @Column(name = "tipo", nullable = false, length = 20)
+    @Schema(description = "Tipo de actividad", example = "RESERVA")
+    private String tipo;
+
+    @Column(name = "descripcion", nullable = false, length = 500)
+    @Schema(description = "Texto mostrado en el feed", example = "Nueva reserva: Cálculo I - Ana Pérez")
+    private String descripcion;
+
+    @Column(name = "usuario", length = 200)
+    @Schema(description = "Nombre del usuario relacionado", example = "Ana Pérez")
+    private String usuario;
+
+    @Column(name = "fecha", nullable = false)
+    @Schema(description = "Fecha de la actividad")
+    private Timestamp fecha;
+
+    @Column(name = "icono", length = 50)
+    @Schema(description = "Icono Bootstrap para el frontend", example = "bi-calendar-check")
+    private String icono;
+
+    @Column(name = "badge", length = 20)
+    @Schema(description = "Color del badge", example = "warning")
+    private String badge;
+
+    public Actividad() {
+    }
+
+    public Long getIdActividad() {
+        return idActividad;
+    }
+
+    public void setIdActividad(Long idActividad) {
+        this.idActividad = idActividad;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(String usuario) {
+        this.usuario = usuario;
+    }
+
+    public Timestamp getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Timestamp fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getIcono() {
+        return icono;
+    }
+
+    public void setIcono(String icono) {
+        this.icono = icono;
+    }
+
+    public String getBadge() {
+        return badge;
+    }
+
+    public void setBadge(String badge) {
+        this.badge = badge;
+    }
+}
@@ -9,13 +9,16 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.sql.Time;
 import java.sql.Timestamp;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
-@Table(name = "disponibilidad")
+@Table(name = "disponibilidad", uniqueConstraints = @UniqueConstraint(
+        name = "uk_disponibilidad_plantilla_fecha", columnNames = {"id_plantilla", "fecha"}))
 @Schema(description = "Modelo Disponibilidad: representa la disponibilidad horaria de una tutoría")
 public class Disponibilidad {
 
@@ -35,6 +38,10 @@ public class Disponibilidad {
     @Schema(description = "Tutoría relacionada")
     private Tutoria tutoria;
 
+    @Column(name = "id_plantilla")
+    @Schema(description = "ID de la plantilla recurrente que generó esta sesión (null si se creó a mano)", example = "3")
+    private Integer idPlantilla;
+
     @Column(name = "dia_semana", nullable = false, length = 10)
     @Schema(description = "Día de la semana", example = "Lunes")
     private String diaSemana;
@@ -76,6 +83,13 @@ public class Disponibilidad {
     @Schema(description = "Fecha de creación")
     private Timestamp fechaCreacion;
 
+    // Control optimista: un save() con el aforo leído antes de un UPDATE atómico falla en vez de pisarlo.
+    // Los UPDATE en bloque del repositorio también la incrementan; DEFAULT 0 cubre los INSERT nativos
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    @Schema(description = "Versión de la fila para el control de concurrencia optimista", example = "0")
+    private long version;
+
     public Disponibilidad() {
     }
 
@@ -85,7 +99,7 @@ public class Disponibilidad {
         this.diaSemana = diaSemana;
         this.horaInicio = horaInicio;
         this.horaFin = horaFin;
-        this.aforo = aforoMaximo;
+        this.aforo = 0; // Cupos ocupados: arranca vacía
         this.aforoMaximo = aforoMaximo;
         this.idEstado = 1;
     }
@@ -114,6 +128,14 @@ public class Disponibilidad {
         this.tutoria = tutoria;
     }
 
+    public Integer getIdPlantilla() {
+        return idPlantilla;
+    }
+
+    public void setIdPlantilla(Integer idPlantilla) {
+        this.idPlantilla = idPlantilla;
+    }
+
     public String getDiaSemana() {
         return diaSemana;
     }
@@ -194,6 +216,14 @@ public class Disponibilidad {
         this.fechaCreacion = fechaCreacion;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Disponibilidad{" +
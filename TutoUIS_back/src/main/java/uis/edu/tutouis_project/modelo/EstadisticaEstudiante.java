@@ -0,0 +1,41 @@
+package uis.edu.tutouis_project.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Entity
+@Table(name = "estadistica_estudiante")
+@Schema(description = "Modelo EstadisticaEstudiante: número de reservas de cada estudiante (para contar estudiantes activos sin COUNT DISTINCT)")
+public class EstadisticaEstudiante {
+
+    @Id
+    @Column(name = "id_estudiante")
+    @Schema(description = "ID del estudiante", example = "4")
+    private Integer idEstudiante;
+
+    @Column(name = "reservas", nullable = false)
+    @Schema(description = "Número de reservas del estudiante", example = "3")
+    private Long reservas;
+
+    public EstadisticaEstudiante() {
+    }
+
+    public Integer getIdEstudiante() {
+        return idEstudiante;
+    }
+
+    public void setIdEstudiante(Integer idEstudiante) {
+        this.idEstudiante = idEstudiante;
+    }
+
+    public Long getReservas() {
+        return reservas;
+    }
+
+    public void setReservas(Long reservas) {
+        this.reservas = reservas;
+    }
+}
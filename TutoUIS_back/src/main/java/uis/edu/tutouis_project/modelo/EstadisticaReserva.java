@@ -0,0 +1,122 @@
+package uis.edu.tutouis_project.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.sql.Date;
+
+@Entity
+@Table(name = "estadistica_reserva", uniqueConstraints = @UniqueConstraint(
+        name = "uk_estadistica_reserva_clave",
+        columnNames = {"fecha", "id_asignatura", "id_estado", "dia_semana", "franja"}))
+@Schema(description = "Modelo EstadisticaReserva: acumulado diario de reservas por asignatura, estado, día de la semana y franja de 2 horas")
+public class EstadisticaReserva {
+
+    /** Fecha usada para reservas sin fecha de creación (nunca cae en las ventanas de crecimiento) */
+    public static final Date FECHA_DESCONOCIDA = Date.valueOf("1970-01-01");
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_estadistica")
+    private Long idEstadistica;
+
+    @Column(name = "fecha", nullable = false)
+    @Schema(description = "Día de creación de las reservas", example = "2025-11-07")
+    private Date fecha;
+
+    @Column(name = "id_asignatura", nullable = false)
+    @Schema(description = "ID de la asignatura de la tutoría", example = "3")
+    private Integer idAsignatura;
+
+    @Column(name = "id_estado", nullable = false)
+    @Schema(description = "ID del estado de las reservas", example = "1")
+    private Integer idEstado;
+
+    @Column(name = "dia_semana", nullable = false)
+    @Schema(description = "Día de la semana de la disponibilidad (1=Domingo ... 7=Sábado, como DAYOFWEEK de MySQL)", example = "2")
+    private Integer diaSemana;
+
+    @Column(name = "franja", nullable = false)
+    @Schema(description = "Franja de 2 horas de la hora de inicio de la disponibilidad (0 = 00:00-02:00 ... 11 = 22:00-24:00)", example = "4")
+    private Integer franja;
+
+    @Column(name = "reservas", nullable = false)
+    @Schema(description = "Número de reservas del grupo", example = "12")
+    private Long reservas;
+
+    @Column(name = "minutos", nullable = false)
+    @Schema(description = "Suma de la duración (minutos) de las disponibilidades reservadas", example = "720")
+    private Long minutos;
+
+    public EstadisticaReserva() {
+    }
+
+    public Long getIdEstadistica() {
+        return idEstadistica;
+    }
+
+    public void setIdEstadistica(Long idEstadistica) {
+        this.idEstadistica = idEstadistica;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public Integer getIdAsignatura() {
+        return idAsignatura;
+    }
+
+    public void setIdAsignatura(Integer idAsignatura) {
+        this.idAsignatura = idAsignatura;
+    }
+
+    public Integer getIdEstado() {
+        return idEstado;
+    }
+
+    public void setIdEstado(Integer idEstado) {
+        this.idEstado = idEstado;
+    }
+
+    public Integer getDiaSemana() {
+        return diaSemana;
+    }
+
+    public void setDiaSemana(Integer diaSemana) {
+        this.diaSemana = diaSemana;
+    }
+
+    public Integer getFranja() {
+        return franja;
+    }
+
+    public void setFranja(Integer franja) {
+        this.franja = franja;
+    }
+
+    public Long getReservas() {
+        return reservas;
+    }
+
+    public void setReservas(Long reservas) {
+        this.reservas = reservas;
+    }
+
+    public Long getMinutos() {
+        return minutos;
+    }
+
+    public void setMinutos(Long minutos) {
+        this.minutos = minutos;
+    }
+}
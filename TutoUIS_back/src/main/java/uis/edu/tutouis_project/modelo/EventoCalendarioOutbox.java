@@ -0,0 +1,171 @@
+package uis.edu.tutouis_project.modelo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.sql.Timestamp;
+
+@Entity
+@Table(name = "evento_calendario_outbox")
+@Schema(description = "Modelo EventoCalendarioOutbox: operación pendiente contra Google Calendar, escrita en la misma transacción que la reserva")
+public class EventoCalendarioOutbox {
+
+    public static final String OPERACION_CREAR = "CREAR";
+    public static final String OPERACION_ELIMINAR = "ELIMINAR";
+
+    public static final String ESTADO_PENDIENTE = "PENDIENTE";
+    public static final String ESTADO_COMPLETADO = "COMPLETADO";
+    public static final String ESTADO_DESCARTADO = "DESCARTADO";
+    public static final String ESTADO_FALLIDO = "FALLIDO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_evento")
+    @Schema(description = "ID autogenerado del evento", example = "1")
+    private Long idEvento;
+
+    @Column(name = "id_reserva", nullable = false)
+    @Schema(description = "ID de la reserva asociada", example = "1")
+    private Integer idReserva;
+
+    @Column(name = "operacion", nullable = false, length = 10)
+    @Schema(description = "Operación a ejecutar (CREAR o ELIMINAR)", example = "CREAR")
+    private String operacion;
+
+    @Column(name = "google_event_id", length = 255)
+    @Schema(description = "ID del evento en Google Calendar (para ELIMINAR cuando la reserva ya no existe)", example = "abc123xyz")
+    private String googleEventId;
+
+    @Column(name = "estado", nullable = false, length = 12)
+    @Schema(description = "Estado del evento (PENDIENTE, COMPLETADO, DESCARTADO, FALLIDO)", example = "PENDIENTE")
+    private String estado;
+
+    @Column(name = "intentos", nullable = false)
+    @Schema(description = "Número de intentos realizados", example = "0")
+    private Integer intentos;
+
+    @Column(name = "proximo_intento", nullable = false)
+    @Schema(description = "Momento a partir del cual el evento puede procesarse")
+    private Timestamp proximoIntento;
+
+    @Column(name = "ultimo_error", length = 500)
+    @Schema(description = "Último error devuelto por Google Calendar")
+    private String ultimoError;
+
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
+    @Schema(description = "Fecha de creación del evento")
+    private Timestamp fechaCreacion;
+
+    @Column(name = "fecha_procesado")
+    @Schema(description = "Fecha en la que el evento terminó de procesarse")
+    private Timestamp fechaProcesado;
+
+    public EventoCalendarioOutbox() {
+    }
+
+    public EventoCalendarioOutbox(Integer idReserva, String operacion, String googleEventId) {
+        Timestamp ahora = new Timestamp(System.currentTimeMillis());
+        this.idReserva = idReserva;
+        this.operacion = operacion;
+        this.googleEventId = googleEventId;
+        this.estado = ESTADO_PENDIENTE;
+        this.intentos = 0;
+        this.proximoIntento = ahora;
+        this.fechaCreacion = ahora;
+    }
+
+    public Long getIdEvento() {
+        return idEvento;
+    }
+
+    public void setIdEvento(Long idEvento) {
+        this.idEvento = idEvento;
+    }
+
+    public Integer getIdReserva() {
+        return idReserva;
+    }
+
+    public void setIdReserva(Integer idReserva) {
+        this.idReserva = idReserva;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(String operacion) {
+        this.operacion = operacion;
+    }
+
+    public String getGoogleEventId() {
+        return googleEventId;
+    }
+
+    public void setGoogleEventId(String googleEventId) {
+        this.googleEventId = googleEventId;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Integer getIntentos() {
+        return intentos;
+    }
+
+    public void setIntentos(Integer intentos) {
+        this.intentos = intentos;
+    }
+
+    public Timestamp getProximoIntento() {
+        return proximoIntento;
+    }
+
+    public void setProximoIntento(Timestamp proximoIntento) {
+        this.proximoIntento = proximoIntento;
+    }
+
+    public String getUltimoError() {
+        return ultimoError;
+    }
+
+    public void setUltimoError(String ultimoError) {
+        this.ultimoError = ultimoError;
+    }
+
+    public Timestamp getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(Timestamp fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    public Timestamp getFechaProcesado() {
+        return fechaProcesado;
+    }
+
+    public void setFechaProcesado(Timestamp fechaProcesado) {
+        this.fechaProcesado = fechaProcesado;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoCalendarioOutbox{" +
+                "idEvento=" + idEvento +
+                ", idReserva=" + idReserva +
+                ", operacion='" + operacion + '\'' +
+                ", estado='" + estado + '\'' +
+                ", intentos=" + intentos +
+                '}';
+    }
+}
@@ -0,0 +1,164 @@
+package uis.edu.tutouis_project.modelo;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "plantilla_disponibilidad", indexes = @Index(name = "idx_plantilla_tutoria", columnList = "id_tutoria"))
+@Schema(description = "Modelo PlantillaDisponibilidad: disponibilidad semanal recurrente de una tutoría. " +
+        "Las sesiones concretas se generan al consultar y solo se guardan como Disponibilidad al llegar la primera reserva")
+public class PlantillaDisponibilidad {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_plantilla")
+    @Schema(description = "ID autogenerado de la plantilla", example = "1")
+    private Integer idPlantilla;
+
+    @Column(name = "id_tutoria", nullable = false)
+    @Schema(description = "ID de la tutoría", example = "1")
+    private Integer idTutoria;
+
+    @Column(name = "dia_semana", nullable = false, length = 10)
+    @Schema(description = "Día de la semana en que se repite", example = "Lunes")
+    private String diaSemana;
+
+    @Column(name = "hora_inicio", nullable = false)
+    @Schema(description = "Hora de inicio", example = "09:00:00")
+    private Time horaInicio;
+
+    @Column(name = "hora_fin", nullable = false)
+    @Schema(description = "Hora de fin", example = "10:00:00")
+    private Time horaFin;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    @Schema(description = "Primera fecha en que aplica la plantilla", example = "2025-08-04")
+    private Date fechaInicio;
+
+    @Column(name = "fecha_fin", nullable = false)
+    @Schema(description = "Última fecha en que aplica la plantilla", example = "2025-11-28")
+    private Date fechaFin;
+
+    @Column(name = "aforo_maximo", nullable = false)
+    @Schema(description = "Capacidad máxima de cada sesión", example = "8")
+    private Integer aforoMaximo;
+
+    @Column(name = "id_estado", nullable = false)
+    @Schema(description = "Estado de la plantilla (1=Activa, 2=Inactiva)", example = "1")
+    private Integer idEstado;
+
+    @ElementCollection
+    @CollectionTable(name = "plantilla_disponibilidad_excepcion", joinColumns = @JoinColumn(name = "id_plantilla"))
+    @Column(name = "fecha", nullable = false)
+    @Schema(description = "Fechas en que la plantilla no genera sesión (festivos, semana de parciales...)")
+    private Set<Date> excepciones = new HashSet<>();
+
+    @Column(name = "fecha_creacion", insertable = false, updatable = false)
+    @Schema(description = "Fecha de creación")
+    private Timestamp fechaCreacion;
+
+    public PlantillaDisponibilidad() {
+    }
+
+    public Integer getIdPlantilla() {
+        return idPlantilla;
+    }
+
+    public void setIdPlantilla(Integer idPlantilla) {
+        this.idPlantilla = idPlantilla;
+    }
+
+    public Integer getIdTutoria() {
+        return idTutoria;
+    }
+
+    public void setIdTutoria(Integer idTutoria) {
+        this.idTutoria = idTutoria;
+    }
+
+    public String getDiaSemana() {
+        return diaSemana;
+    }
+
+    public void setDiaSemana(String diaSemana) {
+        this.diaSemana = diaSemana;
+    }
+
+    public Time getHoraInicio() {
+        return horaInicio;
+    }
+
+    public void setHoraInicio(Time horaInicio) {
+        this.horaInicio = horaInicio;
+    }
+
+    public Time getHoraFin() {
+        return horaFin;
+    }
+
+    public void setHoraFin(Time horaFin) {
+        this.horaFin = horaFin;
+    }
+
+    public Date getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(Date fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public Date getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(Date fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    public Integer getAforoMaximo() {
+        return aforoMaximo;
+    }
+
+    public void setAforoMaximo(Integer aforoMaximo) {
+        this.aforoMaximo = aforoMaximo;
+    }
+
+    public Integer getIdEstado() {
+        return idEstado;
+    }
+
+    public void setIdEstado(Integer idEstado) {
+        this.idEstado = idEstado;
+    }
+
+    public Set<Date> getExcepciones() {
+        return excepciones;
+    }
+
+    public void setExcepciones(Set<Date> excepciones) {
+        this.excepciones = excepciones;
+    }
+
+    public Timestamp getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public void setFechaCreacion(Timestamp fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.sql.Timestamp;
 import java.time.LocalTime;
@@ -59,7 +60,7 @@ public class Reserva {
     @Schema(description = "Observaciones sobre la reserva")
     private String observaciones;
 
-    @Column(name = "fecha_creacion", updatable = false)
+    @Column(name = "fecha_creacion", nullable = false, updatable = false)
     @Schema(description = "Fecha de creación de la reserva")
     private Timestamp fechaCreacion;
 
@@ -94,6 +95,13 @@ public class Reserva {
     @Schema(description = "ID del evento en Google Calendar", example = "abc123xyz")
     private String googleEventId;
 
+    // Control optimista: los UPDATE en bloque del repositorio (datos de calendario, cancelación por
+    // disponibilidad) también la incrementan, así que un save() sobre una copia vieja falla en vez de pisarlos
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    @Schema(description = "Versión de la fila para el control de concurrencia optimista", example = "0")
+    private long version;
+
     public Reserva() {
     }
 
@@ -239,6 +247,14 @@ public class Reserva {
         this.googleEventId = googleEventId;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Reserva{" +
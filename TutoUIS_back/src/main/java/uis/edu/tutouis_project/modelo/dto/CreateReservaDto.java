@@ -4,16 +4,24 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import java.time.LocalDate;
 import java.time.LocalTime;
 
 @Schema(description = "DTO para crear una nueva reserva")
 public class CreateReservaDto {
 
-    @NotNull(message = "El ID de disponibilidad no puede ser nulo")
     @Positive(message = "El ID de disponibilidad debe ser positivo")
-    @Schema(description = "ID de la disponibilidad", example = "1", required = true)
+    @Schema(description = "ID de la disponibilidad (obligatorio salvo que se reserve una sesión de plantilla)", example = "1")
     private Integer idDisponibilidad;
 
+    @Positive(message = "El ID de plantilla debe ser positivo")
+    @Schema(description = "ID de la plantilla, para reservar una sesión recurrente que aún no tiene disponibilidad", example = "3")
+    private Integer idPlantilla;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    @Schema(description = "Fecha de la sesión de plantilla (yyyy-MM-dd)", example = "2025-11-10")
+    private LocalDate fecha;
+
     @NotNull(message = "El ID del estudiante no puede ser nulo")
     @Positive(message = "El ID del estudiante debe ser positivo")
     @Schema(description = "ID del estudiante", example = "4", required = true)
@@ -59,6 +67,22 @@ public class CreateReservaDto {
         this.idDisponibilidad = idDisponibilidad;
     }
 
+    public Integer getIdPlantilla() {
+        return idPlantilla;
+    }
+
+    public void setIdPlantilla(Integer idPlantilla) {
+        this.idPlantilla = idPlantilla;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
     public Integer getIdEstudiante() {
         return idEstudiante;
     }
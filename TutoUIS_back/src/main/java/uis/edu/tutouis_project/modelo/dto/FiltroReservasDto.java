@@ -0,0 +1,80 @@
+package uis.edu.tutouis_project.modelo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDateTime;
+
+@Schema(description = "Filtros opcionales para el listado y la exportación de reservas")
+public class FiltroReservasDto {
+
+    @Schema(description = "ID del estado de la reserva", example = "1")
+    private Integer idEstado;
+
+    @Schema(description = "ID del estudiante", example = "4")
+    private Integer idEstudiante;
+
+    @Schema(description = "ID del tutor", example = "2")
+    private Integer idTutor;
+
+    @Schema(description = "ID de la asignatura", example = "3")
+    private Integer idAsignatura;
+
+    @Schema(description = "Fecha de creación mínima (inclusiva)", example = "2025-08-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime desde;
+
+    @Schema(description = "Fecha de creación máxima (exclusiva)", example = "2025-12-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime hasta;
+
+    public FiltroReservasDto() {
+    }
+
+    public Integer getIdEstado() {
+        return idEstado;
+    }
+
+    public void setIdEstado(Integer idEstado) {
+        this.idEstado = idEstado;
+    }
+
+    public Integer getIdEstudiante() {
+        return idEstudiante;
+    }
+
+    public void setIdEstudiante(Integer idEstudiante) {
+        this.idEstudiante = idEstudiante;
+    }
+
+    public Integer getIdTutor() {
+        return idTutor;
+    }
+
+    public void setIdTutor(Integer idTutor) {
+        this.idTutor = idTutor;
+    }
+
+    public Integer getIdAsignatura() {
+        return idAsignatura;
+    }
+
+    public void setIdAsignatura(Integer idAsignatura) {
+        this.idAsignatura = idAsignatura;
+    }
+
+    public LocalDateTime getDesde() {
+        return desde;
+    }
+
+    public void setDesde(LocalDateTime desde) {
+        this.desde = desde;
+    }
+
+    public LocalDateTime getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(LocalDateTime hasta) {
+        this.hasta = hasta;
+    }
+}
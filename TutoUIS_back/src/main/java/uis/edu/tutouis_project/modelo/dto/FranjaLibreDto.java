@@ -0,0 +1,128 @@
+package uis.edu.tutouis_project.modelo.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Schema(description = "Franja de 15 minutos con cupo, resultado de la búsqueda por asignatura")
+public class FranjaLibreDto {
+
+    @Schema(description = "ID de la disponibilidad; null si es una sesión de plantilla que aún no tiene reservas", example = "12")
+    private Integer idDisponibilidad;
+
+    @Schema(description = "ID de la plantilla (para reservar sesiones sin idDisponibilidad)", example = "3")
+    private Integer idPlantilla;
+
+    @Schema(description = "ID de la tutoría", example = "5")
+    private Integer idTutoria;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    @Schema(description = "Fecha de la franja", example = "2025-11-10")
+    private LocalDate fecha;
+
+    @JsonFormat(pattern = "HH:mm:ss")
+    @Schema(description = "Hora de inicio", example = "08:15:00")
+    private LocalTime horaInicio;
+
+    @JsonFormat(pattern = "HH:mm:ss")
+    @Schema(description = "Hora de fin", example = "08:30:00")
+    private LocalTime horaFin;
+
+    @Schema(description = "Cupos restantes de la disponibilidad", example = "5")
+    private Integer cuposRestantes;
+
+    @Schema(description = "Lugar (vacío si la tutoría solo es virtual)", example = "Edificio 4, Aula 204")
+    private String lugar;
+
+    @Schema(description = "Nombre del tutor", example = "Ana Pérez")
+    private String tutor;
+
+    public FranjaLibreDto() {
+    }
+
+    public FranjaLibreDto(Integer idDisponibilidad, Integer idPlantilla, Integer idTutoria, LocalDate fecha, LocalTime horaInicio,
+                          LocalTime horaFin, Integer cuposRestantes, String lugar, String tutor) {
+        this.idDisponibilidad = idDisponibilidad;
+        this.idPlantilla = idPlantilla;
+        this.idTutoria = idTutoria;
+        this.fecha = fecha;
+        this.horaInicio = horaInicio;
+        this.horaFin = horaFin;
+        this.cuposRestantes = cuposRestantes;
+        this.lugar = lugar;
+        this.tutor = tutor;
+    }
+
+    public Integer getIdDisponibilidad() {
+        return idDisponibilidad;
+    }
+
+    public void setIdDisponibilidad(Integer idDisponibilidad) {
+        this.idDisponibilidad = idDisponibilidad;
+    }
+
+    public Integer getIdPlantilla() {
+        return idPlantilla;
+    }
+
+    public void setIdPlantilla(Integer idPlantilla) {
+        this.idPlantilla = idPlantilla;
+    }
+
+    public Integer getIdTutoria() {
+        return idTutoria;
+    }
+
+    public void setIdTutoria(Integer idTutoria) {
+        this.idTutoria = idTutoria;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public LocalTime getHoraInicio() {
+        return horaInicio;
+    }
+
+    public void setHoraInicio(LocalTime horaInicio) {
+        this.horaInicio = horaInicio;
+    }
+
+    public LocalTime getHoraFin() {
+        return horaFin;
+    }
+
+    public void setHoraFin(LocalTime horaFin) {
+        this.horaFin = horaFin;
+    }
+
+    public Integer getCuposRestantes() {
+        return cuposRestantes;
+    }
+
+    public void setCuposRestantes(Integer cuposRestantes) {
+        this.cuposRestantes = cuposRestantes;
+    }
+
+    public String getLugar() {
+        return lugar;
+    }
+
+    public void setLugar(String lugar) {
+        this.lugar = lugar;
+    }
+
+    public String getTutor() {
+        return tutor;
+    }
+
+    public void setTutor(String tutor) {
+        this.tutor = tutor;
+    }
+}
@@ -0,0 +1,38 @@
+package uis.edu.tutouis_project.modelo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Página de franjas libres ordenada por fecha y hora")
+public class PaginaFranjasDto {
+
+    @Schema(description = "Franjas de la página")
+    private List<FranjaLibreDto> franjas;
+
+    @Schema(description = "Cursor para pedir la siguiente página; null si no hay más", example = "MjAyNS0xMS0xMHwwODozMHwxMg")
+    private String siguienteCursor;
+
+    public PaginaFranjasDto() {
+    }
+
+    public PaginaFranjasDto(List<FranjaLibreDto> franjas, String siguienteCursor) {
+        this.franjas = franjas;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<FranjaLibreDto> getFranjas() {
+        return franjas;
+    }
+
+    public void setFranjas(List<FranjaLibreDto> franjas) {
+        this.franjas = franjas;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+}
@@ -0,0 +1,38 @@
+package uis.edu.tutouis_project.modelo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Página de reservas ordenada por fecha de creación descendente")
+public class PaginaReservasDto {
+
+    @Schema(description = "Reservas de la página")
+    private List<ReservaResponseDto> reservas;
+
+    @Schema(description = "Cursor para pedir la siguiente página; null si no hay más", example = "MjAyNS0xMS0wN1QxMDozMDowMFo6MTIz")
+    private String siguienteCursor;
+
+    public PaginaReservasDto() {
+    }
+
+    public PaginaReservasDto(List<ReservaResponseDto> reservas, String siguienteCursor) {
+        this.reservas = reservas;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<ReservaResponseDto> getReservas() {
+        return reservas;
+    }
+
+    public void setReservas(List<ReservaResponseDto> reservas) {
+        this.reservas = reservas;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+}
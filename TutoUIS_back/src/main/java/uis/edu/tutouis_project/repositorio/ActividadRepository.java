@@ -0,0 +1,138 @@
+package uis.edu.tutouis_project.repositorio;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uis.edu.tutouis_project.modelo.Actividad;
+
+import java.util.List;
+
+@Repository
+public interface ActividadRepository extends JpaRepository<Actividad, Long> {
+
+    /**
+     * Actividades más recientes primero (usa idx_actividad_fecha)
+     */
+    List<Actividad> findAllByOrderByFechaDescIdActividadDesc(Limit limite);
+
+    /**
+     * Actividades guardadas después de la indicada, de la más antigua a la más reciente (por clave primaria)
+     */
+    List<Actividad> findByIdActividadGreaterThanOrderByIdActividadAsc(Long idActividad, Limit limite);
+
+    /**
+     * Datos para la actividad de un usuario recién creado.
+     * Retorna: [descripcion, usuario, badge]
+     */
+    @Query(value = """
+        SELECT
+            CONCAT('Nuevo usuario registrado: ', u.nombre, ' ', u.apellido),
+            CONCAT(u.nombre, ' ', u.apellido),
+            CASE
+                WHEN r.nombre = 'Administrador' THEN 'danger'
+                WHEN r.nombre = 'Tutor' THEN 'info'
+                ELSE 'secondary'
+            END
+        FROM usuario u
+        LEFT JOIN rol r ON u.id_rol = r.id_rol
+        WHERE u.id_usuario = :idUsuario
+        """, nativeQuery = true)
+    List<Object[]> describirUsuario(@Param("idUsuario") Integer idUsuario);
+
+    /**
+     * Datos para la actividad de una tutoría recién creada.
+     * Retorna: [descripcion, usuario, badge]
+     */
+    @Query(value = """
+        SELECT
+            CONCAT('Nueva tutoría creada: ', a.nombre, ' por ', CONCAT(u.nombre, ' ', u.apellido)),
+            CONCAT(u.nombre, ' ', u.apellido),
+            'success'
+        FROM tutoria t
+        INNER JOIN asignatura a ON t.id_asignatura = a.id_asignatura
+        INNER JOIN usuario u ON t.id_tutor = u.id_usuario
+        WHERE t.id_tutoria = :idTutoria
+        """, nativeQuery = true)
+    List<Object[]> describirTutoria(@Param("idTutoria") Integer idTutoria);
+
+    /**
+     * Datos para la actividad de una reserva recién creada.
+     * Retorna: [descripcion, usuario, badge]
+     */
+    @Query(value = """
+        SELECT
+            CONCAT('Nueva reserva: ', a.nombre, ' - ', CONCAT(est.nombre, ' ', est.apellido)),
+            CONCAT(est.nombre, ' ', est.apellido),
+            CASE
+                WHEN r.id_estado = 1 THEN 'warning'
+                WHEN r.id_estado = 3 THEN 'success'
+                WHEN r.id_estado = 4 THEN 'danger'
+                ELSE 'secondary'
+            END
+        FROM reserva r
+        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
+        INNER JOIN tutoria t ON d.id_tutoria = t.id_tutoria
+        INNER JOIN asignatura a ON t.id_asignatura = a.id_asignatura
+        INNER JOIN usuario est ON r.id_estudiante = est.id_usuario
+        WHERE r.id_reserva = :idReserva
+        """, nativeQuery = true)
+    List<Object[]> describirReserva(@Param("idReserva") Integer idReserva);
+
+    /**
+     * Llena el registro con el historial existente (solo cuando la tabla está vacía, p. ej. primer despliegue)
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO actividad (tipo, descripcion, usuario, fecha, icono, badge)
+        SELECT
+            'USUARIO',
+            CONCAT('Nuevo usuario registrado: ', u.nombre, ' ', u.apellido),
+            CONCAT(u.nombre, ' ', u.apellido),
+            u.fecha_creacion,
+            'bi-person-plus',
+            CASE
+                WHEN r.nombre = 'Administrador' THEN 'danger'
+                WHEN r.nombre = 'Tutor' THEN 'info'
+                ELSE 'secondary'
+            END
+        FROM usuario u
+        LEFT JOIN rol r ON u.id_rol = r.id_rol
+        WHERE u.fecha_creacion IS NOT NULL
+        UNION ALL
+        SELECT
+            'TUTORIA',
+            CONCAT('Nueva tutoría creada: ', a.nombre, ' por ', CONCAT(u.nombre, ' ', u.apellido)),
+            CONCAT(u.nombre, ' ', u.apellido),
+            t.fecha_creacion,
+            'bi-book',
+            'success'
+        FROM tutoria t
+        INNER JOIN asignatura a ON t.id_asignatura = a.id_asignatura
+        INNER JOIN usuario u ON t.id_tutor = u.id_usuario
+        WHERE t.fecha_creacion IS NOT NULL
+        UNION ALL
+        SELECT
+            'RESERVA',
+            CONCAT('Nueva reserva: ', a.nombre, ' - ', CONCAT(est.nombre, ' ', est.apellido)),
+            CONCAT(est.nombre, ' ', est.apellido),
+            r.fecha_creacion,
+            'bi-calendar-check',
+            CASE
+                WHEN r.id_estado = 1 THEN 'warning'
+                WHEN r.id_estado = 3 THEN 'success'
+                WHEN r.id_estado = 4 THEN 'danger'
+                ELSE 'secondary'
+            END
+        FROM reserva r
+        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
+        INNER JOIN tutoria t ON d.id_tutoria = t.id_tutoria
+        INNER JOIN asignatura a ON t.id_asignatura = a.id_asignatura
+        INNER JOIN usuario est ON r.id_estudiante = est.id_usuario
+        WHERE r.fecha_creacion IS NOT NULL
+        ORDER BY 4
+        """, nativeQuery = true)
+    int importarHistorial();
+}
@@ -1,5 +1,8 @@
 package uis.edu.tutouis_project.repositorio;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import uis.edu.tutouis_project.modelo.Asignatura;
@@ -13,15 +16,24 @@ public interface AsignaturaRepository extends JpaRepository<Asignatura, Integer>
     /**
      * Encuentra una asignatura por su nombre
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Asignatura> findByNombre(String nombre);
     
     /**
      * Encuentra todas las asignaturas de una facultad
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Asignatura> findByFacultad(String facultad);
     
     /**
      * Busca asignaturas por nombre (contiene)
      */
     List<Asignatura> findByNombreContainingIgnoreCase(String nombre);
+
+    /**
+     * Catálogo completo desde la caché de consultas; se invalida solo al escribir en la tabla
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Asignatura> findAll();
 }
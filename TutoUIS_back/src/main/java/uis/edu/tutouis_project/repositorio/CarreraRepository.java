@@ -1,11 +1,26 @@
 package uis.edu.tutouis_project.repositorio;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import uis.edu.tutouis_project.modelo.Carrera;
 
+import java.util.List;
+
 @Repository
 public interface CarreraRepository extends JpaRepository<Carrera, Integer> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Carrera findByNombre(String nombre);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Carrera findByCodigo(String codigo);
+
+    /**
+     * Catálogo completo desde la caché de consultas; se invalida solo al escribir en la tabla
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Carrera> findAll();
 }
@@ -1,11 +1,17 @@
 package uis.edu.tutouis_project.repositorio;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import uis.edu.tutouis_project.modelo.Disponibilidad;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DisponibilidadRepository extends JpaRepository<Disponibilidad, Integer> {
@@ -55,22 +61,133 @@ public interface DisponibilidadRepository extends JpaRepository<Disponibilidad,
     List<Disponibilidad> findByIdTutoriaWithDetails(@Param("idTutoria") Integer idTutoria);
     
     /**
-     * Busca disponibilidades de un tutor específico que se solapen con un rango de fecha/hora dado
-     * Útil para validar conflictos de horario al crear nuevas disponibilidades
+     * Horarios activos de un tutor en un rango de fechas, para validar conflictos de un lote
+     * de disponibilidades nuevas con una sola consulta (ver IndiceHorarios).
+     * Retorna: [fecha, horaInicio, horaFin]
      */
-    @Query("SELECT d FROM Disponibilidad d " +
+    @Query("SELECT d.fecha, d.horaInicio, d.horaFin FROM Disponibilidad d " +
            "JOIN d.tutoria t " +
            "WHERE t.idTutor = :idTutor " +
-           "AND d.fecha = :fecha " +
-           "AND d.idEstado = 1 " +  // Solo disponibilidades activas
-           "AND (" +
-           "  (d.horaInicio < :horaFin AND d.horaFin > :horaInicio) " +  // Hay solapamiento
-           ")")
-    List<Disponibilidad> findConflictosHorario(
+           "AND d.fecha BETWEEN :desde AND :hasta " +
+           "AND d.idEstado = 1")  // Solo disponibilidades activas
+    List<Object[]> findHorariosActivosDeTutor(
         @Param("idTutor") Integer idTutor,
-        @Param("fecha") java.sql.Date fecha,
-        @Param("horaInicio") java.sql.Time horaInicio,
-        @Param("horaFin") java.sql.Time horaFin
+        @Param("desde") java.sql.Date desde,
+        @Param("hasta") java.sql.Date hasta
     );
-}
 
+    /**
+     * Horarios de las disponibilidades no canceladas de varias tutorías, para calcular su estado.
+     * Retorna: [idTutoria, fecha, horaInicio, horaFin]
+     */
+    @Query("SELECT d.idTutoria, d.fecha, d.horaInicio, d.horaFin FROM Disponibilidad d " +
+           "WHERE d.idTutoria IN :idsTutoria AND d.idEstado <> 4")
+    List<Object[]> findHorariosDeTutorias(@Param("idsTutoria") Collection<Integer> idsTutoria);
+
+    /**
+     * Asigna un cupo de forma atómica: solo incrementa el aforo si todavía no se alcanzó el aforo máximo.
+     * La condición se evalúa dentro del mismo UPDATE, así que no hay ventana de lectura-modificación-escritura.
+     * Retorna el número de filas afectadas (1 = cupo asignado, 0 = sesión llena o inexistente)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Disponibilidad d SET d.aforo = d.aforo + 1, d.version = d.version + 1 " +
+           "WHERE d.idDisponibilidad = :idDisponibilidad AND d.aforo < d.aforoMaximo")
+    int incrementarAforoSiHayCupo(@Param("idDisponibilidad") Integer idDisponibilidad);
+
+    /**
+     * Libera un cupo de forma atómica (nunca deja el aforo por debajo de cero)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Disponibilidad d SET d.aforo = d.aforo - 1, d.version = d.version + 1 " +
+           "WHERE d.idDisponibilidad = :idDisponibilidad AND d.aforo > 0")
+    int decrementarAforo(@Param("idDisponibilidad") Integer idDisponibilidad);
+
+    /**
+     * Lee solo el aforo actual de una disponibilidad directamente de la base de datos
+     */
+    @Query("SELECT d.aforo FROM Disponibilidad d WHERE d.idDisponibilidad = :idDisponibilidad")
+    Integer findAforoById(@Param("idDisponibilidad") Integer idDisponibilidad);
+
+    /**
+     * Recalcula el aforo de las disponibilidades a partir de las reservas activas (estado 1)
+     * Solo toca las filas cuyo aforo no coincide; retorna cuántas estaban desfasadas
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE disponibilidad d
+        SET d.aforo = (
+            SELECT COUNT(*) FROM reserva r
+            WHERE r.id_disponibilidad = d.id_disponibilidad AND r.id_estado = 1
+        ), d.version = d.version + 1
+        WHERE d.aforo <> (
+            SELECT COUNT(*) FROM reserva r
+            WHERE r.id_disponibilidad = d.id_disponibilidad AND r.id_estado = 1
+        )
+        """, nativeQuery = true)
+    int reconciliarAforos();
+
+    /**
+     * Igual que reconciliarAforos pero para una sola disponibilidad: el aforo queda en el mismo conteo que
+     * ReservaRepository.countReservasActivasPorDisponibilidad. Es un único UPDATE, así que no compite con
+     * los incrementos y decrementos atómicos. Retorna 1 si el aforo estaba desfasado
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        UPDATE disponibilidad d
+        SET d.aforo = (
+            SELECT COUNT(*) FROM reserva r
+            WHERE r.id_disponibilidad = d.id_disponibilidad AND r.id_estado = 1
+        ), d.version = d.version + 1
+        WHERE d.id_disponibilidad = :idDisponibilidad AND d.aforo <> (
+            SELECT COUNT(*) FROM reserva r
+            WHERE r.id_disponibilidad = d.id_disponibilidad AND r.id_estado = 1
+        )
+        """, nativeQuery = true)
+    int reconciliarAforo(@Param("idDisponibilidad") Integer idDisponibilidad);
+
+    /**
+     * Disponibilidades de tutorías no canceladas en un rango de fechas, para el índice de búsqueda de franjas.
+     * Retorna: [idDisponibilidad, idTutoria, idAsignatura, fecha, horaInicio, horaFin, aforoMaximo, aforo,
+     * idEstado, idPlantilla, lugar, nombreTutor, apellidoTutor]
+     */
+    @Query("SELECT d.idDisponibilidad, d.idTutoria, t.idAsignatura, d.fecha, d.horaInicio, d.horaFin, d.aforoMaximo, d.aforo, " +
+           "d.idEstado, d.idPlantilla, t.lugar, u.nombre, u.apellido " +
+           "FROM Disponibilidad d JOIN d.tutoria t JOIN t.tutor u " +
+           "WHERE d.fecha BETWEEN :desde AND :hasta AND t.idEstadoTutoria <> 5")
+    List<Object[]> findParaBuscador(@Param("desde") java.sql.Date desde, @Param("hasta") java.sql.Date hasta);
+
+    /**
+     * Sesión guardada de una plantilla en una fecha, leída con bloqueo (SELECT ... FOR UPDATE).
+     * Una lectura con bloqueo ve la última versión confirmada de la fila: la lectura normal, en REPEATABLE READ,
+     * usa la foto de la transacción y no ve la sesión que otra petición guardó después de tomarla
+     * (materializarDesdePlantilla no hizo nada porque la fila ya existía)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Disponibilidad> findByIdPlantillaAndFecha(Integer idPlantilla, java.sql.Date fecha);
+
+    /**
+     * Sesiones ya guardadas de las plantillas indicadas dentro de un rango de fechas
+     */
+    @Query("SELECT d FROM Disponibilidad d WHERE d.idPlantilla IN :idsPlantilla AND d.fecha BETWEEN :desde AND :hasta")
+    List<Disponibilidad> findMaterializadasDePlantillas(@Param("idsPlantilla") Collection<Integer> idsPlantilla,
+                                                        @Param("desde") java.sql.Date desde,
+                                                        @Param("hasta") java.sql.Date hasta);
+
+    /**
+     * Guarda la sesión de una plantilla en una fecha. Si otra petición ya la creó no hace nada
+     * (clave única uk_disponibilidad_plantilla_fecha), así dos primeras reservas simultáneas usan la misma fila
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO disponibilidad (id_tutoria, id_plantilla, dia_semana, fecha, hora_inicio, hora_fin, aforo, aforo_maximo, id_estado)
+        SELECT p.id_tutoria, p.id_plantilla, p.dia_semana, :fecha, p.hora_inicio, p.hora_fin, 0, p.aforo_maximo, 1
+        FROM plantilla_disponibilidad p
+        WHERE p.id_plantilla = :idPlantilla
+        ON DUPLICATE KEY UPDATE id_disponibilidad = id_disponibilidad
+        """, nativeQuery = true)
+    int materializarDesdePlantilla(@Param("idPlantilla") Integer idPlantilla, @Param("fecha") java.sql.Date fecha);
+}
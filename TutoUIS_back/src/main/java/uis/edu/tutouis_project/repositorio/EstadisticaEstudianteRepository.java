@@ -0,0 +1,40 @@
+package uis.edu.tutouis_project.repositorio;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uis.edu.tutouis_project.modelo.EstadisticaEstudiante;
+import java.util.List;
+
+@Repository
+public interface EstadisticaEstudianteRepository extends JpaRepository<EstadisticaEstudiante, Integer> {
+
+    /**
+     * Suma (o resta) reservas a un estudiante; crea la fila si no existe
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO estadistica_estudiante (id_estudiante, reservas) VALUES (:idEstudiante, :reservas)
+        ON DUPLICATE KEY UPDATE reservas = reservas + :reservas
+        """, nativeQuery = true)
+    int acumular(@Param("idEstudiante") Integer idEstudiante, @Param("reservas") long reservas);
+
+    /**
+     * Estudiantes con al menos una reserva
+     */
+    @Query("SELECT COUNT(e) FROM EstadisticaEstudiante e WHERE e.reservas > 0")
+    long contarActivos();
+
+    /**
+     * Reservas por estudiante calculadas desde la tabla reserva (verificación periódica).
+     * Retorna: [idEstudiante, reservas]
+     */
+    @Query(value = "SELECT r.id_estudiante, COUNT(*) FROM reserva r GROUP BY r.id_estudiante", nativeQuery = true)
+    List<Object[]> contarReservasPorEstudiante();
+
+    @Modifying
+    @Query(value = "DELETE FROM estadistica_estudiante WHERE reservas = 0", nativeQuery = true)
+    int eliminarVacios();
+}
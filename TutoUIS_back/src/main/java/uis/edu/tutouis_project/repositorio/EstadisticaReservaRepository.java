@@ -0,0 +1,121 @@
+package uis.edu.tutouis_project.repositorio;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uis.edu.tutouis_project.modelo.EstadisticaReserva;
+import java.sql.Date;
+import java.util.List;
+
+/**
+ * Acumulados de reservas para el dashboard de reportes.
+ * Las consultas "agregado*" calculan los grupos directamente desde reserva/disponibilidad/tutoría;
+ * todas retornan: [fecha, idAsignatura, idEstado, diaSemana, franja, idEstudiante, reservas, minutos]
+ */
+@Repository
+public interface EstadisticaReservaRepository extends JpaRepository<EstadisticaReserva, Long> {
+
+    /**
+     * Suma (o resta, con valores negativos) a un grupo; lo crea si no existe. Es atómico en MySQL
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO estadistica_reserva (fecha, id_asignatura, id_estado, dia_semana, franja, reservas, minutos)
+        VALUES (:fecha, :idAsignatura, :idEstado, :diaSemana, :franja, :reservas, :minutos)
+        ON DUPLICATE KEY UPDATE reservas = reservas + :reservas, minutos = minutos + :minutos
+        """, nativeQuery = true)
+    int acumular(@Param("fecha") Date fecha,
+                 @Param("idAsignatura") Integer idAsignatura,
+                 @Param("idEstado") Integer idEstado,
+                 @Param("diaSemana") Integer diaSemana,
+                 @Param("franja") Integer franja,
+                 @Param("reservas") long reservas,
+                 @Param("minutos") long minutos);
+
+    /**
+     * Aporte de una reserva a los acumulados
+     */
+    @Query(value = """
+        SELECT COALESCE(DATE(r.fecha_creacion), DATE '1970-01-01') AS fecha, COALESCE(t.id_asignatura, 0) AS id_asignatura, r.id_estado,
+               DAYOFWEEK(d.fecha) AS dia_semana, FLOOR(HOUR(d.hora_inicio) / 2) AS franja, r.id_estudiante,
+               COUNT(*) AS reservas, COALESCE(SUM(TIMESTAMPDIFF(MINUTE, d.hora_inicio, d.hora_fin)), 0) AS minutos
+        FROM reserva r
+        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
+        INNER JOIN tutoria t ON d.id_tutoria = t.id_tutoria
+        WHERE r.id_reserva = :idReserva
+        GROUP BY fecha, id_asignatura, r.id_estado, dia_semana, franja, r.id_estudiante
+        """, nativeQuery = true)
+    List<Object[]> agregadoDeReserva(@Param("idReserva") Integer idReserva);
+
+    /**
+     * Aporte de todas las reservas de una disponibilidad a los acumulados
+     */
+    @Query(value = """
+        SELECT COALESCE(DATE(r.fecha_creacion), DATE '1970-01-01') AS fecha, COALESCE(t.id_asignatura, 0) AS id_asignatura, r.id_estado,
+               DAYOFWEEK(d.fecha) AS dia_semana, FLOOR(HOUR(d.hora_inicio) / 2) AS franja, r.id_estudiante,
+               COUNT(*) AS reservas, COALESCE(SUM(TIMESTAMPDIFF(MINUTE, d.hora_inicio, d.hora_fin)), 0) AS minutos
+        FROM reserva r
+        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
+        INNER JOIN tutoria t ON d.id_tutoria = t.id_tutoria
+        WHERE r.id_disponibilidad = :idDisponibilidad
+        GROUP BY fecha, id_asignatura, r.id_estado, dia_semana, franja, r.id_estudiante
+        """, nativeQuery = true)
+    List<Object[]> agregadoDeDisponibilidad(@Param("idDisponibilidad") Integer idDisponibilidad);
+
+    /**
+     * Recalcula todos los grupos desde cero (solo para la verificación periódica). idEstudiante va en null
+     */
+    @Query(value = """
+        SELECT COALESCE(DATE(r.fecha_creacion), DATE '1970-01-01') AS fecha, COALESCE(t.id_asignatura, 0) AS id_asignatura, r.id_estado,
+               DAYOFWEEK(d.fecha) AS dia_semana, FLOOR(HOUR(d.hora_inicio) / 2) AS franja, NULL AS id_estudiante,
+               COUNT(*) AS reservas, COALESCE(SUM(TIMESTAMPDIFF(MINUTE, d.hora_inicio, d.hora_fin)), 0) AS minutos
+        FROM reserva r
+        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
+        INNER JOIN tutoria t ON d.id_tutoria = t.id_tutoria
+        GROUP BY fecha, id_asignatura, r.id_estado, dia_semana, franja
+        """, nativeQuery = true)
+    List<Object[]> agregadoCompleto();
+
+    /**
+     * Acumulados almacenados, con el mismo formato que agregadoCompleto
+     */
+    @Query(value = """
+        SELECT fecha, id_asignatura, id_estado, dia_semana, franja, NULL AS id_estudiante, reservas, minutos
+        FROM estadistica_reserva
+        """, nativeQuery = true)
+    List<Object[]> findAcumulados();
+
+    /**
+     * Totales para el dashboard, sin la dimensión fecha.
+     * Retorna: [idAsignatura, idEstado, diaSemana, franja, reservas, minutos]
+     */
+    @Query(value = """
+        SELECT id_asignatura, id_estado, dia_semana, franja, SUM(reservas), SUM(minutos)
+        FROM estadistica_reserva
+        GROUP BY id_asignatura, id_estado, dia_semana, franja
+        HAVING SUM(reservas) <> 0
+        """, nativeQuery = true)
+    List<Object[]> sumarPorDimensiones();
+
+    /**
+     * Reservas creadas en el último mes y en el mes anterior a ese (por día de creación).
+     * Retorna: [mesActual, mesAnterior]
+     */
+    @Query(value = """
+        SELECT
+            COALESCE(SUM(CASE WHEN fecha >= DATE_SUB(CURDATE(), INTERVAL 1 MONTH) THEN reservas ELSE 0 END), 0),
+            COALESCE(SUM(CASE WHEN fecha < DATE_SUB(CURDATE(), INTERVAL 1 MONTH) THEN reservas ELSE 0 END), 0)
+        FROM estadistica_reserva
+        WHERE fecha >= DATE_SUB(CURDATE(), INTERVAL 2 MONTH)
+        """, nativeQuery = true)
+    List<Object[]> sumarCrecimientoMensual();
+
+    /**
+     * Elimina los grupos que quedaron en cero
+     */
+    @Modifying
+    @Query(value = "DELETE FROM estadistica_reserva WHERE reservas = 0 AND minutos = 0", nativeQuery = true)
+    int eliminarVacios();
+}
@@ -1,9 +1,21 @@
 package uis.edu.tutouis_project.repositorio;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import uis.edu.tutouis_project.modelo.EstadoTutoria;
 
+import java.util.List;
+
 @Repository
 public interface EstadoTutoriaRepository extends JpaRepository<EstadoTutoria, Integer> {
+
+    /**
+     * Catálogo completo desde la caché de consultas; se invalida solo al escribir en la tabla
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<EstadoTutoria> findAll();
 }
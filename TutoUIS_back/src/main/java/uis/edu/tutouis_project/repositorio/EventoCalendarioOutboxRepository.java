@@ -0,0 +1,42 @@
+package uis.edu.tutouis_project.repositorio;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uis.edu.tutouis_project.modelo.EventoCalendarioOutbox;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventoCalendarioOutboxRepository extends JpaRepository<EventoCalendarioOutbox, Long> {
+
+    /**
+     * Toma un lote de eventos pendientes cuyo próximo intento ya venció, en orden de creación.
+     * Bloquea las filas con SKIP LOCKED (timeout -2) para que varias instancias no procesen el mismo evento
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EventoCalendarioOutbox e " +
+           "WHERE e.estado = 'PENDIENTE' AND e.proximoIntento <= :ahora " +
+           "ORDER BY e.idEvento ASC")
+    List<EventoCalendarioOutbox> findPendientesParaProcesar(@Param("ahora") Timestamp ahora, Pageable pageable);
+
+    /**
+     * Último evento de una reserva con la operación y estado dados
+     * (permite resolver el ID de Google de un CREAR ya completado al procesar un ELIMINAR)
+     */
+    Optional<EventoCalendarioOutbox> findFirstByIdReservaAndOperacionAndEstadoOrderByIdEventoDesc(
+            Integer idReserva, String operacion, String estado);
+
+    /**
+     * Cuenta los eventos en un estado (útil para monitorear el atraso del outbox)
+     */
+    long countByEstado(String estado);
+}
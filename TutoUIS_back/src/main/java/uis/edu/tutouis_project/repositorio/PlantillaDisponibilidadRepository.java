@@ -0,0 +1,61 @@
+package uis.edu.tutouis_project.repositorio;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uis.edu.tutouis_project.modelo.PlantillaDisponibilidad;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlantillaDisponibilidadRepository extends JpaRepository<PlantillaDisponibilidad, Integer> {
+
+    List<PlantillaDisponibilidad> findByIdTutoria(Integer idTutoria);
+
+    /**
+     * Plantillas activas que aplican en algún día del rango, con sus excepciones.
+     * Si idTutoria es null se consideran todas las tutorías
+     */
+    @Query("SELECT DISTINCT p FROM PlantillaDisponibilidad p LEFT JOIN FETCH p.excepciones " +
+           "WHERE p.idEstado = 1 AND p.fechaInicio <= :hasta AND p.fechaFin >= :desde " +
+           "AND (:idTutoria IS NULL OR p.idTutoria = :idTutoria)")
+    List<PlantillaDisponibilidad> findVigentesEnRango(@Param("idTutoria") Integer idTutoria,
+                                                      @Param("desde") Date desde,
+                                                      @Param("hasta") Date hasta);
+
+    /**
+     * Plantillas activas de todas las tutorías de un tutor que aplican en algún día del rango, con sus
+     * excepciones (para validar conflictos de horario)
+     */
+    @Query("SELECT DISTINCT p FROM PlantillaDisponibilidad p LEFT JOIN FETCH p.excepciones " +
+           "WHERE p.idEstado = 1 AND p.fechaInicio <= :hasta AND p.fechaFin >= :desde " +
+           "AND p.idTutoria IN (SELECT t.idTutoria FROM Tutoria t WHERE t.idTutor = :idTutor)")
+    List<PlantillaDisponibilidad> findVigentesDeTutorEnRango(@Param("idTutor") Integer idTutor,
+                                                             @Param("desde") Date desde,
+                                                             @Param("hasta") Date hasta);
+
+    /**
+     * Plantillas activas de un conjunto de tutorías, con sus excepciones (para calcular estados)
+     */
+    @Query("SELECT DISTINCT p FROM PlantillaDisponibilidad p LEFT JOIN FETCH p.excepciones " +
+           "WHERE p.idEstado = 1 AND p.idTutoria IN :idsTutoria")
+    List<PlantillaDisponibilidad> findActivasDeTutorias(@Param("idsTutoria") Collection<Integer> idsTutoria);
+
+    /**
+     * Tutorías con plantillas que todavía generan sesiones desde la fecha dada
+     */
+    @Query("SELECT DISTINCT p.idTutoria FROM PlantillaDisponibilidad p WHERE p.idEstado = 1 AND p.fechaFin >= :desde")
+    List<Integer> findIdsTutoriaConPlantillasVigentes(@Param("desde") Date desde);
+
+    /**
+     * Datos de la tutoría de las plantillas vigentes en el rango (tutorías no canceladas).
+     * Retorna: [idPlantilla, idAsignatura, lugar, nombreTutor, apellidoTutor]
+     */
+    @Query("SELECT p.idPlantilla, t.idAsignatura, t.lugar, u.nombre, u.apellido " +
+           "FROM PlantillaDisponibilidad p JOIN Tutoria t ON t.idTutoria = p.idTutoria JOIN t.tutor u " +
+           "WHERE p.idEstado = 1 AND p.fechaInicio <= :hasta AND p.fechaFin >= :desde AND t.idEstadoTutoria <> 5")
+    List<Object[]> findDatosTutoriaDeVigentes(@Param("desde") Date desde, @Param("hasta") Date hasta);
+}
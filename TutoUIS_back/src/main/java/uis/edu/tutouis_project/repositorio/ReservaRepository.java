@@ -1,16 +1,28 @@
 package uis.edu.tutouis_project.repositorio;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import uis.edu.tutouis_project.modelo.Reserva;
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
     
+    /**
+     * Filas por viaje al servidor al recorrer el cursor de exportación
+     */
+    String FETCH_SIZE_EXPORTACION = "500";
+    
     /**
      * Encuentra todas las reservas con JOIN FETCH para cargar las relaciones
      * Necesario para cálculos de estadísticas
@@ -23,8 +35,11 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
     List<Reserva> findAllWithDetails();
     
     /**
-     * OPTIMIZADO: Query con JOINs que retorna todas las reservas como DTOs
-     * Evita el problema N+1 al traer todos los datos en una sola consulta SQL
+     * OPTIMIZADO: Página de reservas como DTOs con paginación por llave (fechaCreacion, idReserva).
+     * La página siguiente arranca justo después de la última fila entregada, así el costo no crece con
+     * el número de página como con OFFSET. Sin cursor (cursorFecha null) retorna la primera página.
+     * Los filtros en null no se aplican. Usa el índice idx_reserva_fecha_creacion_id (V4__indice_reserva_fecha_creacion).
+     * fechaCreacion no admite NULL (V3__fecha_creacion_reservas), así que el cursor recorre todas las reservas
      */
     @Query("""
         SELECT new uis.edu.tutouis_project.modelo.dto.ReservaResponseDto(
@@ -57,9 +72,81 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
         INNER JOIN Usuario tut ON t.idTutor = tut.id_usuario
         INNER JOIN Usuario est ON r.idEstudiante = est.id_usuario
         INNER JOIN EstadoReserva er ON r.idEstado = er.idEstado
-        ORDER BY r.fechaCreacion DESC
+        WHERE (:idEstado IS NULL OR r.idEstado = :idEstado)
+        AND (:idEstudiante IS NULL OR r.idEstudiante = :idEstudiante)
+        AND (:idTutor IS NULL OR t.idTutor = :idTutor)
+        AND (:idAsignatura IS NULL OR t.idAsignatura = :idAsignatura)
+        AND (:desde IS NULL OR r.fechaCreacion >= :desde)
+        AND (:hasta IS NULL OR r.fechaCreacion < :hasta)
+        AND (:cursorFecha IS NULL OR r.fechaCreacion < :cursorFecha
+             OR (r.fechaCreacion = :cursorFecha AND r.idReserva < :cursorId))
+        ORDER BY r.fechaCreacion DESC, r.idReserva DESC
+    """)
+    List<uis.edu.tutouis_project.modelo.dto.ReservaResponseDto> findPaginaReservasConDetalles(
+            @Param("idEstado") Integer idEstado,
+            @Param("idEstudiante") Integer idEstudiante,
+            @Param("idTutor") Integer idTutor,
+            @Param("idAsignatura") Integer idAsignatura,
+            @Param("desde") Timestamp desde,
+            @Param("hasta") Timestamp hasta,
+            @Param("cursorFecha") Timestamp cursorFecha,
+            @Param("cursorId") Integer cursorId,
+            Limit limite
+    );
+    
+    /**
+     * Mismas filas y orden que findPaginaReservasConDetalles, pero como Stream sobre un cursor JDBC:
+     * el driver trae las filas de a FETCH_SIZE_EXPORTACION (requiere useCursorFetch=true en MySQL).
+     * Debe consumirse dentro de una transacción y cerrarse al terminar
+     */
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = FETCH_SIZE_EXPORTACION))
+    @Query("""
+        SELECT new uis.edu.tutouis_project.modelo.dto.ReservaResponseDto(
+            r.idReserva,
+            r.idDisponibilidad,
+            CAST(d.horaInicio AS LocalTime),
+            CAST(d.horaFin AS LocalTime),
+            d.fecha,
+            d.diaSemana,
+            r.idEstudiante,
+            CONCAT(COALESCE(est.nombre, ''), ' ', COALESCE(est.apellido, '')),
+            r.idEstado,
+            er.nombre,
+            r.observaciones,
+            r.fechaCreacion,
+            r.fechaCancelacion,
+            r.razonCancelacion,
+            r.horaInicio,
+            r.horaFin,
+            a.nombre,
+            CONCAT(COALESCE(tut.nombre, ''), ' ', COALESCE(tut.apellido, '')),
+            r.modalidad,
+            r.meetLink,
+            t.lugar
+        )
+        FROM Reserva r
+        INNER JOIN Disponibilidad d ON r.idDisponibilidad = d.idDisponibilidad
+        INNER JOIN Tutoria t ON d.idTutoria = t.idTutoria
+        INNER JOIN Asignatura a ON t.idAsignatura = a.idAsignatura
+        INNER JOIN Usuario tut ON t.idTutor = tut.id_usuario
+        INNER JOIN Usuario est ON r.idEstudiante = est.id_usuario
+        INNER JOIN EstadoReserva er ON r.idEstado = er.idEstado
+        WHERE (:idEstado IS NULL OR r.idEstado = :idEstado)
+        AND (:idEstudiante IS NULL OR r.idEstudiante = :idEstudiante)
+        AND (:idTutor IS NULL OR t.idTutor = :idTutor)
+        AND (:idAsignatura IS NULL OR t.idAsignatura = :idAsignatura)
+        AND (:desde IS NULL OR r.fechaCreacion >= :desde)
+        AND (:hasta IS NULL OR r.fechaCreacion < :hasta)
+        ORDER BY r.fechaCreacion DESC, r.idReserva DESC
     """)
-    List<uis.edu.tutouis_project.modelo.dto.ReservaResponseDto> findAllReservasConDetalles();
+    Stream<uis.edu.tutouis_project.modelo.dto.ReservaResponseDto> streamReservasConDetalles(
+            @Param("idEstado") Integer idEstado,
+            @Param("idEstudiante") Integer idEstudiante,
+            @Param("idTutor") Integer idTutor,
+            @Param("idAsignatura") Integer idAsignatura,
+            @Param("desde") Timestamp desde,
+            @Param("hasta") Timestamp hasta
+    );
     
     /**
      * Encuentra todas las reservas de un estudiante
@@ -221,15 +308,6 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
      */
     List<Reserva> findByIdEstudianteAndIdEstado(Integer idEstudiante, Integer idEstado);
     
-    /**
-     * Busca si existe una reserva activa de un estudiante en una disponibilidad
-     */
-    @Query("SELECT r FROM Reserva r WHERE r.idEstudiante = :idEstudiante " +
-           "AND r.idDisponibilidad = :idDisponibilidad AND r.idEstado = 1")
-    Optional<Reserva> findReservaActivaDeEstudianteEnDisponibilidad(
-            @Param("idEstudiante") Integer idEstudiante,
-            @Param("idDisponibilidad") Integer idDisponibilidad);
-    
     /**
      * Cuenta el número de reservas activas en una disponibilidad
      */
@@ -237,119 +315,53 @@ public interface ReservaRepository extends JpaRepository<Reserva, Integer> {
     long countReservasActivasPorDisponibilidad(@Param("idDisponibilidad") Integer idDisponibilidad);
     
     /**
-     * Obtiene las reservas realizadas de un estudiante
+     * Franja y estudiante de las reservas activas de una disponibilidad (para el índice de ocupación).
+     * Retorna: [horaInicio, idEstudiante]
      */
-    @Query("SELECT r FROM Reserva r WHERE r.idEstudiante = :idEstudiante AND r.idEstado = 3")
-    List<Reserva> findReservasRealizadasDeEstudiante(@Param("idEstudiante") Integer idEstudiante);
+    @Query("SELECT r.horaInicio, r.idEstudiante FROM Reserva r WHERE r.idDisponibilidad = :idDisponibilidad AND r.idEstado = 1")
+    List<Object[]> findFranjasActivas(@Param("idDisponibilidad") Integer idDisponibilidad);
     
     /**
-     * Obtiene las reservas no asistidas de un estudiante
+     * Completa los datos de Google Calendar de una reserva (lo usa el outbox de calendario).
+     * No toca reservas canceladas: si retorna 0 la reserva ya no existe o se canceló mientras se creaba el evento
      */
-    @Query("SELECT r FROM Reserva r WHERE r.idEstudiante = :idEstudiante AND r.idEstado = 4")
-    List<Reserva> findReservasNoAsistidasDeEstudiante(@Param("idEstudiante") Integer idEstudiante);
-    
-    // ==================== CONSULTAS OPTIMIZADAS PARA REPORTES ====================
-    
-    /**
-     * Consulta optimizada: Cuenta total de reservas por estado
-     * Retorna: [idEstado, count]
-     */
-    @Query("SELECT r.idEstado, COUNT(r) FROM Reserva r GROUP BY r.idEstado")
-    List<Object[]> countReservasPorEstado();
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reserva r SET r.googleEventId = :googleEventId, r.meetLink = :meetLink, r.version = r.version + 1 " +
+           "WHERE r.idReserva = :idReserva AND r.idEstado <> 2")
+    int actualizarDatosCalendario(@Param("idReserva") Integer idReserva,
+                                  @Param("googleEventId") String googleEventId,
+                                  @Param("meetLink") String meetLink);
     
     /**
-     * Consulta optimizada: Cuenta estudiantes únicos
+     * Reservas activas (estado 1) de varias disponibilidades con su evento de calendario.
+     * Retorna: [idReserva, googleEventId]
      */
-    @Query("SELECT COUNT(DISTINCT r.idEstudiante) FROM Reserva r")
-    long countEstudiantesActivos();
+    @Query("SELECT r.idReserva, r.googleEventId FROM Reserva r " +
+           "WHERE r.idDisponibilidad IN :idsDisponibilidad AND r.idEstado = 1")
+    List<Object[]> findEventosDeReservasActivas(@Param("idsDisponibilidad") Collection<Integer> idsDisponibilidad);
     
     /**
-     * Consulta optimizada: Calcula tiempo promedio de tutorías
-     * Retorna el promedio de minutos entre hora_inicio y hora_fin de disponibilidad
+     * Cancela en una sola sentencia todas las reservas activas de una disponibilidad
      */
-    @Query(value = """
-        SELECT AVG(TIMESTAMPDIFF(MINUTE, d.hora_inicio, d.hora_fin))
-        FROM reserva r
-        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
-        WHERE d.hora_inicio IS NOT NULL AND d.hora_fin IS NOT NULL
-        """, nativeQuery = true)
-    Double calcularTiempoPromedioMinutos();
+    @Modifying
+    @Transactional
+    @Query("UPDATE Reserva r SET r.idEstado = 2, r.razonCancelacion = :razonCancelacion, " +
+           "r.fechaCancelacion = :fechaCancelacion, r.version = r.version + 1 " +
+           "WHERE r.idDisponibilidad = :idDisponibilidad AND r.idEstado = 1")
+    int cancelarReservasActivasDeDisponibilidad(@Param("idDisponibilidad") Integer idDisponibilidad,
+                                                @Param("razonCancelacion") String razonCancelacion,
+                                                @Param("fechaCancelacion") Timestamp fechaCancelacion);
     
     /**
-     * Consulta optimizada: Reservas por día de la semana
-     * Retorna: [dayOfWeek (1=Lunes, 7=Domingo), count]
-     */
-    @Query(value = """
-        SELECT DAYOFWEEK(d.fecha) as dia, COUNT(*) as total
-        FROM reserva r
-        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
-        WHERE d.fecha IS NOT NULL
-        GROUP BY DAYOFWEEK(d.fecha)
-        ORDER BY dia
-        """, nativeQuery = true)
-    List<Object[]> countReservasPorDiaSemana();
-    
-    /**
-     * Consulta optimizada: Horarios pico (bloques de 2 horas)
-     * Retorna: [periodo, descripcion, count]
-     */
-    @Query(value = """
-        SELECT 
-            CONCAT(LPAD(FLOOR(HOUR(d.hora_inicio) / 2) * 2, 2, '0'), ':00 - ', 
-                   LPAD((FLOOR(HOUR(d.hora_inicio) / 2) * 2) + 2, 2, '0'), ':00') as periodo,
-            CASE 
-                WHEN HOUR(d.hora_inicio) >= 6 AND HOUR(d.hora_inicio) < 12 THEN 'Mañana'
-                WHEN HOUR(d.hora_inicio) >= 12 AND HOUR(d.hora_inicio) < 18 THEN 'Tarde'
-                ELSE 'Noche'
-            END as descripcion,
-            COUNT(*) as total
-        FROM reserva r
-        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
-        WHERE d.hora_inicio IS NOT NULL
-        GROUP BY periodo, descripcion
-        ORDER BY total DESC
-        LIMIT 5
-        """, nativeQuery = true)
-    List<Object[]> findHorariosPico();
-    
-    /**
-     * Consulta optimizada: Estadísticas por materia
-     * Retorna: [nombreMateria, codigoMateria, total, completadas, pendientes, canceladas]
+     * Obtiene las reservas realizadas de un estudiante
      */
-    @Query(value = """
-        SELECT 
-            a.nombre as materia_nombre,
-            CONCAT('MAT-', a.id_asignatura) as codigo,
-            COUNT(*) as total,
-            SUM(CASE WHEN r.id_estado = 3 THEN 1 ELSE 0 END) as completadas,
-            SUM(CASE WHEN r.id_estado = 1 THEN 1 ELSE 0 END) as pendientes,
-            SUM(CASE WHEN r.id_estado = 4 THEN 1 ELSE 0 END) as canceladas
-        FROM reserva r
-        INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
-        INNER JOIN tutoria t ON d.id_tutoria = t.id_tutoria
-        INNER JOIN asignatura a ON t.id_asignatura = a.id_asignatura
-        GROUP BY a.id_asignatura, a.nombre
-        ORDER BY total DESC
-        """, nativeQuery = true)
-    List<Object[]> findEstadisticasPorMateria();
+    @Query("SELECT r FROM Reserva r WHERE r.idEstudiante = :idEstudiante AND r.idEstado = 3")
+    List<Reserva> findReservasRealizadasDeEstudiante(@Param("idEstudiante") Integer idEstudiante);
     
     /**
-     * Consulta optimizada: Crecimiento mensual
-     * Retorna: [mesActual, mesAnterior]
+     * Obtiene las reservas no asistidas de un estudiante
      */
-    @Query(value = """
-        SELECT 
-            SUM(CASE 
-                WHEN r.fecha_creacion >= DATE_SUB(CURDATE(), INTERVAL 1 MONTH) 
-                THEN 1 ELSE 0 
-            END) as mes_actual,
-            SUM(CASE 
-                WHEN r.fecha_creacion >= DATE_SUB(CURDATE(), INTERVAL 2 MONTH) 
-                AND r.fecha_creacion < DATE_SUB(CURDATE(), INTERVAL 1 MONTH)
-                THEN 1 ELSE 0 
-            END) as mes_anterior
-        FROM reserva r
-        WHERE r.fecha_creacion IS NOT NULL
-        """, nativeQuery = true)
-    Object[] calcularCrecimientoMensual();
+    @Query("SELECT r FROM Reserva r WHERE r.idEstudiante = :idEstudiante AND r.idEstado = 4")
+    List<Reserva> findReservasNoAsistidasDeEstudiante(@Param("idEstudiante") Integer idEstudiante);
 }
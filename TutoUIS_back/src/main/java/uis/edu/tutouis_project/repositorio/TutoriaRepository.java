@@ -27,18 +27,37 @@ public interface TutoriaRepository extends JpaRepository<Tutoria, Integer> {
     List<Tutoria> findAllTutoriasWithDetails();
     
     /**
-     * Query optimizada para actualización de estados
-     * Carga tutorías con sus disponibilidades en una sola query (JOIN FETCH)
-     * Evita el problema N+1 al cargar las relaciones necesarias de una vez
+     * Tutorías cuyo estado todavía puede cambiar con el tiempo: las Programadas/En curso y las que tienen
+     * disponibilidades (no canceladas) desde la fecha dada. Se usa para reconstruir la cola de fronteras
      */
     @Query("""
-        SELECT DISTINCT t
+        SELECT t.idTutoria
         FROM Tutoria t
-        LEFT JOIN FETCH t.disponibilidades
-        WHERE t.idEstadoTutoria != 5
-        ORDER BY t.idTutoria
+        WHERE t.idEstadoTutoria IN (2, 3)
+           OR (t.idEstadoTutoria <> 5 AND EXISTS (
+                SELECT 1 FROM Disponibilidad d
+                WHERE d.idTutoria = t.idTutoria AND d.idEstado <> 4 AND d.fecha >= :desde))
+    """)
+    List<Integer> findIdsConFronterasPendientes(@org.springframework.data.repository.query.Param("desde") java.sql.Date desde);
+    
+    /**
+     * IDs de todas las tutorías que no están canceladas
+     */
+    @Query("SELECT t.idTutoria FROM Tutoria t WHERE t.idEstadoTutoria IS NULL OR t.idEstadoTutoria <> 5")
+    List<Integer> findIdsNoCanceladas();
+    
+    /**
+     * Cambia en bloque el estado de varias tutorías. No toca las canceladas ni las que ya tienen ese estado
+     * @return Número de tutorías cuyo estado cambió
+     */
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("""
+        UPDATE Tutoria t SET t.idEstadoTutoria = :idEstado
+        WHERE t.idTutoria IN :idsTutoria
+          AND (t.idEstadoTutoria IS NULL OR (t.idEstadoTutoria <> 5 AND t.idEstadoTutoria <> :idEstado))
     """)
-    List<Tutoria> findAllTutoriasWithDisponibilidadesForEstadoUpdate();
+    int actualizarEstadoTutorias(@org.springframework.data.repository.query.Param("idsTutoria") java.util.Collection<Integer> idsTutoria,
+                                 @org.springframework.data.repository.query.Param("idEstado") Integer idEstado);
     
     /**
      * Cuenta las reservas asociadas a una disponibilidad
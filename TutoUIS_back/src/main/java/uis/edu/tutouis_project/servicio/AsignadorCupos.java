@@ -0,0 +1,347 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.ReservaRepository;
+import uis.edu.tutouis_project.util.OcupacionFranjas;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asignación de cupos de las disponibilidades sin lecturas-modificación-escritura.
+ *
+ * La fuente de verdad es la base de datos: un cupo solo se asigna si el UPDATE condicional
+ * (aforo < aforo_maximo) afecta una fila, por lo que nunca hay sobreventa, aunque corran varias
+ * instancias del backend. Delante de ese UPDATE hay un contador en memoria por disponibilidad
+ * (CAS, sin locks) que rechaza al instante las solicitudes cuando la sesión ya está llena, de modo
+ * que una avalancha de reservas no se convierte en una cola de UPDATEs sobre la misma fila.
+ *
+ * También lleva la ocupación de cada disponibilidad por franjas de 15 minutos (OcupacionFranjas):
+ * responde si un estudiante ya tiene la franja y qué franjas quedan libres sin cargar reservas.
+ * Se arma al primer uso con una proyección (horaInicio, idEstudiante) de las reservas activas y
+ * se descarta junto con el contador en olvidar(). Como el contador, puede ir atrasada respecto de otras
+ * instancias (una cancelación hecha en otra no se ve aquí): un rechazo local se confirma rearmándola desde
+ * la base de datos, como máximo una vez por intervalo. Lo que la ocupación local deja pasar lo vuelven a
+ * validar el UPDATE del aforo y el índice único de reservas activas (V2).
+ *
+ * El aforo guardado debe coincidir siempre con las reservas activas (countReservasActivasPorDisponibilidad).
+ * Se reconcilia completo al arrancar y, mientras corre, por disponibilidad cuando hay señales de desfase:
+ * una liberación que no encontró cupo ocupado o un incremento rechazado por la base de datos.
+ */
+@Component
+public class AsignadorCupos {
+
+    private static final Logger log = LoggerFactory.getLogger(AsignadorCupos.class);
+
+    /**
+     * Tiempo mínimo entre dos resincronizaciones del contador o la ocupación local con la base de datos
+     */
+    private static final long INTERVALO_SINCRONIZACION_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Autowired
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private BuscadorFranjasService buscadorFranjasService;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    private final ConcurrentHashMap<Integer, Contador> contadores = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, OcupacionLocal> ocupaciones = new ConcurrentHashMap<>();
+    /** Disponibilidades cuyo aforo puede no coincidir con sus reservas activas */
+    private final Set<Integer> porReconciliar = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Al arrancar, alinea el aforo guardado con las reservas activas reales
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconciliarAlIniciar() {
+        int desfasadas = disponibilidadRepository.reconciliarAforos();
+        contadores.clear();
+        ocupaciones.clear();
+        log.info("📊 AsignadorCupos: aforo reconciliado en {} disponibilidad(es)", desfasadas);
+    }
+
+    /**
+     * Recalcula el aforo de las disponibilidades con señales de desfase desde la última pasada
+     */
+    @Scheduled(fixedDelayString = "${reservas.aforo.reconciliacion-ms:30000}",
+               initialDelayString = "${reservas.aforo.reconciliacion-ms:30000}")
+    public void reconciliarPendientes() {
+        for (Iterator<Integer> pendientes = porReconciliar.iterator(); pendientes.hasNext(); ) {
+            Integer idDisponibilidad = pendientes.next();
+            pendientes.remove();
+            int desfasada;
+            try {
+                desfasada = disponibilidadRepository.reconciliarAforo(idDisponibilidad);
+            } catch (RuntimeException e) {
+                // Queda para la próxima pasada
+                porReconciliar.add(idDisponibilidad);
+                log.warn("⚠️ No se pudo reconciliar el aforo de la disponibilidad {}: {}", idDisponibilidad, e.getMessage());
+                return;
+            }
+            if (desfasada == 1) {
+                metricas.incrementar("reservas.aforo.reconciliados");
+                log.warn("⚠️ Aforo de la disponibilidad {} desfasado: reconciliado con sus reservas activas", idDisponibilidad);
+                olvidar(idDisponibilidad);
+            }
+        }
+    }
+
+    /**
+     * Intenta tomar un cupo de la disponibilidad.
+     * Si hay una transacción activa y se revierte, el cupo se devuelve automáticamente al contador local
+     * (el UPDATE en la base de datos se revierte con la propia transacción).
+     *
+     * @return true si se asignó el cupo, false si la sesión está llena
+     */
+    public boolean reservarCupo(Disponibilidad disponibilidad) {
+        Integer idDisponibilidad = disponibilidad.getIdDisponibilidad();
+        int aforoMaximo = disponibilidad.getAforoMaximo() != null ? disponibilidad.getAforoMaximo() : 0;
+        int aforoConocido = disponibilidad.getAforo() != null ? disponibilidad.getAforo() : 0;
+
+        Contador contador = contadores.computeIfAbsent(idDisponibilidad, id -> new Contador(aforoConocido));
+
+        if (!contador.tomar(aforoMaximo)) {
+            // El contador puede estar atrasado (p. ej. cancelaciones hechas en otra instancia):
+            // se resincroniza con la BD como máximo una vez por intervalo
+            if (!contador.debeSincronizar()) {
+                return false;
+            }
+            Integer aforoEnBd = disponibilidadRepository.findAforoById(idDisponibilidad);
+            if (aforoEnBd == null) {
+                return false;
+            }
+            contador.sincronizar(aforoEnBd);
+            if (!contador.tomar(aforoMaximo)) {
+                return false;
+            }
+        }
+
+        if (disponibilidadRepository.incrementarAforoSiHayCupo(idDisponibilidad) == 1) {
+            alRevertir(contador::liberar);
+            alConfirmar(() -> buscadorFranjasService.ajustarCupos(idDisponibilidad, -1));
+            return true;
+        }
+
+        // La BD rechazó el cupo: el contador local iba por detrás, se marca la sesión como llena.
+        // Si en cambio el aforo en BD quedó por encima de las reservas activas, la reconciliación lo corrige
+        contador.sincronizar(aforoMaximo);
+        porReconciliar.add(idDisponibilidad);
+        return false;
+    }
+
+    /**
+     * Libera un cupo de la disponibilidad. Solo para reservas que estaban activas (estado 1) y dejan de estarlo
+     */
+    public void liberarCupo(Integer idDisponibilidad) {
+        int filas = disponibilidadRepository.decrementarAforo(idDisponibilidad);
+        if (filas == 0) {
+            // Había una reserva activa pero el aforo ya estaba en cero
+            porReconciliar.add(idDisponibilidad);
+        }
+        Contador contador = contadores.get(idDisponibilidad);
+        if (filas == 1 && contador != null) {
+            alConfirmar(contador::liberar);
+        }
+        if (filas == 1) {
+            alConfirmar(() -> buscadorFranjasService.ajustarCupos(idDisponibilidad, 1));
+        }
+    }
+
+    /**
+     * Aparta la franja de 15 minutos que empieza a horaInicio para el estudiante.
+     * Si la transacción se revierte la franja se devuelve sola
+     */
+    public ResultadoFranja tomarFranja(Disponibilidad disponibilidad, Integer idEstudiante, LocalTime horaInicio) {
+        OcupacionLocal local = ocupacionLocal(disponibilidad);
+        OcupacionFranjas ocupacion = local.franjas;
+        int franja = ocupacion.franja(horaInicio);
+        if (franja < 0) {
+            return ResultadoFranja.FUERA_DE_RANGO;
+        }
+        if (!ocupacion.ocupar(franja, idEstudiante)) {
+            // La ocupación puede estar atrasada (reservas canceladas en otra instancia): antes de rechazar se
+            // rearma desde la BD, como máximo una vez por intervalo
+            if (!local.debeSincronizar()) {
+                return ocupacion.tiene(franja, idEstudiante) ? ResultadoFranja.YA_RESERVADA : ResultadoFranja.LLENA;
+            }
+            ocupaciones.remove(disponibilidad.getIdDisponibilidad(), local);
+            ocupacion = ocupacionLocal(disponibilidad).franjas;
+            if (!ocupacion.ocupar(franja, idEstudiante)) {
+                return ocupacion.tiene(franja, idEstudiante) ? ResultadoFranja.YA_RESERVADA : ResultadoFranja.LLENA;
+            }
+        }
+        OcupacionFranjas tomada = ocupacion;
+        alRevertir(() -> tomada.liberar(franja, idEstudiante));
+        return ResultadoFranja.TOMADA;
+    }
+
+    /**
+     * Libera la franja del estudiante cuando la reserva deja de estar activa (al confirmar la transacción)
+     */
+    public void liberarFranja(Integer idDisponibilidad, Integer idEstudiante, LocalTime horaInicio) {
+        OcupacionLocal local = ocupaciones.get(idDisponibilidad);
+        if (local == null) {
+            return;
+        }
+        OcupacionFranjas ocupacion = local.franjas;
+        int franja = ocupacion.franja(horaInicio);
+        if (franja >= 0) {
+            alConfirmar(() -> ocupacion.liberar(franja, idEstudiante));
+        }
+    }
+
+    /**
+     * Franjas con asientos libres de la disponibilidad. El aforo se cuenta por disponibilidad, así que
+     * ninguna franja ofrece más asientos que los cupos que le quedan (aforo máximo - aforo): con la
+     * disponibilidad llena la lista queda vacía, igual que en la búsqueda de BuscadorFranjasService
+     */
+    public List<OcupacionFranjas.Franja> franjasLibres(Disponibilidad disponibilidad) {
+        int aforoMaximo = disponibilidad.getAforoMaximo() != null ? disponibilidad.getAforoMaximo() : 0;
+        int aforo = disponibilidad.getAforo() != null ? disponibilidad.getAforo() : 0;
+        return ocupacionLocal(disponibilidad).franjas.libres(aforoMaximo - aforo);
+    }
+
+    /**
+     * Descarta el estado local de una disponibilidad (cambió su aforo máximo u horario, se canceló o se eliminó)
+     */
+    public void olvidar(Integer idDisponibilidad) {
+        contadores.remove(idDisponibilidad);
+        ocupaciones.remove(idDisponibilidad);
+        buscadorFranjasService.invalidar();
+    }
+
+    private OcupacionLocal ocupacionLocal(Disponibilidad disponibilidad) {
+        Integer idDisponibilidad = disponibilidad.getIdDisponibilidad();
+        OcupacionLocal local = ocupaciones.get(idDisponibilidad);
+        if (local != null) {
+            return local;
+        }
+        OcupacionFranjas ocupacion = new OcupacionFranjas(disponibilidad.getHoraInicio().toLocalTime(), disponibilidad.getHoraFin().toLocalTime(),
+                disponibilidad.getAforoMaximo() != null ? disponibilidad.getAforoMaximo() : 0);
+        for (Object[] fila : reservaRepository.findFranjasActivas(idDisponibilidad)) {
+            LocalTime hora = fila[0] instanceof Time t ? t.toLocalTime() : (LocalTime) fila[0];
+            int franja = ocupacion.franja(hora);
+            if (franja >= 0) {
+                ocupacion.ocupar(franja, (Integer) fila[1]);
+            }
+        }
+        local = new OcupacionLocal(ocupacion);
+        OcupacionLocal previa = ocupaciones.putIfAbsent(idDisponibilidad, local);
+        return previa != null ? previa : local;
+    }
+
+    private void alRevertir(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    accion.run();
+                }
+            }
+        });
+    }
+
+    private void alConfirmar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+
+    public enum ResultadoFranja {
+        TOMADA,
+        /** El estudiante ya tiene una reserva activa en la franja */
+        YA_RESERVADA,
+        /** Todos los asientos de la franja están ocupados */
+        LLENA,
+        /** La hora no coincide con el inicio de una franja de la disponibilidad */
+        FUERA_DE_RANGO
+    }
+
+    /**
+     * Ocupación por franjas de una disponibilidad y el momento en que se leyó de la base de datos
+     */
+    private static final class OcupacionLocal {
+        private final OcupacionFranjas franjas;
+        private final long sincronizada;
+
+        OcupacionLocal(OcupacionFranjas franjas) {
+            this.franjas = franjas;
+            this.sincronizada = System.nanoTime();
+        }
+
+        boolean debeSincronizar() {
+            return System.nanoTime() - sincronizada >= INTERVALO_SINCRONIZACION_NANOS;
+        }
+    }
+
+    /**
+     * Contador de ocupación local de una disponibilidad
+     */
+    private static final class Contador {
+        private final AtomicInteger ocupados;
+        private volatile long ultimaSincronizacion;
+
+        Contador(int ocupadosIniciales) {
+            this.ocupados = new AtomicInteger(ocupadosIniciales);
+            this.ultimaSincronizacion = System.nanoTime();
+        }
+
+        boolean tomar(int aforoMaximo) {
+            while (true) {
+                int actual = ocupados.get();
+                if (actual >= aforoMaximo) {
+                    return false;
+                }
+                if (ocupados.compareAndSet(actual, actual + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void liberar() {
+            ocupados.updateAndGet(actual -> actual > 0 ? actual - 1 : 0);
+        }
+
+        boolean debeSincronizar() {
+            return System.nanoTime() - ultimaSincronizacion >= INTERVALO_SINCRONIZACION_NANOS;
+        }
+
+        void sincronizar(int ocupadosEnBd) {
+            ocupados.set(ocupadosEnBd);
+            ultimaSincronizacion = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uis.edu.tutouis_project.modelo.PlantillaDisponibilidad;
+import uis.edu.tutouis_project.modelo.dto.FranjaLibreDto;
+import uis.edu.tutouis_project.modelo.dto.PaginaFranjasDto;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.PlantillaDisponibilidadRepository;
+import uis.edu.tutouis_project.util.CursorFranja;
+import uis.edu.tutouis_project.util.IndiceFranjas;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Búsqueda de franjas libres por asignatura sin ir a la base de datos.
+ *
+ * Mantiene un IndiceFranjas con las disponibilidades activas (y las sesiones de plantillas sin guardar)
+ * desde hoy hasta el horizonte configurado. El índice se reconstruye con una consulta al arrancar,
+ * periódicamente y poco después de cada cambio de disponibilidades o tutorías (invalidar);
+ * los cupos se ajustan en el índice vivo cuando se confirma una reserva o una cancelación.
+ */
+@Service
+public class BuscadorFranjasService {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscadorFranjasService.class);
+
+    @Autowired
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Autowired
+    private PlantillaDisponibilidadRepository plantillaDisponibilidadRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Value("${buscador.franjas.horizonte-dias:90}")
+    private int horizonteDias;
+
+    @Value("${buscador.franjas.limite-defecto:20}")
+    private int limiteDefecto;
+
+    @Value("${buscador.franjas.limite-max:100}")
+    private int limiteMaximo;
+
+    private volatile IndiceFranjas indice = new IndiceFranjas(List.of());
+    private volatile LocalDate horizonte = LocalDate.now();
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        reconstruir();
+        log.info("🔎 BuscadorFranjasService: índice cargado con {} disponibilidad(es)", indice.tamano());
+    }
+
+    /**
+     * Reconstrucción periódica: recoge el paso de los días y corrige cupos ajustados en otra instancia
+     */
+    @Scheduled(fixedDelayString = "${buscador.franjas.reconstruccion-ms:300000}",
+               initialDelayString = "${buscador.franjas.reconstruccion-ms:300000}")
+    public void reconstruirPeriodicamente() {
+        reconstruirSinFallar();
+    }
+
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        LocalDate hoy = LocalDate.now();
+        LocalDate hasta = hoy.plusDays(horizonteDias);
+
+        List<IndiceFranjas.Entrada> entradas = new ArrayList<>();
+        Set<String> guardadas = new HashSet<>();
+        for (Object[] fila : disponibilidadRepository.findParaBuscador(Date.valueOf(hoy), Date.valueOf(hasta))) {
+            LocalDate fecha = ((Date) fila[3]).toLocalDate();
+            if (fila[9] != null) {
+                guardadas.add(fila[9] + "|" + fecha);
+            }
+            if (!Integer.valueOf(1).equals(fila[8])) {
+                continue;
+            }
+            entradas.add(new IndiceFranjas.Entrada((Integer) fila[0], (Integer) fila[9], (Integer) fila[1], (Integer) fila[2],
+                    fecha, ((Time) fila[4]).toLocalTime(), ((Time) fila[5]).toLocalTime(), entero(fila[6]), entero(fila[7]),
+                    (String) fila[10], nombre(fila[11], fila[12])));
+        }
+
+        Map<Integer, Object[]> tutorias = new HashMap<>();
+        for (Object[] fila : plantillaDisponibilidadRepository.findDatosTutoriaDeVigentes(Date.valueOf(hoy), Date.valueOf(hasta))) {
+            tutorias.put((Integer) fila[0], fila);
+        }
+        for (PlantillaDisponibilidad plantilla : plantillaDisponibilidadRepository.findVigentesEnRango(null,
+                Date.valueOf(hoy), Date.valueOf(hasta))) {
+            Object[] tutoria = tutorias.get(plantilla.getIdPlantilla());
+            if (tutoria == null) {
+                continue;
+            }
+            for (LocalDate fecha : PlantillaDisponibilidadService.fechas(plantilla, hoy, hasta)) {
+                if (!guardadas.contains(plantilla.getIdPlantilla() + "|" + fecha)) {
+                    entradas.add(new IndiceFranjas.Entrada(null, plantilla.getIdPlantilla(), plantilla.getIdTutoria(),
+                            (Integer) tutoria[1], fecha, plantilla.getHoraInicio().toLocalTime(),
+                            plantilla.getHoraFin().toLocalTime(), plantilla.getAforoMaximo(), 0,
+                            (String) tutoria[2], nombre(tutoria[3], tutoria[4])));
+                }
+            }
+        }
+
+        indice = new IndiceFranjas(entradas);
+        horizonte = hasta;
+        metricas.registrarTiempo("buscador.franjas.reconstruccion", System.nanoTime() - inicio);
+    }
+
+    /**
+     * Busca franjas libres de una asignatura ordenadas de la más próxima a la más lejana
+     * @param modalidad Presencial (solo tutorías con lugar), Virtual o null
+     */
+    public PaginaFranjasDto buscar(Integer idAsignatura, LocalDate desde, LocalDate hasta, LocalTime horaDesde,
+                                   LocalTime horaHasta, String modalidad, String cursor, Integer limite) {
+        if (idAsignatura == null) {
+            throw new IllegalArgumentException("La asignatura es requerida");
+        }
+        if (modalidad != null && !modalidad.equalsIgnoreCase("Presencial") && !modalidad.equalsIgnoreCase("Virtual")) {
+            throw new IllegalArgumentException("La modalidad debe ser Presencial o Virtual");
+        }
+        long inicio = System.nanoTime();
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate primerDia = desde != null ? desde : ahora.toLocalDate();
+        LocalDate ultimoDia = hasta != null && hasta.isBefore(horizonte) ? hasta : horizonte;
+        int tamano = limite == null ? limiteDefecto : Math.max(1, Math.min(limite, limiteMaximo));
+        CursorFranja despuesDe = cursor == null || cursor.isBlank() ? null : CursorFranja.decodificar(cursor);
+
+        IndiceFranjas.Pagina pagina = indice.buscar(new IndiceFranjas.Consulta(idAsignatura, primerDia, ultimoDia,
+                horaDesde, horaHasta, "Presencial".equalsIgnoreCase(modalidad), ahora, despuesDe, tamano));
+
+        List<FranjaLibreDto> franjas = new ArrayList<>(pagina.franjas().size());
+        for (IndiceFranjas.Franja franja : pagina.franjas()) {
+            IndiceFranjas.Entrada entrada = franja.entrada();
+            franjas.add(new FranjaLibreDto(entrada.getIdDisponibilidad(), entrada.getIdPlantilla(), entrada.getIdTutoria(),
+                    franja.fecha(), franja.horaInicio(), franja.horaFin(), entrada.getRestantes(), entrada.getLugar(),
+                    entrada.getTutor()));
+        }
+        metricas.registrarTiempo("buscador.franjas.busqueda", System.nanoTime() - inicio);
+        return new PaginaFranjasDto(franjas, pagina.siguiente() != null ? pagina.siguiente().codificar() : null);
+    }
+
+    /**
+     * Ajusta los cupos restantes de una disponibilidad (negativo al reservar, positivo al liberar).
+     * Se llama una vez confirmada la transacción
+     */
+    public void ajustarCupos(Integer idDisponibilidad, int delta) {
+        indice.ajustarCupos(idDisponibilidad, delta);
+    }
+
+    /**
+     * Pide una reconstrucción en segundo plano cuando se confirme la transacción actual.
+     * Varias invalidaciones seguidas se agrupan en una sola reconstrucción
+     */
+    public void invalidar() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            programarReconstruccion();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                programarReconstruccion();
+            }
+        });
+    }
+
+    private void programarReconstruccion() {
+        if (reconstruccionPendiente.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                reconstruccionPendiente.set(false);
+                reconstruirSinFallar();
+            }, Instant.now());
+        }
+    }
+
+    private void reconstruirSinFallar() {
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            // Se sigue sirviendo el índice anterior hasta la próxima reconstrucción
+            log.error("❌ BuscadorFranjasService: error reconstruyendo el índice: {}", e.getMessage());
+        }
+    }
+
+    private static int entero(Object valor) {
+        return valor != null ? ((Number) valor).intValue() : 0;
+    }
+
+    private static String nombre(Object nombre, Object apellido) {
+        return ((nombre != null ? nombre : "") + " " + (apellido != null ? apellido : "")).trim();
+    }
+}
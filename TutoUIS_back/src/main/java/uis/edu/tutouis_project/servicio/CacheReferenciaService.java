@@ -0,0 +1,86 @@
+package uis.edu.tutouis_project.servicio;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import uis.edu.tutouis_project.modelo.Asignatura;
+import uis.edu.tutouis_project.modelo.Carrera;
+import uis.edu.tutouis_project.modelo.EstadoDisponibilidad;
+import uis.edu.tutouis_project.modelo.EstadoReserva;
+import uis.edu.tutouis_project.modelo.EstadoTutoria;
+import uis.edu.tutouis_project.modelo.Rol;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas y vaciado de la caché de segundo nivel de los datos de referencia.
+ *
+ * Las escrituras hechas por JPA mantienen la caché al día solas (estrategia READ_WRITE y marcas de
+ * tiempo por tabla para la caché de consultas). vaciar() es para los cambios hechos por fuera de la
+ * aplicación, por ejemplo scripts SQL sobre las tablas de estados.
+ */
+@Service
+public class CacheReferenciaService {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheReferenciaService.class);
+
+    static final List<Class<?>> ENTIDADES_REFERENCIA = List.of(Rol.class, Carrera.class, Asignatura.class,
+            EstadoReserva.class, EstadoTutoria.class, EstadoDisponibilidad.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public Map<String, Object> estadisticas() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("habilitadas", estadisticas.isStatisticsEnabled());
+
+        Map<String, Object> regiones = new TreeMap<>();
+        // Cada entidad cacheada tiene su región con el nombre de la clase; las de consultas se
+        // reportan aparte porque getDomainDataRegionStatistics no las acepta
+        for (Class<?> entidad : ENTIDADES_REFERENCIA) {
+            CacheRegionStatistics region = estadisticas.getDomainDataRegionStatistics(entidad.getName());
+            if (region != null) {
+                regiones.put(entidad.getSimpleName(), contadores(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        resumen.put("regiones", regiones);
+        resumen.put("consultas", contadores(estadisticas.getQueryCacheHitCount(), estadisticas.getQueryCacheMissCount(),
+                estadisticas.getQueryCachePutCount()));
+
+        // Sentencias preparadas por sesión (≈ por petición con open-in-view): la cifra que la caché debe bajar
+        long sentencias = estadisticas.getPrepareStatementCount();
+        long sesiones = estadisticas.getSessionOpenCount();
+        resumen.put("sentencias", sentencias);
+        resumen.put("sesiones", sesiones);
+        resumen.put("sentenciasPorSesion", sesiones > 0 ? (double) sentencias / sesiones : 0.0);
+        return resumen;
+    }
+
+    /**
+     * Vacía las entidades de referencia y todas las consultas cacheadas
+     */
+    public void vaciar() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        ENTIDADES_REFERENCIA.forEach(cache::evictEntityData);
+        cache.evictQueryRegions();
+        log.info("🧹 Caché de datos de referencia vaciada");
+    }
+
+    private static Map<String, Long> contadores(long aciertos, long fallos, long escrituras) {
+        Map<String, Long> contadores = new LinkedHashMap<>();
+        contadores.put("aciertos", aciertos);
+        contadores.put("fallos", fallos);
+        contadores.put("escrituras", escrituras);
+        return contadores;
+    }
+}
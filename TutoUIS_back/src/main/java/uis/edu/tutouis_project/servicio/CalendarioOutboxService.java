@@ -0,0 +1,398 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.dto.OperacionCalendario;
+import uis.edu.tutouis_project.dto.ResultadoOperacionCalendario;
+import uis.edu.tutouis_project.modelo.EventoCalendarioOutbox;
+import uis.edu.tutouis_project.modelo.Reserva;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.modelo.Tutoria;
+import uis.edu.tutouis_project.repositorio.EventoCalendarioOutboxRepository;
+import uis.edu.tutouis_project.repositorio.ReservaRepository;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.TutoriaRepository;
+import uis.edu.tutouis_project.repositorio.UsuarioRepository;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Outbox de Google Calendar para reservas.
+ *
+ * ReservaService solo escribe una fila CREAR/ELIMINAR en la misma transacción que la reserva,
+ * así la latencia de reservar depende únicamente de la BD. Un proceso programado toma lotes
+ * de pendientes, los envía al calendario como un solo lote (fuera de cualquier transacción) y completa
+ * meetLink/googleEventId.
+ * Los fallos se reintentan con backoff exponencial hasta calendario.outbox.max-intentos.
+ */
+@Service
+public class CalendarioOutboxService {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarioOutboxService.class);
+
+    @Autowired
+    private EventoCalendarioOutboxRepository outboxRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Autowired
+    private TutoriaRepository tutoriaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ICalendarioService calendarioService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Value("${calendario.outbox.tamano-lote:50}")
+    private int tamanoLote;
+
+    @Value("${calendario.outbox.max-intentos:8}")
+    private int maxIntentos;
+
+    @Value("${calendario.outbox.backoff-base-ms:5000}")
+    private long backoffBaseMs;
+
+    @Value("${calendario.outbox.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    /**
+     * Tiempo durante el cual un evento tomado no vuelve a ser elegible (si la instancia muere a mitad del lote)
+     */
+    @Value("${calendario.outbox.lease-ms:120000}")
+    private long leaseMs;
+
+    /**
+     * Registra la creación del evento de calendario de una reserva.
+     * Debe llamarse dentro de la transacción que guarda la reserva
+     */
+    public void encolarCreacion(Integer idReserva) {
+        outboxRepository.save(new EventoCalendarioOutbox(idReserva, EventoCalendarioOutbox.OPERACION_CREAR, null));
+    }
+
+    /**
+     * Registra la eliminación del evento de calendario de una reserva.
+     * googleEventId puede ser null si el evento aún no se había creado; se resuelve al despachar
+     */
+    public void encolarEliminacion(Integer idReserva, String googleEventId) {
+        String eventId = googleEventId != null && !googleEventId.trim().isEmpty() ? googleEventId : null;
+        outboxRepository.save(new EventoCalendarioOutbox(idReserva, EventoCalendarioOutbox.OPERACION_ELIMINAR, eventId));
+    }
+
+    /**
+     * Registra la eliminación de los eventos de todas las reservas activas de varias disponibilidades
+     * (cancelación o borrado masivo). El despacho las agrupa en un solo lote hacia Google
+     * @return Número de eliminaciones encoladas
+     */
+    public int encolarEliminacionesDeReservasActivas(Collection<Integer> idsDisponibilidad) {
+        if (idsDisponibilidad == null || idsDisponibilidad.isEmpty()) {
+            return 0;
+        }
+        List<EventoCalendarioOutbox> eventos = new ArrayList<>();
+        for (Object[] fila : reservaRepository.findEventosDeReservasActivas(idsDisponibilidad)) {
+            String googleEventId = (String) fila[1];
+            eventos.add(new EventoCalendarioOutbox((Integer) fila[0], EventoCalendarioOutbox.OPERACION_ELIMINAR,
+                    googleEventId != null && !googleEventId.trim().isEmpty() ? googleEventId : null));
+        }
+        outboxRepository.saveAll(eventos);
+        return eventos.size();
+    }
+
+    /**
+     * Procesa los eventos pendientes por lotes hasta vaciar los que ya vencieron
+     * @return Número de eventos procesados (exitosos o no)
+     */
+    @Scheduled(fixedDelayString = "${calendario.outbox.intervalo-ms:2000}",
+               initialDelayString = "${calendario.outbox.intervalo-ms:2000}")
+    public int despacharPendientes() {
+        int total = 0;
+        List<EventoCalendarioOutbox> lote;
+        do {
+            lote = reclamarLote();
+            procesarLote(lote);
+            total += lote.size();
+        } while (lote.size() == tamanoLote);
+
+        if (total > 0) {
+            log.info("🗓️ CalendarioOutbox: {} eventos procesados", total);
+        }
+        return total;
+    }
+
+    /**
+     * Toma un lote en una transacción corta: las filas se bloquean con SKIP LOCKED y se les corre
+     * el próximo intento (lease) para que otra instancia no las procese mientras se llama a Google
+     */
+    private List<EventoCalendarioOutbox> reclamarLote() {
+        Timestamp ahora = new Timestamp(System.currentTimeMillis());
+        Timestamp lease = new Timestamp(ahora.getTime() + leaseMs);
+        List<EventoCalendarioOutbox> lote = transactionTemplate.execute(status -> {
+            List<EventoCalendarioOutbox> pendientes =
+                    outboxRepository.findPendientesParaProcesar(ahora, PageRequest.of(0, tamanoLote));
+            pendientes.forEach(evento -> evento.setProximoIntento(lease));
+            return pendientes;
+        });
+        return lote != null ? lote : List.of();
+    }
+
+    /**
+     * Procesa un lote completo con una sola llamada batch al calendario:
+     * 1. Se resuelve cada evento contra la BD (los que no requieren llamada se cierran de una vez)
+     * 2. Las operaciones restantes se envían juntas con ICalendarioService.ejecutarLote
+     * 3. Cada resultado se aplica a su evento; los eventos huérfanos se limpian en un segundo lote
+     */
+    private void procesarLote(List<EventoCalendarioOutbox> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<Paso> pasos = new ArrayList<>();
+        for (EventoCalendarioOutbox evento : lote) {
+            try {
+                Paso paso = prepararPaso(evento);
+                if (paso != null) {
+                    pasos.add(paso);
+                }
+            } catch (Exception e) {
+                registrarFallo(evento, mensajeDe(e));
+            }
+        }
+
+        List<Paso> huerfanos = ejecutarPasos(pasos);
+        ejecutarPasos(huerfanos);
+
+        outboxRepository.saveAll(lote);
+    }
+
+    /**
+     * Envía los pasos en un lote y aplica cada resultado
+     * @return Pasos de limpieza generados (eventos creados para reservas que ya no están activas)
+     */
+    private List<Paso> ejecutarPasos(List<Paso> pasos) {
+        if (pasos.isEmpty()) {
+            return List.of();
+        }
+        List<OperacionCalendario> operaciones = new ArrayList<>(pasos.size());
+        for (Paso paso : pasos) {
+            operaciones.add(paso.operacion);
+        }
+        List<ResultadoOperacionCalendario> resultados = calendarioService.ejecutarLote(operaciones);
+
+        List<Paso> huerfanos = new ArrayList<>();
+        for (int i = 0; i < pasos.size(); i++) {
+            Paso paso = pasos.get(i);
+            try {
+                Paso limpieza = aplicarResultado(paso, resultados.get(i));
+                if (limpieza != null) {
+                    huerfanos.add(limpieza);
+                }
+            } catch (Exception e) {
+                registrarFallo(paso.evento, mensajeDe(e));
+            }
+        }
+        return huerfanos;
+    }
+
+    /**
+     * Decide qué llamada necesita el evento. Retorna null si se resolvió sin llamar al calendario
+     */
+    private Paso prepararPaso(EventoCalendarioOutbox evento) {
+        if (EventoCalendarioOutbox.OPERACION_CREAR.equals(evento.getOperacion())) {
+            return prepararCreacion(evento);
+        }
+        String eventId = resolverEventId(evento);
+        if (eventId == null) {
+            // Sin eventId el CREAR nunca se completó; al despacharse verá la reserva cancelada y se descarta
+            finalizar(evento, EventoCalendarioOutbox.ESTADO_COMPLETADO);
+            return null;
+        }
+        evento.setGoogleEventId(eventId);
+        return new Paso(evento, Accion.ELIMINAR, OperacionCalendario.eliminar(eventId), null);
+    }
+
+    private Paso prepararCreacion(EventoCalendarioOutbox evento) {
+        Optional<Reserva> reservaOpt = reservaRepository.findById(evento.getIdReserva());
+        if (reservaOpt.isEmpty() || reservaOpt.get().getIdEstado() == 2) {
+            // La reserva se eliminó o canceló: solo queda borrar el evento si un intento anterior lo alcanzó a crear
+            if (evento.getGoogleEventId() != null) {
+                return new Paso(evento, Accion.ELIMINAR_HUERFANO, OperacionCalendario.eliminar(evento.getGoogleEventId()), null);
+            }
+            finalizar(evento, EventoCalendarioOutbox.ESTADO_DESCARTADO);
+            return null;
+        }
+        Reserva reserva = reservaOpt.get();
+
+        if (reserva.getGoogleEventId() != null && !reserva.getGoogleEventId().trim().isEmpty()) {
+            evento.setGoogleEventId(reserva.getGoogleEventId());
+            finalizar(evento, EventoCalendarioOutbox.ESTADO_COMPLETADO);
+            return null;
+        }
+
+        if (evento.getGoogleEventId() != null) {
+            // Un intento anterior creó el evento pero no alcanzó a guardarlo en la reserva: se borra y se vuelve a crear
+            return new Paso(evento, Accion.ELIMINAR_PREVIO, OperacionCalendario.eliminar(evento.getGoogleEventId()), reserva);
+        }
+
+        Disponibilidad disponibilidad = disponibilidadRepository.findById(reserva.getIdDisponibilidad())
+                .orElseThrow(() -> new RuntimeException("Disponibilidad no encontrada con ID: " + reserva.getIdDisponibilidad()));
+        Tutoria tutoria = tutoriaRepository.findById(disponibilidad.getIdTutoria())
+                .orElseThrow(() -> new RuntimeException("Tutoría no encontrada"));
+        String correoEstudiante = usuarioRepository.findById(reserva.getIdEstudiante())
+                .map(u -> u.getCorreo())
+                .orElseThrow(() -> new RuntimeException("Estudiante no encontrado"));
+        String correoTutor = usuarioRepository.findById(tutoria.getIdTutor())
+                .map(u -> u.getCorreo())
+                .orElseThrow(() -> new RuntimeException("Tutor no encontrado"));
+
+        // Crear título y descripción
+        String nombreAsignatura = tutoria.getAsignatura() != null ? tutoria.getAsignatura().getNombre() : "Tutoría";
+        String modalidad = reserva.getModalidad() != null ? reserva.getModalidad() : "Presencial";
+        boolean virtual = "Virtual".equalsIgnoreCase(modalidad);
+        String titulo = "Tutoría " + modalidad + ": " + nombreAsignatura;
+        String descripcion = "Tutoría " + modalidad.toLowerCase() + " de " + nombreAsignatura;
+
+        // Agregar información del lugar si es presencial
+        if (!virtual && tutoria.getLugar() != null && !tutoria.getLugar().trim().isEmpty()) {
+            descripcion += "\n\n📍 Lugar: " + tutoria.getLugar();
+        }
+        if (reserva.getObservaciones() != null && !reserva.getObservaciones().trim().isEmpty()) {
+            descripcion += "\n\n📝 Observaciones: " + reserva.getObservaciones();
+        }
+
+        LocalDate fecha = disponibilidad.getFecha().toLocalDate();
+        OperacionCalendario operacion = OperacionCalendario.crear(titulo, descripcion, fecha,
+                reserva.getHoraInicio(), reserva.getHoraFin(), correoEstudiante, correoTutor, virtual);
+        return new Paso(evento, Accion.CREAR, operacion, reserva);
+    }
+
+    /**
+     * Aplica el resultado de una operación a su evento
+     * @return Paso de limpieza si se creó un evento para una reserva que ya no está activa
+     */
+    private Paso aplicarResultado(Paso paso, ResultadoOperacionCalendario resultado) {
+        EventoCalendarioOutbox evento = paso.evento;
+        if (!resultado.isExito()) {
+            registrarFallo(evento, resultado.getCodigoHttp() != null
+                    ? resultado.getCodigoHttp() + " " + resultado.getError()
+                    : resultado.getError());
+            return null;
+        }
+
+        switch (paso.accion) {
+            case CREAR -> {
+                evento.setGoogleEventId(resultado.getEventId());
+                int actualizadas = reservaRepository.actualizarDatosCalendario(
+                        paso.reserva.getIdReserva(), resultado.getEventId(), resultado.getMeetLink());
+                if (actualizadas == 0) {
+                    // La reserva se canceló o eliminó mientras se creaba el evento: no dejar el evento huérfano
+                    return new Paso(evento, Accion.ELIMINAR_HUERFANO, OperacionCalendario.eliminar(resultado.getEventId()), null);
+                }
+                finalizar(evento, EventoCalendarioOutbox.ESTADO_COMPLETADO);
+            }
+            case ELIMINAR -> finalizar(evento, EventoCalendarioOutbox.ESTADO_COMPLETADO);
+            case ELIMINAR_HUERFANO -> finalizar(evento, EventoCalendarioOutbox.ESTADO_DESCARTADO);
+            case ELIMINAR_PREVIO -> {
+                // El evento previo ya no existe; el CREAR queda listo para el siguiente despacho
+                evento.setGoogleEventId(null);
+                evento.setProximoIntento(new Timestamp(System.currentTimeMillis()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Busca el ID del evento en la fila del outbox, en la reserva y por último en el CREAR completado
+     */
+    private String resolverEventId(EventoCalendarioOutbox evento) {
+        if (evento.getGoogleEventId() != null) {
+            return evento.getGoogleEventId();
+        }
+        String desdeReserva = reservaRepository.findById(evento.getIdReserva())
+                .map(Reserva::getGoogleEventId)
+                .filter(id -> !id.trim().isEmpty())
+                .orElse(null);
+        if (desdeReserva != null) {
+            return desdeReserva;
+        }
+        return outboxRepository.findFirstByIdReservaAndOperacionAndEstadoOrderByIdEventoDesc(
+                        evento.getIdReserva(), EventoCalendarioOutbox.OPERACION_CREAR, EventoCalendarioOutbox.ESTADO_COMPLETADO)
+                .map(EventoCalendarioOutbox::getGoogleEventId)
+                .orElse(null);
+    }
+
+    private void finalizar(EventoCalendarioOutbox evento, String estado) {
+        evento.setEstado(estado);
+        evento.setIntentos(evento.getIntentos() + 1);
+        evento.setUltimoError(null);
+        evento.setFechaProcesado(new Timestamp(System.currentTimeMillis()));
+    }
+
+    private void registrarFallo(EventoCalendarioOutbox evento, String mensaje) {
+        int intentos = evento.getIntentos() + 1;
+        evento.setIntentos(intentos);
+        if (mensaje == null) {
+            mensaje = "Error desconocido";
+        }
+        evento.setUltimoError(mensaje.length() > 500 ? mensaje.substring(0, 500) : mensaje);
+        metricas.incrementar("calendario.fallos");
+
+        if (intentos >= maxIntentos) {
+            evento.setEstado(EventoCalendarioOutbox.ESTADO_FALLIDO);
+            evento.setFechaProcesado(new Timestamp(System.currentTimeMillis()));
+            metricas.incrementar("calendario.fallos.definitivos");
+            log.error("❌ CalendarioOutbox: {} agotó los reintentos: {}", evento, mensaje);
+            return;
+        }
+
+        // Backoff exponencial con un 20% de jitter para no sincronizar reintentos entre instancias
+        long espera = Math.min(backoffMaxMs, backoffBaseMs << Math.min(intentos - 1, 20));
+        espera += ThreadLocalRandom.current().nextLong(espera / 5 + 1);
+        evento.setProximoIntento(new Timestamp(System.currentTimeMillis() + espera));
+        log.warn("⚠️ CalendarioOutbox: {} falló, reintento en {}ms: {}", evento, espera, mensaje);
+    }
+
+    private static String mensajeDe(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private enum Accion { CREAR, ELIMINAR, ELIMINAR_HUERFANO, ELIMINAR_PREVIO }
+
+    /**
+     * Evento del outbox junto con la llamada al calendario que le corresponde
+     */
+    private static final class Paso {
+        private final EventoCalendarioOutbox evento;
+        private final Accion accion;
+        private final OperacionCalendario operacion;
+        private final Reserva reserva;
+
+        private Paso(EventoCalendarioOutbox evento, Accion accion, OperacionCalendario operacion, Reserva reserva) {
+            this.evento = evento;
+            this.accion = accion;
+            this.operacion = operacion;
+            this.reserva = reserva;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import uis.edu.tutouis_project.dto.OperacionCalendario;
+import uis.edu.tutouis_project.dto.ResultadoOperacionCalendario;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cliente de calendario local, sin red ni credenciales (calendario.modo=stub).
+ * Genera IDs y enlaces de Meet ficticios y guarda en memoria los eventos vivos,
+ * de modo que el outbox se puede ejecutar y probar fuera de línea.
+ * Con calendario.stub.latencia-ms simula la demora de cada ida y vuelta a la API (pruebas de carga).
+ */
+@Service
+@ConditionalOnProperty(name = "calendario.modo", havingValue = "stub")
+public class CalendarioStubService implements ICalendarioService {
+
+    private final Set<String> eventosActivos = ConcurrentHashMap.newKeySet();
+    private final List<String> eventosEliminados = new CopyOnWriteArrayList<>();
+    private final AtomicInteger lotesEjecutados = new AtomicInteger();
+    /** Dentro de un lote la demora se simula una sola vez, como la petición batch real */
+    private final ThreadLocal<Boolean> enLote = ThreadLocal.withInitial(() -> false);
+
+    @Value("${calendario.stub.latencia-ms:0}")
+    private long latenciaMs;
+
+    @Override
+    public String[] crearEventoCalendar(String titulo, String descripcion, LocalDate fecha,
+                                        LocalTime horaInicio, LocalTime horaFin,
+                                        String correoEstudiante, String correoTutor,
+                                        boolean incluirMeet) {
+        simularLatencia();
+        String eventId = "stub-" + UUID.randomUUID();
+        String meetLink = incluirMeet ? "https://meet.google.com/stub-" + eventId.substring(5, 13) : null;
+        eventosActivos.add(eventId);
+        return new String[]{eventId, meetLink};
+    }
+
+    @Override
+    public void eliminarEvento(String eventId) {
+        simularLatencia();
+        eventosActivos.remove(eventId);
+        eventosEliminados.add(eventId);
+    }
+
+    /**
+     * Equivale a una petición batch: se cuenta como una sola ida y vuelta
+     */
+    @Override
+    public List<ResultadoOperacionCalendario> ejecutarLote(List<OperacionCalendario> operaciones) {
+        lotesEjecutados.incrementAndGet();
+        simularLatencia();
+        enLote.set(true);
+        try {
+            return ICalendarioService.super.ejecutarLote(operaciones);
+        } finally {
+            enLote.remove();
+        }
+    }
+
+    private void simularLatencia() {
+        if (latenciaMs <= 0 || enLote.get()) {
+            return;
+        }
+        try {
+            Thread.sleep(latenciaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Set<String> getEventosActivos() {
+        return Set.copyOf(eventosActivos);
+    }
+
+    public List<String> getEventosEliminados() {
+        return List.copyOf(eventosEliminados);
+    }
+
+    public int getLotesEjecutados() {
+        return lotesEjecutados.get();
+    }
+}
@@ -0,0 +1,181 @@
+package uis.edu.tutouis_project.servicio;
+
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
+import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
+import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
+import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.util.store.FileDataStoreFactory;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.CalendarScopes;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cliente de Google Calendar de larga vida, compartido por todos los hilos.
+ *
+ * El transporte HTTP (con pool de conexiones), las credenciales del cliente, el flujo OAuth y el
+ * cliente Calendar se construyen una sola vez. El access token se refresca de forma proactiva
+ * cuando le quedan menos de calendario.google.refresco-anticipado-segundos, así ninguna
+ * llamada paga el 401 + refresco en medio de la petición.
+ */
+@Component
+@ConditionalOnProperty(name = "calendario.modo", havingValue = "google", matchIfMissing = true)
+public class ClienteGoogleCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteGoogleCalendar.class);
+
+    private static final String APPLICATION_NAME = "TutoUIS Calendar Integration";
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final List<String> SCOPES = Collections.singletonList(CalendarScopes.CALENDAR);
+
+    private final String rutaCredenciales;
+    private final String rutaTokens;
+    private final long refrescoAnticipadoSegundos;
+    private final int maxConexiones;
+    private final RegistroMetricas metricas;
+
+    private final ReentrantLock candadoInicio = new ReentrantLock();
+    private final ReentrantLock candadoRefresco = new ReentrantLock();
+
+    private volatile Calendar cliente;
+    private volatile Credential credencial;
+    private ApacheHttpTransport transporte;
+
+    @Autowired
+    public ClienteGoogleCalendar(
+            @Value("${calendario.google.credenciales:src/main/resources/credentials.json}") String rutaCredenciales,
+            @Value("${calendario.google.tokens:tokens}") String rutaTokens,
+            @Value("${calendario.google.refresco-anticipado-segundos:300}") long refrescoAnticipadoSegundos,
+            @Value("${calendario.google.max-conexiones:20}") int maxConexiones,
+            RegistroMetricas metricas) {
+        this.rutaCredenciales = rutaCredenciales;
+        this.rutaTokens = rutaTokens;
+        this.refrescoAnticipadoSegundos = refrescoAnticipadoSegundos;
+        this.maxConexiones = maxConexiones;
+        this.metricas = metricas;
+    }
+
+    /**
+     * Retorna el cliente compartido, inicializándolo en la primera llamada.
+     * El objeto Calendar es thread-safe; cada hilo construye y ejecuta sus propias peticiones
+     */
+    public Calendar obtener() throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            Calendar actual = cliente;
+            if (actual == null) {
+                actual = inicializar();
+            }
+            refrescarSiEstaPorVencer();
+            return actual;
+        } finally {
+            metricas.registrarTiempo("calendario.cliente.obtener", System.nanoTime() - inicio);
+        }
+    }
+
+    private Calendar inicializar() throws IOException {
+        candadoInicio.lock();
+        try {
+            if (cliente != null) {
+                return cliente;
+            }
+            log.info("🗓️ Inicializando cliente de Google Calendar (una sola vez)");
+
+            ApacheHttpTransport nuevoTransporte = new ApacheHttpTransport(
+                    ApacheHttpTransport.newDefaultHttpClientBuilder()
+                            .setMaxConnTotal(maxConexiones)
+                            .setMaxConnPerRoute(maxConexiones)
+                            .build());
+
+            // Cargar credenciales del cliente
+            GoogleClientSecrets clientSecrets;
+            try (FileInputStream fis = new FileInputStream(rutaCredenciales);
+                 InputStreamReader reader = new InputStreamReader(fis)) {
+                clientSecrets = GoogleClientSecrets.load(JSON_FACTORY, reader);
+            }
+
+            // Construir flujo de autorización
+            GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
+                    nuevoTransporte, JSON_FACTORY, clientSecrets, SCOPES)
+                    .setDataStoreFactory(new FileDataStoreFactory(new File(rutaTokens)))
+                    .setAccessType("offline")
+                    .build();
+
+            // Con un token guardado no se levanta el receptor local; solo se usa en la primera autorización
+            LocalServerReceiver receiver = new LocalServerReceiver.Builder().setPort(8888).build();
+            Credential nuevaCredencial = new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
+
+            transporte = nuevoTransporte;
+            credencial = nuevaCredencial;
+            cliente = new Calendar.Builder(nuevoTransporte, JSON_FACTORY, nuevaCredencial)
+                    .setApplicationName(APPLICATION_NAME)
+                    .build();
+            metricas.incrementar("calendario.cliente.inicializaciones");
+            return cliente;
+        } finally {
+            candadoInicio.unlock();
+        }
+    }
+
+    /**
+     * Refresca el token antes de que venza. Si aún es válido solo un hilo refresca y los demás siguen
+     * con el token actual; si ya venció, todos esperan el refresco
+     */
+    private void refrescarSiEstaPorVencer() throws IOException {
+        Credential actual = credencial;
+        Long restante = actual != null ? actual.getExpiresInSeconds() : null;
+        if (restante == null || restante > refrescoAnticipadoSegundos) {
+            return;
+        }
+        if (restante > 0) {
+            if (!candadoRefresco.tryLock()) {
+                return;
+            }
+        } else {
+            candadoRefresco.lock();
+        }
+        try {
+            Long pendiente = actual.getExpiresInSeconds();
+            if (pendiente != null && pendiente <= refrescoAnticipadoSegundos) {
+                try {
+                    boolean refrescado = actual.refreshToken();
+                    metricas.incrementar(refrescado ? "calendario.token.refrescos" : "calendario.token.refrescos_fallidos");
+                } catch (IOException e) {
+                    metricas.incrementar("calendario.token.refrescos_fallidos");
+                    // Mientras el token siga vigente se reintenta en la próxima llamada
+                    if (pendiente <= 0) {
+                        throw e;
+                    }
+                    log.warn("⚠️ No se pudo refrescar el token de Google Calendar: {}", e.getMessage());
+                }
+            }
+        } finally {
+            candadoRefresco.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() throws IOException {
+        if (transporte != null) {
+            transporte.shutdown();
+        }
+    }
+}
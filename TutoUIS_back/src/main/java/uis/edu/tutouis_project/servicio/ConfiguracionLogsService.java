@@ -0,0 +1,95 @@
+package uis.edu.tutouis_project.servicio;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.stereotype.Service;
+import uis.edu.tutouis_project.config.FiltroMuestreoLogs;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Niveles de log en caliente y estado de la cola de logs (ver logback-spring.xml).
+ *
+ * Acepta nombres de logger completos o los alias de ALIAS; "sql" es el SQL que antes se activaba
+ * con spring.jpa.show-sql y "sql-parametros" los valores enlazados a cada sentencia.
+ */
+@Service
+public class ConfiguracionLogsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConfiguracionLogsService.class);
+
+    static final Map<String, String> ALIAS = Map.of(
+            "sql", "org.hibernate.SQL",
+            "sql-parametros", "org.hibernate.orm.jdbc.bind",
+            "app", "uis.edu.tutouis_project");
+
+    @Autowired
+    private LoggingSystem loggingSystem;
+
+    public Map<String, Object> estado() {
+        Map<String, Object> estado = new LinkedHashMap<>();
+
+        Map<String, String> niveles = new TreeMap<>();
+        ALIAS.forEach((alias, logger) -> niveles.put(alias, nivelEfectivo(logger)));
+        for (LoggerConfiguration configuracion : loggingSystem.getLoggerConfigurations()) {
+            if (configuracion.getConfiguredLevel() != null) {
+                niveles.put(configuracion.getName(), configuracion.getConfiguredLevel().name());
+            }
+        }
+        estado.put("niveles", niveles);
+        estado.put("descartadosPorMuestreo", FiltroMuestreoLogs.descartados());
+
+        AsyncAppender cola = colaAsincrona();
+        if (cola != null) {
+            estado.put("cola", Map.of(
+                    "capacidad", cola.getQueueSize(),
+                    "enCola", cola.getNumberOfElementsInQueue(),
+                    "libre", cola.getRemainingCapacity()));
+        }
+        return estado;
+    }
+
+    /**
+     * Cambia el nivel de un logger; nivel vacío o "DEFAULT" lo devuelve al heredado del padre
+     * @return el nombre completo del logger modificado
+     */
+    public String cambiarNivel(String logger, String nivel) {
+        if (logger == null || logger.isBlank()) {
+            throw new IllegalArgumentException("Logger requerido");
+        }
+        String nombre = ALIAS.getOrDefault(logger, logger);
+        LogLevel nuevo = null;
+        if (nivel != null && !nivel.isBlank() && !nivel.equalsIgnoreCase("DEFAULT")) {
+            try {
+                nuevo = LogLevel.valueOf(nivel.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Nivel inválido: " + nivel + " (TRACE, DEBUG, INFO, WARN, ERROR, OFF o DEFAULT)");
+            }
+        }
+        loggingSystem.setLogLevel(nombre, nuevo);
+        log.info("🔧 Nivel de log de {} cambiado a {}", nombre, nuevo != null ? nuevo : "DEFAULT");
+        return nombre;
+    }
+
+    private String nivelEfectivo(String logger) {
+        LoggerConfiguration configuracion = loggingSystem.getLoggerConfiguration(logger);
+        return configuracion != null ? configuracion.getEffectiveLevel().name() : null;
+    }
+
+    private static AsyncAppender colaAsincrona() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto
+                && contexto.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC") instanceof AsyncAppender cola) {
+            return cola;
+        }
+        return null;
+    }
+}
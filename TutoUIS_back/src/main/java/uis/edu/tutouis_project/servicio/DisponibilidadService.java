@@ -1,38 +1,60 @@
 package uis.edu.tutouis_project.servicio;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uis.edu.tutouis_project.config.ReintentoConcurrencia;
 import uis.edu.tutouis_project.modelo.Disponibilidad;
 import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.ReservaRepository;
 import uis.edu.tutouis_project.repositorio.TutoriaRepository;
+import uis.edu.tutouis_project.util.OcupacionFranjas;
+import uis.edu.tutouis_project.util.RegistroMetricas;
 
 import java.util.List;
 
 @Service
 public class DisponibilidadService implements IDisponibilidadService {
 
+    private static final Logger log = LoggerFactory.getLogger(DisponibilidadService.class);
+
+    /** Consultas de listado que tardan más que esto se reportan en el log */
+    private static final long UMBRAL_CONSULTA_LENTA_MS = 1000;
+
     @Autowired
     private DisponibilidadRepository disponibilidadRepository;
 
     @Autowired
     private TutoriaRepository tutoriaRepository;
 
+    @Autowired
+    private AsignadorCupos asignadorCupos;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private CalendarioOutboxService calendarioOutboxService;
+
+    @Autowired
+    private TutoriaEstadoService tutoriaEstadoService;
+
+    @Autowired
+    private EstadisticasReservaService estadisticasReservaService;
+
+    @Autowired
+    private BuscadorFranjasService buscadorFranjasService;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
     @Override
     public List<Disponibilidad> listarDisponibilidades() {
-        long inicio = System.currentTimeMillis();
-        System.out.println("📊 Consultando disponibilidades con JOIN FETCH optimizado");
-        
+        long inicio = System.nanoTime();
         List<Disponibilidad> disponibilidades = disponibilidadRepository.findAllWithDetails();
-        long tiempoQuery = System.currentTimeMillis() - inicio;
-        
-        System.out.println("✅ Disponibilidades obtenidas: " + disponibilidades.size());
-        System.out.println("⏱️ Tiempo total query: " + tiempoQuery + " ms");
-        
-        if (tiempoQuery > 1000) {
-            System.out.println("⚠️ WARNING: Query lenta detectada (>" + tiempoQuery + "ms)");
-        }
-        
+        avisarSiEsLenta("todas", inicio, disponibilidades.size());
         return disponibilidades;
     }
 
@@ -42,12 +64,14 @@ public class DisponibilidadService implements IDisponibilidadService {
                 .orElseThrow(() -> new RuntimeException("Disponibilidad no encontrada con id: " + id));
     }
 
+    @Override
+    public List<OcupacionFranjas.Franja> listarFranjasLibres(Integer id) {
+        return asignadorCupos.franjasLibres(obtenerDisponibilidadPorId(id));
+    }
+
     @Override
     public List<Disponibilidad> listarPorTutoria(Integer idTutoria) {
-        System.out.println("📊 Consultando disponibilidades por tutoría con JOIN FETCH optimizado");
-        List<Disponibilidad> disponibilidades = disponibilidadRepository.findByIdTutoriaWithDetails(idTutoria);
-        System.out.println("✅ Disponibilidades obtenidas: " + disponibilidades.size());
-        return disponibilidades;
+        return disponibilidadRepository.findByIdTutoriaWithDetails(idTutoria);
     }
 
     @Override
@@ -57,22 +81,23 @@ public class DisponibilidadService implements IDisponibilidadService {
 
     @Override
     public List<Disponibilidad> listarPorEstado(Integer idEstado) {
-        long inicio = System.currentTimeMillis();
-        System.out.println("📊 Consultando disponibilidades por estado=" + idEstado + " con JOIN FETCH optimizado");
-        
+        long inicio = System.nanoTime();
         List<Disponibilidad> disponibilidades = disponibilidadRepository.findByIdEstadoWithDetails(idEstado);
-        long tiempoQuery = System.currentTimeMillis() - inicio;
-        
-        System.out.println("✅ Disponibilidades obtenidas: " + disponibilidades.size());
-        System.out.println("⏱️ Tiempo total query: " + tiempoQuery + " ms");
-        
-        if (tiempoQuery > 1000) {
-            System.out.println("⚠️ WARNING: Query lenta detectada (>" + tiempoQuery + "ms)");
-        }
-        
+        avisarSiEsLenta("estado=" + idEstado, inicio, disponibilidades.size());
         return disponibilidades;
     }
 
+    /**
+     * Los tiempos de cada método quedan en las métricas (servicio.DisponibilidadService.*);
+     * aquí solo se deja rastro en el log de las consultas lentas
+     */
+    private void avisarSiEsLenta(String consulta, long inicioNanos, int filas) {
+        long ms = (System.nanoTime() - inicioNanos) / 1_000_000;
+        if (ms > UMBRAL_CONSULTA_LENTA_MS) {
+            log.warn("⚠️ Consulta lenta de disponibilidades ({}): {} ms, {} filas", consulta, ms, filas);
+        }
+    }
+
     @Override
     public List<Disponibilidad> listarPorTutoriaYEstado(Integer idTutoria, Integer idEstado) {
         return disponibilidadRepository.findByIdTutoriaAndIdEstado(idTutoria, idEstado);
@@ -117,15 +142,29 @@ public class DisponibilidadService implements IDisponibilidadService {
         if (disponibilidad.getIdEstado() == null) {
             disponibilidad.setIdEstado(1); // Activa por defecto
         }
+        if (disponibilidad.getAforo() == null) {
+            disponibilidad.setAforo(0); // Sin cupos ocupados
+        }
 
-        return disponibilidadRepository.save(disponibilidad);
+        Disponibilidad guardada = disponibilidadRepository.save(disponibilidad);
+        tutoriaEstadoService.notificarCambio(guardada.getIdTutoria());
+        buscadorFranjasService.invalidar();
+        return guardada;
     }
 
     @Override
     @Transactional
+    @ReintentoConcurrencia
     public Disponibilidad actualizarDisponibilidad(Integer id, Disponibilidad disponibilidad) {
         Disponibilidad existente = obtenerDisponibilidadPorId(id);
 
+        // Las estadísticas agrupan por franja horaria: si cambia el horario, las reservas cambian de grupo
+        boolean cambiaHorario = (disponibilidad.getHoraInicio() != null && !disponibilidad.getHoraInicio().equals(existente.getHoraInicio()))
+                || (disponibilidad.getHoraFin() != null && !disponibilidad.getHoraFin().equals(existente.getHoraFin()));
+        if (cambiaHorario) {
+            estadisticasReservaService.retirarDisponibilidad(id);
+        }
+
         // Actualizar campos permitidos
         if (disponibilidad.getDiaSemana() != null) {
             existente.setDiaSemana(disponibilidad.getDiaSemana());
@@ -139,6 +178,10 @@ public class DisponibilidadService implements IDisponibilidadService {
         if (disponibilidad.getAforoMaximo() != null) {
             existente.setAforoMaximo(disponibilidad.getAforoMaximo());
         }
+        if (disponibilidad.getAforoMaximo() != null || cambiaHorario) {
+            // El contador y el índice de franjas dependen del aforo máximo y del horario
+            asignadorCupos.olvidar(id);
+        }
         if (disponibilidad.getIdEstado() != null) {
             existente.setIdEstado(disponibilidad.getIdEstado());
         }
@@ -146,24 +189,49 @@ public class DisponibilidadService implements IDisponibilidadService {
             existente.setRazonCancelacion(disponibilidad.getRazonCancelacion());
         }
 
-        return disponibilidadRepository.save(existente);
+        tutoriaEstadoService.notificarCambio(existente.getIdTutoria());
+        buscadorFranjasService.invalidar();
+        Disponibilidad actualizada = disponibilidadRepository.save(existente);
+        if (cambiaHorario) {
+            estadisticasReservaService.registrarDisponibilidad(id);
+        }
+        return actualizada;
     }
 
     @Override
     @Transactional
+    @ReintentoConcurrencia
     public void eliminarDisponibilidad(Integer id) {
-        if (!disponibilidadRepository.existsById(id)) {
-            throw new RuntimeException("Disponibilidad no encontrada con id: " + id);
-        }
+        Disponibilidad disponibilidad = disponibilidadRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Disponibilidad no encontrada con id: " + id));
+        estadisticasReservaService.retirarDisponibilidad(id);
         disponibilidadRepository.deleteById(id);
+        asignadorCupos.olvidar(id);
+        tutoriaEstadoService.notificarCambio(disponibilidad.getIdTutoria());
     }
 
     @Override
     @Transactional
+    @ReintentoConcurrencia
     public Disponibilidad cancelarDisponibilidad(Integer id, String razonCancelacion) {
         Disponibilidad disponibilidad = obtenerDisponibilidadPorId(id);
         disponibilidad.setIdEstado(3); // Estado "Cancelada"
         disponibilidad.setRazonCancelacion(razonCancelacion);
+
+        // Cancelar en bloque las reservas activas; sus eventos de calendario salen en un solo lote desde el outbox
+        int eliminacionesEncoladas = calendarioOutboxService.encolarEliminacionesDeReservasActivas(List.of(id));
+        estadisticasReservaService.retirarDisponibilidad(id);
+        int reservasCanceladas = reservaRepository.cancelarReservasActivasDeDisponibilidad(id,
+                "Disponibilidad cancelada" + (razonCancelacion != null ? ": " + razonCancelacion : ""),
+                new java.sql.Timestamp(System.currentTimeMillis()));
+        estadisticasReservaService.registrarDisponibilidad(id);
+        disponibilidad.setAforo(0);
+        metricas.incrementar("reservas.canceladas", reservasCanceladas);
+        log.info("🚫 Disponibilidad {} cancelada: {} reserva(s) canceladas, {} evento(s) de calendario por eliminar",
+                id, reservasCanceladas, eliminacionesEncoladas);
+
+        asignadorCupos.olvidar(id);
+        tutoriaEstadoService.notificarCambio(disponibilidad.getIdTutoria());
         return disponibilidadRepository.save(disponibilidad);
     }
 }
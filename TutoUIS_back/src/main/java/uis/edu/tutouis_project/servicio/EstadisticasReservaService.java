@@ -0,0 +1,265 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.modelo.EstadisticaEstudiante;
+import uis.edu.tutouis_project.modelo.EstadisticaReserva;
+import uis.edu.tutouis_project.repositorio.EstadisticaEstudianteRepository;
+import uis.edu.tutouis_project.repositorio.EstadisticaReservaRepository;
+import uis.edu.tutouis_project.servicio.impl.ReporteCacheService;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantiene los acumulados de reservas que consume el dashboard de reportes
+ * (tablas estadistica_reserva y estadistica_estudiante).
+ *
+ * Cada grupo es (día de creación, asignatura, estado, día de la semana, franja de 2 horas) con su
+ * número de reservas y la suma de minutos. Los servicios que crean, cancelan, completan o eliminan
+ * reservas avisan aquí dentro de su misma transacción, y cada aviso se traduce en uno o dos upserts
+ * con el delta correspondiente; así el dashboard lee unos cientos de filas en lugar de recorrer
+ * todas las reservas.
+ *
+ * Los avisos de "retirar" deben llamarse antes de modificar o borrar las reservas y los de "registrar"
+ * después de guardarlas: las consultas leen el estado actual en la BD.
+ *
+ * Como red de seguridad (cambios hechos directamente en la BD, avisos olvidados), una verificación
+ * periódica recalcula los grupos desde las tablas base y corrige solo las diferencias.
+ *
+ * Todo cambio en los acumulados invalida la caché del dashboard (ReporteCacheService).
+ */
+@Service
+public class EstadisticasReservaService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstadisticasReservaService.class);
+
+    // Columnas de las filas retornadas por las consultas agregado* y findAcumulados
+    static final int FECHA = 0;
+    static final int ASIGNATURA = 1;
+    static final int ESTADO = 2;
+    static final int DIA_SEMANA = 3;
+    static final int FRANJA = 4;
+    static final int ESTUDIANTE = 5;
+    static final int RESERVAS = 6;
+    static final int MINUTOS = 7;
+
+    @Autowired
+    private EstadisticaReservaRepository estadisticaReservaRepository;
+
+    @Autowired
+    private EstadisticaEstudianteRepository estadisticaEstudianteRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Autowired
+    private ReporteCacheService reporteCacheService;
+
+    /**
+     * Suma una reserva recién guardada a los acumulados
+     */
+    @Transactional
+    public void registrarReserva(Integer idReserva) {
+        aplicar(estadisticaReservaRepository.agregadoDeReserva(idReserva), 1, null);
+    }
+
+    /**
+     * Resta una reserva que está por eliminarse
+     */
+    @Transactional
+    public void retirarReserva(Integer idReserva) {
+        aplicar(estadisticaReservaRepository.agregadoDeReserva(idReserva), -1, null);
+    }
+
+    /**
+     * Mueve una reserva de su estado actual (el que está en la BD) a nuevoEstado.
+     * Debe llamarse antes de guardar el cambio de estado
+     */
+    @Transactional
+    public void cambiarEstado(Integer idReserva, Integer nuevoEstado) {
+        List<Object[]> filas = estadisticaReservaRepository.agregadoDeReserva(idReserva);
+        for (Object[] fila : filas) {
+            if (nuevoEstado.equals(entero(fila[ESTADO]))) {
+                return;
+            }
+        }
+        // El estado no cambia el conteo por estudiante: solo se mueve el grupo
+        aplicarGrupos(filas, -1, null);
+        aplicarGrupos(filas, 1, nuevoEstado);
+    }
+
+    /**
+     * Resta todas las reservas de una disponibilidad antes de modificarlas o borrarlas en bloque
+     */
+    @Transactional
+    public void retirarDisponibilidad(Integer idDisponibilidad) {
+        aplicar(estadisticaReservaRepository.agregadoDeDisponibilidad(idDisponibilidad), -1, null);
+    }
+
+    /**
+     * Vuelve a sumar las reservas de una disponibilidad después de modificarlas en bloque
+     */
+    @Transactional
+    public void registrarDisponibilidad(Integer idDisponibilidad) {
+        aplicar(estadisticaReservaRepository.agregadoDeDisponibilidad(idDisponibilidad), 1, null);
+    }
+
+    /**
+     * Al arrancar, si los acumulados están vacíos (primer despliegue) se construyen desde cero
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        try {
+            if (estadisticaReservaRepository.count() == 0) {
+                log.info("📊 Construyendo estadísticas de reservas por primera vez...");
+                verificar();
+            }
+        } catch (Exception e) {
+            log.error("❌ Error al inicializar estadísticas de reservas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula todos los grupos desde las tablas base y corrige los acumulados que se desviaron.
+     * Ambas lecturas se hacen en la misma transacción (misma instantánea en InnoDB) y las correcciones
+     * se aplican como deltas, por lo que no se pisan los avisos de transacciones concurrentes.
+     * @return número de grupos (y estudiantes) corregidos
+     */
+    @Scheduled(cron = "${reportes.estadisticas.cron-verificacion:0 30 3 * * *}")
+    public int verificar() {
+        long inicio = System.nanoTime();
+        Integer corregidos = transactionTemplate.execute(status -> {
+            int desvios = corregirGrupos() + corregirEstudiantes();
+            estadisticaReservaRepository.eliminarVacios();
+            estadisticaEstudianteRepository.eliminarVacios();
+            return desvios;
+        });
+        int desvios = corregidos != null ? corregidos : 0;
+        metricas.incrementar("reportes.estadisticas.desvios", desvios);
+        metricas.registrarTiempo("reportes.estadisticas.verificacion", System.nanoTime() - inicio);
+        if (desvios > 0) {
+            reporteCacheService.invalidar();
+            log.warn("⚠️ Estadísticas de reservas: {} acumulado(s) corregido(s)", desvios);
+        }
+        return desvios;
+    }
+
+    private int corregirGrupos() {
+        Map<Clave, long[]> diferencias = new HashMap<>();
+        for (Object[] fila : estadisticaReservaRepository.agregadoCompleto()) {
+            sumar(diferencias, fila, 1);
+        }
+        for (Object[] fila : estadisticaReservaRepository.findAcumulados()) {
+            sumar(diferencias, fila, -1);
+        }
+
+        int desvios = 0;
+        for (Map.Entry<Clave, long[]> entrada : diferencias.entrySet()) {
+            long[] delta = entrada.getValue();
+            if (delta[0] != 0 || delta[1] != 0) {
+                Clave clave = entrada.getKey();
+                estadisticaReservaRepository.acumular(clave.fecha(), clave.idAsignatura(), clave.idEstado(),
+                        clave.diaSemana(), clave.franja(), delta[0], delta[1]);
+                desvios++;
+            }
+        }
+        return desvios;
+    }
+
+    private int corregirEstudiantes() {
+        Map<Integer, Long> diferencias = new HashMap<>();
+        for (Object[] fila : estadisticaEstudianteRepository.contarReservasPorEstudiante()) {
+            diferencias.merge(entero(fila[0]), largo(fila[1]), Long::sum);
+        }
+        for (EstadisticaEstudiante estudiante : estadisticaEstudianteRepository.findAll()) {
+            diferencias.merge(estudiante.getIdEstudiante(), -estudiante.getReservas(), Long::sum);
+        }
+
+        int desvios = 0;
+        for (Map.Entry<Integer, Long> entrada : diferencias.entrySet()) {
+            if (entrada.getValue() != 0) {
+                estadisticaEstudianteRepository.acumular(entrada.getKey(), entrada.getValue());
+                desvios++;
+            }
+        }
+        return desvios;
+    }
+
+    private void aplicar(List<Object[]> filas, int signo, Integer estado) {
+        aplicarGrupos(filas, signo, estado);
+        Map<Integer, Long> porEstudiante = new HashMap<>();
+        for (Object[] fila : filas) {
+            if (fila[ESTUDIANTE] != null) {
+                porEstudiante.merge(entero(fila[ESTUDIANTE]), signo * largo(fila[RESERVAS]), Long::sum);
+            }
+        }
+        porEstudiante.forEach(estadisticaEstudianteRepository::acumular);
+    }
+
+    private void aplicarGrupos(List<Object[]> filas, int signo, Integer estado) {
+        // Las filas vienen separadas por estudiante: se juntan por grupo antes de escribir
+        Map<Clave, long[]> grupos = new HashMap<>();
+        for (Object[] fila : filas) {
+            Clave clave = clave(fila);
+            if (estado != null) {
+                clave = new Clave(clave.fecha(), clave.idAsignatura(), estado, clave.diaSemana(), clave.franja());
+            }
+            long[] valores = grupos.computeIfAbsent(clave, c -> new long[2]);
+            valores[0] += signo * largo(fila[RESERVAS]);
+            valores[1] += signo * largo(fila[MINUTOS]);
+        }
+        grupos.forEach((clave, valores) -> estadisticaReservaRepository.acumular(clave.fecha(), clave.idAsignatura(),
+                clave.idEstado(), clave.diaSemana(), clave.franja(), valores[0], valores[1]));
+        if (!grupos.isEmpty()) {
+            reporteCacheService.invalidar();
+        }
+    }
+
+    private static void sumar(Map<Clave, long[]> diferencias, Object[] fila, int signo) {
+        long[] valores = diferencias.computeIfAbsent(clave(fila), c -> new long[2]);
+        valores[0] += signo * largo(fila[RESERVAS]);
+        valores[1] += signo * largo(fila[MINUTOS]);
+    }
+
+    private static Clave clave(Object[] fila) {
+        return new Clave(fecha(fila[FECHA]), entero(fila[ASIGNATURA]), entero(fila[ESTADO]),
+                entero(fila[DIA_SEMANA]), entero(fila[FRANJA]));
+    }
+
+    private static Date fecha(Object valor) {
+        if (valor instanceof LocalDate fecha) {
+            return Date.valueOf(fecha);
+        }
+        if (valor instanceof java.util.Date fecha) {
+            return new Date(fecha.getTime());
+        }
+        return EstadisticaReserva.FECHA_DESCONOCIDA;
+    }
+
+    private static Integer entero(Object valor) {
+        return ((Number) valor).intValue();
+    }
+
+    private static long largo(Object valor) {
+        return valor != null ? ((Number) valor).longValue() : 0L;
+    }
+
+    /** Llave de un grupo de estadistica_reserva */
+    record Clave(Date fecha, Integer idAsignatura, Integer idEstado, Integer diaSemana, Integer franja) {
+    }
+}
@@ -1,79 +1,56 @@
 package uis.edu.tutouis_project.servicio;
 
-import com.google.api.client.auth.oauth2.Credential;
-import com.google.api.client.extensions.java6.auth.oauth2.AuthorizationCodeInstalledApp;
-import com.google.api.client.extensions.jetty.auth.oauth2.LocalServerReceiver;
-import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
-import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.JsonFactory;
-import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
 import com.google.api.client.util.DateTime;
-import com.google.api.client.util.store.FileDataStoreFactory;
 import com.google.api.services.calendar.Calendar;
-import com.google.api.services.calendar.CalendarScopes;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventAttendee;
 import com.google.api.services.calendar.model.EventDateTime;
 import com.google.api.services.calendar.model.ConferenceSolutionKey;
 import com.google.api.services.calendar.model.CreateConferenceRequest;
 import com.google.api.services.calendar.model.ConferenceData;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import uis.edu.tutouis_project.dto.OperacionCalendario;
+import uis.edu.tutouis_project.dto.ResultadoOperacionCalendario;
+import uis.edu.tutouis_project.util.RegistroMetricas;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.security.GeneralSecurityException;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 @Service
-public class GoogleCalendarService {
+@ConditionalOnProperty(name = "calendario.modo", havingValue = "google", matchIfMissing = true)
+public class GoogleCalendarService implements ICalendarioService {
 
-    private static final String APPLICATION_NAME = "TutoUIS Calendar Integration";
-    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
-    private static final String TOKENS_DIRECTORY_PATH = "tokens";
-    private static final List<String> SCOPES = Collections.singletonList(CalendarScopes.CALENDAR);
-    private static final String CREDENTIALS_FILE_PATH = "src/main/resources/credentials.json";
+    private static final Logger log = LoggerFactory.getLogger(GoogleCalendarService.class);
 
     /**
-     * Crea y autoriza un cliente de Google Calendar API
+     * Google acepta hasta 1000 llamadas por lote, pero recomienda lotes pequeños para Calendar
      */
-    private Credential getCredentials(final NetHttpTransport HTTP_TRANSPORT) throws IOException {
-        // Cargar credenciales del cliente
-        GoogleClientSecrets clientSecrets;
-        try (FileInputStream fis = new FileInputStream(CREDENTIALS_FILE_PATH);
-             InputStreamReader reader = new InputStreamReader(fis)) {
-            clientSecrets = GoogleClientSecrets.load(JSON_FACTORY, reader);
-        }
+    private static final int MAXIMO_POR_LOTE = 1000;
 
-        // Construir flujo de autorización
-        GoogleAuthorizationCodeFlow flow = new GoogleAuthorizationCodeFlow.Builder(
-                HTTP_TRANSPORT, JSON_FACTORY, clientSecrets, SCOPES)
-                .setDataStoreFactory(new FileDataStoreFactory(new java.io.File(TOKENS_DIRECTORY_PATH)))
-                .setAccessType("offline")
-                .build();
+    @Autowired
+    private ClienteGoogleCalendar clienteGoogleCalendar;
 
-        LocalServerReceiver receiver = new LocalServerReceiver.Builder().setPort(8888).build();
-        return new AuthorizationCodeInstalledApp(flow, receiver).authorize("user");
-    }
+    @Autowired
+    private RegistroMetricas metricas;
 
-    /**
-     * Crea un servicio de Calendar API
-     */
-    private Calendar getCalendarService() throws GeneralSecurityException, IOException {
-        final NetHttpTransport HTTP_TRANSPORT = GoogleNetHttpTransport.newTrustedTransport();
-        return new Calendar.Builder(HTTP_TRANSPORT, JSON_FACTORY, getCredentials(HTTP_TRANSPORT))
-                .setApplicationName(APPLICATION_NAME)
-                .build();
-    }
+    @Value("${calendario.google.tamano-lote:50}")
+    private int tamanoLote;
 
     /**
      * Crea un evento de Google Calendar para una tutoría
@@ -88,99 +65,104 @@ public class GoogleCalendarService {
      * @param incluirMeet Si es true, crea Google Meet; si es false, solo crea el evento
      * @return Array con [eventId, meetLink] (meetLink será null si incluirMeet es false)
      */
+    @Override
     public String[] crearEventoCalendar(String titulo, String descripcion, LocalDate fecha, 
                                       LocalTime horaInicio, LocalTime horaFin, 
                                       String correoEstudiante, String correoTutor,
                                       boolean incluirMeet) {
         try {
-            System.out.println("🗓️  INICIANDO CREACIÓN DE EVENTO EN GOOGLE CALENDAR");
-            System.out.println("  - Título: " + titulo);
-            System.out.println("  - Fecha: " + fecha);
-            System.out.println("  - Hora: " + horaInicio + " - " + horaFin);
-            System.out.println("  - Estudiante: " + correoEstudiante);
-            System.out.println("  - Tutor: " + correoTutor);
-            System.out.println("  - Incluir Google Meet: " + (incluirMeet ? "Sí" : "No"));
-
-            Calendar service = getCalendarService();
-
-            // Crear fecha/hora con zona horaria de Colombia
-            ZoneId colombiaZone = ZoneId.of("America/Bogota");
-            ZonedDateTime inicioZoned = ZonedDateTime.of(fecha, horaInicio, colombiaZone);
-            ZonedDateTime finZoned = ZonedDateTime.of(fecha, horaFin, colombiaZone);
-
-            // Configurar evento
-            Event event = new Event()
-                    .setSummary(titulo)
-                    .setDescription(descripcion);
-
-            // Configurar fecha y hora de inicio
-            EventDateTime inicio = new EventDateTime()
-                    .setDateTime(new DateTime(inicioZoned.toInstant().toEpochMilli()))
-                    .setTimeZone("America/Bogota");
-            event.setStart(inicio);
-
-            // Configurar fecha y hora de fin
-            EventDateTime fin = new EventDateTime()
-                    .setDateTime(new DateTime(finZoned.toInstant().toEpochMilli()))
-                    .setTimeZone("America/Bogota");
-            event.setEnd(fin);
-
-            // Agregar asistentes
-            EventAttendee[] asistentes = new EventAttendee[]{
-                    new EventAttendee().setEmail(correoEstudiante),
-                    new EventAttendee().setEmail(correoTutor)
-            };
-            event.setAttendees(Arrays.asList(asistentes));
-
-            // Configurar Google Meet solo si se solicita
-            if (incluirMeet) {
-                ConferenceSolutionKey conferenceSolutionKey = new ConferenceSolutionKey();
-                conferenceSolutionKey.setType("hangoutsMeet");
-                
-                CreateConferenceRequest createConferenceRequest = new CreateConferenceRequest();
-                createConferenceRequest.setRequestId(UUID.randomUUID().toString());
-                createConferenceRequest.setConferenceSolutionKey(conferenceSolutionKey);
-                
-                ConferenceData conferenceData = new ConferenceData();
-                conferenceData.setCreateRequest(createConferenceRequest);
-                
-                event.setConferenceData(conferenceData);
-            }
+            log.info("🗓️ Creando evento en Google Calendar: '{}' el {} de {} a {} (estudiante {}, tutor {}, Meet: {})",
+                    titulo, fecha, horaInicio, horaFin, correoEstudiante, correoTutor, incluirMeet ? "Sí" : "No");
 
-            // Insertar evento en el calendario
-            String calendarId = "primary";
-            if (incluirMeet) {
-                // conferenceDataVersion=1 es necesario para crear Meet
-                event = service.events().insert(calendarId, event)
-                        .setConferenceDataVersion(1)
-                        .setSendUpdates("all") // Enviar invitaciones a todos
-                        .execute();
-            } else {
-                // Sin Google Meet
-                event = service.events().insert(calendarId, event)
-                        .setSendUpdates("all") // Enviar invitaciones a todos
-                        .execute();
-            }
+            Calendar service = clienteGoogleCalendar.obtener();
+
+            Event event = prepararInsercion(service,
+                    construirEvento(titulo, descripcion, fecha, horaInicio, horaFin, correoEstudiante, correoTutor, incluirMeet),
+                    incluirMeet).execute();
 
             String eventId = event.getId();
             String meetLink = incluirMeet ? event.getHangoutLink() : null;
-            System.out.println("✅ Evento creado exitosamente");
-            System.out.println("  - ID del evento: " + eventId);
             if (incluirMeet && meetLink != null) {
-                System.out.println("  - Enlace Meet: " + meetLink);
+                log.info("✅ Evento {} creado con enlace Meet {}", eventId, meetLink);
             } else {
-                System.out.println("  - Evento presencial (sin Meet)");
+                log.info("✅ Evento {} creado (presencial, sin Meet)", eventId);
             }
 
             return new String[]{eventId, meetLink};
 
         } catch (Exception e) {
-            System.err.println("❌ Error al crear evento de Google Calendar: " + e.getMessage());
-            e.printStackTrace();
+            log.error("❌ Error al crear evento de Google Calendar: {}", e.getMessage(), e);
             throw new RuntimeException("Error al crear evento de Google Calendar: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Construye el evento (fecha/hora en zona de Colombia, asistentes y, si aplica, solicitud de Meet)
+     */
+    private Event construirEvento(String titulo, String descripcion, LocalDate fecha,
+                                  LocalTime horaInicio, LocalTime horaFin,
+                                  String correoEstudiante, String correoTutor,
+                                  boolean incluirMeet) {
+        // Crear fecha/hora con zona horaria de Colombia
+        ZoneId colombiaZone = ZoneId.of("America/Bogota");
+        ZonedDateTime inicioZoned = ZonedDateTime.of(fecha, horaInicio, colombiaZone);
+        ZonedDateTime finZoned = ZonedDateTime.of(fecha, horaFin, colombiaZone);
+
+        // Configurar evento
+        Event event = new Event()
+                .setSummary(titulo)
+                .setDescription(descripcion);
+
+        // Configurar fecha y hora de inicio
+        EventDateTime inicio = new EventDateTime()
+                .setDateTime(new DateTime(inicioZoned.toInstant().toEpochMilli()))
+                .setTimeZone("America/Bogota");
+        event.setStart(inicio);
+
+        // Configurar fecha y hora de fin
+        EventDateTime fin = new EventDateTime()
+                .setDateTime(new DateTime(finZoned.toInstant().toEpochMilli()))
+                .setTimeZone("America/Bogota");
+        event.setEnd(fin);
+
+        // Agregar asistentes
+        EventAttendee[] asistentes = new EventAttendee[]{
+                new EventAttendee().setEmail(correoEstudiante),
+                new EventAttendee().setEmail(correoTutor)
+        };
+        event.setAttendees(Arrays.asList(asistentes));
+
+        // Configurar Google Meet solo si se solicita
+        if (incluirMeet) {
+            ConferenceSolutionKey conferenceSolutionKey = new ConferenceSolutionKey();
+            conferenceSolutionKey.setType("hangoutsMeet");
+            
+            CreateConferenceRequest createConferenceRequest = new CreateConferenceRequest();
+            createConferenceRequest.setRequestId(UUID.randomUUID().toString());
+            createConferenceRequest.setConferenceSolutionKey(conferenceSolutionKey);
+            
+            ConferenceData conferenceData = new ConferenceData();
+            conferenceData.setCreateRequest(createConferenceRequest);
+            
+            event.setConferenceData(conferenceData);
+        }
+
+        return event;
+    }
+
+    /**
+     * Prepara la inserción en el calendario principal, enviando invitaciones a todos
+     */
+    private Calendar.Events.Insert prepararInsercion(Calendar service, Event event, boolean incluirMeet) throws IOException {
+        Calendar.Events.Insert insercion = service.events().insert("primary", event)
+                .setSendUpdates("all"); // Enviar invitaciones a todos
+        if (incluirMeet) {
+            // conferenceDataVersion=1 es necesario para crear Meet
+            insercion.setConferenceDataVersion(1);
+        }
+        return insercion;
+    }
+
     /**
      * Método de conveniencia para crear evento con Google Meet (modalidad Virtual)
      * @return Array con [eventId, meetLink]
@@ -204,19 +186,122 @@ public class GoogleCalendarService {
     }
 
     /**
-     * Elimina un evento de Google Calendar
+     * Elimina un evento de Google Calendar.
+     * Si el evento ya no existe (404/410) se considera eliminado; cualquier otro error se propaga
+     * para que el outbox lo reintente
      * 
      * @param eventId ID del evento a eliminar
      */
+    @Override
     public void eliminarEvento(String eventId) {
         try {
-            System.out.println("🗑️  Eliminando evento de Google Calendar: " + eventId);
-            Calendar service = getCalendarService();
+            log.info("🗑️ Eliminando evento de Google Calendar: {}", eventId);
+            Calendar service = clienteGoogleCalendar.obtener();
             service.events().delete("primary", eventId).execute();
-            System.out.println("✅ Evento eliminado exitosamente");
+            log.info("✅ Evento {} eliminado", eventId);
+        } catch (GoogleJsonResponseException e) {
+            if (e.getStatusCode() == 404 || e.getStatusCode() == 410) {
+                log.info("ℹ️ El evento {} ya no existe en Google Calendar", eventId);
+                return;
+            }
+            log.error("❌ Error al eliminar evento {}: {}", eventId, e.getMessage());
+            throw new RuntimeException("Error al eliminar evento de Google Calendar: " + e.getMessage(), e);
+        } catch (Exception e) {
+            log.error("❌ Error al eliminar evento {}: {}", eventId, e.getMessage());
+            throw new RuntimeException("Error al eliminar evento de Google Calendar: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ejecuta creaciones y eliminaciones agrupadas en peticiones batch de hasta calendario.google.tamano-lote
+     * operaciones (una sola ida y vuelta HTTP por grupo). Cada operación reporta su propio resultado;
+     * si falla la petición completa, todas las operaciones del grupo quedan como fallidas.
+     * Eliminar un evento que ya no existe (404/410) cuenta como éxito
+     */
+    @Override
+    public List<ResultadoOperacionCalendario> ejecutarLote(List<OperacionCalendario> operaciones) {
+        ResultadoOperacionCalendario[] resultados = new ResultadoOperacionCalendario[operaciones.size()];
+        if (operaciones.isEmpty()) {
+            return List.of();
+        }
+        long inicio = System.nanoTime();
+        int porLote = Math.max(1, Math.min(tamanoLote, MAXIMO_POR_LOTE));
+
+        Calendar service;
+        try {
+            service = clienteGoogleCalendar.obtener();
         } catch (Exception e) {
-            System.err.println("❌ Error al eliminar evento: " + e.getMessage());
-            e.printStackTrace();
+            Arrays.fill(resultados, ResultadoOperacionCalendario.fallo("No se pudo obtener el cliente de Google Calendar: " + e.getMessage(), null));
+            return Arrays.asList(resultados);
+        }
+
+        for (int desde = 0; desde < operaciones.size(); desde += porLote) {
+            int hasta = Math.min(operaciones.size(), desde + porLote);
+            try {
+                BatchRequest batch = service.batch();
+                for (int i = desde; i < hasta; i++) {
+                    encolarEnLote(service, batch, operaciones.get(i), resultados, i);
+                }
+                batch.execute();
+                metricas.incrementar("calendario.lote.peticiones");
+            } catch (Exception e) {
+                log.error("❌ Error al ejecutar lote de Google Calendar ({} operaciones): {}", hasta - desde, e.getMessage());
+                for (int i = desde; i < hasta; i++) {
+                    if (resultados[i] == null) {
+                        resultados[i] = ResultadoOperacionCalendario.fallo("Error en el lote: " + e.getMessage(), null);
+                    }
+                }
+            }
+        }
+
+        int fallidas = 0;
+        for (int i = 0; i < resultados.length; i++) {
+            if (resultados[i] == null) {
+                resultados[i] = ResultadoOperacionCalendario.fallo("Sin respuesta para la operación en el lote", null);
+            }
+            if (!resultados[i].isExito()) {
+                fallidas++;
+            }
+        }
+        metricas.incrementar("calendario.lote.operaciones", operaciones.size());
+        metricas.incrementar("calendario.lote.operaciones_fallidas", fallidas);
+        metricas.registrarTiempo("calendario.lote", System.nanoTime() - inicio);
+        log.info("🗓️ Lote de Google Calendar: {} operaciones, {} fallidas", operaciones.size(), fallidas);
+        return Arrays.asList(resultados);
+    }
+
+    private void encolarEnLote(Calendar service, BatchRequest batch, OperacionCalendario operacion,
+                               ResultadoOperacionCalendario[] resultados, int indice) throws IOException {
+        if (operacion.esCreacion()) {
+            Event event = construirEvento(operacion.getTitulo(), operacion.getDescripcion(), operacion.getFecha(),
+                    operacion.getHoraInicio(), operacion.getHoraFin(), operacion.getCorreoEstudiante(),
+                    operacion.getCorreoTutor(), operacion.isIncluirMeet());
+            prepararInsercion(service, event, operacion.isIncluirMeet()).queue(batch, new JsonBatchCallback<Event>() {
+                @Override
+                public void onSuccess(Event creado, HttpHeaders responseHeaders) {
+                    resultados[indice] = ResultadoOperacionCalendario.exito(creado.getId(),
+                            operacion.isIncluirMeet() ? creado.getHangoutLink() : null);
+                }
+
+                @Override
+                public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                    resultados[indice] = ResultadoOperacionCalendario.fallo(error.getMessage(), error.getCode());
+                }
+            });
+        } else {
+            service.events().delete("primary", operacion.getEventId()).queue(batch, new JsonBatchCallback<Void>() {
+                @Override
+                public void onSuccess(Void vacio, HttpHeaders responseHeaders) {
+                    resultados[indice] = ResultadoOperacionCalendario.exito(operacion.getEventId(), null);
+                }
+
+                @Override
+                public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+                    resultados[indice] = error.getCode() == 404 || error.getCode() == 410
+                            ? ResultadoOperacionCalendario.exito(operacion.getEventId(), null)
+                            : ResultadoOperacionCalendario.fallo(error.getMessage(), error.getCode());
+                }
+            });
         }
     }
 }
@@ -12,4 +12,19 @@ public interface IActividadService {
      * @return Lista de actividades recientes
      */
     List<ActividadRecienteDto> obtenerActividadReciente(int limite);
+
+    /**
+     * Registra el alta de un usuario en el feed de actividad
+     */
+    void registrarUsuario(Integer idUsuario);
+
+    /**
+     * Registra el alta de una tutoría en el feed de actividad
+     */
+    void registrarTutoria(Integer idTutoria);
+
+    /**
+     * Registra el alta de una reserva en el feed de actividad
+     */
+    void registrarReserva(Integer idReserva);
 }
@@ -0,0 +1,56 @@
+package uis.edu.tutouis_project.servicio;
+
+import uis.edu.tutouis_project.dto.OperacionCalendario;
+import uis.edu.tutouis_project.dto.ResultadoOperacionCalendario;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cliente de calendario usado por el outbox de reservas.
+ * La implementación real es GoogleCalendarService; con calendario.modo=stub se usa CalendarioStubService,
+ * que no sale a la red y permite probar el pipeline sin credenciales.
+ */
+public interface ICalendarioService {
+
+    /**
+     * Crea un evento de calendario para una tutoría
+     * @return Array con [eventId, meetLink] (meetLink será null si incluirMeet es false)
+     */
+    String[] crearEventoCalendar(String titulo, String descripcion, LocalDate fecha,
+                                 LocalTime horaInicio, LocalTime horaFin,
+                                 String correoEstudiante, String correoTutor,
+                                 boolean incluirMeet);
+
+    /**
+     * Elimina un evento de calendario. Lanza RuntimeException si la operación falla y debe reintentarse
+     */
+    void eliminarEvento(String eventId);
+
+    /**
+     * Ejecuta un lote de creaciones/eliminaciones. Nunca lanza por fallos individuales:
+     * retorna un resultado por operación, en el mismo orden recibido.
+     * La implementación por defecto las ejecuta una a una; GoogleCalendarService usa el endpoint batch
+     */
+    default List<ResultadoOperacionCalendario> ejecutarLote(List<OperacionCalendario> operaciones) {
+        List<ResultadoOperacionCalendario> resultados = new ArrayList<>(operaciones.size());
+        for (OperacionCalendario operacion : operaciones) {
+            try {
+                if (operacion.esCreacion()) {
+                    String[] resultado = crearEventoCalendar(operacion.getTitulo(), operacion.getDescripcion(),
+                            operacion.getFecha(), operacion.getHoraInicio(), operacion.getHoraFin(),
+                            operacion.getCorreoEstudiante(), operacion.getCorreoTutor(), operacion.isIncluirMeet());
+                    resultados.add(ResultadoOperacionCalendario.exito(resultado[0], resultado[1]));
+                } else {
+                    eliminarEvento(operacion.getEventId());
+                    resultados.add(ResultadoOperacionCalendario.exito(operacion.getEventId(), null));
+                }
+            } catch (Exception e) {
+                resultados.add(ResultadoOperacionCalendario.fallo(e.getMessage(), null));
+            }
+        }
+        return resultados;
+    }
+}
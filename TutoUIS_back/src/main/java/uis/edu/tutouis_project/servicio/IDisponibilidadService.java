@@ -1,6 +1,7 @@
 package uis.edu.tutouis_project.servicio;
 
 import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.util.OcupacionFranjas;
 import java.util.List;
 
 public interface IDisponibilidadService {
@@ -14,4 +15,5 @@ public interface IDisponibilidadService {
     Disponibilidad actualizarDisponibilidad(Integer id, Disponibilidad disponibilidad);
     void eliminarDisponibilidad(Integer id);
     Disponibilidad cancelarDisponibilidad(Integer id, String razonCancelacion);
+    List<OcupacionFranjas.Franja> listarFranjasLibres(Integer id);
 }
@@ -4,6 +4,10 @@ import uis.edu.tutouis_project.modelo.Reserva;
 import uis.edu.tutouis_project.modelo.dto.CreateReservaDto;
 import uis.edu.tutouis_project.modelo.dto.UpdateReservaDto;
 import uis.edu.tutouis_project.modelo.dto.ReservaResponseDto;
+import uis.edu.tutouis_project.modelo.dto.FiltroReservasDto;
+import uis.edu.tutouis_project.modelo.dto.PaginaReservasDto;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface IReservaService {
@@ -14,9 +18,19 @@ public interface IReservaService {
     List<Reserva> obtenerTodasLasReservas();
     
     /**
-     * Lista todas las reservas del sistema con información completa (DTOs)
+     * Lista una página de reservas con información completa (DTOs), de la más reciente a la más antigua
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera página
+     * @param limite Tamaño de la página, o null para el valor por defecto
+     * @throws IllegalArgumentException si el cursor es inválido
      */
-    List<ReservaResponseDto> listarTodasLasReservas();
+    PaginaReservasDto listarReservas(FiltroReservasDto filtro, String cursor, Integer limite);
+    
+    /**
+     * Escribe todas las reservas que cumplen el filtro como NDJSON (un objeto JSON por línea).
+     * Recorre un cursor de base de datos, así la memoria usada no depende del número de reservas
+     * @return Número de reservas escritas
+     */
+    long exportarReservas(FiltroReservasDto filtro, OutputStream salida) throws IOException;
     
     /**
      * Obtiene una reserva por su ID
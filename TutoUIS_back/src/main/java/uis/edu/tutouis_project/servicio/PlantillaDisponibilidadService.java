@@ -0,0 +1,339 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uis.edu.tutouis_project.exception.ConflictoHorarioException;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.modelo.PlantillaDisponibilidad;
+import uis.edu.tutouis_project.modelo.Tutoria;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.PlantillaDisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.TutoriaRepository;
+import uis.edu.tutouis_project.util.IndiceHorarios;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Disponibilidades semanales recurrentes.
+ *
+ * Una plantilla describe "todos los lunes de 9 a 10 entre tal y tal fecha, salvo estas fechas".
+ * Las sesiones se generan al consultar un rango y no ocupan filas en disponibilidad hasta que
+ * llega la primera reserva; a partir de ahí la sesión es una Disponibilidad normal (aforo,
+ * cancelación, reservas) enlazada a su plantilla por id_plantilla.
+ */
+@Service
+public class PlantillaDisponibilidadService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlantillaDisponibilidadService.class);
+
+    /** Rango máximo que se expande en una consulta */
+    static final int MAXIMO_DIAS_CONSULTA = 366;
+
+    private static final String[] NOMBRES_DIAS = {"Lunes", "Martes", "Miércoles", "Jueves", "Viernes", "Sábado", "Domingo"};
+
+    @Autowired
+    private PlantillaDisponibilidadRepository plantillaRepository;
+
+    @Autowired
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Autowired
+    private TutoriaRepository tutoriaRepository;
+
+    @Autowired
+    private TutoriaEstadoService tutoriaEstadoService;
+
+    @Autowired
+    private BuscadorFranjasService buscadorFranjasService;
+
+    @Transactional
+    public PlantillaDisponibilidad crearPlantilla(PlantillaDisponibilidad plantilla) {
+        Tutoria tutoria = plantilla.getIdTutoria() == null ? null
+                : tutoriaRepository.findById(plantilla.getIdTutoria()).orElse(null);
+        if (tutoria == null) {
+            throw new RuntimeException("Tutoría no encontrada con id: " + plantilla.getIdTutoria());
+        }
+        if (plantilla.getHoraInicio() == null || plantilla.getHoraFin() == null
+                || !plantilla.getHoraFin().after(plantilla.getHoraInicio())) {
+            throw new IllegalArgumentException("La hora de fin debe ser posterior a la hora de inicio");
+        }
+        if (plantilla.getFechaInicio() == null || plantilla.getFechaFin() == null
+                || plantilla.getFechaFin().before(plantilla.getFechaInicio())) {
+            throw new IllegalArgumentException("La fecha de fin debe ser igual o posterior a la fecha de inicio");
+        }
+        if (plantilla.getAforoMaximo() == null || plantilla.getAforoMaximo() <= 0) {
+            throw new IllegalArgumentException("El aforo máximo debe ser mayor que cero");
+        }
+        plantilla.setDiaSemana(NOMBRES_DIAS[diaDeLaSemana(plantilla.getDiaSemana()).getValue() - 1]);
+        plantilla.setIdPlantilla(null);
+        plantilla.setIdEstado(1);
+        if (plantilla.getExcepciones() == null) {
+            plantilla.setExcepciones(new HashSet<>());
+        }
+        validarConflictosHorario(tutoria.getIdTutor(), plantilla);
+
+        PlantillaDisponibilidad guardada = plantillaRepository.save(plantilla);
+        log.info("✅ Plantilla creada: {} {}-{} del {} al {}", guardada.getDiaSemana(), guardada.getHoraInicio(),
+                guardada.getHoraFin(), guardada.getFechaInicio(), guardada.getFechaFin());
+        tutoriaEstadoService.notificarCambio(guardada.getIdTutoria());
+        buscadorFranjasService.invalidar();
+        return guardada;
+    }
+
+    /**
+     * Rechaza la plantilla si alguna de sus sesiones se cruza con una disponibilidad activa del tutor o con
+     * una sesión de otra de sus plantillas. Una consulta por fuente para toda la vigencia de la plantilla
+     */
+    private void validarConflictosHorario(Integer idTutor, PlantillaDisponibilidad plantilla) {
+        LocalDate desde = plantilla.getFechaInicio().toLocalDate();
+        LocalDate hasta = plantilla.getFechaFin().toLocalDate();
+        List<IndiceHorarios.Franja> sesiones = new ArrayList<>();
+        for (LocalDate fecha : fechas(plantilla, desde, hasta)) {
+            sesiones.add(new IndiceHorarios.Franja(fecha, plantilla.getHoraInicio().toLocalTime(),
+                    plantilla.getHoraFin().toLocalTime()));
+        }
+        if (sesiones.isEmpty()) {
+            return;
+        }
+
+        List<IndiceHorarios.Franja> ocupadas = new ArrayList<>(IndiceHorarios.deFilas(
+                disponibilidadRepository.findHorariosActivosDeTutor(idTutor, Date.valueOf(desde), Date.valueOf(hasta))));
+        ocupadas.addAll(horariosDePlantillas(idTutor, desde, hasta));
+        IndiceHorarios.Conflicto conflicto = new IndiceHorarios(ocupadas).buscarConflicto(sesiones);
+        if (conflicto != null) {
+            throw new ConflictoHorarioException(String.format("Ya existe una tutoría en ese horario (%s %s de %s a %s).",
+                    plantilla.getDiaSemana(), sesiones.get(conflicto.indice()).fecha(),
+                    plantilla.getHoraInicio(), plantilla.getHoraFin()));
+        }
+    }
+
+    /**
+     * Horarios que ocupan las sesiones de las plantillas activas del tutor entre dos fechas (inclusive),
+     * para validar conflictos junto con sus disponibilidades. Las sesiones ya guardadas se omiten: si están
+     * activas ya aparecen entre las disponibilidades y si se cancelaron no ocupan el horario
+     */
+    @Transactional(readOnly = true)
+    public List<IndiceHorarios.Franja> horariosDePlantillas(Integer idTutor, LocalDate desde, LocalDate hasta) {
+        List<PlantillaDisponibilidad> plantillas = plantillaRepository.findVigentesDeTutorEnRango(idTutor,
+                Date.valueOf(desde), Date.valueOf(hasta));
+        if (plantillas.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        plantillas.forEach(p -> ids.add(p.getIdPlantilla()));
+        Set<String> guardadas = new HashSet<>();
+        for (Disponibilidad d : disponibilidadRepository.findMaterializadasDePlantillas(ids,
+                Date.valueOf(desde), Date.valueOf(hasta))) {
+            guardadas.add(d.getIdPlantilla() + "|" + d.getFecha().toLocalDate());
+        }
+
+        List<IndiceHorarios.Franja> horarios = new ArrayList<>();
+        for (PlantillaDisponibilidad plantilla : plantillas) {
+            for (LocalDate fecha : fechas(plantilla, desde, hasta)) {
+                if (!guardadas.contains(plantilla.getIdPlantilla() + "|" + fecha)) {
+                    horarios.add(new IndiceHorarios.Franja(fecha, plantilla.getHoraInicio().toLocalTime(),
+                            plantilla.getHoraFin().toLocalTime()));
+                }
+            }
+        }
+        return horarios;
+    }
+
+    public List<PlantillaDisponibilidad> listarPorTutoria(Integer idTutoria) {
+        return plantillaRepository.findByIdTutoria(idTutoria);
+    }
+
+    /**
+     * Excluye una fecha de la plantilla. Si la sesión de esa fecha ya estaba guardada no se toca:
+     * tiene reservas y se cancela por el flujo normal de disponibilidades
+     */
+    @Transactional
+    public PlantillaDisponibilidad agregarExcepcion(Integer idPlantilla, LocalDate fecha) {
+        PlantillaDisponibilidad plantilla = obtenerPlantilla(idPlantilla);
+        plantilla.getExcepciones().add(Date.valueOf(fecha));
+        tutoriaEstadoService.notificarCambio(plantilla.getIdTutoria());
+        buscadorFranjasService.invalidar();
+        return plantillaRepository.save(plantilla);
+    }
+
+    /** Deja de generar sesiones nuevas; las ya guardadas siguen vigentes */
+    @Transactional
+    public PlantillaDisponibilidad desactivarPlantilla(Integer idPlantilla) {
+        PlantillaDisponibilidad plantilla = obtenerPlantilla(idPlantilla);
+        plantilla.setIdEstado(2);
+        tutoriaEstadoService.notificarCambio(plantilla.getIdTutoria());
+        buscadorFranjasService.invalidar();
+        return plantillaRepository.save(plantilla);
+    }
+
+    /**
+     * Sesiones entre dos fechas (inclusive): las ya guardadas tal cual y las pendientes como
+     * Disponibilidad sin id (idPlantilla y fecha identifican la sesión para reservarla)
+     * @param idTutoria tutoría a consultar, o null para todas
+     */
+    @Transactional(readOnly = true)
+    public List<Disponibilidad> expandir(Integer idTutoria, LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("El rango de fechas no es válido");
+        }
+        if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS_CONSULTA) {
+            throw new IllegalArgumentException("El rango no puede superar " + MAXIMO_DIAS_CONSULTA + " días");
+        }
+
+        List<PlantillaDisponibilidad> plantillas = plantillaRepository.findVigentesEnRango(idTutoria,
+                Date.valueOf(desde), Date.valueOf(hasta));
+        if (plantillas.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, PlantillaDisponibilidad> porId = new HashMap<>();
+        plantillas.forEach(p -> porId.put(p.getIdPlantilla(), p));
+        List<Disponibilidad> sesiones = new ArrayList<>(disponibilidadRepository.findMaterializadasDePlantillas(
+                porId.keySet(), Date.valueOf(desde), Date.valueOf(hasta)));
+        Set<String> guardadas = new HashSet<>();
+        for (Disponibilidad d : sesiones) {
+            guardadas.add(d.getIdPlantilla() + "|" + d.getFecha().toLocalDate());
+        }
+
+        for (PlantillaDisponibilidad plantilla : plantillas) {
+            for (LocalDate fecha : fechas(plantilla, desde, hasta)) {
+                if (!guardadas.contains(plantilla.getIdPlantilla() + "|" + fecha)) {
+                    sesiones.add(sesionVirtual(plantilla, fecha));
+                }
+            }
+        }
+        sesiones.sort(Comparator.comparing(Disponibilidad::getFecha).thenComparing(Disponibilidad::getHoraInicio));
+        return sesiones;
+    }
+
+    /**
+     * Devuelve la sesión de la plantilla en la fecha dada, guardándola si todavía no existe.
+     * Debe llamarse dentro de la transacción que crea la reserva
+     */
+    @Transactional
+    public Disponibilidad materializar(Integer idPlantilla, LocalDate fecha) {
+        PlantillaDisponibilidad plantilla = obtenerPlantilla(idPlantilla);
+        if (plantilla.getIdEstado() != 1 || !ocurre(plantilla, fecha)) {
+            throw new IllegalArgumentException("La plantilla " + idPlantilla + " no tiene sesión el " + fecha);
+        }
+        Date dia = Date.valueOf(fecha);
+        if (disponibilidadRepository.materializarDesdePlantilla(idPlantilla, dia) == 1) {
+            log.info("🧩 Sesión de la plantilla {} guardada para el {}", idPlantilla, fecha);
+            // La sesión pasa a ser una disponibilidad con id: el índice debe seguirla por ese id
+            buscadorFranjasService.invalidar();
+        }
+        // Lectura con bloqueo: si la fila la guardó otra petición concurrente, la foto de esta transacción no la ve.
+        // El bloqueo es el mismo que tomará el UPDATE del aforo al reservar
+        return disponibilidadRepository.findByIdPlantillaAndFecha(idPlantilla, dia)
+                .orElseThrow(() -> new RuntimeException("No se pudo guardar la sesión de la plantilla " + idPlantilla));
+    }
+
+    private PlantillaDisponibilidad obtenerPlantilla(Integer idPlantilla) {
+        return plantillaRepository.findById(idPlantilla)
+                .orElseThrow(() -> new RuntimeException("Plantilla no encontrada con id: " + idPlantilla));
+    }
+
+    private static Disponibilidad sesionVirtual(PlantillaDisponibilidad plantilla, LocalDate fecha) {
+        Disponibilidad sesion = new Disponibilidad(plantilla.getIdTutoria(), Date.valueOf(fecha), plantilla.getDiaSemana(),
+                plantilla.getHoraInicio(), plantilla.getHoraFin(), plantilla.getAforoMaximo());
+        sesion.setIdPlantilla(plantilla.getIdPlantilla());
+        return sesion;
+    }
+
+    /** Indica si la plantilla genera sesión en la fecha (sin mirar si está activa) */
+    public static boolean ocurre(PlantillaDisponibilidad plantilla, LocalDate fecha) {
+        return fecha.getDayOfWeek() == diaDeLaSemana(plantilla.getDiaSemana())
+                && !fecha.isBefore(plantilla.getFechaInicio().toLocalDate())
+                && !fecha.isAfter(plantilla.getFechaFin().toLocalDate())
+                && !plantilla.getExcepciones().contains(Date.valueOf(fecha));
+    }
+
+    /** Fechas con sesión entre desde y hasta (inclusive), en orden */
+    public static List<LocalDate> fechas(PlantillaDisponibilidad plantilla, LocalDate desde, LocalDate hasta) {
+        LocalDate inicio = max(desde, plantilla.getFechaInicio().toLocalDate());
+        LocalDate fin = min(hasta, plantilla.getFechaFin().toLocalDate());
+        List<LocalDate> fechas = new ArrayList<>();
+        for (LocalDate fecha = inicio.with(TemporalAdjusters.nextOrSame(diaDeLaSemana(plantilla.getDiaSemana())));
+             !fecha.isAfter(fin); fecha = fecha.plusWeeks(1)) {
+            if (!plantilla.getExcepciones().contains(Date.valueOf(fecha))) {
+                fechas.add(fecha);
+            }
+        }
+        return fechas;
+    }
+
+    /**
+     * Intervalos que bastan para calcular el estado de la tutoría y su próxima frontera sin expandir
+     * toda la plantilla: la última sesión pasada, la de hoy y la siguiente
+     */
+    public static List<LocalDateTime[]> intervalosParaEstado(PlantillaDisponibilidad plantilla, LocalDateTime ahora) {
+        LocalDate hoy = ahora.toLocalDate();
+        DayOfWeek dia = diaDeLaSemana(plantilla.getDiaSemana());
+        LocalDate primera = plantilla.getFechaInicio().toLocalDate();
+        LocalDate ultima = plantilla.getFechaFin().toLocalDate();
+        List<LocalDateTime[]> intervalos = new ArrayList<>();
+
+        for (LocalDate fecha = min(hoy.minusDays(1), ultima).with(TemporalAdjusters.previousOrSame(dia));
+             !fecha.isBefore(primera); fecha = fecha.minusWeeks(1)) {
+            if (ocurre(plantilla, fecha)) {
+                intervalos.add(intervalo(plantilla, fecha));
+                break;
+            }
+        }
+        if (ocurre(plantilla, hoy)) {
+            intervalos.add(intervalo(plantilla, hoy));
+        }
+        for (LocalDate fecha = max(hoy.plusDays(1), primera).with(TemporalAdjusters.nextOrSame(dia));
+             !fecha.isAfter(ultima); fecha = fecha.plusWeeks(1)) {
+            if (ocurre(plantilla, fecha)) {
+                intervalos.add(intervalo(plantilla, fecha));
+                break;
+            }
+        }
+        return intervalos;
+    }
+
+    private static LocalDateTime[] intervalo(PlantillaDisponibilidad plantilla, LocalDate fecha) {
+        return new LocalDateTime[]{
+                LocalDateTime.of(fecha, plantilla.getHoraInicio().toLocalTime()),
+                LocalDateTime.of(fecha, plantilla.getHoraFin().toLocalTime())};
+    }
+
+    /** Acepta el nombre del día con o sin tilde y en cualquier combinación de mayúsculas */
+    static DayOfWeek diaDeLaSemana(String nombre) {
+        if (nombre != null) {
+            String normalizado = nombre.trim().toLowerCase().replace('á', 'a').replace('é', 'e');
+            for (int i = 0; i < NOMBRES_DIAS.length; i++) {
+                String candidato = NOMBRES_DIAS[i].toLowerCase().replace('á', 'a').replace('é', 'e');
+                if (candidato.equals(normalizado)) {
+                    return DayOfWeek.of(i + 1);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Día de la semana no válido: " + nombre);
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -1,25 +1,52 @@
 package uis.edu.tutouis_project.servicio;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import uis.edu.tutouis_project.config.ReintentoConcurrencia;
+import uis.edu.tutouis_project.exception.ReservaDuplicadaException;
 import uis.edu.tutouis_project.modelo.Reserva;
 import uis.edu.tutouis_project.modelo.Disponibilidad;
 import uis.edu.tutouis_project.modelo.EstadoReserva;
 import uis.edu.tutouis_project.modelo.dto.CreateReservaDto;
 import uis.edu.tutouis_project.modelo.dto.UpdateReservaDto;
 import uis.edu.tutouis_project.modelo.dto.ReservaResponseDto;
+import uis.edu.tutouis_project.modelo.dto.FiltroReservasDto;
+import uis.edu.tutouis_project.modelo.dto.PaginaReservasDto;
 import uis.edu.tutouis_project.repositorio.ReservaRepository;
 import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
 import uis.edu.tutouis_project.repositorio.UsuarioRepository;
 import uis.edu.tutouis_project.repositorio.EstadoReservaRepository;
 import uis.edu.tutouis_project.repositorio.TutoriaRepository;
-import uis.edu.tutouis_project.modelo.Tutoria;
-
+import uis.edu.tutouis_project.util.CursorReserva;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class ReservaService implements IReservaService {
 
+    private static final Logger log = LoggerFactory.getLogger(ReservaService.class);
+
+    /** Índice único de una reserva activa por estudiante y franja */
+    static final String INDICE_RESERVA_ACTIVA = "uk_reserva_activa_franja";
+
     @Autowired
     private ReservaRepository reservaRepository;
 
@@ -36,7 +63,31 @@ public class ReservaService implements IReservaService {
     private TutoriaRepository tutoriaRepository;
 
     @Autowired
-    private GoogleCalendarService googleCalendarService;
+    private CalendarioOutboxService calendarioOutboxService;
+
+    @Autowired
+    private AsignadorCupos asignadorCupos;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EstadisticasReservaService estadisticasReservaService;
+
+    @Autowired
+    private IActividadService actividadService;
+
+    @Autowired
+    private PlantillaDisponibilidadService plantillaDisponibilidadService;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Value("${reservas.listado.limite-defecto:50}")
+    private int limiteDefecto;
+
+    @Value("${reservas.listado.limite-max:500}")
+    private int limiteMaximo;
 
     @Override
     public List<Reserva> obtenerTodasLasReservas() {
@@ -44,18 +95,59 @@ public class ReservaService implements IReservaService {
     }
 
     @Override
-    public List<ReservaResponseDto> listarTodasLasReservas() {
-        System.out.println("🔵 ReservaService: Listando todas las reservas [VERSIÓN OPTIMIZADA]");
-        long inicio = System.currentTimeMillis();
-        
-        // Una sola consulta con JOINs - evita el problema N+1
-        List<ReservaResponseDto> reservas = reservaRepository.findAllReservasConDetalles();
-        
-        long fin = System.currentTimeMillis();
-        System.out.println("✅ ReservaService: Se obtuvieron " + reservas.size() + 
-                           " reservas en " + (fin - inicio) + "ms con UNA sola query SQL");
-        
-        return reservas;
+    @Transactional(readOnly = true)
+    public PaginaReservasDto listarReservas(FiltroReservasDto filtro, String cursor, Integer limite) {
+        int tamano = limite == null ? limiteDefecto : Math.max(1, Math.min(limite, limiteMaximo));
+        CursorReserva desde = cursor == null || cursor.isBlank() ? null : CursorReserva.decodificar(cursor);
+
+        // Se pide una fila de más para saber si hay página siguiente sin hacer un COUNT
+        List<ReservaResponseDto> reservas = new ArrayList<>(reservaRepository.findPaginaReservasConDetalles(
+                filtro.getIdEstado(), filtro.getIdEstudiante(), filtro.getIdTutor(), filtro.getIdAsignatura(),
+                aTimestamp(filtro.getDesde()), aTimestamp(filtro.getHasta()),
+                desde != null ? desde.getFechaCreacion() : null,
+                desde != null ? desde.getIdReserva() : null,
+                Limit.of(tamano + 1)));
+
+        String siguienteCursor = null;
+        if (reservas.size() > tamano) {
+            reservas.remove(tamano);
+            ReservaResponseDto ultima = reservas.get(tamano - 1);
+            siguienteCursor = new CursorReserva(ultima.getFechaCreacion(), ultima.getIdReserva()).codificar();
+        }
+        return new PaginaReservasDto(reservas, siguienteCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportarReservas(FiltroReservasDto filtro, OutputStream salida) throws IOException {
+        long escritas = 0;
+
+        // El flush lo controla el bucle: uno por cada FETCH_SIZE_EXPORTACION filas, no uno por fila
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        int filasPorFlush = Integer.parseInt(ReservaRepository.FETCH_SIZE_EXPORTACION);
+
+        try (Stream<ReservaResponseDto> reservas = reservaRepository.streamReservasConDetalles(
+                filtro.getIdEstado(), filtro.getIdEstudiante(), filtro.getIdTutor(), filtro.getIdAsignatura(),
+                aTimestamp(filtro.getDesde()), aTimestamp(filtro.getHasta()));
+             JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<ReservaResponseDto> it = reservas.iterator();
+            while (it.hasNext()) {
+                writer.writeValue(generador, it.next());
+                generador.writeRaw('\n');
+                if (++escritas % filasPorFlush == 0) {
+                    generador.flush();
+                }
+            }
+        }
+
+        metricas.incrementar("reservas.exportadas", escritas);
+        log.debug("✅ Se exportaron {} reservas (NDJSON)", escritas);
+        return escritas;
+    }
+
+    private static Timestamp aTimestamp(LocalDateTime fecha) {
+        return fecha != null ? Timestamp.valueOf(fecha) : null;
     }
 
     @Override
@@ -80,18 +172,9 @@ public class ReservaService implements IReservaService {
         if (idEstudiante == null || idEstudiante <= 0) {
             throw new IllegalArgumentException("El ID del estudiante debe ser un número positivo");
         }
-        
-        System.out.println("� ReservaService: Obteniendo reservas del estudiante " + idEstudiante + " [VERSIÓN OPTIMIZADA]");
-        long inicio = System.currentTimeMillis();
-        
+
         // Una sola consulta con JOINs - evita el problema N+1
-        List<ReservaResponseDto> reservas = reservaRepository.findReservasConDetallesPorEstudiante(idEstudiante);
-        
-        long fin = System.currentTimeMillis();
-        System.out.println("✅ ReservaService: Se obtuvieron " + reservas.size() + 
-                           " reservas en " + (fin - inicio) + "ms con UNA sola query SQL");
-        
-        return reservas;
+        return reservaRepository.findReservasConDetallesPorEstudiante(idEstudiante);
     }
 
     @Override
@@ -108,16 +191,7 @@ public class ReservaService implements IReservaService {
             throw new IllegalArgumentException("El ID de disponibilidad debe ser un número positivo");
         }
 
-        System.out.println("📋 ReservaService: Obteniendo reservas de la disponibilidad " + idDisponibilidad + " [VERSIÓN OPTIMIZADA]");
-        long inicio = System.currentTimeMillis();
-
-        List<ReservaResponseDto> reservas = reservaRepository.findReservasConDetallesPorDisponibilidad(idDisponibilidad);
-
-        long fin = System.currentTimeMillis();
-        System.out.println("✅ ReservaService: Se obtuvieron " + reservas.size() +
-                           " reservas en " + (fin - inicio) + "ms con UNA sola query SQL");
-
-        return reservas;
+        return reservaRepository.findReservasConDetallesPorDisponibilidad(idDisponibilidad);
     }
 
     @Override
@@ -142,25 +216,19 @@ public class ReservaService implements IReservaService {
     }
 
     @Override
+    @Transactional
+    @ReintentoConcurrencia
     public ReservaResponseDto crearReserva(CreateReservaDto createDto) {
-        System.out.println("═══════════════════════════════════════════════════════");
-        System.out.println("🆕 INICIANDO CREACIÓN DE NUEVA RESERVA");
-        System.out.println("═══════════════════════════════════════════════════════");
-        
         // Validar entrada
         if (createDto == null) {
             throw new IllegalArgumentException("El DTO de creación no puede ser nulo");
         }
-        
-        System.out.println("📥 DATOS RECIBIDOS:");
-        System.out.println("  - ID Disponibilidad: " + createDto.getIdDisponibilidad());
-        System.out.println("  - ID Estudiante: " + createDto.getIdEstudiante());
-        System.out.println("  - Hora Inicio: " + createDto.getHoraInicio());
-        System.out.println("  - Hora Fin: " + createDto.getHoraFin());
-        System.out.println("  - Modalidad: " + (createDto.getModalidad() != null ? createDto.getModalidad() : "(ninguna)"));
-        System.out.println("  - Observaciones: " + (createDto.getObservaciones() != null ? createDto.getObservaciones() : "(ninguna)"));
-        
-        if (createDto.getIdDisponibilidad() == null || createDto.getIdDisponibilidad() <= 0) {
+
+        log.debug("🆕 Creando reserva: disponibilidad={}, estudiante={}, {} - {}", createDto.getIdDisponibilidad(),
+                createDto.getIdEstudiante(), createDto.getHoraInicio(), createDto.getHoraFin());
+
+        Integer idDisponibilidad = resolverIdDisponibilidad(createDto);
+        if (idDisponibilidad == null || idDisponibilidad <= 0) {
             throw new IllegalArgumentException("El ID de disponibilidad es requerido y debe ser positivo");
         }
         if (createDto.getIdEstudiante() == null || createDto.getIdEstudiante() <= 0) {
@@ -175,18 +243,13 @@ public class ReservaService implements IReservaService {
 
         // Validar que la sesión sea de exactamente 15 minutos
         long minutos = java.time.Duration.between(createDto.getHoraInicio(), createDto.getHoraFin()).toMinutes();
-        System.out.println("⏱️  Duración de la sesión: " + minutos + " minutos");
         if (minutos != 15) {
             throw new IllegalArgumentException("La reserva debe ser de exactamente 15 minutos. Duración actual: " + minutos + " minutos");
         }
 
         // Verificar que la disponibilidad existe
-        System.out.println("🔍 Buscando disponibilidad...");
-        Disponibilidad disponibilidad = disponibilidadRepository.findById(createDto.getIdDisponibilidad())
-                .orElseThrow(() -> new RuntimeException("Disponibilidad no encontrada con ID: " + createDto.getIdDisponibilidad()));
-        
-        System.out.println("✅ Disponibilidad encontrada: ID=" + disponibilidad.getIdDisponibilidad() + 
-                         ", Rango=" + disponibilidad.getHoraInicio() + " - " + disponibilidad.getHoraFin());
+        Disponibilidad disponibilidad = disponibilidadRepository.findById(idDisponibilidad)
+                .orElseThrow(() -> new RuntimeException("Disponibilidad no encontrada con ID: " + idDisponibilidad));
 
         // Validar que la hora de inicio esté dentro del rango de la disponibilidad
         java.time.LocalTime dispHoraInicio = disponibilidad.getHoraInicio().toLocalTime();
@@ -203,47 +266,31 @@ public class ReservaService implements IReservaService {
         usuarioRepository.findById(createDto.getIdEstudiante())
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + createDto.getIdEstudiante()));
 
-        // Verificar que no exista otra reserva en el mismo horario
-        System.out.println("🔍 VERIFICANDO RESERVAS EXISTENTES:");
-        System.out.println("  📋 Estudiante ID: " + createDto.getIdEstudiante());
-        System.out.println("  📋 Disponibilidad ID: " + createDto.getIdDisponibilidad());
-        System.out.println("  ⏰ Horario solicitado: " + createDto.getHoraInicio() + " - " + createDto.getHoraFin());
-        
-        List<Reserva> reservasExistentes = reservaRepository.findByIdEstudianteAndIdEstado(createDto.getIdEstudiante(), 1);
-        System.out.println("  📊 Total de reservas activas del estudiante: " + reservasExistentes.size());
-        
-        if (!reservasExistentes.isEmpty()) {
-            System.out.println("  📝 Detalle de reservas existentes:");
-            for (Reserva r : reservasExistentes) {
-                System.out.println("    - Reserva ID=" + r.getIdReserva() + 
-                                 ", Disponibilidad=" + r.getIdDisponibilidad() + 
-                                 ", Horario=" + r.getHoraInicio() + " - " + r.getHoraFin());
+        // Verificar que no exista otra reserva en el mismo horario: índice de franjas de la disponibilidad,
+        // sin recorrer las reservas activas del estudiante
+        switch (asignadorCupos.tomarFranja(disponibilidad, createDto.getIdEstudiante(), createDto.getHoraInicio())) {
+            case YA_RESERVADA -> {
+                metricas.incrementar("reservas.conflictos.horario");
+                throw new ReservaDuplicadaException(mensajeReservaDuplicada(createDto));
+            }
+            case LLENA -> {
+                metricas.incrementar("reservas.conflictos.sin_cupo");
+                throw new RuntimeException("No hay cupos disponibles en este horario (aforo máximo: " + disponibilidad.getAforoMaximo() + ")");
             }
+            case FUERA_DE_RANGO -> throw new IllegalArgumentException("La reserva debe empezar en una franja de 15 minutos de la disponibilidad ("
+                    + dispHoraInicio + " + múltiplos de 15 minutos)");
+            case TOMADA -> { }
         }
-        
-        boolean yaReservado = reservasExistentes.stream()
-                .anyMatch(r -> {
-                    boolean mismaDisponibilidad = r.getIdDisponibilidad().equals(createDto.getIdDisponibilidad());
-                    boolean mismaHora = r.getHoraInicio().equals(createDto.getHoraInicio());
-                    if (mismaDisponibilidad && mismaHora) {
-                        System.out.println("  ❌ CONFLICTO ENCONTRADO:");
-                        System.out.println("    - Reserva existente ID=" + r.getIdReserva());
-                        System.out.println("    - Misma disponibilidad: " + mismaDisponibilidad);
-                        System.out.println("    - Misma hora de inicio: " + mismaHora);
-                    }
-                    return mismaDisponibilidad && mismaHora;
-                });
-        
-        if (yaReservado) {
-            System.out.println("  🚫 RECHAZANDO: El estudiante ya tiene una reserva en este horario");
-            throw new RuntimeException("Ya tienes una reserva activa en este horario (" + createDto.getHoraInicio() + " - " + createDto.getHoraFin() + ")");
+
+        // Tomar el cupo con un UPDATE condicional (aforo < aforo_maximo): sin sobreventa bajo concurrencia
+        if (!asignadorCupos.reservarCupo(disponibilidad)) {
+            metricas.incrementar("reservas.conflictos.sin_cupo");
+            throw new RuntimeException("No hay cupos disponibles en este horario (aforo máximo: " + disponibilidad.getAforoMaximo() + ")");
         }
-        
-        System.out.println("  ✅ No hay conflictos, procediendo a crear la reserva...");
 
         // Crear la nueva reserva
         Reserva nuevaReserva = new Reserva();
-        nuevaReserva.setIdDisponibilidad(createDto.getIdDisponibilidad());
+        nuevaReserva.setIdDisponibilidad(idDisponibilidad);
         nuevaReserva.setIdEstudiante(createDto.getIdEstudiante());
         nuevaReserva.setIdEstado(1); // Reservada
         nuevaReserva.setObservaciones(createDto.getObservaciones());
@@ -252,115 +299,65 @@ public class ReservaService implements IReservaService {
         nuevaReserva.setModalidad(createDto.getModalidad());
         nuevaReserva.setFechaCreacion(new java.sql.Timestamp(System.currentTimeMillis()));
 
-        System.out.println("💾 Guardando reserva en la base de datos...");
-        Reserva reservaGuardada = reservaRepository.save(nuevaReserva);
-        System.out.println("✅ Reserva guardada exitosamente con ID: " + reservaGuardada.getIdReserva());
-
-        // Crear evento en Google Calendar para ambas modalidades
+        Reserva reservaGuardada;
         try {
-            System.out.println("🗓️ Creando evento en Google Calendar...");
-            System.out.println("  - Modalidad: " + createDto.getModalidad());
-            
-            // Obtener información de la tutoría
-            Tutoria tutoria = tutoriaRepository.findById(disponibilidad.getIdTutoria())
-                    .orElseThrow(() -> new RuntimeException("Tutoría no encontrada"));
-            
-            // Obtener correos del estudiante y tutor
-            String correoEstudiante = usuarioRepository.findById(createDto.getIdEstudiante())
-                    .map(u -> u.getCorreo())
-                    .orElseThrow(() -> new RuntimeException("Estudiante no encontrado"));
-            
-            String correoTutor = usuarioRepository.findById(tutoria.getIdTutor())
-                    .map(u -> u.getCorreo())
-                    .orElseThrow(() -> new RuntimeException("Tutor no encontrado"));
-            
-            // Obtener fecha de la disponibilidad
-            java.time.LocalDate fecha = disponibilidad.getFecha().toLocalDate();
-            
-            // Crear título y descripción
-            String nombreAsignatura = tutoria.getAsignatura() != null ? tutoria.getAsignatura().getNombre() : "Tutoría";
-            String modalidadTexto = createDto.getModalidad();
-            String titulo = "Tutoría " + modalidadTexto + ": " + nombreAsignatura;
-            String descripcion = "Tutoría " + modalidadTexto.toLowerCase() + " de " + nombreAsignatura;
-            
-            // Agregar información del lugar si es presencial
-            if ("Presencial".equalsIgnoreCase(createDto.getModalidad())) {
-                if (tutoria.getLugar() != null && !tutoria.getLugar().trim().isEmpty()) {
-                    descripcion += "\n\n📍 Lugar: " + tutoria.getLugar();
-                }
+            reservaGuardada = reservaRepository.save(nuevaReserva);
+        } catch (DataIntegrityViolationException e) {
+            if (!violaReservaActivaUnica(e)) {
+                throw e;
             }
-            
-            if (createDto.getObservaciones() != null && !createDto.getObservaciones().trim().isEmpty()) {
-                descripcion += "\n\n📝 Observaciones: " + createDto.getObservaciones();
-            }
-            
-            // Crear evento según la modalidad
-            String meetLink = null;
-            String googleEventId = null;
-            if ("Virtual".equalsIgnoreCase(createDto.getModalidad())) {
-                // Modalidad Virtual: crear evento con Google Meet
-                String[] resultado = googleCalendarService.crearEventoMeet(
-                    titulo,
-                    descripcion,
-                    fecha,
-                    createDto.getHoraInicio(),
-                    createDto.getHoraFin(),
-                    correoEstudiante,
-                    correoTutor
-                );
-                
-                googleEventId = resultado[0];
-                meetLink = resultado[1];
-                
-                // Guardar el enlace de Meet y el eventId en la reserva
-                reservaGuardada.setMeetLink(meetLink);
-                reservaGuardada.setGoogleEventId(googleEventId);
-                reservaGuardada = reservaRepository.save(reservaGuardada);
-                
-                System.out.println("✅ Evento virtual creado con Google Meet: " + meetLink);
-                System.out.println("  - Event ID: " + googleEventId);
-            } else {
-                // Modalidad Presencial: crear evento sin Google Meet
-                String[] resultado = googleCalendarService.crearEventoPresencial(
-                    titulo,
-                    descripcion,
-                    fecha,
-                    createDto.getHoraInicio(),
-                    createDto.getHoraFin(),
-                    correoEstudiante,
-                    correoTutor
-                );
-                
-                googleEventId = resultado[0];
-                
-                // Guardar solo el eventId en la reserva
-                reservaGuardada.setGoogleEventId(googleEventId);
-                reservaGuardada = reservaRepository.save(reservaGuardada);
-                
-                System.out.println("✅ Evento presencial creado en Google Calendar (sin Meet)");
-                System.out.println("  - Event ID: " + googleEventId);
-            }
-            
-        } catch (Exception e) {
-            System.err.println("⚠️ Error al crear evento en Google Calendar: " + e.getMessage());
-            System.err.println("⚠️ La reserva se creó pero sin evento de calendario");
-            e.printStackTrace();
-            // No lanzamos excepción para que la reserva se complete aunque falle el calendario
+            // La franja la tomó otra instancia o una petición simultánea que el índice en memoria no vio:
+            // lo decide el índice único de la base de datos y el estado local se vuelve a cargar
+            asignadorCupos.olvidar(idDisponibilidad);
+            metricas.incrementar("reservas.conflictos.horario");
+            throw new ReservaDuplicadaException(mensajeReservaDuplicada(createDto), e);
         }
+        estadisticasReservaService.registrarReserva(reservaGuardada.getIdReserva());
+        actividadService.registrarReserva(reservaGuardada.getIdReserva());
 
-        // Incrementar aforo (número de personas reservadas)
-        System.out.println("📊 Incrementando aforo de " + disponibilidad.getAforo() + " a " + (disponibilidad.getAforo() + 1));
-        disponibilidad.setAforo(disponibilidad.getAforo() + 1);
-        disponibilidadRepository.save(disponibilidad);
+        // El evento de Google Calendar se crea en segundo plano (CalendarioOutboxService):
+        // la reserva no espera a la API y meetLink/googleEventId se completan al despachar
+        calendarioOutboxService.encolarCreacion(reservaGuardada.getIdReserva());
 
-        System.out.println("═══════════════════════════════════════════════════════");
-        System.out.println("✅ RESERVA CREADA EXITOSAMENTE - ID: " + reservaGuardada.getIdReserva());
-        System.out.println("═══════════════════════════════════════════════════════");
-        
+        metricas.incrementar("reservas.creadas");
+        log.debug("✅ Reserva creada con ID: {}", reservaGuardada.getIdReserva());
         return convertirAResponseDto(reservaGuardada);
     }
 
+    private static String mensajeReservaDuplicada(CreateReservaDto createDto) {
+        return "Ya tienes una reserva activa en este horario (" + createDto.getHoraInicio() + " - " + createDto.getHoraFin() + ")";
+    }
+
+    /**
+     * Si el error viene del índice único de reservas activas (db/migracion/V2__reserva_activa_unica.sql)
+     */
+    static boolean violaReservaActivaUnica(DataIntegrityViolationException e) {
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if (causa.getMessage() != null && causa.getMessage().contains(INDICE_RESERVA_ACTIVA)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Id de la disponibilidad a reservar. Una sesión de plantilla sin fila todavía se guarda ahora, con la
+     * primera reserva. El id no se escribe en el DTO: si el intento se revierte, la sesión materializada en él
+     * tampoco existe y el reintento de @ReintentoConcurrencia la vuelve a resolver
+     */
+    private Integer resolverIdDisponibilidad(CreateReservaDto createDto) {
+        if (createDto.getIdDisponibilidad() != null || createDto.getIdPlantilla() == null) {
+            return createDto.getIdDisponibilidad();
+        }
+        if (createDto.getFecha() == null) {
+            throw new IllegalArgumentException("La fecha es requerida para reservar una sesión de plantilla");
+        }
+        return plantillaDisponibilidadService
+                .materializar(createDto.getIdPlantilla(), createDto.getFecha()).getIdDisponibilidad();
+    }
+
     @Override
+    @ReintentoConcurrencia
     public ReservaResponseDto actualizarReserva(Integer idReserva, UpdateReservaDto updateDto) {
         if (idReserva == null || idReserva <= 0) {
             throw new IllegalArgumentException("El ID de la reserva debe ser un número positivo");
@@ -381,6 +378,8 @@ public class ReservaService implements IReservaService {
     }
 
     @Override
+    @Transactional
+    @ReintentoConcurrencia
     public ReservaResponseDto cancelarReserva(Integer idReserva, String razonCancelacion) {
         if (idReserva == null || idReserva <= 0) {
             throw new IllegalArgumentException("El ID de la reserva debe ser un número positivo");
@@ -393,35 +392,30 @@ public class ReservaService implements IReservaService {
             throw new RuntimeException("La reserva ya ha sido cancelada");
         }
 
+        boolean estabaActiva = reserva.getIdEstado() == 1;
+        estadisticasReservaService.cambiarEstado(idReserva, 2);
         reserva.setIdEstado(2); // Cancelada
         reserva.setRazonCancelacion(razonCancelacion);
         reserva.setFechaCancelacion(new java.sql.Timestamp(System.currentTimeMillis()));
 
-        // Eliminar evento de Google Calendar si existe
-        if (reserva.getGoogleEventId() != null && !reserva.getGoogleEventId().trim().isEmpty()) {
-            try {
-                System.out.println("🗑️  Cancelando evento de Google Calendar: " + reserva.getGoogleEventId());
-                googleCalendarService.eliminarEvento(reserva.getGoogleEventId());
-                System.out.println("✅ Evento de Google Calendar cancelado exitosamente");
-            } catch (Exception e) {
-                System.err.println("⚠️ Error al cancelar evento de Google Calendar: " + e.getMessage());
-                System.err.println("⚠️ La reserva se cancelará de todos modos");
-                e.printStackTrace();
-                // No lanzamos excepción para que la cancelación de la reserva se complete
-            }
-        }
+        // Eliminar evento de Google Calendar (asíncrono, vía outbox)
+        calendarioOutboxService.encolarEliminacion(reserva.getIdReserva(), reserva.getGoogleEventId());
 
-        // Decrementar el aforo (liberar el cupo)
-        Disponibilidad disponibilidad = disponibilidadRepository.findById(reserva.getIdDisponibilidad())
-                .orElseThrow(() -> new RuntimeException("Disponibilidad no encontrada"));
-        disponibilidad.setAforo(disponibilidad.getAforo() - 1);
-        disponibilidadRepository.save(disponibilidad);
+        // Decrementar el aforo (liberar el cupo) de forma atómica; las reservas realizadas o no asistidas
+        // ya lo liberaron al dejar de estar activas
+        if (estabaActiva) {
+            asignadorCupos.liberarCupo(reserva.getIdDisponibilidad());
+            asignadorCupos.liberarFranja(reserva.getIdDisponibilidad(), reserva.getIdEstudiante(), reserva.getHoraInicio());
+        }
 
         Reserva reservaCancelada = reservaRepository.save(reserva);
+        metricas.incrementar("reservas.canceladas");
         return convertirAResponseDto(reservaCancelada);
     }
 
     @Override
+    @Transactional
+    @ReintentoConcurrencia
     public ReservaResponseDto marcarReservaRealizada(Integer idReserva) {
         if (idReserva == null || idReserva <= 0) {
             throw new IllegalArgumentException("El ID de la reserva debe ser un número positivo");
@@ -430,12 +424,20 @@ public class ReservaService implements IReservaService {
         Reserva reserva = reservaRepository.findById(idReserva)
                 .orElseThrow(() -> new RuntimeException("Reserva no encontrada con ID: " + idReserva));
 
+        if (reserva.getIdEstado() == 1) {
+            // El aforo cuenta solo reservas activas
+            asignadorCupos.liberarCupo(reserva.getIdDisponibilidad());
+            asignadorCupos.liberarFranja(reserva.getIdDisponibilidad(), reserva.getIdEstudiante(), reserva.getHoraInicio());
+        }
+        estadisticasReservaService.cambiarEstado(idReserva, 3);
         reserva.setIdEstado(3); // Realizada
         Reserva reservaActualizada = reservaRepository.save(reserva);
         return convertirAResponseDto(reservaActualizada);
     }
 
     @Override
+    @Transactional
+    @ReintentoConcurrencia
     public ReservaResponseDto marcarReservaNoAsistida(Integer idReserva) {
         if (idReserva == null || idReserva <= 0) {
             throw new IllegalArgumentException("El ID de la reserva debe ser un número positivo");
@@ -444,12 +446,20 @@ public class ReservaService implements IReservaService {
         Reserva reserva = reservaRepository.findById(idReserva)
                 .orElseThrow(() -> new RuntimeException("Reserva no encontrada con ID: " + idReserva));
 
+        if (reserva.getIdEstado() == 1) {
+            // El aforo cuenta solo reservas activas
+            asignadorCupos.liberarCupo(reserva.getIdDisponibilidad());
+            asignadorCupos.liberarFranja(reserva.getIdDisponibilidad(), reserva.getIdEstudiante(), reserva.getHoraInicio());
+        }
+        estadisticasReservaService.cambiarEstado(idReserva, 4);
         reserva.setIdEstado(4); // No Asistida
         Reserva reservaActualizada = reservaRepository.save(reserva);
         return convertirAResponseDto(reservaActualizada);
     }
 
     @Override
+    @Transactional
+    @ReintentoConcurrencia
     public void eliminarReserva(Integer idReserva) {
         if (idReserva == null || idReserva <= 0) {
             throw new IllegalArgumentException("El ID de la reserva debe ser un número positivo");
@@ -460,12 +470,14 @@ public class ReservaService implements IReservaService {
 
         // Si la reserva es reciente y está en estado "Reservada", liberar el cupo
         if (reserva.getIdEstado() == 1) {
-            Disponibilidad disponibilidad = disponibilidadRepository.findById(reserva.getIdDisponibilidad())
-                    .orElseThrow(() -> new RuntimeException("Disponibilidad no encontrada"));
-            disponibilidad.setAforo(disponibilidad.getAforo() - 1);
-            disponibilidadRepository.save(disponibilidad);
+            asignadorCupos.liberarCupo(reserva.getIdDisponibilidad());
+            asignadorCupos.liberarFranja(reserva.getIdDisponibilidad(), reserva.getIdEstudiante(), reserva.getHoraInicio());
         }
 
+        // Eliminar el evento de Google Calendar (asíncrono, vía outbox)
+        calendarioOutboxService.encolarEliminacion(reserva.getIdReserva(), reserva.getGoogleEventId());
+
+        estadisticasReservaService.retirarReserva(idReserva);
         reservaRepository.deleteById(idReserva);
     }
 
@@ -585,11 +597,6 @@ public class ReservaService implements IReservaService {
         if (idTutor == null || idTutor <= 0) {
             throw new IllegalArgumentException("El ID del tutor debe ser un número positivo");
         }
-        System.out.println("📅 ReservaService: Obteniendo reservas de HOY para tutor " + idTutor);
-        long inicio = System.currentTimeMillis();
-        List<ReservaResponseDto> reservas = reservaRepository.findReservasDeHoyPorTutor(idTutor);
-        long fin = System.currentTimeMillis();
-        System.out.println("✅ ReservaService: " + reservas.size() + " reservas encontradas para hoy en " + (fin - inicio) + "ms");
-        return reservas;
+        return reservaRepository.findReservasDeHoyPorTutor(idTutor);
     }
 }
@@ -1,113 +1,293 @@
 package uis.edu.tutouis_project.servicio;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import uis.edu.tutouis_project.modelo.Tutoria;
-import uis.edu.tutouis_project.modelo.Disponibilidad;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.modelo.PlantillaDisponibilidad;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.PlantillaDisponibilidadRepository;
 import uis.edu.tutouis_project.repositorio.TutoriaRepository;
+import uis.edu.tutouis_project.util.RegistroMetricas;
 
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Servicio para gestionar la actualización automática de estados de tutorías
  * según las fechas y horas de sus disponibilidades.
- * 
+ *
  * Estados de Tutoría:
  * 1 = Pendiente - Tutoría creada sin disponibilidades asignadas
  * 2 = Programada - Tiene disponibilidades programadas para el futuro
  * 3 = En Curso - Al menos una disponibilidad se está realizando ahora
  * 4 = Finalizada - Todas las disponibilidades ya finalizaron
  * 5 = Cancelada - La tutoría fue cancelada manualmente
+ *
+ * El estado de una tutoría solo puede cambiar en el inicio o el fin de alguna de sus disponibilidades,
+ * o cuando se editan sus disponibilidades. Por eso no se recorre todo el historial periódicamente:
+ * se mantiene una cola de prioridad con la próxima frontera (inicio/fin) de cada tutoría y un único
+ * despertador programado para la más cercana. Al vencer, solo se recalculan las tutorías cuya frontera
+ * pasó, y los cambios se escriben con un UPDATE masivo por estado destino.
+ * Los servicios que modifican disponibilidades avisan con notificarCambio; al arrancar la cola se
+ * reconstruye desde la BD con las tutorías que todavía tienen fronteras por delante.
+ * Las plantillas semanales aportan solo la sesión anterior, la de hoy y la siguiente, que bastan para el
+ * estado y la próxima frontera.
  */
 @Service
 public class TutoriaEstadoService {
 
+    private static final Logger log = LoggerFactory.getLogger(TutoriaEstadoService.class);
+
+    /** Máximo de ids por sentencia IN al recalcular */
+    private static final int TAMANO_BLOQUE = 500;
+    private static final int REINTENTO_SEGUNDOS = 60;
+
     @Autowired
     private TutoriaRepository tutoriaRepository;
 
+    @Autowired
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Autowired
+    private PlantillaDisponibilidadRepository plantillaDisponibilidadRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    /** Próxima frontera por tutoría; las entradas de la cola que no coinciden con este mapa están obsoletas */
+    private final Map<Integer, LocalDateTime> proximaFrontera = new HashMap<>();
+    private final PriorityQueue<Frontera> cola = new PriorityQueue<>();
+    private ScheduledFuture<?> despertador;
+    private LocalDateTime despertadorEn;
+
+    /** Serializa los recálculos: dos recálculos concurrentes de la misma tutoría podrían escribir un estado viejo */
+    private final ReentrantLock recalculo = new ReentrantLock();
+
+    /**
+     * Reconstruye la cola al arrancar: recalcula las tutorías Programadas/En curso (pudieron vencer fronteras
+     * mientras la aplicación estaba abajo) y las que tienen disponibilidades desde hoy en adelante
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        Set<Integer> ids = new HashSet<>(tutoriaRepository.findIdsConFronterasPendientes(Date.valueOf(LocalDate.now())));
+        ids.addAll(plantillaDisponibilidadRepository.findIdsTutoriaConPlantillasVigentes(Date.valueOf(LocalDate.now())));
+        List<Integer> activas = new ArrayList<>(ids);
+        log.info("🔄 TutoriaEstadoService: reconstruyendo cola de fronteras con {} tutoría(s)", activas.size());
+        int cambios = recalcular(activas);
+        log.info("✅ TutoriaEstadoService: {} estado(s) corregidos al arrancar, {} frontera(s) en cola",
+                cambios, fronterasProgramadas());
+    }
+
+    /**
+     * Avisa que cambiaron las disponibilidades de una tutoría. Si hay una transacción activa el recálculo
+     * se hace después del commit (para leer los datos nuevos); nunca bloquea al llamador
+     */
+    public void notificarCambio(Integer idTutoria) {
+        if (idTutoria != null) {
+            notificarCambios(List.of(idTutoria));
+        }
+    }
+
+    public void notificarCambios(Collection<Integer> idsTutoria) {
+        List<Integer> ids = List.copyOf(idsTutoria);
+        if (ids.isEmpty()) {
+            return;
+        }
+        Runnable tarea = () -> taskScheduler.schedule(() -> recalcularSinFallar(ids), Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tarea.run();
+                }
+            });
+        } else {
+            tarea.run();
+        }
+    }
+
+    /**
+     * Recalcula todas las tutorías no canceladas (útil para pruebas o para reparar datos editados a mano)
+     * @return Número de tutorías cuyo estado cambió
+     */
+    public int actualizarEstadosManualmente() {
+        log.info("🔧 Actualización manual solicitada");
+        return recalcular(tutoriaRepository.findIdsNoCanceladas());
+    }
+
     /**
-     * Actualiza los estados de las tutorías cada 5 minutos según sus disponibilidades
-     * Cron: Ejecutar cada 5 minutos (segundo, minuto, hora, día, mes, día_semana)
-     * 
-     * ✅ OPTIMIZADO: Usa una sola query con JOIN FETCH para cargar tutorías + disponibilidades
+     * Recalcula el estado de las tutorías indicadas y reprograma su próxima frontera
+     * @return Número de tutorías cuyo estado cambió
      */
-    @Scheduled(cron = "0 */5 * * * *")
-    @Transactional
-    public void actualizarEstadosDisponibilidades() {
-        System.out.println("═══════════════════════════════════════════════════════════════");
-        System.out.println("🔄 INICIANDO ACTUALIZACIÓN DE ESTADOS DE TUTORÍAS");
-        System.out.println("═══════════════════════════════════════════════════════════════");
-        
+    public int recalcular(Collection<Integer> idsTutoria) {
+        List<Integer> ids = new ArrayList<>(new HashSet<>(idsTutoria));
+        int cambios = 0;
+        recalculo.lock();
+        try {
+            for (int i = 0; i < ids.size(); i += TAMANO_BLOQUE) {
+                cambios += recalcularBloque(ids.subList(i, Math.min(i + TAMANO_BLOQUE, ids.size())));
+            }
+        } finally {
+            recalculo.unlock();
+        }
+        return cambios;
+    }
+
+    private int recalcularBloque(List<Integer> ids) {
+        long inicio = System.nanoTime();
         LocalDateTime ahora = LocalDateTime.now();
-        
-        System.out.println("📅 Fecha/Hora actual: " + ahora);
-        
-        // ✅ OPTIMIZACIÓN: Una sola query con JOIN FETCH para cargar tutorías + disponibilidades
-        List<Tutoria> tutorias = tutoriaRepository.findAllTutoriasWithDisponibilidadesForEstadoUpdate()
-                .stream()
-                .filter(t -> t.getIdEstadoTutoria() != 5) // Excluir canceladas
-                .toList();
-        
-        System.out.println("📊 Total de tutorías a revisar: " + tutorias.size());
-        System.out.println("✅ Tutorías + disponibilidades cargadas en 1 sola query (JOIN FETCH)");
-        
-        int actualizadas = 0;
-        int pendientes = 0;
-        int programadas = 0;
-        int enCurso = 0;
-        int finalizadas = 0;
-        
-        for (Tutoria tutoria : tutorias) {
-            // ✅ Las disponibilidades ya están cargadas gracias al JOIN FETCH
-            // No se ejecutan queries adicionales aquí
-            List<Disponibilidad> disponibilidades = tutoria.getDisponibilidades()
-                    .stream()
-                    .filter(d -> d.getIdEstado() != 4) // Excluir disponibilidades canceladas
-                    .toList();
-            
-            int estadoAnterior = tutoria.getIdEstadoTutoria() != null ? tutoria.getIdEstadoTutoria() : 1;
-            int nuevoEstado = calcularEstadoTutoria(disponibilidades, ahora);
-            
-            // Solo actualizar si cambió el estado
-            if (estadoAnterior != nuevoEstado) {
-                tutoria.setIdEstadoTutoria(nuevoEstado);
-                tutoriaRepository.save(tutoria);
-                actualizadas++;
-                
-                System.out.println("  ✅ Tutoría ID=" + tutoria.getIdTutoria() + 
-                                 " | Descripción=" + (tutoria.getDescripcion() != null && tutoria.getDescripcion().length() > 40 
-                                     ? tutoria.getDescripcion().substring(0, 40) + "..." 
-                                     : tutoria.getDescripcion()) +
-                                 " | Estado: " + obtenerNombreEstadoTutoria(estadoAnterior) + " → " + obtenerNombreEstadoTutoria(nuevoEstado));
-                
-                switch (nuevoEstado) {
-                    case 1 -> pendientes++;
-                    case 2 -> programadas++;
-                    case 3 -> enCurso++;
-                    case 4 -> finalizadas++;
+        Map<Integer, LocalDateTime> siguientes = new HashMap<>();
+
+        Integer cambios = transactionTemplate.execute(status -> {
+            Map<Integer, List<LocalDateTime[]>> horarios = new HashMap<>();
+            for (Object[] fila : disponibilidadRepository.findHorariosDeTutorias(ids)) {
+                LocalDate fecha = ((Date) fila[1]).toLocalDate();
+                horarios.computeIfAbsent((Integer) fila[0], k -> new ArrayList<>()).add(new LocalDateTime[]{
+                        LocalDateTime.of(fecha, ((Time) fila[2]).toLocalTime()),
+                        LocalDateTime.of(fecha, ((Time) fila[3]).toLocalTime())});
+            }
+            for (PlantillaDisponibilidad plantilla : plantillaDisponibilidadRepository.findActivasDeTutorias(ids)) {
+                horarios.computeIfAbsent(plantilla.getIdTutoria(), k -> new ArrayList<>())
+                        .addAll(PlantillaDisponibilidadService.intervalosParaEstado(plantilla, ahora));
+            }
+
+            Map<Integer, List<Integer>> porEstado = new HashMap<>();
+            for (Integer id : ids) {
+                List<LocalDateTime[]> intervalos = horarios.getOrDefault(id, List.of());
+                porEstado.computeIfAbsent(calcularEstadoTutoria(intervalos, ahora), k -> new ArrayList<>()).add(id);
+                siguientes.put(id, calcularProximaFrontera(intervalos, ahora));
+            }
+
+            // Un UPDATE por estado destino; solo toca filas que realmente cambian y nunca las canceladas
+            int actualizadas = 0;
+            for (Map.Entry<Integer, List<Integer>> grupo : porEstado.entrySet()) {
+                int filas = tutoriaRepository.actualizarEstadoTutorias(grupo.getValue(), grupo.getKey());
+                if (filas > 0) {
+                    metricas.incrementar("tutorias.estado.transiciones." + nombreMetrica(grupo.getKey()), filas);
                 }
+                actualizadas += filas;
             }
+            return actualizadas;
+        });
+
+        programarFronteras(siguientes);
+        metricas.incrementar("tutorias.estado.recalculadas", ids.size());
+        metricas.incrementar("tutorias.estado.transiciones", cambios);
+        metricas.registrarTiempo("tutorias.estado.recalculo", System.nanoTime() - inicio);
+        return cambios;
+    }
+
+    private void recalcularSinFallar(Collection<Integer> ids) {
+        try {
+            recalcular(ids);
+        } catch (RuntimeException e) {
+            // Se reintenta más tarde dejando una frontera artificial para cada tutoría
+            log.error("❌ TutoriaEstadoService: error recalculando {} tutoría(s), se reintenta en {}s: {}",
+                    ids.size(), REINTENTO_SEGUNDOS, e.getMessage());
+            LocalDateTime reintento = LocalDateTime.now().plusSeconds(REINTENTO_SEGUNDOS);
+            Map<Integer, LocalDateTime> siguientes = new HashMap<>();
+            ids.forEach(id -> siguientes.put(id, reintento));
+            programarFronteras(siguientes);
         }
-        
-        System.out.println("───────────────────────────────────────────────────────────────");
-        System.out.println("📊 RESUMEN DE ACTUALIZACIÓN:");
-        System.out.println("  • Total revisadas: " + tutorias.size());
-        System.out.println("  • Total actualizadas: " + actualizadas);
-        System.out.println("  • Cambiadas a PENDIENTE: " + pendientes);
-        System.out.println("  • Cambiadas a PROGRAMADA: " + programadas);
-        System.out.println("  • Cambiadas a EN CURSO: " + enCurso);
-        System.out.println("  • Cambiadas a FINALIZADA: " + finalizadas);
-        System.out.println("═══════════════════════════════════════════════════════════════");
-    }
-    
+    }
+
     /**
-     * Calcula el estado de una tutoría según sus disponibilidades
-     * 
+     * Despertador: toma de la cola las fronteras ya vencidas y recalcula solo esas tutorías
+     */
+    void procesarFronterasVencidas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        Set<Integer> vencidas = new HashSet<>();
+        synchronized (this) {
+            despertador = null;
+            despertadorEn = null;
+            while (!cola.isEmpty() && cola.peek().instante.isBefore(ahora)) {
+                Frontera frontera = cola.poll();
+                if (frontera.instante.equals(proximaFrontera.get(frontera.idTutoria))) {
+                    proximaFrontera.remove(frontera.idTutoria);
+                    vencidas.add(frontera.idTutoria);
+                }
+            }
+            reprogramarDespertador();
+        }
+        if (!vencidas.isEmpty()) {
+            recalcularSinFallar(vencidas);
+        }
+    }
+
+    private synchronized void programarFronteras(Map<Integer, LocalDateTime> siguientes) {
+        for (Map.Entry<Integer, LocalDateTime> entrada : siguientes.entrySet()) {
+            if (entrada.getValue() == null) {
+                proximaFrontera.remove(entrada.getKey());
+            } else if (!entrada.getValue().equals(proximaFrontera.put(entrada.getKey(), entrada.getValue()))) {
+                cola.add(new Frontera(entrada.getValue(), entrada.getKey()));
+            }
+        }
+        // Las entradas obsoletas se descartan al salir de la cola; si se acumulan demasiadas se compacta
+        if (cola.size() > 2 * proximaFrontera.size() + TAMANO_BLOQUE) {
+            cola.removeIf(f -> !f.instante.equals(proximaFrontera.get(f.idTutoria)));
+        }
+        reprogramarDespertador();
+    }
+
+    /**
+     * Deja un único despertador programado para la frontera más cercana.
+     * Se programa 1 ms después de la frontera porque los estados se evalúan con comparaciones estrictas
+     */
+    private void reprogramarDespertador() {
+        while (!cola.isEmpty() && !cola.peek().instante.equals(proximaFrontera.get(cola.peek().idTutoria))) {
+            cola.poll();
+        }
+        LocalDateTime siguiente = cola.isEmpty() ? null : cola.peek().instante;
+        if (Objects.equals(siguiente, despertadorEn)) {
+            return;
+        }
+        if (despertador != null) {
+            despertador.cancel(false);
+        }
+        despertadorEn = siguiente;
+        despertador = siguiente == null ? null : taskScheduler.schedule(this::procesarFronterasVencidas,
+                siguiente.plusNanos(1_000_000).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    synchronized int fronterasProgramadas() {
+        return proximaFrontera.size();
+    }
+
+    synchronized LocalDateTime obtenerProximaFrontera(Integer idTutoria) {
+        return proximaFrontera.get(idTutoria);
+    }
+
+    /**
+     * Calcula el estado de una tutoría según sus disponibilidades (intervalos [inicio, fin])
+     *
      * Lógica:
      * 1. Si no tiene disponibilidades → PENDIENTE (1)
      * 2. Si alguna está EN CURSO ahora → EN CURSO (3)
@@ -115,66 +295,55 @@ public class TutoriaEstadoService {
      * 4. Si tiene alguna futura → PROGRAMADA (2)
      * 5. Por defecto → PENDIENTE (1)
      */
-    private int calcularEstadoTutoria(List<Disponibilidad> disponibilidades, LocalDateTime ahora) {
+    static int calcularEstadoTutoria(List<LocalDateTime[]> intervalos, LocalDateTime ahora) {
         // Caso 1: Sin disponibilidades
-        if (disponibilidades == null || disponibilidades.isEmpty()) {
-            System.out.println("    ℹ️ Sin disponibilidades → PENDIENTE");
+        if (intervalos.isEmpty()) {
             return 1; // PENDIENTE
         }
-        
-        boolean hayEnCurso = false;
+
         boolean hayFuturas = false;
-        int totalDisponibilidades = disponibilidades.size();
         int finalizadas = 0;
-        
-        for (Disponibilidad disp : disponibilidades) {
-            try {
-                LocalDate fechaDisp = disp.getFecha().toLocalDate();
-                LocalTime horaInicio = disp.getHoraInicio().toLocalTime();
-                LocalTime horaFin = disp.getHoraFin().toLocalTime();
-                
-                LocalDateTime inicioDisponibilidad = LocalDateTime.of(fechaDisp, horaInicio);
-                LocalDateTime finDisponibilidad = LocalDateTime.of(fechaDisp, horaFin);
-                
-                // Clasificar la disponibilidad
-                if (ahora.isAfter(inicioDisponibilidad) && ahora.isBefore(finDisponibilidad)) {
-                    hayEnCurso = true; // Está ocurriendo AHORA
-                    System.out.println("    ⏱️ Disponibilidad EN CURSO: " + fechaDisp + " " + horaInicio + "-" + horaFin);
-                } else if (ahora.isBefore(inicioDisponibilidad)) {
-                    hayFuturas = true; // Está en el FUTURO
-                } else if (ahora.isAfter(finDisponibilidad)) {
-                    finalizadas++; // Ya FINALIZÓ
-                }
-                
-            } catch (Exception e) {
-                System.err.println("    ⚠️ Error procesando disponibilidad ID=" + disp.getIdDisponibilidad() + ": " + e.getMessage());
-                // Si hay error, asumir que no afecta el estado
+
+        for (LocalDateTime[] intervalo : intervalos) {
+            if (ahora.isAfter(intervalo[0]) && ahora.isBefore(intervalo[1])) {
+                // Caso 2: Al menos una EN CURSO (prioridad máxima)
+                return 3; // EN CURSO
+            } else if (ahora.isBefore(intervalo[0])) {
+                hayFuturas = true; // Está en el FUTURO
+            } else if (ahora.isAfter(intervalo[1])) {
+                finalizadas++; // Ya FINALIZÓ
             }
         }
-        
-        // Caso 2: Al menos una EN CURSO (prioridad máxima)
-        if (hayEnCurso) {
-            System.out.println("    ✅ Resultado: EN CURSO (hay " + totalDisponibilidades + " disponibilidad(es), al menos 1 activa ahora)");
-            return 3; // EN CURSO
-        }
-        
+
         // Caso 3: TODAS finalizadas
-        if (finalizadas == totalDisponibilidades) {
-            System.out.println("    ✅ Resultado: FINALIZADA (todas las " + finalizadas + " disponibilidades ya terminaron)");
+        if (finalizadas == intervalos.size()) {
             return 4; // FINALIZADA
         }
-        
+
         // Caso 4: Tiene disponibilidades FUTURAS
         if (hayFuturas) {
-            System.out.println("    ✅ Resultado: PROGRAMADA (hay disponibilidades futuras)");
             return 2; // PROGRAMADA
         }
-        
-        // Caso 5: Por defecto (no debería llegar aquí normalmente)
-        System.out.println("    ⚠️ Resultado: PENDIENTE (caso por defecto - revisar lógica)");
+
+        // Caso 5: Por defecto (justo en el instante de una frontera)
         return 1; // PENDIENTE
     }
-    
+
+    /**
+     * Primer inicio o fin de disponibilidad estrictamente posterior a ahora, o null si ya no quedan
+     */
+    static LocalDateTime calcularProximaFrontera(List<LocalDateTime[]> intervalos, LocalDateTime ahora) {
+        LocalDateTime proxima = null;
+        for (LocalDateTime[] intervalo : intervalos) {
+            for (LocalDateTime instante : intervalo) {
+                if (instante.isAfter(ahora) && (proxima == null || instante.isBefore(proxima))) {
+                    proxima = instante;
+                }
+            }
+        }
+        return proxima;
+    }
+
     /**
      * Obtiene el nombre descriptivo de un estado de tutoría
      */
@@ -188,12 +357,26 @@ public class TutoriaEstadoService {
             default -> "DESCONOCIDO";
         };
     }
-    
+
     /**
-     * Método para ejecutar la actualización manualmente (útil para pruebas)
+     * Nombre del estado para usar como sufijo de métrica (ej. "en_curso")
      */
-    public void actualizarEstadosManualmente() {
-        System.out.println("🔧 Actualización manual solicitada");
-        actualizarEstadosDisponibilidades();
+    private String nombreMetrica(int idEstado) {
+        return obtenerNombreEstadoTutoria(idEstado).toLowerCase().replace(' ', '_');
+    }
+
+    private static final class Frontera implements Comparable<Frontera> {
+        private final LocalDateTime instante;
+        private final Integer idTutoria;
+
+        private Frontera(LocalDateTime instante, Integer idTutoria) {
+            this.instante = instante;
+            this.idTutoria = idTutoria;
+        }
+
+        @Override
+        public int compareTo(Frontera otra) {
+            return instante.compareTo(otra.instante);
+        }
     }
 }
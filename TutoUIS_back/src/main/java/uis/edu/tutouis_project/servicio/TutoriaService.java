@@ -1,5 +1,7 @@
 package uis.edu.tutouis_project.servicio;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -13,9 +15,12 @@ import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
 import uis.edu.tutouis_project.repositorio.TutoriaRepository;
 import uis.edu.tutouis_project.repositorio.UsuarioRepository;
 import uis.edu.tutouis_project.exception.ConflictoHorarioException;
+import uis.edu.tutouis_project.util.IndiceHorarios;
+import uis.edu.tutouis_project.util.RegistroMetricas;
 
 import java.sql.Date;
 import java.sql.Time;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +28,8 @@ import java.util.Map;
 @Service
 public class TutoriaService {
 
+    private static final Logger log = LoggerFactory.getLogger(TutoriaService.class);
+
     @Autowired
     private TutoriaRepository tutoriaRepository;
 
@@ -38,26 +45,42 @@ public class TutoriaService {
     @Autowired
     private DisponibilidadRepository disponibilidadRepository;
 
+    @Autowired
+    private CalendarioOutboxService calendarioOutboxService;
+
+    @Autowired
+    private AsignadorCupos asignadorCupos;
+
+    @Autowired
+    private TutoriaEstadoService tutoriaEstadoService;
+
+    @Autowired
+    private EstadisticasReservaService estadisticasReservaService;
+
+    @Autowired
+    private IActividadService actividadService;
+
+    @Autowired
+    private BuscadorFranjasService buscadorFranjasService;
+
+    @Autowired
+    private PlantillaDisponibilidadService plantillaDisponibilidadService;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
     /**
      * Obtiene todas las tutorías con información completa (nombre tutor, nombre asignatura, estado)
      * OPTIMIZADO: Usa una sola query con JOINs para evitar el problema N+1
      */
     public List<TutoriaResponseDto> obtenerTodasLasTutorias() {
-        System.out.println("🔵 TutoriaService: Iniciando obtenerTodasLasTutorias() [VERSIÓN OPTIMIZADA CON ESTADO]");
-        long inicio = System.currentTimeMillis();
-        
         // Una sola consulta con JOINs - evita el problema N+1
         List<Tutoria> tutorias = tutoriaRepository.findAllTutoriasWithDetails();
-        
+
         // Convertir las entidades a DTOs
-        List<TutoriaResponseDto> resultado = tutorias.stream()
+        return tutorias.stream()
                 .map(this::convertirEntidadADto)
                 .toList();
-        
-        long fin = System.currentTimeMillis();
-        System.out.println("✅ TutoriaService: Se obtuvieron " + resultado.size() + " tutorías en " + (fin - inicio) + "ms con UNA sola query SQL");
-        
-        return resultado;
     }
     
     /**
@@ -111,8 +134,7 @@ public class TutoriaService {
      */
     @Deprecated
     private TutoriaResponseDto convertirATutoriaResponseDto(Tutoria tutoria) {
-        System.out.println("⚠️ ADVERTENCIA: Usando método DEPRECADO con problema N+1");
-        System.out.println("🔄 TutoriaService: Convirtiendo tutoría ID=" + tutoria.getIdTutoria());
+        log.warn("⚠️ Usando método DEPRECADO con problema N+1 (tutoría {})", tutoria.getIdTutoria());
         
         TutoriaResponseDto dto = new TutoriaResponseDto();
         
@@ -132,52 +154,53 @@ public class TutoriaService {
             dto.setDescripcionEstadoTutoria(tutoria.getEstadoTutoria().getDescripcion());
         }
         
-        System.out.println("  📝 Datos básicos procesados");
+        log.debug("📝 Datos básicos procesados");
         
         // Obtener nombre del tutor y su carrera
         if (tutoria.getIdTutor() != null) {
-            System.out.println("  🔍 Buscando tutor con ID=" + tutoria.getIdTutor());
+            log.debug("🔍 Buscando tutor con ID={}", tutoria.getIdTutor());
             usuarioRepository.findById(tutoria.getIdTutor()).ifPresent(tutor -> {
                 String nombreCompleto = (tutor.getNombre() != null ? tutor.getNombre() : "") + 
                                        " " + 
                                        (tutor.getApellido() != null ? tutor.getApellido() : "");
                 dto.setNombreTutor(nombreCompleto.trim());
-                System.out.println("  ✅ Tutor encontrado: " + nombreCompleto.trim());
+                log.debug("✅ Tutor encontrado: {}", nombreCompleto.trim());
                 
                 // Obtener la carrera del tutor usando id_carrera
                 if (tutor.getId_carrera() != null) {
-                    System.out.println("  🔍 Buscando carrera con ID=" + tutor.getId_carrera());
+                    log.debug("🔍 Buscando carrera con ID={}", tutor.getId_carrera());
                     carreraRepository.findById(tutor.getId_carrera()).ifPresent(carrera -> {
                         dto.setNombreCarrera(carrera.getNombre());
-                        System.out.println("  ✅ Carrera del tutor: " + carrera.getNombre());
+                        log.debug("✅ Carrera del tutor: {}", carrera.getNombre());
                     });
                 } else {
-                    System.out.println("  ⚠️ El tutor no tiene carrera asignada");
+                    log.debug("⚠️ El tutor no tiene carrera asignada");
                 }
             });
             if (dto.getNombreTutor() == null) {
-                System.out.println("  ⚠️ No se encontró tutor con ID=" + tutoria.getIdTutor());
+                log.debug("⚠️ No se encontró tutor con ID={}", tutoria.getIdTutor());
             }
         } else {
-            System.out.println("  ⚠️ La tutoría no tiene idTutor asignado");
+            log.debug("⚠️ La tutoría no tiene idTutor asignado");
         }
         
         // Obtener nombre de la asignatura
         if (tutoria.getIdAsignatura() != null) {
-            System.out.println("  🔍 Buscando asignatura con ID=" + tutoria.getIdAsignatura());
+            log.debug("🔍 Buscando asignatura con ID={}", tutoria.getIdAsignatura());
             asignaturaRepository.findById(tutoria.getIdAsignatura()).ifPresent(asignatura -> {
                 dto.setNombre(asignatura.getNombre()); // Para compatibilidad
                 dto.setNombreAsignatura(asignatura.getNombre()); // Nombre de asignatura
-                System.out.println("  ✅ Asignatura encontrada: " + asignatura.getNombre());
+                log.debug("✅ Asignatura encontrada: {}", asignatura.getNombre());
             });
             if (dto.getNombre() == null) {
-                System.out.println("  ⚠️ No se encontró asignatura con ID=" + tutoria.getIdAsignatura());
+                log.debug("⚠️ No se encontró asignatura con ID={}", tutoria.getIdAsignatura());
             }
         } else {
-            System.out.println("  ⚠️ La tutoría no tiene idAsignatura asignado");
+            log.debug("⚠️ La tutoría no tiene idAsignatura asignado");
         }
         
-        System.out.println("  ✅ DTO completado: nombreAsignatura=" + dto.getNombreAsignatura() + ", nombreTutor=" + dto.getNombreTutor() + ", nombreCarrera=" + dto.getNombreCarrera());
+        log.debug("✅ DTO completado: nombreAsignatura={}, nombreTutor={}, nombreCarrera={}",
+                dto.getNombreAsignatura(), dto.getNombreTutor(), dto.getNombreCarrera());
         return dto;
     }
     
@@ -186,9 +209,7 @@ public class TutoriaService {
      */
     @Transactional
     public Tutoria crearTutoriaConDisponibilidades(CrearTutoriaConDisponibilidadDto dto) {
-        System.out.println("═══════════════════════════════════════════════════════");
-        System.out.println("🔵 TutoriaService: CREANDO TUTORÍA CON DISPONIBILIDADES");
-        System.out.println("═══════════════════════════════════════════════════════");
+        log.debug("🔵 Creando tutoría con disponibilidades para el tutor {}", dto.getIdTutor());
         
         // Validar que el tutor existe
         if (!usuarioRepository.existsById(dto.getIdTutor())) {
@@ -196,46 +217,22 @@ public class TutoriaService {
         }
         
         // 1. VALIDAR CONFLICTOS DE HORARIO antes de crear nada
-        System.out.println("🔍 VALIDANDO CONFLICTOS DE HORARIO...");
-        if (dto.getDisponibilidades() != null && !dto.getDisponibilidades().isEmpty()) {
-            for (int i = 0; i < dto.getDisponibilidades().size(); i++) {
-                CrearTutoriaConDisponibilidadDto.DisponibilidadDto dispDto = dto.getDisponibilidades().get(i);
-                
-                try {
-                    Date fecha = Date.valueOf(dispDto.getFecha());
-                    Time horaInicio = Time.valueOf(dispDto.getHoraInicio());
-                    Time horaFin = Time.valueOf(dispDto.getHoraFin());
-                    
-                    // Buscar conflictos con otras disponibilidades del mismo tutor
-                    List<Disponibilidad> conflictos = disponibilidadRepository.findConflictosHorario(
-                        dto.getIdTutor(),
-                        fecha,
-                        horaInicio,
-                        horaFin
-                    );
-                    
-                    if (!conflictos.isEmpty()) {
-                        String mensaje = String.format(
-                            "Ya existe una tutoría en ese horario (%s de %s a %s).",
-                            dispDto.getDiaSemana(),
-                            dispDto.getHoraInicio(),
-                            dispDto.getHoraFin()
-                        );
-                        System.err.println("❌ CONFLICTO DE HORARIO: " + mensaje);
-                        throw new ConflictoHorarioException(mensaje);
-                    }
-                    
-                    System.out.println("  ✅ Disponibilidad " + (i + 1) + ": Sin conflictos (" + 
-                                     dispDto.getDiaSemana() + " " + dispDto.getFecha() + " " + 
-                                     dispDto.getHoraInicio() + "-" + dispDto.getHoraFin() + ")");
-                    
-                } catch (IllegalArgumentException e) {
-                    throw new RuntimeException("Error en el formato de fecha/hora de la disponibilidad " + (i + 1) + ": " + e.getMessage());
-                }
+        List<CrearTutoriaConDisponibilidadDto.DisponibilidadDto> disponibilidadesDto =
+                dto.getDisponibilidades() != null ? dto.getDisponibilidades() : List.of();
+        List<IndiceHorarios.Franja> franjas = new ArrayList<>();
+        for (int i = 0; i < disponibilidadesDto.size(); i++) {
+            CrearTutoriaConDisponibilidadDto.DisponibilidadDto dispDto = disponibilidadesDto.get(i);
+            try {
+                franjas.add(new IndiceHorarios.Franja(
+                    Date.valueOf(dispDto.getFecha()).toLocalDate(),
+                    Time.valueOf(dispDto.getHoraInicio()).toLocalTime(),
+                    Time.valueOf(dispDto.getHoraFin()).toLocalTime()
+                ));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Error en el formato de fecha/hora de la disponibilidad " + (i + 1) + ": " + e.getMessage());
             }
         }
-        
-        System.out.println("✅ No hay conflictos de horario. Procediendo a crear tutoría...");
+        validarConflictosHorario(dto.getIdTutor(), franjas, disponibilidadesDto);
         
         // 2. Crear la tutoría
         Tutoria tutoria = new Tutoria();
@@ -245,45 +242,68 @@ public class TutoriaService {
         tutoria.setDescripcion(dto.getDescripcion());
         
         Tutoria tutoriaGuardada = tutoriaRepository.save(tutoria);
-        System.out.println("✅ Tutoría guardada con ID: " + tutoriaGuardada.getIdTutoria());
-        
-        // 3. Crear las disponibilidades
-        if (dto.getDisponibilidades() != null && !dto.getDisponibilidades().isEmpty()) {
-            List<Disponibilidad> disponibilidades = new ArrayList<>();
-            
-            for (CrearTutoriaConDisponibilidadDto.DisponibilidadDto dispDto : dto.getDisponibilidades()) {
-                // Ya validamos el formato antes, aquí solo creamos
-                Date fecha = Date.valueOf(dispDto.getFecha());
-                Time horaInicio = Time.valueOf(dispDto.getHoraInicio());
-                Time horaFin = Time.valueOf(dispDto.getHoraFin());
+        log.debug("✅ Tutoría guardada con ID: {}", tutoriaGuardada.getIdTutoria());
+        actividadService.registrarTutoria(tutoriaGuardada.getIdTutoria());
+        
+        // 3. Crear las disponibilidades (un solo saveAll para todo el lote)
+        if (!franjas.isEmpty()) {
+            List<Disponibilidad> disponibilidades = new ArrayList<>(franjas.size());
+            for (int i = 0; i < franjas.size(); i++) {
+                CrearTutoriaConDisponibilidadDto.DisponibilidadDto dispDto = disponibilidadesDto.get(i);
+                IndiceHorarios.Franja franja = franjas.get(i);
                 
                 // Crear la disponibilidad usando el constructor que inicializa los campos correctamente
-                Disponibilidad disponibilidad = new Disponibilidad(
+                disponibilidades.add(new Disponibilidad(
                     tutoriaGuardada.getIdTutoria(),
-                    fecha,
+                    Date.valueOf(franja.fecha()),
                     dispDto.getDiaSemana(),
-                    horaInicio,
-                    horaFin,
+                    Time.valueOf(franja.inicio()),
+                    Time.valueOf(franja.fin()),
                     dispDto.getAforoMaximo()
-                );
-                
-                Disponibilidad dispGuardada = disponibilidadRepository.save(disponibilidad);
-                disponibilidades.add(dispGuardada);
-                
-                System.out.println("  ✅ Disponibilidad guardada: " + dispDto.getDiaSemana() + 
-                                 " " + dispDto.getFecha() + " " + dispDto.getHoraInicio() + 
-                                 "-" + dispDto.getHoraFin());
+                ));
             }
+            disponibilidadRepository.saveAll(disponibilidades);
             
-            System.out.println("✅ Se crearon " + disponibilidades.size() + " disponibilidades");
+            log.debug("✅ Se crearon {} disponibilidades", disponibilidades.size());
+            tutoriaEstadoService.notificarCambio(tutoriaGuardada.getIdTutoria());
+            buscadorFranjasService.invalidar();
         }
         
-        System.out.println("═══════════════════════════════════════════════════════");
-        System.out.println("✅ TUTORÍA CREADA EXITOSAMENTE CON TODAS SUS DISPONIBILIDADES");
-        System.out.println("═══════════════════════════════════════════════════════");
-        
         return tutoriaGuardada;
     }
+
+    /**
+     * Valida un lote de franjas contra los horarios activos del tutor (disponibilidades y sesiones de sus
+     * plantillas) y entre sí. Se hace una sola consulta por fuente para todo el rango de fechas del lote
+     */
+    private void validarConflictosHorario(Integer idTutor, List<IndiceHorarios.Franja> franjas,
+                                          List<CrearTutoriaConDisponibilidadDto.DisponibilidadDto> disponibilidadesDto) {
+        if (franjas.isEmpty()) {
+            return;
+        }
+        LocalDate desde = franjas.stream().map(IndiceHorarios.Franja::fecha).min(LocalDate::compareTo).get();
+        LocalDate hasta = franjas.stream().map(IndiceHorarios.Franja::fecha).max(LocalDate::compareTo).get();
+        List<IndiceHorarios.Franja> ocupadas = new ArrayList<>(IndiceHorarios.deFilas(
+                disponibilidadRepository.findHorariosActivosDeTutor(idTutor, Date.valueOf(desde), Date.valueOf(hasta))));
+        // Las sesiones de sus plantillas también ocupan el horario aunque no estén guardadas
+        ocupadas.addAll(plantillaDisponibilidadService.horariosDePlantillas(idTutor, desde, hasta));
+        
+        IndiceHorarios.Conflicto conflicto = new IndiceHorarios(ocupadas).buscarConflicto(franjas);
+        if (conflicto != null) {
+            CrearTutoriaConDisponibilidadDto.DisponibilidadDto dispDto = disponibilidadesDto.get(conflicto.indice());
+            String mensaje = conflicto.indiceCruce() == null
+                ? String.format("Ya existe una tutoría en ese horario (%s de %s a %s).",
+                    dispDto.getDiaSemana(), dispDto.getHoraInicio(), dispDto.getHoraFin())
+                : String.format("Las disponibilidades %d y %d se cruzan (%s de %s a %s).",
+                    conflicto.indiceCruce() + 1, conflicto.indice() + 1,
+                    dispDto.getDiaSemana(), dispDto.getHoraInicio(), dispDto.getHoraFin());
+            metricas.incrementar("tutorias.conflictos.horario");
+            log.debug("❌ Conflicto de horario: {}", mensaje);
+            throw new ConflictoHorarioException(mensaje);
+        }
+        log.debug("✅ {} disponibilidad(es) sin conflictos ({} horario(s) existentes del tutor entre {} y {})",
+                franjas.size(), ocupadas.size(), desde, hasta);
+    }
     
     /**
      * Actualiza una tutoría permitiendo editar solo ciertos campos:
@@ -293,28 +313,23 @@ public class TutoriaService {
      */
     @Transactional
     public Tutoria actualizarTutoriaEditable(Integer idTutoria, Map<String, Object> datos) {
-        System.out.println("═══════════════════════════════════════════════════════");
-        System.out.println("📝 ACTUALIZANDO TUTORÍA (CAMPOS EDITABLES)");
-        System.out.println("   ID Tutoría: " + idTutoria);
-        System.out.println("═══════════════════════════════════════════════════════");
+        log.debug("📝 Actualizando tutoría {} (campos editables)", idTutoria);
         
         // 1. Buscar la tutoría
         Tutoria tutoria = tutoriaRepository.findById(idTutoria)
                 .orElseThrow(() -> new RuntimeException("Tutoría no encontrada con ID: " + idTutoria));
         
-        System.out.println("📋 Tutoría encontrada: " + tutoria.getIdTutoria());
-        
         // 2. Actualizar solo los campos editables
         if (datos.containsKey("descripcion")) {
             String descripcion = (String) datos.get("descripcion");
             tutoria.setDescripcion(descripcion);
-            System.out.println("   ✏️ Descripción actualizada");
+            log.debug("✏️ Descripción actualizada");
         }
         
         if (datos.containsKey("ubicacion")) {
             String ubicacion = (String) datos.get("ubicacion");
             tutoria.setLugar(ubicacion);
-            System.out.println("   ✏️ Ubicación actualizada: " + ubicacion);
+            log.debug("✏️ Ubicación actualizada: {}", ubicacion);
         }
         
         // 3. Manejar disponibilidades: eliminar las antiguas y crear las nuevas
@@ -324,21 +339,27 @@ public class TutoriaService {
             
             // 3.1. Eliminar todas las disponibilidades existentes (y sus reservas en cascada)
             List<Disponibilidad> disponibilidadesAnteriores = disponibilidadRepository.findByIdTutoria(idTutoria);
-            System.out.println("   🗑️ Eliminando " + disponibilidadesAnteriores.size() + " disponibilidad(es) anterior(es)");
+            log.debug("🗑️ Eliminando {} disponibilidad(es) anterior(es)", disponibilidadesAnteriores.size());
+            
+            // Los eventos de calendario de las reservas activas se eliminan en un solo lote (outbox)
+            calendarioOutboxService.encolarEliminacionesDeReservasActivas(
+                    disponibilidadesAnteriores.stream().map(Disponibilidad::getIdDisponibilidad).toList());
             
             for (Disponibilidad disp : disponibilidadesAnteriores) {
                 // Primero eliminar las reservas de esta disponibilidad
                 long cantidadReservas = tutoriaRepository.countReservasByDisponibilidad(disp.getIdDisponibilidad());
                 if (cantidadReservas > 0) {
+                    estadisticasReservaService.retirarDisponibilidad(disp.getIdDisponibilidad());
                     tutoriaRepository.deleteReservasByDisponibilidad(disp.getIdDisponibilidad());
-                    System.out.println("      🗑️ Eliminadas " + cantidadReservas + " reserva(s) de disponibilidad ID=" + disp.getIdDisponibilidad());
+                    log.debug("🗑️ Eliminadas {} reserva(s) de disponibilidad ID={}", cantidadReservas, disp.getIdDisponibilidad());
                 }
                 // Luego eliminar la disponibilidad
                 disponibilidadRepository.deleteById(disp.getIdDisponibilidad());
+                asignadorCupos.olvidar(disp.getIdDisponibilidad());
             }
             
             // 3.2. Crear las nuevas disponibilidades
-            System.out.println("   ➕ Creando " + disponibilidadesData.size() + " nueva(s) disponibilidad(es)");
+            log.debug("➕ Creando {} nueva(s) disponibilidad(es)", disponibilidadesData.size());
             
             // Capacidad fija de 8 personas por slot de 15 minutos
             Integer aforoMaximo = 8;
@@ -367,17 +388,15 @@ public class TutoriaService {
                 Disponibilidad nuevaDisp = new Disponibilidad(idTutoria, fecha, diaSemana, horaInicio, horaFin, aforoMaximo);
                 
                 disponibilidadRepository.save(nuevaDisp);
-                System.out.println("      ✅ Disponibilidad creada: " + nuevaDisp.getDiaSemana() + " " + 
-                                   nuevaDisp.getFecha() + " " + nuevaDisp.getHoraInicio() + "-" + nuevaDisp.getHoraFin());
+                log.debug("✅ Disponibilidad creada: {} {} {}-{}", nuevaDisp.getDiaSemana(), nuevaDisp.getFecha(),
+                        nuevaDisp.getHoraInicio(), nuevaDisp.getHoraFin());
             }
+            tutoriaEstadoService.notificarCambio(idTutoria);
         }
         
         // 4. Guardar la tutoría actualizada
         Tutoria tutoriaActualizada = tutoriaRepository.save(tutoria);
-        
-        System.out.println("═══════════════════════════════════════════════════════");
-        System.out.println("✅ ACTUALIZACIÓN COMPLETADA EXITOSAMENTE");
-        System.out.println("═══════════════════════════════════════════════════════");
+        buscadorFranjasService.invalidar(); // Lugar y disponibilidades alimentan la búsqueda de franjas
         
         return tutoriaActualizada;
     }
@@ -388,10 +407,7 @@ public class TutoriaService {
      */
     @Transactional
     public void eliminarTutoriaConDependencias(Integer idTutoria) {
-        System.out.println("═══════════════════════════════════════════════════════");
-        System.out.println("🗑️ ELIMINANDO TUTORÍA CON TODAS SUS DEPENDENCIAS");
-        System.out.println("   ID Tutoría: " + idTutoria);
-        System.out.println("═══════════════════════════════════════════════════════");
+        log.debug("🗑️ Eliminando tutoría {} con todas sus dependencias", idTutoria);
         
         // Verificar que la tutoría existe
         if (!tutoriaRepository.existsById(idTutoria)) {
@@ -400,10 +416,13 @@ public class TutoriaService {
         
         // 1. Obtener todas las disponibilidades de esta tutoría
         List<Disponibilidad> disponibilidades = disponibilidadRepository.findByIdTutoria(idTutoria);
-        System.out.println("📋 Disponibilidades encontradas: " + disponibilidades.size());
         
         int totalReservasEliminadas = 0;
         
+        // Los eventos de calendario de las reservas activas se eliminan en un solo lote (outbox)
+        int eventosPorEliminar = calendarioOutboxService.encolarEliminacionesDeReservasActivas(
+                disponibilidades.stream().map(Disponibilidad::getIdDisponibilidad).toList());
+        
         // 2. Para cada disponibilidad, eliminar primero sus reservas
         for (Disponibilidad disp : disponibilidades) {
             // Obtener cantidad de reservas antes de eliminar
@@ -411,28 +430,24 @@ public class TutoriaService {
             
             if (cantidadReservas > 0) {
                 // Eliminar todas las reservas de esta disponibilidad
+                estadisticasReservaService.retirarDisponibilidad(disp.getIdDisponibilidad());
                 tutoriaRepository.deleteReservasByDisponibilidad(disp.getIdDisponibilidad());
                 totalReservasEliminadas += cantidadReservas;
-                System.out.println("  🗑️ Eliminadas " + cantidadReservas + " reserva(s) de disponibilidad ID=" + disp.getIdDisponibilidad());
+                log.debug("🗑️ Eliminadas {} reserva(s) de disponibilidad ID={}", cantidadReservas, disp.getIdDisponibilidad());
             }
         }
         
         // 3. Ahora eliminar todas las disponibilidades
         for (Disponibilidad disp : disponibilidades) {
             disponibilidadRepository.deleteById(disp.getIdDisponibilidad());
+            asignadorCupos.olvidar(disp.getIdDisponibilidad());
         }
-        System.out.println("✅ Eliminadas " + disponibilidades.size() + " disponibilidad(es)");
         
         // 4. Finalmente eliminar la tutoría
         tutoriaRepository.deleteById(idTutoria);
-        System.out.println("✅ Tutoría eliminada");
-        
-        System.out.println("═══════════════════════════════════════════════════════");
-        System.out.println("✅ ELIMINACIÓN COMPLETADA EXITOSAMENTE");
-        System.out.println("   📊 Resumen:");
-        System.out.println("      - Tutorías eliminadas: 1");
-        System.out.println("      - Disponibilidades eliminadas: " + disponibilidades.size());
-        System.out.println("      - Reservas eliminadas: " + totalReservasEliminadas);
-        System.out.println("═══════════════════════════════════════════════════════");
+        tutoriaEstadoService.notificarCambio(idTutoria); // La saca de la cola de fronteras
+        
+        log.info("🗑️ Tutoría {} eliminada: {} disponibilidad(es), {} reserva(s), {} evento(s) de calendario por eliminar",
+                idTutoria, disponibilidades.size(), totalReservasEliminadas, eventosPorEliminar);
     }
 }
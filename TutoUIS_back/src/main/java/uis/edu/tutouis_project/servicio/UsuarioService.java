@@ -27,6 +27,9 @@ public class UsuarioService implements IUsuarioService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private IActividadService actividadService;
+
     @Override
     public List<Usuario> getUsuarios() {
         return usuarioRepository.findAll();
@@ -43,7 +46,9 @@ public class UsuarioService implements IUsuarioService {
         if (usuario.getContrasena() != null) {
             usuario.setContrasena(passwordEncoder.encode(usuario.getContrasena()));
         }
-        return usuarioRepository.save(usuario);
+        Usuario guardado = usuarioRepository.save(usuario);
+        actividadService.registrarUsuario(guardado.getId_usuario());
+        return guardado;
     }
 
     @Override
@@ -88,7 +93,7 @@ public class UsuarioService implements IUsuarioService {
             }
 
             // Generar JWT
-            String token = jwtUtil.generateToken(usuario.getCodigo());
+            String token = jwtUtil.generateToken(usuario.getCodigo(), usuario.getId_rol());
             
             // Crear respuesta con JWT
             JwtResponse jwtResponse = new JwtResponse(token, usuario.getCodigo(), usuario.getId_usuario());
@@ -1,105 +1,214 @@
 package uis.edu.tutouis_project.servicio.impl;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.modelo.Actividad;
 import uis.edu.tutouis_project.modelo.dto.ActividadRecienteDto;
+import uis.edu.tutouis_project.repositorio.ActividadRepository;
 import uis.edu.tutouis_project.servicio.IActividadService;
+import uis.edu.tutouis_project.util.BufferCircular;
 
 import java.sql.Timestamp;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Feed de actividad reciente.
+ *
+ * Cada alta de usuario, tutoría o reserva agrega una fila a la tabla actividad (solo inserciones)
+ * y, después del commit, la pone en un buffer circular con las últimas actividad.reciente.capacidad
+ * entradas. /api/actividad/reciente se responde desde memoria; solo si se piden más entradas de las
+ * que caben en el buffer se consulta la tabla. Al arrancar el buffer se llena desde la tabla.
+ *
+ * Con varias instancias, cada una solo agrega al buffer sus propias altas: las de las demás llegan con
+ * una recarga periódica que trae de la tabla las filas con id_actividad mayor que la última vista
+ * (actividad.reciente.refresco-ms). Una fila cuyo commit llega después del de otra con id mayor que ya
+ * se leyó no entra al buffer de las otras instancias; el feed es informativo y la consulta por límite
+ * mayor que la capacidad la sigue mostrando.
+ */
 @Service
 public class ActividadService implements IActividadService {
 
+    private static final Logger log = LoggerFactory.getLogger(ActividadService.class);
+
+    @Autowired
+    private ActividadRepository actividadRepository;
+
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    private final BufferCircular<ActividadRecienteDto> recientes;
+
+    /** Protege ultimoVisto y propias, y el orden en que la recarga y las altas locales llenan el buffer */
+    private final Object cerrojo = new Object();
+    /** Mayor id_actividad leído de la tabla */
+    private long ultimoVisto;
+    /** Altas de esta instancia ya puestas en el buffer que la recarga todavía no leyó (no se repiten) */
+    private final Set<Long> propias = new HashSet<>();
+    /** La carga inicial terminó: hasta entonces la recarga no tiene desde dónde seguir */
+    private volatile boolean cargado;
+
+    public ActividadService(@Value("${actividad.reciente.capacidad:200}") int capacidad) {
+        this.recientes = new BufferCircular<>(capacidad);
+    }
+
+    /**
+     * Llena el buffer con las últimas actividades guardadas. Si la tabla está vacía (primer despliegue)
+     * antes se importa el historial de usuarios, tutorías y reservas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        try {
+            if (actividadRepository.count() == 0) {
+                Integer importadas = transactionTemplate.execute(status -> actividadRepository.importarHistorial());
+                log.info("📥 ActividadService: {} actividad(es) importadas del historial", importadas);
+            }
+            List<Actividad> ultimas = actividadRepository.findAllByOrderByFechaDescIdActividadDesc(
+                    Limit.of(recientes.capacidad()));
+            // El buffer recibe de la más antigua a la más reciente
+            synchronized (cerrojo) {
+                for (int i = ultimas.size() - 1; i >= 0; i--) {
+                    recientes.agregar(convertirADto(ultimas.get(i)));
+                    ultimoVisto = Math.max(ultimoVisto, idDe(ultimas.get(i)));
+                }
+            }
+            cargado = true;
+            log.info("✅ ActividadService: {} actividad(es) en memoria", recientes.tamano());
+        } catch (Exception e) {
+            log.error("❌ Error al cargar la actividad reciente: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Agrega al buffer las actividades guardadas por otras instancias desde la última recarga.
+     * Lee por clave primaria solo las filas nuevas, en páginas del tamaño del buffer
+     */
+    @Scheduled(fixedDelayString = "${actividad.reciente.refresco-ms:15000}",
+               initialDelayString = "${actividad.reciente.refresco-ms:15000}")
+    public void refrescar() {
+        if (!cargado) {
+            // La carga inicial falló: se reintenta en lugar de recorrer la tabla desde el principio
+            cargar();
+            return;
+        }
+        try {
+            List<Actividad> nuevas;
+            do {
+                long desde;
+                synchronized (cerrojo) {
+                    desde = ultimoVisto;
+                }
+                nuevas = actividadRepository.findByIdActividadGreaterThanOrderByIdActividadAsc(desde,
+                        Limit.of(recientes.capacidad()));
+                synchronized (cerrojo) {
+                    for (Actividad actividad : nuevas) {
+                        long id = idDe(actividad);
+                        if (id <= ultimoVisto) {
+                            continue;
+                        }
+                        ultimoVisto = id;
+                        if (!propias.remove(id)) {
+                            recientes.agregar(convertirADto(actividad));
+                        }
+                    }
+                }
+            } while (nuevas.size() == recientes.capacidad());
+        } catch (Exception e) {
+            log.warn("⚠️ No se pudo refrescar la actividad reciente: {}", e.getMessage());
+        }
+    }
 
     @Override
     public List<ActividadRecienteDto> obtenerActividadReciente(int limite) {
-        List<ActividadRecienteDto> actividades = new ArrayList<>();
-        
-        // Consulta UNION optimizada que combina las 3 fuentes de actividad
-        String sql = """
-            (
-                SELECT 
-                    'USUARIO' as tipo,
-                    CONCAT('Nuevo usuario registrado: ', u.nombre, ' ', u.apellido) as descripcion,
-                    CONCAT(u.nombre, ' ', u.apellido) as usuario,
-                    u.fecha_creacion as fecha,
-                    'bi-person-plus' as icono,
-                    CASE 
-                        WHEN r.nombre = 'Administrador' THEN 'danger'
-                        WHEN r.nombre = 'Tutor' THEN 'info'
-                        ELSE 'secondary'
-                    END as badge
-                FROM usuario u
-                LEFT JOIN rol r ON u.id_rol = r.id_rol
-                WHERE u.fecha_creacion IS NOT NULL
-            )
-            UNION ALL
-            (
-                SELECT 
-                    'TUTORIA' as tipo,
-                    CONCAT('Nueva tutoría creada: ', a.nombre, ' por ', CONCAT(u.nombre, ' ', u.apellido)) as descripcion,
-                    CONCAT(u.nombre, ' ', u.apellido) as usuario,
-                    t.fecha_creacion as fecha,
-                    'bi-book' as icono,
-                    'success' as badge
-                FROM tutoria t
-                INNER JOIN asignatura a ON t.id_asignatura = a.id_asignatura
-                INNER JOIN usuario u ON t.id_tutor = u.id_usuario
-                WHERE t.fecha_creacion IS NOT NULL
-            )
-            UNION ALL
-            (
-                SELECT 
-                    'RESERVA' as tipo,
-                    CONCAT('Nueva reserva: ', a.nombre, ' - ', CONCAT(est.nombre, ' ', est.apellido)) as descripcion,
-                    CONCAT(est.nombre, ' ', est.apellido) as usuario,
-                    r.fecha_creacion as fecha,
-                    'bi-calendar-check' as icono,
-                    CASE 
-                        WHEN r.id_estado = 1 THEN 'warning'
-                        WHEN r.id_estado = 3 THEN 'success'
-                        WHEN r.id_estado = 4 THEN 'danger'
-                        ELSE 'secondary'
-                    END as badge
-                FROM reserva r
-                INNER JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
-                INNER JOIN tutoria t ON d.id_tutoria = t.id_tutoria
-                INNER JOIN asignatura a ON t.id_asignatura = a.id_asignatura
-                INNER JOIN usuario est ON r.id_estudiante = est.id_usuario
-                WHERE r.fecha_creacion IS NOT NULL
-            )
-            ORDER BY fecha DESC
-            LIMIT ?
-        """;
-        
-        List<Object[]> resultados = jdbcTemplate.query(sql, 
-            (rs, rowNum) -> new Object[] {
-                rs.getString("tipo"),
-                rs.getString("descripcion"),
-                rs.getString("usuario"),
-                rs.getTimestamp("fecha"),
-                rs.getString("icono"),
-                rs.getString("badge")
-            },
-            limite
-        );
-        
-        for (Object[] row : resultados) {
-            actividades.add(new ActividadRecienteDto(
-                (String) row[0],      // tipo
-                (String) row[1],      // descripcion
-                (String) row[2],      // usuario
-                (Timestamp) row[3],   // fecha
-                (String) row[4],      // icono
-                (String) row[5]       // badge
-            ));
+        if (limite <= recientes.capacidad()) {
+            return recientes.recientes(limite);
         }
-        
-        return actividades;
+        return actividadRepository.findAllByOrderByFechaDescIdActividadDesc(Limit.of(limite)).stream()
+                .map(this::convertirADto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void registrarUsuario(Integer idUsuario) {
+        registrar("USUARIO", "bi-person-plus", actividadRepository.describirUsuario(idUsuario));
+    }
+
+    @Override
+    @Transactional
+    public void registrarTutoria(Integer idTutoria) {
+        registrar("TUTORIA", "bi-book", actividadRepository.describirTutoria(idTutoria));
+    }
+
+    @Override
+    @Transactional
+    public void registrarReserva(Integer idReserva) {
+        registrar("RESERVA", "bi-calendar-check", actividadRepository.describirReserva(idReserva));
+    }
+
+    /**
+     * @param filas [descripcion, usuario, badge]; vacía si el registro no tiene los datos para el feed
+     *              (p. ej. una tutoría sin asignatura), en cuyo caso no se registra nada
+     */
+    private void registrar(String tipo, String icono, List<Object[]> filas) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        Object[] fila = filas.get(0);
+        Actividad actividad = new Actividad();
+        actividad.setTipo(tipo);
+        actividad.setDescripcion((String) fila[0]);
+        actividad.setUsuario((String) fila[1]);
+        actividad.setBadge((String) fila[2]);
+        actividad.setIcono(icono);
+        actividad.setFecha(new Timestamp(System.currentTimeMillis()));
+        actividadRepository.save(actividad);
+
+        ActividadRecienteDto dto = convertirADto(actividad);
+        Long id = actividad.getIdActividad();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    agregarPropia(id, dto);
+                }
+            });
+        } else {
+            agregarPropia(id, dto);
+        }
+    }
+
+    private void agregarPropia(Long id, ActividadRecienteDto dto) {
+        synchronized (cerrojo) {
+            if (id != null) {
+                if (id <= ultimoVisto) {
+                    // La recarga ya la leyó de la tabla y la puso en el buffer
+                    return;
+                }
+                propias.add(id);
+            }
+            recientes.agregar(dto);
+        }
+    }
+
+    private static long idDe(Actividad actividad) {
+        return actividad.getIdActividad() != null ? actividad.getIdActividad() : 0L;
+    }
+
+    private ActividadRecienteDto convertirADto(Actividad actividad) {
+        return new ActividadRecienteDto(actividad.getTipo(), actividad.getDescripcion(), actividad.getUsuario(),
+                actividad.getFecha(), actividad.getIcono(), actividad.getBadge());
     }
 }
@@ -0,0 +1,153 @@
+package uis.edu.tutouis_project.servicio.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uis.edu.tutouis_project.modelo.dto.DashboardStatsDto;
+import uis.edu.tutouis_project.servicio.IReporteService;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caché del dashboard delante de ReporteService (es el IReporteService que reciben los controladores).
+ *
+ * - Las entradas vencen al final de la ventana de reportes.dashboard.cache.ttl-ms en la que se calcularon
+ *   (ventanas alineadas al reloj), así todos los administradores ven el mismo corte.
+ * - Una entrada vencida o invalidada se sigue entregando durante reportes.dashboard.cache.obsoleto-ms
+ *   mientras se recalcula en segundo plano; pasado ese margen la petición espera el recálculo.
+ * - Solo hay un recálculo a la vez: las peticiones concurrentes comparten el mismo resultado.
+ * - invalidar() se llama cuando cambian las reservas; surte efecto después del commit.
+ */
+@Service
+@Primary
+public class ReporteCacheService implements IReporteService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReporteCacheService.class);
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private RegistroMetricas metricas;
+
+    @Value("${reportes.dashboard.cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${reportes.dashboard.cache.obsoleto-ms:120000}")
+    private long obsoletoMs;
+
+    private volatile Entrada entrada;
+    private final AtomicReference<CompletableFuture<DashboardStatsDto>> recalculoEnCurso = new AtomicReference<>();
+    /** Se incrementa en cada invalidación; una entrada calculada con una generación anterior está obsoleta */
+    private final AtomicLong generacion = new AtomicLong();
+
+    @Override
+    public DashboardStatsDto getDashboardStats() {
+        Entrada actual = entrada;
+        long ahora = System.currentTimeMillis();
+
+        if (actual != null && ahora < actual.venceEn && actual.generacion == generacion.get()) {
+            metricas.incrementar("reportes.dashboard.cache.aciertos");
+            return actual.datos;
+        }
+        if (actual != null && ahora < actual.venceEn + obsoletoMs) {
+            metricas.incrementar("reportes.dashboard.cache.obsoletos");
+            recalcular(true);
+            return actual.datos;
+        }
+
+        metricas.incrementar("reportes.dashboard.cache.fallos");
+        try {
+            return recalcular(false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Marca el dashboard como desactualizado. Dentro de una transacción espera al commit para que
+     * un recálculo concurrente no guarde datos previos con la generación nueva
+     */
+    public void invalidar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generacion.incrementAndGet();
+                }
+            });
+        } else {
+            generacion.incrementAndGet();
+        }
+    }
+
+    /**
+     * Inicia un recálculo o se une al que ya está en curso
+     * @param enSegundoPlano si es false el hilo llamador hace el recálculo
+     */
+    private CompletableFuture<DashboardStatsDto> recalcular(boolean enSegundoPlano) {
+        while (true) {
+            CompletableFuture<DashboardStatsDto> enCurso = recalculoEnCurso.get();
+            if (enCurso != null) {
+                return enCurso;
+            }
+            CompletableFuture<DashboardStatsDto> nuevo = new CompletableFuture<>();
+            if (recalculoEnCurso.compareAndSet(null, nuevo)) {
+                Runnable tarea = () -> ejecutarRecalculo(nuevo);
+                if (enSegundoPlano) {
+                    taskScheduler.schedule(tarea, Instant.now());
+                } else {
+                    tarea.run();
+                }
+                return nuevo;
+            }
+        }
+    }
+
+    private void ejecutarRecalculo(CompletableFuture<DashboardStatsDto> resultado) {
+        long generacionInicial = generacion.get();
+        long inicio = System.nanoTime();
+        try {
+            DashboardStatsDto datos = reporteService.getDashboardStats();
+            long calculadoEn = System.currentTimeMillis();
+            entrada = new Entrada(datos, (calculadoEn / ttlMs + 1) * ttlMs, generacionInicial);
+            resultado.complete(datos);
+        } catch (RuntimeException e) {
+            metricas.incrementar("reportes.dashboard.cache.errores");
+            log.error("❌ Error al recalcular el dashboard: {}", e.getMessage());
+            resultado.completeExceptionally(e);
+        } finally {
+            metricas.registrarTiempo("reportes.dashboard.cache.recalculo", System.nanoTime() - inicio);
+            recalculoEnCurso.compareAndSet(resultado, null);
+        }
+    }
+
+    private static final class Entrada {
+        private final DashboardStatsDto datos;
+        private final long venceEn;
+        private final long generacion;
+
+        private Entrada(DashboardStatsDto datos, long venceEn, long generacion) {
+            this.datos = datos;
+            this.venceEn = venceEn;
+            this.generacion = generacion;
+        }
+    }
+}
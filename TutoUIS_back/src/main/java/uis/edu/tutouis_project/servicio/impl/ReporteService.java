@@ -3,155 +3,197 @@ package uis.edu.tutouis_project.servicio.impl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import uis.edu.tutouis_project.modelo.Asignatura;
 import uis.edu.tutouis_project.modelo.dto.DashboardStatsDto;
-import uis.edu.tutouis_project.repositorio.ReservaRepository;
+import uis.edu.tutouis_project.repositorio.AsignaturaRepository;
+import uis.edu.tutouis_project.repositorio.EstadisticaEstudianteRepository;
+import uis.edu.tutouis_project.repositorio.EstadisticaReservaRepository;
 import uis.edu.tutouis_project.servicio.IReporteService;
 
 import java.util.*;
 
+/**
+ * Dashboard de reportes calculado sobre los acumulados de EstadisticasReservaService:
+ * una sola lectura de estadistica_reserva agrupada por (asignatura, estado, día, franja)
+ * y el resto de totales se derivan en memoria
+ */
 @Service
 public class ReporteService implements IReporteService {
 
     @Autowired
-    private ReservaRepository reservaRepository;
+    private EstadisticaReservaRepository estadisticaReservaRepository;
+
+    @Autowired
+    private EstadisticaEstudianteRepository estadisticaEstudianteRepository;
+
+    @Autowired
+    private AsignaturaRepository asignaturaRepository;
 
     @Override
     @Transactional(readOnly = true)
     public DashboardStatsDto getDashboardStats() {
         System.out.println("=== INICIO CARGA DE ESTADÍSTICAS ===");
         long startTime = System.currentTimeMillis();
-        
-        // 1. Estadísticas generales (optimizado con consulta agregada)
+
+        // Filas: [idAsignatura, idEstado, diaSemana, franja, reservas, minutos]
+        List<Object[]> grupos = estadisticaReservaRepository.sumarPorDimensiones();
+
         Map<Integer, Long> reservasPorEstado = new HashMap<>();
-        List<Object[]> estadosCounts = reservaRepository.countReservasPorEstado();
-        
+        long[] reservasPorDiaSemana = new long[8]; // índice = DAYOFWEEK de MySQL (1=Domingo ... 7=Sábado)
+        long[] reservasPorFranja = new long[12];   // franja de 2 horas de la hora de inicio
+        Map<Integer, long[]> reservasPorMateria = new HashMap<>(); // [total, completadas, pendientes, canceladas]
         long total = 0;
-        for (Object[] row : estadosCounts) {
-            Integer estado = (Integer) row[0];
-            Long count = (Long) row[1];
-            reservasPorEstado.put(estado, count);
-            total += count;
+        long minutosTotales = 0;
+
+        for (Object[] row : grupos) {
+            Integer idAsignatura = ((Number) row[0]).intValue();
+            Integer estado = ((Number) row[1]).intValue();
+            int dia = ((Number) row[2]).intValue();
+            int franja = ((Number) row[3]).intValue();
+            long reservas = ((Number) row[4]).longValue();
+            long minutos = ((Number) row[5]).longValue();
+
+            total += reservas;
+            minutosTotales += minutos;
+            reservasPorEstado.merge(estado, reservas, Long::sum);
+            if (dia >= 1 && dia <= 7) {
+                reservasPorDiaSemana[dia] += reservas;
+            }
+            if (franja >= 0 && franja < reservasPorFranja.length) {
+                reservasPorFranja[franja] += reservas;
+            }
+
+            long[] materia = reservasPorMateria.computeIfAbsent(idAsignatura, id -> new long[4]);
+            materia[0] += reservas;
+            if (estado == 3) {
+                materia[1] += reservas;
+            } else if (estado == 1) {
+                materia[2] += reservas;
+            } else if (estado == 4) {
+                materia[3] += reservas;
+            }
         }
-        
+
+        // 1. Estadísticas generales
         long completadas = reservasPorEstado.getOrDefault(3, 0L);
         long pendientes = reservasPorEstado.getOrDefault(1, 0L);
         long canceladas = reservasPorEstado.getOrDefault(4, 0L);
-        long estudiantesActivos = reservaRepository.countEstudiantesActivos();
-        
+        long estudiantesActivos = estadisticaEstudianteRepository.contarActivos();
+
         DashboardStatsDto.GeneralStatsDto stats = new DashboardStatsDto.GeneralStatsDto(
             total, completadas, pendientes, canceladas, estudiantesActivos
         );
         System.out.println("Estadísticas generales calculadas: " + total + " reservas");
-        
-        // 2. Métricas (consultas optimizadas)
-        Double tiempoPromedioRaw = reservaRepository.calcularTiempoPromedioMinutos();
-        double tiempoPromedio = tiempoPromedioRaw != null ? Math.round(tiempoPromedioRaw * 10.0) / 10.0 : 0.0;
-        
+
+        // 2. Métricas
+        double tiempoPromedio = total > 0 ? Math.round((double) minutosTotales / total * 10.0) / 10.0 : 0.0;
+
         double asistencia = total > 0 ? Math.round((double) completadas / total * 100 * 10.0) / 10.0 : 0.0;
-        
-        Object[] crecimientoData = reservaRepository.calcularCrecimientoMensual();
-        double crecimiento = 0.0;
-        if (crecimientoData != null && crecimientoData.length == 2) {
-            Long mesActual = crecimientoData[0] != null ? ((Number) crecimientoData[0]).longValue() : 0L;
-            Long mesAnterior = crecimientoData[1] != null ? ((Number) crecimientoData[1]).longValue() : 0L;
-            
-            if (mesAnterior > 0) {
-                crecimiento = Math.round(((double) (mesActual - mesAnterior) / mesAnterior) * 100 * 10.0) / 10.0;
-            } else if (mesActual > 0) {
-                crecimiento = 100.0;
-            }
-        }
-        
+
+        double crecimiento = calcularCrecimiento();
+
         DashboardStatsDto.MetricsDto metrics = new DashboardStatsDto.MetricsDto(
             tiempoPromedio, asistencia, crecimiento
         );
         System.out.println("Métricas calculadas - Tiempo promedio: " + tiempoPromedio + " min");
-        
-        // 3. Reservas por día de la semana (consulta optimizada)
-        List<DashboardStatsDto.ReservaDiaDto> reservasPorDia = calcularReservasPorDia();
+
+        // 3. Reservas por día de la semana
+        List<DashboardStatsDto.ReservaDiaDto> reservasPorDia = calcularReservasPorDia(reservasPorDiaSemana);
         System.out.println("Reservas por día calculadas: " + reservasPorDia.size() + " días");
-        
-        // 4. Materias detalle (consulta optimizada)
-        List<DashboardStatsDto.MateriaStatsDto> materiasDetalle = calcularMateriasDetalle();
+
+        // 4. Materias detalle
+        List<DashboardStatsDto.MateriaStatsDto> materiasDetalle = calcularMateriasDetalle(reservasPorMateria);
         System.out.println("Materias calculadas: " + materiasDetalle.size() + " materias");
-        
-        // 5. Horarios pico (consulta optimizada)
-        List<DashboardStatsDto.HorarioPicoDto> horariosPico = calcularHorariosPico();
+
+        // 5. Horarios pico
+        List<DashboardStatsDto.HorarioPicoDto> horariosPico = calcularHorariosPico(reservasPorFranja);
         System.out.println("Horarios pico calculados: " + horariosPico.size() + " horarios");
-        
+
         long endTime = System.currentTimeMillis();
         System.out.println("=== FIN CARGA DE ESTADÍSTICAS - Tiempo total: " + (endTime - startTime) + " ms ===");
-        
+
         return new DashboardStatsDto(stats, metrics, reservasPorDia, materiasDetalle, horariosPico);
     }
 
-    private List<DashboardStatsDto.ReservaDiaDto> calcularReservasPorDia() {
-        List<Object[]> resultados = reservaRepository.countReservasPorDiaSemana();
-        
-        // Inicializar array con todos los días en 0
-        Map<Integer, Long> reservasPorDiaSemana = new HashMap<>();
-        for (int i = 1; i <= 7; i++) {
-            reservasPorDiaSemana.put(i, 0L);
+    private double calcularCrecimiento() {
+        List<Object[]> crecimientoData = estadisticaReservaRepository.sumarCrecimientoMensual();
+        if (crecimientoData.isEmpty()) {
+            return 0.0;
         }
-        
-        // Llenar con datos reales
-        for (Object[] row : resultados) {
-            Integer dia = ((Number) row[0]).intValue();
-            Long count = ((Number) row[1]).longValue();
-            reservasPorDiaSemana.put(dia, count);
+        Object[] fila = crecimientoData.get(0);
+        long mesActual = fila[0] != null ? ((Number) fila[0]).longValue() : 0L;
+        long mesAnterior = fila[1] != null ? ((Number) fila[1]).longValue() : 0L;
+
+        if (mesAnterior > 0) {
+            return Math.round(((double) (mesActual - mesAnterior) / mesAnterior) * 100 * 10.0) / 10.0;
+        } else if (mesActual > 0) {
+            return 100.0;
         }
-        
+        return 0.0;
+    }
+
+    private List<DashboardStatsDto.ReservaDiaDto> calcularReservasPorDia(long[] reservasPorDiaSemana) {
         // MySQL DAYOFWEEK: 1=Domingo, 2=Lunes, ..., 7=Sábado
         // Necesitamos: Lun, Mar, Mié, Jue, Vie, Sáb, Dom
         String[] diasEspanol = {"Lun", "Mar", "Mié", "Jue", "Vie", "Sáb", "Dom"};
         int[] diasMySQL = {2, 3, 4, 5, 6, 7, 1}; // Lunes a Domingo en formato MySQL
-        
+
         List<DashboardStatsDto.ReservaDiaDto> resultado = new ArrayList<>();
         for (int i = 0; i < diasEspanol.length; i++) {
             resultado.add(new DashboardStatsDto.ReservaDiaDto(
-                diasEspanol[i], 
-                reservasPorDiaSemana.get(diasMySQL[i])
+                diasEspanol[i],
+                reservasPorDiaSemana[diasMySQL[i]]
             ));
         }
-        
+
         return resultado;
     }
 
-    private List<DashboardStatsDto.MateriaStatsDto> calcularMateriasDetalle() {
-        List<Object[]> resultados = reservaRepository.findEstadisticasPorMateria();
-        
+    private List<DashboardStatsDto.MateriaStatsDto> calcularMateriasDetalle(Map<Integer, long[]> reservasPorMateria) {
+        Map<Integer, String> nombres = new HashMap<>();
+        for (Asignatura asignatura : asignaturaRepository.findAllById(reservasPorMateria.keySet())) {
+            nombres.put(asignatura.getIdAsignatura(), asignatura.getNombre());
+        }
+
         List<DashboardStatsDto.MateriaStatsDto> materiasDetalle = new ArrayList<>();
-        for (Object[] row : resultados) {
-            String nombre = (String) row[0];
-            String codigo = (String) row[1];
-            long mTotal = ((Number) row[2]).longValue();
-            long mCompletadas = ((Number) row[3]).longValue();
-            long mPendientes = ((Number) row[4]).longValue();
-            long mCanceladas = ((Number) row[5]).longValue();
-            double tasa = mTotal > 0 ? Math.round((double) mCompletadas / mTotal * 100 * 10.0) / 10.0 : 0.0;
+        for (Map.Entry<Integer, long[]> entrada : reservasPorMateria.entrySet()) {
+            String nombre = nombres.get(entrada.getKey());
+            if (nombre == null) {
+                continue; // tutorías sin asignatura
+            }
+            long[] m = entrada.getValue();
+            double tasa = m[0] > 0 ? Math.round((double) m[1] / m[0] * 100 * 10.0) / 10.0 : 0.0;
 
             materiasDetalle.add(new DashboardStatsDto.MateriaStatsDto(
-                nombre, codigo, mTotal, mCompletadas, mPendientes, mCanceladas, tasa
+                nombre, "MAT-" + entrada.getKey(), m[0], m[1], m[2], m[3], tasa
             ));
         }
-        
+        materiasDetalle.sort(Comparator.comparingLong(DashboardStatsDto.MateriaStatsDto::getTotal).reversed());
+
         return materiasDetalle;
     }
 
-    private List<DashboardStatsDto.HorarioPicoDto> calcularHorariosPico() {
-        List<Object[]> resultados = reservaRepository.findHorariosPico();
-        
+    private List<DashboardStatsDto.HorarioPicoDto> calcularHorariosPico(long[] reservasPorFranja) {
+        List<Integer> franjas = new ArrayList<>();
+        for (int franja = 0; franja < reservasPorFranja.length; franja++) {
+            if (reservasPorFranja[franja] > 0) {
+                franjas.add(franja);
+            }
+        }
+        franjas.sort((a, b) -> Long.compare(reservasPorFranja[b], reservasPorFranja[a]));
+
         List<DashboardStatsDto.HorarioPicoDto> horariosPico = new ArrayList<>();
-        for (Object[] row : resultados) {
-            String periodo = (String) row[0];
-            String descripcion = (String) row[1];
-            long reservas = ((Number) row[2]).longValue();
-            
+        for (Integer franja : franjas.subList(0, Math.min(5, franjas.size()))) {
+            int horaInicio = franja * 2;
+            String periodo = String.format("%02d:00 - %02d:00", horaInicio, horaInicio + 2);
+            String descripcion = horaInicio >= 6 && horaInicio < 12 ? "Mañana"
+                    : horaInicio >= 12 && horaInicio < 18 ? "Tarde" : "Noche";
+
             horariosPico.add(new DashboardStatsDto.HorarioPicoDto(
-                periodo, descripcion, reservas
+                periodo, descripcion, reservasPorFranja[franja]
             ));
         }
-        
+
         return horariosPico;
     }
 }
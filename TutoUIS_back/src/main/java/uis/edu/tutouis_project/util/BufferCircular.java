@@ -0,0 +1,52 @@
+package uis.edu.tutouis_project.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buffer circular de capacidad fija: guarda los últimos N elementos agregados
+ * y descarta el más antiguo cuando se llena. Seguro para varios hilos.
+ */
+public class BufferCircular<T> {
+
+    private final Object[] elementos;
+    /** Posición donde se escribirá el próximo elemento */
+    private int siguiente;
+    private int cantidad;
+
+    public BufferCircular(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser al menos 1");
+        }
+        this.elementos = new Object[capacidad];
+    }
+
+    public synchronized void agregar(T elemento) {
+        elementos[siguiente] = elemento;
+        siguiente = (siguiente + 1) % elementos.length;
+        if (cantidad < elementos.length) {
+            cantidad++;
+        }
+    }
+
+    /**
+     * Hasta {@code limite} elementos, del más reciente al más antiguo
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized List<T> recientes(int limite) {
+        int n = Math.min(Math.max(limite, 0), cantidad);
+        List<T> resultado = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            resultado.add((T) elementos[(siguiente - i + elementos.length) % elementos.length]);
+        }
+        return resultado;
+    }
+
+    public int capacidad() {
+        return elementos.length;
+    }
+
+    public synchronized int tamano() {
+        return cantidad;
+    }
+}
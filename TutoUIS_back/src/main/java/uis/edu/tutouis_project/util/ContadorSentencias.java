@@ -0,0 +1,163 @@
+package uis.edu.tutouis_project.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Conteo de sentencias SQL, filas leídas y tiempo en la base de datos del hilo actual.
+ *
+ * DataSourceContador registra cada ejecución en la medición abierta del hilo; si no hay ninguna
+ * abierta no se cuenta nada. El filtro de peticiones abre una por petición y las pruebas pueden
+ * usar medir(...) para acotar las sentencias de una operación. Las sentencias se agrupan por forma
+ * (el SQL sin literales), así una consulta repetida por fila (N+1) aparece como una forma con
+ * muchas ejecuciones.
+ */
+public final class ContadorSentencias {
+
+    private static final ThreadLocal<Medicion> ACTUAL = new ThreadLocal<>();
+
+    private static final Pattern CADENAS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMEROS = Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
+    private static final Pattern LISTAS_IN = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private ContadorSentencias() {
+    }
+
+    /**
+     * Abre una medición en el hilo actual, o devuelve null si ya hay una abierta
+     * (en ese caso la cuenta sigue en la existente y no hay que cerrar nada)
+     */
+    public static Medicion iniciar() {
+        if (ACTUAL.get() != null) {
+            return null;
+        }
+        Medicion medicion = new Medicion();
+        ACTUAL.set(medicion);
+        return medicion;
+    }
+
+    public static void terminar(Medicion medicion) {
+        if (medicion != null && ACTUAL.get() == medicion) {
+            ACTUAL.remove();
+        }
+    }
+
+    public static Medicion actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Ejecuta la operación con una medición propia; pensado para pruebas
+     * ({@code assertTrue(medir(() -> ...).getSentencias() <= 3)})
+     */
+    public static Medicion medir(Runnable operacion) {
+        return medirValor(() -> {
+            operacion.run();
+            return null;
+        }).medicion();
+    }
+
+    /**
+     * Como medir(Runnable), conservando lo que devuelve la operación
+     */
+    public static <T> Resultado<T> medirValor(Supplier<T> operacion) {
+        Medicion anterior = ACTUAL.get();
+        Medicion medicion = new Medicion();
+        ACTUAL.set(medicion);
+        try {
+            return new Resultado<>(operacion.get(), medicion);
+        } finally {
+            if (anterior != null) {
+                ACTUAL.set(anterior);
+                anterior.sumar(medicion);
+            } else {
+                ACTUAL.remove();
+            }
+        }
+    }
+
+    static void registrarSentencia(String sql, long nanos) {
+        Medicion medicion = ACTUAL.get();
+        if (medicion != null) {
+            medicion.registrar(sql, nanos);
+        }
+    }
+
+    static void registrarFila() {
+        Medicion medicion = ACTUAL.get();
+        if (medicion != null) {
+            medicion.filas++;
+        }
+    }
+
+    /**
+     * SQL normalizado para agrupar ejecuciones: sin literales, listas IN de cualquier largo
+     * como una sola y espacios colapsados
+     */
+    public static String forma(String sql) {
+        if (sql == null) {
+            return "(sin sql)";
+        }
+        String forma = CADENAS.matcher(sql).replaceAll("?");
+        forma = NUMEROS.matcher(forma).replaceAll("?");
+        forma = LISTAS_IN.matcher(forma).replaceAll("(?)");
+        return ESPACIOS.matcher(forma).replaceAll(" ").trim().toLowerCase();
+    }
+
+    public record Resultado<T>(T valor, Medicion medicion) {
+    }
+
+    /** Acumulados de una medición; la usa un solo hilo */
+    public static final class Medicion {
+
+        private long sentencias;
+        private long filas;
+        private long nanos;
+        private final Map<String, Integer> formas = new LinkedHashMap<>();
+
+        private void registrar(String sql, long duracion) {
+            sentencias++;
+            nanos += duracion;
+            formas.merge(forma(sql), 1, Integer::sum);
+        }
+
+        private void sumar(Medicion otra) {
+            sentencias += otra.sentencias;
+            filas += otra.filas;
+            nanos += otra.nanos;
+            otra.formas.forEach((forma, veces) -> formas.merge(forma, veces, Integer::sum));
+        }
+
+        public long getSentencias() {
+            return sentencias;
+        }
+
+        public long getFilas() {
+            return filas;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public Map<String, Integer> getFormas() {
+            return formas;
+        }
+
+        /**
+         * Formas ejecutadas al menos {@code umbral} veces: candidatas a N+1
+         */
+        public Map<String, Integer> repetidas(int umbral) {
+            Map<String, Integer> repetidas = new LinkedHashMap<>();
+            formas.forEach((forma, veces) -> {
+                if (veces >= umbral) {
+                    repetidas.put(forma, veces);
+                }
+            });
+            return repetidas;
+        }
+    }
+}
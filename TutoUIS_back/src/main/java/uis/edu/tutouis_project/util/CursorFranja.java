@@ -0,0 +1,62 @@
+package uis.edu.tutouis_project.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación de la búsqueda de franjas libres por llave (fecha, horaInicio, orden).
+ * orden es el id de la disponibilidad, o el id de la plantilla en negativo para sesiones sin guardar.
+ * Se serializa como base64url de "fecha|hora|orden" para que el cliente lo trate como opaco
+ */
+public final class CursorFranja {
+
+    private final LocalDate fecha;
+    private final LocalTime hora;
+    private final int orden;
+
+    public CursorFranja(LocalDate fecha, LocalTime hora, int orden) {
+        this.fecha = fecha;
+        this.hora = hora;
+        this.orden = orden;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public LocalTime getHora() {
+        return hora;
+    }
+
+    public int getOrden() {
+        return orden;
+    }
+
+    /** Compara la llave (fecha, hora, orden) de una franja contra el cursor */
+    public int comparar(LocalDate otraFecha, LocalTime otraHora, int otroOrden) {
+        int resultado = otraFecha.compareTo(fecha);
+        if (resultado == 0) {
+            resultado = otraHora.compareTo(hora);
+        }
+        return resultado != 0 ? resultado : Integer.compare(otroOrden, orden);
+    }
+
+    public String codificar() {
+        String valor = fecha + "|" + hora + "|" + orden;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no fue generado por este servidor
+     */
+    public static CursorFranja decodificar(String cursor) {
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new CursorFranja(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]), Integer.parseInt(partes[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+}
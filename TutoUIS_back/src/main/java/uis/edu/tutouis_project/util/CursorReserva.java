@@ -0,0 +1,49 @@
+package uis.edu.tutouis_project.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por llave (fechaCreacion, idReserva).
+ * Se serializa como base64url de "instante-ISO|idReserva" para que el cliente lo trate como opaco
+ */
+public final class CursorReserva {
+
+    private final Timestamp fechaCreacion;
+    private final Integer idReserva;
+
+    public CursorReserva(Timestamp fechaCreacion, Integer idReserva) {
+        this.fechaCreacion = fechaCreacion;
+        this.idReserva = idReserva;
+    }
+
+    public Timestamp getFechaCreacion() {
+        return fechaCreacion;
+    }
+
+    public Integer getIdReserva() {
+        return idReserva;
+    }
+
+    public String codificar() {
+        String valor = fechaCreacion.toInstant() + "|" + idReserva;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no fue generado por este servidor
+     */
+    public static CursorReserva decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf('|');
+            Timestamp fecha = Timestamp.from(Instant.parse(valor.substring(0, separador)));
+            Integer id = Integer.valueOf(valor.substring(separador + 1));
+            return new CursorReserva(fecha, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
+    }
+}
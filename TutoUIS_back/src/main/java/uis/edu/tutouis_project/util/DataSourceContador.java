@@ -0,0 +1,132 @@
+package uis.edu.tutouis_project.util;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource que envuelve las conexiones para registrar en ContadorSentencias cada sentencia
+ * ejecutada, su tiempo y las filas leídas de sus resultados. Un executeBatch cuenta como una sentencia.
+ * Fuera de una medición abierta el costo es una consulta al ThreadLocal por ejecución.
+ */
+public class DataSourceContador extends DelegatingDataSource {
+
+    public DataSourceContador(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(Connection.class, obtainTargetDataSource().getConnection(), null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolver(Connection.class, obtainTargetDataSource().getConnection(username, password), null);
+    }
+
+    private static <T> T envolver(Class<T> tipo, T objeto, String sql) {
+        if (objeto == null) {
+            return null;
+        }
+        InvocationHandler manejador;
+        if (objeto instanceof Connection conexion) {
+            manejador = new Conexion(conexion);
+        } else if (objeto instanceof ResultSet resultados) {
+            manejador = new Resultados(resultados);
+        } else {
+            manejador = new Sentencia((Statement) objeto, sql);
+        }
+        return tipo.cast(Proxy.newProxyInstance(DataSourceContador.class.getClassLoader(), new Class<?>[]{tipo}, manejador));
+    }
+
+    private static Object invocar(Object objeto, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(objeto, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class Conexion implements InvocationHandler {
+        private final Connection conexion;
+
+        private Conexion(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object resultado = invocar(conexion, metodo, args);
+            String nombre = metodo.getName();
+            if (nombre.equals("createStatement")) {
+                return envolver(Statement.class, (Statement) resultado, null);
+            }
+            if (nombre.equals("prepareStatement") || nombre.equals("prepareCall")) {
+                // PreparedStatement o CallableStatement según el método
+                return envolverComo(metodo.getReturnType(), resultado, (String) args[0]);
+            }
+            return resultado;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T envolverComo(Class<T> tipo, Object sentencia, String sql) {
+            return envolver(tipo, (T) sentencia, sql);
+        }
+    }
+
+    private static final class Sentencia implements InvocationHandler {
+        private final Statement sentencia;
+        private final String sql;
+
+        private Sentencia(Statement sentencia, String sql) {
+            this.sentencia = sentencia;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            String nombre = metodo.getName();
+            if (nombre.startsWith("execute")) {
+                String ejecutado = args != null && args.length > 0 && args[0] instanceof String texto ? texto : sql;
+                long inicio = System.nanoTime();
+                try {
+                    Object resultado = invocar(sentencia, metodo, args);
+                    return resultado instanceof ResultSet resultados ? envolver(ResultSet.class, resultados, null) : resultado;
+                } finally {
+                    ContadorSentencias.registrarSentencia(ejecutado, System.nanoTime() - inicio);
+                }
+            }
+            Object resultado = invocar(sentencia, metodo, args);
+            if (nombre.equals("getResultSet")) {
+                return envolver(ResultSet.class, (ResultSet) resultado, null);
+            }
+            return resultado;
+        }
+    }
+
+    private static final class Resultados implements InvocationHandler {
+        private final ResultSet resultados;
+
+        private Resultados(ResultSet resultados) {
+            this.resultados = resultados;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Object resultado = invocar(resultados, metodo, args);
+            if (metodo.getName().equals("next") && Boolean.TRUE.equals(resultado)) {
+                ContadorSentencias.registrarFila();
+            }
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package uis.edu.tutouis_project.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice en memoria de las disponibilidades próximas para buscar franjas libres.
+ *
+ * Las entradas se agrupan por asignatura y fecha (TreeMap), así una búsqueda solo recorre los días
+ * del rango pedido de una asignatura y se detiene al llenar la página. Las franjas de 15 minutos se
+ * generan al buscar; lo único mutable son los cupos restantes de cada entrada.
+ * Como cada franja admite hasta aforo máximo estudiantes y el aforo se cuenta por disponibilidad,
+ * si la disponibilidad tiene cupo todas sus franjas tienen asiento libre.
+ */
+public class IndiceFranjas {
+
+    private static final Comparator<Entrada> POR_HORA = Comparator.comparing((Entrada e) -> e.horaInicio)
+            .thenComparingInt(Entrada::orden);
+
+    private final Map<Integer, NavigableMap<LocalDate, List<Entrada>>> porAsignatura = new HashMap<>();
+    private final Map<Integer, Entrada> porDisponibilidad = new HashMap<>();
+    private final int tamano;
+
+    public IndiceFranjas(Collection<Entrada> entradas) {
+        for (Entrada entrada : entradas) {
+            porAsignatura.computeIfAbsent(entrada.idAsignatura, id -> new TreeMap<>())
+                    .computeIfAbsent(entrada.fecha, f -> new ArrayList<>()).add(entrada);
+            if (entrada.idDisponibilidad != null) {
+                porDisponibilidad.put(entrada.idDisponibilidad, entrada);
+            }
+        }
+        porAsignatura.values().forEach(dias -> dias.values().forEach(lista -> lista.sort(POR_HORA)));
+        tamano = entradas.size();
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    /** Suma (o resta) cupos restantes a una disponibilidad del índice; si no está no hace nada */
+    public void ajustarCupos(Integer idDisponibilidad, int delta) {
+        Entrada entrada = porDisponibilidad.get(idDisponibilidad);
+        if (entrada != null) {
+            entrada.restantes.updateAndGet(actual -> Math.max(0, Math.min(entrada.aforoMaximo, actual + delta)));
+        }
+    }
+
+    /**
+     * Franjas libres ordenadas por fecha y hora, a partir del cursor
+     * @return hasta consulta.limite() franjas y el cursor de la siguiente página (null si no hay más)
+     */
+    public Pagina buscar(Consulta consulta) {
+        NavigableMap<LocalDate, List<Entrada>> dias = porAsignatura.get(consulta.idAsignatura());
+        List<Franja> franjas = new ArrayList<>();
+        if (dias == null || consulta.hasta().isBefore(consulta.desde())) {
+            return new Pagina(franjas, null);
+        }
+
+        LocalDate desde = consulta.desde();
+        if (consulta.despuesDe() != null && consulta.despuesDe().getFecha().isAfter(desde)) {
+            desde = consulta.despuesDe().getFecha();
+        }
+        if (desde.isBefore(consulta.ahora().toLocalDate())) {
+            desde = consulta.ahora().toLocalDate();
+        }
+        if (desde.isAfter(consulta.hasta())) {
+            return new Pagina(franjas, null);
+        }
+
+        // Se junta una franja de más para saber si hay página siguiente
+        for (Map.Entry<LocalDate, List<Entrada>> dia : dias.subMap(desde, true, consulta.hasta(), true).entrySet()) {
+            List<Franja> delDia = new ArrayList<>();
+            for (Entrada entrada : dia.getValue()) {
+                if (entrada.restantes.get() > 0 && (!consulta.soloPresencial() || entrada.presencial())) {
+                    agregarFranjas(entrada, consulta, delDia);
+                }
+            }
+            delDia.sort(Comparator.comparing(Franja::horaInicio).thenComparingInt(f -> f.entrada().orden()));
+            for (Franja franja : delDia) {
+                franjas.add(franja);
+                if (franjas.size() > consulta.limite()) {
+                    franjas.remove(consulta.limite());
+                    Franja ultima = franjas.get(consulta.limite() - 1);
+                    return new Pagina(franjas, new CursorFranja(ultima.fecha(), ultima.horaInicio(), ultima.entrada().orden()));
+                }
+            }
+        }
+        return new Pagina(franjas, null);
+    }
+
+    private static void agregarFranjas(Entrada entrada, Consulta consulta, List<Franja> destino) {
+        // Se recorre en segundos del día para no dar la vuelta a medianoche con LocalTime
+        int paso = OcupacionFranjas.MINUTOS_FRANJA * 60;
+        int fin = entrada.horaFin.toSecondOfDay();
+        if (consulta.horaHasta() != null) {
+            fin = Math.min(fin, consulta.horaHasta().toSecondOfDay());
+        }
+        int minimo = consulta.horaDesde() != null ? consulta.horaDesde().toSecondOfDay() : 0;
+        if (entrada.fecha.equals(consulta.ahora().toLocalDate())) {
+            minimo = Math.max(minimo, consulta.ahora().toLocalTime().toSecondOfDay());
+        }
+        for (int inicio = entrada.horaInicio.toSecondOfDay(); inicio + paso <= fin; inicio += paso) {
+            if (inicio < minimo) {
+                continue;
+            }
+            LocalTime hora = LocalTime.ofSecondOfDay(inicio);
+            if (consulta.despuesDe() != null && consulta.despuesDe().comparar(entrada.fecha, hora, entrada.orden()) <= 0) {
+                continue;
+            }
+            destino.add(new Franja(entrada, entrada.fecha, hora, hora.plusMinutes(OcupacionFranjas.MINUTOS_FRANJA)));
+        }
+    }
+
+    /**
+     * @param soloPresencial deja fuera las tutorías sin lugar asignado
+     * @param despuesDe      cursor de la página anterior, o null
+     */
+    public record Consulta(Integer idAsignatura, LocalDate desde, LocalDate hasta, LocalTime horaDesde, LocalTime horaHasta,
+                           boolean soloPresencial, LocalDateTime ahora, CursorFranja despuesDe, int limite) {
+    }
+
+    public record Franja(Entrada entrada, LocalDate fecha, LocalTime horaInicio, LocalTime horaFin) {
+    }
+
+    public record Pagina(List<Franja> franjas, CursorFranja siguiente) {
+    }
+
+    /**
+     * Disponibilidad próxima (o sesión de plantilla sin guardar, con idDisponibilidad null)
+     */
+    public static final class Entrada {
+        private final Integer idDisponibilidad;
+        private final Integer idPlantilla;
+        private final Integer idTutoria;
+        private final Integer idAsignatura;
+        private final LocalDate fecha;
+        private final LocalTime horaInicio;
+        private final LocalTime horaFin;
+        private final int aforoMaximo;
+        private final String lugar;
+        private final String tutor;
+        private final AtomicInteger restantes;
+
+        public Entrada(Integer idDisponibilidad, Integer idPlantilla, Integer idTutoria, Integer idAsignatura, LocalDate fecha,
+                       LocalTime horaInicio, LocalTime horaFin, int aforoMaximo, int ocupados, String lugar, String tutor) {
+            this.idDisponibilidad = idDisponibilidad;
+            this.idPlantilla = idPlantilla;
+            this.idTutoria = idTutoria;
+            this.idAsignatura = idAsignatura;
+            this.fecha = fecha;
+            this.horaInicio = horaInicio;
+            this.horaFin = horaFin;
+            this.aforoMaximo = aforoMaximo;
+            this.lugar = lugar;
+            this.tutor = tutor;
+            this.restantes = new AtomicInteger(Math.max(0, aforoMaximo - ocupados));
+        }
+
+        /** Llave de desempate estable entre franjas a la misma hora */
+        int orden() {
+            return idDisponibilidad != null ? idDisponibilidad : -idPlantilla;
+        }
+
+        boolean presencial() {
+            return lugar != null && !lugar.isBlank();
+        }
+
+        public Integer getIdDisponibilidad() {
+            return idDisponibilidad;
+        }
+
+        public Integer getIdPlantilla() {
+            return idPlantilla;
+        }
+
+        public Integer getIdTutoria() {
+            return idTutoria;
+        }
+
+        public String getLugar() {
+            return lugar;
+        }
+
+        public String getTutor() {
+            return tutor;
+        }
+
+        public int getRestantes() {
+            return restantes.get();
+        }
+    }
+}
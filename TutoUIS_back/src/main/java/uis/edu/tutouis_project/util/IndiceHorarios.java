@@ -0,0 +1,128 @@
+package uis.edu.tutouis_project.util;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice de los horarios ocupados de un tutor para detectar cruces sin una consulta por franja.
+ *
+ * Por cada fecha guarda los intervalos ordenados por hora de inicio junto con el máximo de las horas
+ * de fin acumulado hasta cada posición. Una franja [inicio, fin) se cruza con alguno si, entre los
+ * intervalos que empiezan antes de su fin (búsqueda binaria), el mayor fin supera su inicio.
+ * Mismo criterio que la consulta anterior: horaInicio &lt; fin AND horaFin &gt; inicio.
+ */
+public class IndiceHorarios {
+
+    private final Map<LocalDate, Dia> dias = new HashMap<>();
+
+    public IndiceHorarios(Collection<Franja> ocupadas) {
+        Map<LocalDate, List<Franja>> porFecha = new HashMap<>();
+        for (Franja franja : ocupadas) {
+            porFecha.computeIfAbsent(franja.fecha(), f -> new ArrayList<>()).add(franja);
+        }
+        porFecha.forEach((fecha, franjas) -> dias.put(fecha, new Dia(franjas)));
+    }
+
+    public boolean seCruza(Franja franja) {
+        Dia dia = dias.get(franja.fecha());
+        return dia != null && dia.seCruza(franja.inicio().toSecondOfDay(), franja.fin().toSecondOfDay());
+    }
+
+    /**
+     * Revisa un lote de franjas nuevas contra el índice y entre sí, en O(n log n).
+     * Primero se reportan los cruces con horarios ya guardados, en el orden del lote
+     * @return el primer cruce encontrado, o null si no hay ninguno
+     */
+    public Conflicto buscarConflicto(List<Franja> nuevas) {
+        for (int i = 0; i < nuevas.size(); i++) {
+            if (seCruza(nuevas.get(i))) {
+                return new Conflicto(i, null);
+            }
+        }
+
+        // Barrido por fecha y hora de inicio: basta comparar cada franja con la que termina
+        // más tarde entre las anteriores del mismo día
+        Integer[] orden = new Integer[nuevas.size()];
+        Arrays.setAll(orden, i -> i);
+        Arrays.sort(orden, Comparator.<Integer, LocalDate>comparing(i -> nuevas.get(i).fecha())
+                .thenComparing(i -> nuevas.get(i).inicio()));
+        Integer abierta = null;
+        for (Integer actual : orden) {
+            Franja franja = nuevas.get(actual);
+            if (abierta == null || !nuevas.get(abierta).fecha().equals(franja.fecha())) {
+                abierta = actual;
+                continue;
+            }
+            Franja anterior = nuevas.get(abierta);
+            if (franja.inicio().isBefore(anterior.fin())) {
+                return new Conflicto(Math.max(actual, abierta), Math.min(actual, abierta));
+            }
+            if (franja.fin().isAfter(anterior.fin())) {
+                abierta = actual;
+            }
+        }
+        return null;
+    }
+
+    /** Convierte filas [fecha, horaInicio, horaFin] como las de findHorariosActivosDeTutor */
+    public static List<Franja> deFilas(List<Object[]> filas) {
+        List<Franja> franjas = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            franjas.add(new Franja(((Date) fila[0]).toLocalDate(),
+                    ((Time) fila[1]).toLocalTime(), ((Time) fila[2]).toLocalTime()));
+        }
+        return franjas;
+    }
+
+    /** Horario de una fecha; fin es exclusivo */
+    public record Franja(LocalDate fecha, LocalTime inicio, LocalTime fin) {
+    }
+
+    /**
+     * @param indice      posición de la franja en conflicto dentro del lote
+     * @param indiceCruce posición de la otra franja del lote, o null si choca con un horario ya guardado
+     */
+    public record Conflicto(int indice, Integer indiceCruce) {
+    }
+
+    private static final class Dia {
+        private final int[] inicios;
+        private final int[] maximoFin;
+
+        private Dia(List<Franja> franjas) {
+            franjas.sort(Comparator.comparing(Franja::inicio));
+            inicios = new int[franjas.size()];
+            maximoFin = new int[franjas.size()];
+            int maximo = Integer.MIN_VALUE;
+            for (int i = 0; i < franjas.size(); i++) {
+                inicios[i] = franjas.get(i).inicio().toSecondOfDay();
+                maximo = Math.max(maximo, franjas.get(i).fin().toSecondOfDay());
+                maximoFin[i] = maximo;
+            }
+        }
+
+        private boolean seCruza(int inicio, int fin) {
+            // Cantidad de intervalos que empiezan antes de fin
+            int bajo = 0;
+            int alto = inicios.length;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (inicios[medio] < fin) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo > 0 && maximoFin[bajo - 1] > inicio;
+        }
+    }
+}
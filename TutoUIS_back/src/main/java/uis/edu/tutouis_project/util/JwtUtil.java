@@ -2,98 +2,225 @@ package uis.edu.tutouis_project.util;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Component
 public class JwtUtil {
+    private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
+
+    /** id_rol de los administradores (tabla rol) */
+    public static final int ROL_ADMINISTRADOR = 1;
+    private static final String CLAIM_ROL = "rol";
+
+    @Autowired
+    private RegistroMetricas metricas;
+
     @Value("${jwt.secret}")
     private String secret;
     @Value("${jwt.expiration}")
     private Long expiration;
+    @Value("${jwt.cache.max-entradas:10000}")
+    private int maxEntradasCache;
+    @Value("${jwt.cache.ttl-ms:600000}")
+    private long ttlCacheMs;
 
     /**
-     * Crea la SecretKey a partir del secret
+     * Llave y parser se construyen una sola vez: JwtParser es inmutable y thread-safe
      */
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * Tokens ya verificados, indexados por el SHA-256 del token (no se guarda el token en claro).
+     * Una entrada vale hasta que vence el token o pasa jwt.cache.ttl-ms, lo que ocurra primero
+     */
+    private final Map<String, TokenVerificado> tokensVerificados = new ConcurrentHashMap<>();
+    private final AtomicBoolean depurandoCache = new AtomicBoolean();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    });
+
+    @PostConstruct
+    public void init() {
+        // Fuera de Spring (benchmarks, pruebas) hay que asignarlo: sin él la primera verificación fallaría
+        Objects.requireNonNull(metricas, "JwtUtil necesita un RegistroMetricas");
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String generateToken(String codigo) {
+        return generateToken(codigo, null);
+    }
+
+    /**
+     * @param idRol rol del usuario; viaja firmado en el token para autorizar sin consultar la base de datos
+     */
+    public String generateToken(String codigo, Integer idRol) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
-        SecretKey key = getSigningKey();
-        
-        String token = Jwts.builder()
+
+        JwtBuilder builder = Jwts.builder()
                 .subject(codigo)
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(key)
-                .compact();
-        
-        System.out.println("✅ Token generado para: " + codigo);
+                .expiration(expiryDate);
+        if (idRol != null) {
+            builder.claim(CLAIM_ROL, idRol);
+        }
+        String token = builder.signWith(signingKey).compact();
+
+        log.debug("✅ Token generado para: {}", codigo);
         return token;
     }
 
-    public String getCodigoFromToken(String token) {
-        try {
-            SecretKey key = getSigningKey();
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getSubject();
-        } catch (Exception e) {
-            System.out.println("❌ Error al extraer código: " + e.getMessage());
+    /**
+     * Verifica firma y expiración en un solo paso y retorna el código (subject) del token.
+     * Los tokens válidos quedan en caché, así las peticiones siguientes no vuelven a calcular el HMAC
+     * @return El código del usuario, o null si el token es inválido o está expirado
+     */
+    public String getCodigoFromValidToken(String token) {
+        Identidad identidad = verificar(token);
+        return identidad != null ? identidad.codigo() : null;
+    }
+
+    /**
+     * Igual que getCodigoFromValidToken, pero con el rol del token (null en tokens emitidos sin rol)
+     * @return La identidad del usuario, o null si el token es inválido o está expirado
+     */
+    public Identidad verificar(String token) {
+        if (token == null || token.isEmpty()) {
             return null;
         }
+        long ahora = System.currentTimeMillis();
+        String clave = digest(token);
+
+        TokenVerificado cacheado = tokensVerificados.get(clave);
+        if (cacheado != null) {
+            if (ahora < cacheado.venceCache) {
+                metricas.incrementar("jwt.cache.aciertos");
+                return cacheado.identidad;
+            }
+            tokensVerificados.remove(clave, cacheado);
+            if (ahora >= cacheado.expiraToken) {
+                return null;
+            }
+        }
+
+        long inicio = System.nanoTime();
+        Claims claims = parseClaims(token);
+        metricas.registrarTiempo("jwt.verificacion", System.nanoTime() - inicio);
+        if (claims == null) {
+            metricas.incrementar("jwt.rechazados");
+            return null;
+        }
+        Identidad identidad = new Identidad(claims.getSubject(), claims.get(CLAIM_ROL, Integer.class));
+        Date expira = claims.getExpiration();
+        if (expira != null) {
+            guardarEnCache(clave, new TokenVerificado(identidad, expira.getTime(),
+                    Math.min(expira.getTime(), ahora + ttlCacheMs)));
+        }
+        return identidad;
+    }
+
+    public String getCodigoFromToken(String token) {
+        return getCodigoFromValidToken(token);
     }
 
     public boolean validateToken(String token) {
+        return getCodigoFromValidToken(token) != null;
+    }
+
+    public boolean isTokenExpired(String token) {
+        return getCodigoFromValidToken(token) == null;
+    }
+
+    /**
+     * Parsea y verifica el token con el parser precalculado
+     * @return Los claims, o null si el token es inválido o está expirado
+     */
+    private Claims parseClaims(String token) {
         try {
-            SecretKey key = getSigningKey();
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            System.out.println("✅ Token válido");
-            return true;
+            return parser.parseSignedClaims(token).getPayload();
         } catch (ExpiredJwtException e) {
-            System.out.println("⚠️ Token expirado");
-            return false;
+            log.debug("⚠️ Token expirado");
+            return null;
         } catch (JwtException e) {
-            System.out.println("❌ Token JWT inválido: " + e.getMessage());
-            return false;
+            log.debug("❌ Token JWT inválido: {}", e.getMessage());
+            return null;
         } catch (Exception e) {
-            System.out.println("❌ Error validando token: " + e.getMessage());
-            return false;
+            log.warn("❌ Error validando token: {}", e.getMessage());
+            return null;
         }
     }
 
-    public boolean isTokenExpired(String token) {
+    private void guardarEnCache(String clave, TokenVerificado verificado) {
+        if (tokensVerificados.size() >= maxEntradasCache) {
+            depurarCache();
+        }
+        if (tokensVerificados.size() < maxEntradasCache) {
+            tokensVerificados.put(clave, verificado);
+        }
+    }
+
+    /**
+     * Elimina las entradas vencidas; si la caché sigue llena se vacía por completo.
+     * Solo un hilo depura a la vez, los demás siguen sin cachear mientras tanto
+     */
+    private void depurarCache() {
+        if (!depurandoCache.compareAndSet(false, true)) {
+            return;
+        }
         try {
-            SecretKey key = getSigningKey();
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            
-            boolean expired = claims.getExpiration().before(new Date());
-            if (expired) {
-                System.out.println("⚠️ Token expirado");
+            long ahora = System.currentTimeMillis();
+            tokensVerificados.values().removeIf(t -> ahora >= t.venceCache);
+            if (tokensVerificados.size() >= maxEntradasCache) {
+                tokensVerificados.clear();
             }
-            return expired;
-        } catch (ExpiredJwtException e) {
-            System.out.println("⚠️ Token expirado (ExpiredJwtException)");
-            return true;
-        } catch (Exception e) {
-            System.out.println("❌ Error verificando expiración: " + e.getMessage());
-            return true;
+        } finally {
+            depurandoCache.set(false);
+        }
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    /** Usuario autenticado por un token válido */
+    public record Identidad(String codigo, Integer idRol) {
+        public boolean esAdministrador() {
+            return idRol != null && idRol == ROL_ADMINISTRADOR;
         }
     }
-}
 
+    private static final class TokenVerificado {
+        private final Identidad identidad;
+        private final long expiraToken;
+        private final long venceCache;
+
+        private TokenVerificado(Identidad identidad, long expiraToken, long venceCache) {
+            this.identidad = identidad;
+            this.expiraToken = expiraToken;
+            this.venceCache = venceCache;
+        }
+    }
+}
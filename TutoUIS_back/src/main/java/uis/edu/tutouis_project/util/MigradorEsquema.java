@@ -0,0 +1,225 @@
+package uis.edu.tutouis_project.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Migraciones versionadas del esquema, al estilo de Flyway: archivos V<n>__<descripcion>.sql que se
+ * aplican una sola vez y en orden de versión, registrados en la tabla migracion_esquema.
+ *
+ * Las tablas las sigue creando Hibernate (ddl-auto=update); las migraciones agregan lo que Hibernate
+ * no garantiza, como los índices de las consultas frecuentes, y corren después de él.
+ * Una migración ya aplicada no se puede editar (se compara su checksum): los cambios van en una nueva.
+ * Las sentencias se separan por ';' al final de línea, así que no deben tener ';' dentro de cadenas.
+ *
+ * En MySQL las sentencias DDL confirman solas, por lo que una migración interrumpida queda a medias;
+ * al reintentar se ignoran las columnas e índices que ya existen. Un lock con nombre evita que dos instancias
+ * que arrancan juntas apliquen la misma migración.
+ */
+public class MigradorEsquema {
+
+    private static final Logger log = LoggerFactory.getLogger(MigradorEsquema.class);
+
+    private static final Pattern NOMBRE_ARCHIVO = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final String LOCK = "tutouis_migracion_esquema";
+    private static final int SEGUNDOS_ESPERA_LOCK = 60;
+    /** ER_DUP_FIELDNAME y ER_DUP_KEYNAME: la columna o el índice ya existe */
+    private static final Set<Integer> ERRORES_YA_EXISTE = Set.of(1060, 1061);
+
+    private final DataSource dataSource;
+    private final String ubicacion;
+
+    /**
+     * @param ubicacion patrón de recursos de las migraciones, por ejemplo classpath:db/migracion/*.sql
+     */
+    public MigradorEsquema(DataSource dataSource, String ubicacion) {
+        this.dataSource = dataSource;
+        this.ubicacion = ubicacion;
+    }
+
+    record Migracion(int version, String descripcion, String checksum, String contenido) {
+    }
+
+    /**
+     * Aplica las migraciones pendientes
+     * @return número de migraciones aplicadas
+     */
+    public int migrar() {
+        List<Migracion> migraciones = cargar();
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(true);
+            tomarLock(conexion);
+            try {
+                crearTablaHistorial(conexion);
+                Map<Integer, String> aplicadas = aplicadas(conexion);
+                int nuevas = 0;
+                for (Migracion migracion : migraciones) {
+                    String checksum = aplicadas.get(migracion.version());
+                    if (checksum == null) {
+                        aplicar(conexion, migracion);
+                        nuevas++;
+                    } else if (!checksum.equals(migracion.checksum())) {
+                        throw new IllegalStateException("La migración V" + migracion.version()
+                                + " cambió después de aplicarse; los cambios deben ir en una migración nueva");
+                    }
+                }
+                log.info("🗄️ Esquema al día: {} migración(es) aplicada(s), {} en total", nuevas, migraciones.size());
+                return nuevas;
+            } finally {
+                liberarLock(conexion);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron aplicar las migraciones del esquema: " + e.getMessage(), e);
+        }
+    }
+
+    List<Migracion> cargar() {
+        List<Migracion> migraciones = new ArrayList<>();
+        try {
+            for (Resource recurso : new PathMatchingResourcePatternResolver().getResources(ubicacion)) {
+                migraciones.add(leer(recurso.getFilename(),
+                        recurso.getContentAsString(StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudieron leer las migraciones de " + ubicacion, e);
+        }
+        migraciones.sort(Comparator.comparingInt(Migracion::version));
+        for (int i = 1; i < migraciones.size(); i++) {
+            if (migraciones.get(i).version() == migraciones.get(i - 1).version()) {
+                throw new IllegalStateException("Versión de migración repetida: V" + migraciones.get(i).version());
+            }
+        }
+        return migraciones;
+    }
+
+    static Migracion leer(String nombreArchivo, String contenido) {
+        Matcher nombre = NOMBRE_ARCHIVO.matcher(nombreArchivo);
+        if (!nombre.matches()) {
+            throw new IllegalStateException("Nombre de migración inválido (se espera V<n>__<descripcion>.sql): "
+                    + nombreArchivo);
+        }
+        return new Migracion(Integer.parseInt(nombre.group(1)), nombre.group(2).replace('_', ' '),
+                checksum(contenido), contenido);
+    }
+
+    /**
+     * Sentencias de una migración, sin las líneas de comentario (--)
+     */
+    static List<String> sentencias(String contenido) {
+        StringBuilder sinComentarios = new StringBuilder();
+        for (String linea : contenido.split("\\R")) {
+            if (!linea.trim().startsWith("--")) {
+                sinComentarios.append(linea).append('\n');
+            }
+        }
+        List<String> sentencias = new ArrayList<>();
+        for (String sentencia : sinComentarios.toString().split(";\\s*(\\n|$)")) {
+            if (!sentencia.isBlank()) {
+                sentencias.add(sentencia.trim());
+            }
+        }
+        return sentencias;
+    }
+
+    private static String checksum(String contenido) {
+        try {
+            // Sin distinguir finales de línea, para que el checksum no cambie entre sistemas operativos
+            byte[] bytes = contenido.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void aplicar(Connection conexion, Migracion migracion) throws SQLException {
+        long inicio = System.nanoTime();
+        try (Statement sentencia = conexion.createStatement()) {
+            for (String sql : sentencias(migracion.contenido())) {
+                try {
+                    sentencia.execute(sql);
+                } catch (SQLException e) {
+                    if (!ERRORES_YA_EXISTE.contains(e.getErrorCode())) {
+                        throw new SQLException("V" + migracion.version() + ": " + e.getMessage(), e.getSQLState(),
+                                e.getErrorCode(), e);
+                    }
+                    log.warn("⚠️ V{}: {}, se continúa", migracion.version(), e.getMessage());
+                }
+            }
+        }
+        long duracionMs = (System.nanoTime() - inicio) / 1_000_000;
+        try (PreparedStatement registro = conexion.prepareStatement(
+                "INSERT INTO migracion_esquema (version, descripcion, checksum, duracion_ms) VALUES (?, ?, ?, ?)")) {
+            registro.setInt(1, migracion.version());
+            registro.setString(2, migracion.descripcion());
+            registro.setString(3, migracion.checksum());
+            registro.setLong(4, duracionMs);
+            registro.executeUpdate();
+        }
+        log.info("🗄️ Migración V{} aplicada ({}) en {} ms", migracion.version(), migracion.descripcion(), duracionMs);
+    }
+
+    private static void crearTablaHistorial(Connection conexion) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("""
+                CREATE TABLE IF NOT EXISTS migracion_esquema (
+                    version INT NOT NULL PRIMARY KEY,
+                    descripcion VARCHAR(200) NOT NULL,
+                    checksum CHAR(64) NOT NULL,
+                    aplicada_en TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    duracion_ms BIGINT NOT NULL
+                )""");
+        }
+    }
+
+    private static Map<Integer, String> aplicadas(Connection conexion) throws SQLException {
+        Map<Integer, String> aplicadas = new HashMap<>();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT version, checksum FROM migracion_esquema")) {
+            while (filas.next()) {
+                aplicadas.put(filas.getInt(1), filas.getString(2));
+            }
+        }
+        return aplicadas;
+    }
+
+    private static void tomarLock(Connection conexion) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            sentencia.setString(1, LOCK);
+            sentencia.setInt(2, SEGUNDOS_ESPERA_LOCK);
+            try (ResultSet fila = sentencia.executeQuery()) {
+                if (!fila.next() || fila.getInt(1) != 1) {
+                    throw new IllegalStateException("Otra instancia está migrando el esquema (lock " + LOCK + ")");
+                }
+            }
+        }
+    }
+
+    private static void liberarLock(Connection conexion) throws SQLException {
+        try (PreparedStatement sentencia = conexion.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            sentencia.setString(1, LOCK);
+            sentencia.executeQuery().close();
+        }
+    }
+}
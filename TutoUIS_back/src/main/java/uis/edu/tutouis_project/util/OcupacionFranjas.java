@@ -0,0 +1,150 @@
+package uis.edu.tutouis_project.util;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Ocupación de una disponibilidad en franjas de 15 minutos.
+ *
+ * Cada franja tiene tantos asientos como el aforo máximo; el asiento k de la franja f es el bit
+ * f * capacidad + k y a su lado se guarda el estudiante que lo ocupa. Un segundo BitSet marca las
+ * franjas llenas, así "¿está libre?" es una lectura de bit y las franjas libres se recorren con
+ * nextClearBit sin mirar reservas.
+ *
+ * El aforo máximo es de la disponibilidad completa, no de cada franja (es lo que admite el UPDATE de
+ * AsignadorCupos): con el total ocupado en el aforo no queda ninguna franja libre, y los asientos libres
+ * de cada franja nunca superan los que le quedan a la disponibilidad.
+ */
+public class OcupacionFranjas {
+
+    public static final int MINUTOS_FRANJA = 15;
+
+    private final LocalTime inicio;
+    private final int franjas;
+    private final int capacidad;
+    private final BitSet asientos;
+    private final BitSet llenas;
+    private final int[] titulares;
+    private final int[] ocupados;
+    private int total;
+
+    public OcupacionFranjas(LocalTime inicio, LocalTime fin, int capacidad) {
+        this.inicio = inicio;
+        this.franjas = Math.max(0, (fin.toSecondOfDay() - inicio.toSecondOfDay()) / (MINUTOS_FRANJA * 60));
+        this.capacidad = Math.max(0, capacidad);
+        this.asientos = new BitSet(franjas * this.capacidad);
+        this.llenas = new BitSet(franjas);
+        this.titulares = new int[franjas * this.capacidad];
+        this.ocupados = new int[franjas];
+        if (this.capacidad == 0) {
+            llenas.set(0, franjas);
+        }
+    }
+
+    /**
+     * @return índice de la franja que empieza a la hora dada, o -1 si no está alineada o cae fuera del rango
+     */
+    public int franja(LocalTime hora) {
+        int segundos = hora.toSecondOfDay() - inicio.toSecondOfDay();
+        if (segundos < 0 || segundos % (MINUTOS_FRANJA * 60) != 0) {
+            return -1;
+        }
+        int franja = segundos / (MINUTOS_FRANJA * 60);
+        return franja < franjas ? franja : -1;
+    }
+
+    public synchronized boolean estaLibre(int franja) {
+        return !llenas.get(franja) && total < capacidad;
+    }
+
+    public synchronized boolean tiene(int franja, int idEstudiante) {
+        return asientoDe(franja, idEstudiante) >= 0;
+    }
+
+    /** Estudiantes que ocupan la franja */
+    public synchronized List<Integer> titulares(int franja) {
+        List<Integer> ids = new ArrayList<>(ocupados[franja]);
+        int base = franja * capacidad;
+        for (int k = asientos.nextSetBit(base); k >= 0 && k < base + capacidad; k = asientos.nextSetBit(k + 1)) {
+            ids.add(titulares[k]);
+        }
+        return ids;
+    }
+
+    /**
+     * Asigna un asiento de la franja al estudiante
+     * @return false si la franja o la disponibilidad están llenas, o el estudiante ya tiene un asiento en la franja
+     */
+    public synchronized boolean ocupar(int franja, int idEstudiante) {
+        if (llenas.get(franja) || total >= capacidad || asientoDe(franja, idEstudiante) >= 0) {
+            return false;
+        }
+        int asiento = asientos.nextClearBit(franja * capacidad);
+        asientos.set(asiento);
+        titulares[asiento] = idEstudiante;
+        total++;
+        if (++ocupados[franja] == capacidad) {
+            llenas.set(franja);
+        }
+        return true;
+    }
+
+    /** @return false si el estudiante no tenía asiento en la franja */
+    public synchronized boolean liberar(int franja, int idEstudiante) {
+        int asiento = asientoDe(franja, idEstudiante);
+        if (asiento < 0) {
+            return false;
+        }
+        asientos.clear(asiento);
+        ocupados[franja]--;
+        total--;
+        llenas.clear(franja);
+        return true;
+    }
+
+    /** Franjas con al menos un asiento libre, en orden */
+    public List<Franja> libres() {
+        return libres(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Franjas con al menos un asiento libre, con los asientos de cada una limitados a restantes
+     * (cupos que le quedan a la disponibilidad según la base de datos). Vacía si no queda ninguno
+     */
+    public synchronized List<Franja> libres(int restantes) {
+        int tope = Math.min(restantes, capacidad - total);
+        List<Franja> libres = new ArrayList<>();
+        if (tope <= 0) {
+            return libres;
+        }
+        for (int f = llenas.nextClearBit(0); f < franjas; f = llenas.nextClearBit(f + 1)) {
+            LocalTime desde = inicio.plusMinutes((long) f * MINUTOS_FRANJA);
+            libres.add(new Franja(desde, desde.plusMinutes(MINUTOS_FRANJA), Math.min(tope, capacidad - ocupados[f])));
+        }
+        return libres;
+    }
+
+    public int getFranjas() {
+        return franjas;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    private int asientoDe(int franja, int idEstudiante) {
+        int base = franja * capacidad;
+        for (int k = asientos.nextSetBit(base); k >= 0 && k < base + capacidad; k = asientos.nextSetBit(k + 1)) {
+            if (titulares[k] == idEstudiante) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    /** Franja de 15 minutos con sus asientos libres */
+    public record Franja(LocalTime horaInicio, LocalTime horaFin, int libres) {
+    }
+}
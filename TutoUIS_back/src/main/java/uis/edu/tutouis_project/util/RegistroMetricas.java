@@ -0,0 +1,200 @@
+package uis.edu.tutouis_project.util;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Registro de métricas en memoria (contadores y tiempos), sin dependencias externas.
+ * Usa LongAdder para que registrar desde muchos hilos no genere contención.
+ *
+ * Cada temporizador guarda además un histograma de cubetas fijas, del que salen los percentiles
+ * del resumen y las series _bucket del formato de texto de Prometheus (prometheus()).
+ */
+@Component
+public class RegistroMetricas {
+
+    /** Límites superiores de las cubetas de los histogramas, en milisegundos */
+    static final double[] CUBETAS_MS = {0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private static final Pattern NO_PERMITIDOS = Pattern.compile("[^a-zA-Z0-9_]+");
+
+    private final Map<String, LongAdder> contadores = new ConcurrentHashMap<>();
+    private final Map<String, Temporizador> temporizadores = new ConcurrentHashMap<>();
+
+    public void incrementar(String nombre) {
+        incrementar(nombre, 1);
+    }
+
+    public void incrementar(String nombre, long cantidad) {
+        contadores.computeIfAbsent(nombre, n -> new LongAdder()).add(cantidad);
+    }
+
+    /**
+     * Registra la duración de una operación en nanosegundos
+     */
+    public void registrarTiempo(String nombre, long nanos) {
+        temporizadores.computeIfAbsent(nombre, n -> new Temporizador()).registrar(nanos);
+    }
+
+    public long obtenerContador(String nombre) {
+        LongAdder contador = contadores.get(nombre);
+        return contador != null ? contador.sum() : 0;
+    }
+
+    public Temporizador obtenerTemporizador(String nombre) {
+        return temporizadores.get(nombre);
+    }
+
+    /**
+     * Vista ordenada de todas las métricas: contadores como número y tiempos como
+     * {cuenta, promedioMs, maximoMs, p50Ms, p95Ms, p99Ms}
+     */
+    public Map<String, Object> resumen() {
+        Map<String, Object> resumen = new TreeMap<>();
+        contadores.forEach((nombre, contador) -> resumen.put(nombre, contador.sum()));
+        temporizadores.forEach((nombre, temporizador) -> resumen.put(nombre, temporizador.resumen()));
+        return resumen;
+    }
+
+    /**
+     * Todas las métricas en el formato de texto de Prometheus (versión 0.0.4), con el prefijo tutouis_.
+     * Los contadores salen como counter (_total) y los temporizadores como histogram en segundos.
+     * Los nombres se normalizan: todo lo que no sea letra, dígito o _ pasa a _
+     */
+    public String prometheus() {
+        StringBuilder texto = new StringBuilder();
+        new TreeMap<>(contadores).forEach((nombre, contador) -> {
+            String metrica = nombrePrometheus(nombre) + "_total";
+            texto.append("# TYPE ").append(metrica).append(" counter\n");
+            texto.append(metrica).append(' ').append(contador.sum()).append('\n');
+        });
+        new TreeMap<>(temporizadores).forEach((nombre, temporizador) -> {
+            String metrica = nombrePrometheus(nombre) + "_seconds";
+            texto.append("# TYPE ").append(metrica).append(" histogram\n");
+            long[] cubetas = temporizador.cubetas();
+            long acumulado = 0;
+            for (int i = 0; i < CUBETAS_MS.length; i++) {
+                acumulado += cubetas[i];
+                texto.append(metrica).append("_bucket{le=\"").append(numero(CUBETAS_MS[i] / 1000.0)).append("\"} ")
+                        .append(acumulado).append('\n');
+            }
+            acumulado += cubetas[CUBETAS_MS.length];
+            // La cuenta se toma de las cubetas para que _count y +Inf coincidan aunque se registre en paralelo
+            texto.append(metrica).append("_bucket{le=\"+Inf\"} ").append(acumulado).append('\n');
+            texto.append(metrica).append("_sum ").append(numero(temporizador.getTotalNanos() / 1e9)).append('\n');
+            texto.append(metrica).append("_count ").append(acumulado).append('\n');
+        });
+        return texto.toString();
+    }
+
+    static String nombrePrometheus(String nombre) {
+        String limpio = NO_PERMITIDOS.matcher(nombre).replaceAll("_");
+        if (limpio.endsWith("_")) {
+            limpio = limpio.substring(0, limpio.length() - 1);
+        }
+        return "tutouis_" + limpio;
+    }
+
+    private static String numero(double valor) {
+        return BigDecimal.valueOf(valor).stripTrailingZeros().toPlainString();
+    }
+
+    public static final class Temporizador {
+
+        private final LongAdder cuenta = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+        /** Una cubeta por límite de CUBETAS_MS más la de los valores mayores al último */
+        private final LongAdder[] cubetas = new LongAdder[CUBETAS_MS.length + 1];
+
+        Temporizador() {
+            for (int i = 0; i < cubetas.length; i++) {
+                cubetas[i] = new LongAdder();
+            }
+        }
+
+        void registrar(long nanos) {
+            cuenta.increment();
+            totalNanos.add(nanos);
+            maximoNanos.accumulate(nanos);
+            cubetas[cubeta(nanos)].increment();
+        }
+
+        private static int cubeta(long nanos) {
+            double ms = nanos / 1_000_000.0;
+            int i = 0;
+            while (i < CUBETAS_MS.length && ms > CUBETAS_MS[i]) {
+                i++;
+            }
+            return i;
+        }
+
+        long[] cubetas() {
+            long[] valores = new long[cubetas.length];
+            for (int i = 0; i < cubetas.length; i++) {
+                valores[i] = cubetas[i].sum();
+            }
+            return valores;
+        }
+
+        public long getCuenta() {
+            return cuenta.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaximoNanos() {
+            return maximoNanos.get();
+        }
+
+        /**
+         * Percentil estimado desde el histograma, interpolando dentro de la cubeta
+         * (el error queda acotado por el ancho de la cubeta y nunca supera el máximo observado)
+         * @param cuantil entre 0 y 1, por ejemplo 0.95
+         */
+        public double percentilMs(double cuantil) {
+            long[] valores = cubetas();
+            long total = 0;
+            for (long valor : valores) {
+                total += valor;
+            }
+            if (total == 0) {
+                return 0.0;
+            }
+            double maximoMs = maximoNanos.get() / 1_000_000.0;
+            double objetivo = cuantil * total;
+            long acumulado = 0;
+            for (int i = 0; i < valores.length; i++) {
+                if (valores[i] > 0 && acumulado + valores[i] >= objetivo) {
+                    double desde = i == 0 ? 0.0 : CUBETAS_MS[i - 1];
+                    double hasta = i < CUBETAS_MS.length ? CUBETAS_MS[i] : maximoMs;
+                    double estimado = desde + (hasta - desde) * (objetivo - acumulado) / valores[i];
+                    return Math.min(estimado, maximoMs);
+                }
+                acumulado += valores[i];
+            }
+            return maximoMs;
+        }
+
+        Map<String, Object> resumen() {
+            long n = cuenta.sum();
+            Map<String, Object> datos = new TreeMap<>();
+            datos.put("cuenta", n);
+            datos.put("promedioMs", n == 0 ? 0.0 : totalNanos.sum() / (double) n / 1_000_000.0);
+            datos.put("maximoMs", maximoNanos.get() / 1_000_000.0);
+            datos.put("p50Ms", percentilMs(0.50));
+            datos.put("p95Ms", percentilMs(0.95));
+            datos.put("p99Ms", percentilMs(0.99));
+            return datos;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Índices de las consultas frecuentes de ReservaRepository, DisponibilidadRepository y TutoriaRepository.
+-- Hibernate (ddl-auto=update) no los crea: solo los índices de las claves foráneas, y no en todos los casos.
+
+-- Reservas de un estudiante por estado (findByIdEstudianteAndIdEstado, findReservasRealizadasDeEstudiante,
+-- findReservasNoAsistidasDeEstudiante) y la validación de reserva activa en una disponibilidad
+CREATE INDEX idx_reserva_estudiante_estado ON reserva (id_estudiante, id_estado, id_disponibilidad);
+
+-- Reservas activas de una disponibilidad. Cubre countReservasActivasPorDisponibilidad, findFranjasActivas
+-- (horaInicio, idEstudiante) y los conteos de reconciliarAforos sin leer las filas de la tabla
+CREATE INDEX idx_reserva_disponibilidad_estado ON reserva (id_disponibilidad, id_estado, hora_inicio, id_estudiante);
+
+-- Sesiones de una tutoría por fecha y hora. Cubre findHorariosActivosDeTutor y findHorariosDeTutorias
+CREATE INDEX idx_disponibilidad_tutoria_fecha ON disponibilidad (id_tutoria, fecha, hora_inicio, hora_fin, id_estado);
+
+-- Ventana de fechas del buscador de franjas (findParaBuscador)
+CREATE INDEX idx_disponibilidad_fecha ON disponibilidad (fecha);
+
+-- Tutorías de un tutor (findByIdTutor, findHorariosActivosDeTutor, findReservasDeHoyPorTutor)
+CREATE INDEX idx_tutoria_tutor ON tutoria (id_tutor, id_estado_tutoria);
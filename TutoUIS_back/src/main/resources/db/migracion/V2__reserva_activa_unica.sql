@@ -0,0 +1,25 @@
+-- Una sola reserva activa por estudiante en cada franja de una disponibilidad, garantizada por la base de datos
+-- aunque dos peticiones (o dos instancias) pasen a la vez la validación en memoria de AsignadorCupos.
+-- MySQL no tiene índices parciales: la columna generada vale 1 en las reservas activas y NULL en las demás,
+-- y como los NULL no chocan en un índice único, las canceladas, realizadas y no asistidas no cuentan.
+
+-- Los duplicados que ya existan impedirían crear el índice: se cancela todo menos la reserva más antigua.
+-- El aforo se corrige al arrancar (reconciliarAforos) y las estadísticas con la verificación nocturna
+UPDATE reserva r
+JOIN (
+    SELECT id_disponibilidad, hora_inicio, id_estudiante, MIN(id_reserva) AS conservar
+    FROM reserva
+    WHERE id_estado = 1
+    GROUP BY id_disponibilidad, hora_inicio, id_estudiante
+    HAVING COUNT(*) > 1
+) duplicadas ON r.id_disponibilidad = duplicadas.id_disponibilidad
+    AND r.hora_inicio = duplicadas.hora_inicio
+    AND r.id_estudiante = duplicadas.id_estudiante
+SET r.id_estado = 2,
+    r.razon_cancelacion = 'Reserva duplicada del mismo horario',
+    r.fecha_cancelacion = NOW()
+WHERE r.id_estado = 1 AND r.id_reserva > duplicadas.conservar;
+
+ALTER TABLE reserva ADD COLUMN activa TINYINT GENERATED ALWAYS AS (IF(id_estado = 1, 1, NULL)) VIRTUAL;
+
+CREATE UNIQUE INDEX uk_reserva_activa_franja ON reserva (id_disponibilidad, hora_inicio, id_estudiante, activa);
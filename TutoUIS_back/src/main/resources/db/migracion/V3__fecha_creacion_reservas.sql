@@ -0,0 +1,15 @@
+-- El listado paginado y la exportación ordenan por (fecha_creacion, id_reserva), y un NULL no entra en el
+-- cursor: las reservas antiguas creadas antes de que se guardara la fecha quedaban fuera de ambos.
+-- Se les asigna la fecha más temprana que se conoce de ellas: la cancelación o el inicio de la sesión,
+-- lo que haya ocurrido primero (la reserva se creó antes de cualquiera de los dos)
+UPDATE reserva r
+LEFT JOIN disponibilidad d ON r.id_disponibilidad = d.id_disponibilidad
+SET r.fecha_creacion = COALESCE(
+        LEAST(r.fecha_cancelacion, TIMESTAMP(d.fecha, r.hora_inicio)),
+        r.fecha_cancelacion,
+        TIMESTAMP(d.fecha, r.hora_inicio),
+        NOW())
+WHERE r.fecha_creacion IS NULL;
+
+-- Desde aquí la base de datos no admite reservas sin fecha de creación
+ALTER TABLE reserva MODIFY fecha_creacion DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
@@ -0,0 +1,5 @@
+-- Orden y cursor del listado paginado y de la exportación de reservas (findPaginaReservasConDetalles,
+-- streamReservasConDetalles): ORDER BY fecha_creacion DESC, id_reserva DESC sin ordenar en memoria.
+-- Va después de V3, que deja fecha_creacion sin NULL. En las bases donde ddl-auto ya lo había creado
+-- desde la entidad, MySQL responde que el índice existe y el migrador sigue
+CREATE INDEX idx_reserva_fecha_creacion_id ON reserva (fecha_creacion, id_reserva);
@@ -0,0 +1,75 @@
+package uis.edu.tutouis_project.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FiltroMuestreoLogsTest {
+
+    private final LoggerContext contexto = new LoggerContext();
+    private FiltroMuestreoLogs filtro;
+    private long ahora;
+
+    @BeforeEach
+    void configurar() {
+        filtro = new FiltroMuestreoLogs();
+        filtro.setContext(contexto);
+        filtro.setLimitePorSegundo(3);
+        filtro.setLimites("muestreo.sql=1, muestreo.sql.detalle=0, muestreo.malo=x");
+        filtro.reloj = () -> ahora;
+        filtro.start();
+        ahora = 10_000;
+    }
+
+    @Test
+    void superadoElLimiteSeDescartaHastaElSiguienteSegundo() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(evento("muestreo.reservas", Level.DEBUG)));
+        }
+        assertEquals(FilterReply.DENY, filtro.decide(evento("muestreo.reservas", Level.INFO)));
+        assertEquals(FilterReply.DENY, filtro.decide(evento("muestreo.reservas", Level.DEBUG)));
+        // Otro logger tiene su propia ventana
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(evento("muestreo.tutorias", Level.INFO)));
+
+        ahora += 1_000;
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(evento("muestreo.reservas", Level.INFO)));
+        assertEquals(2L, FiltroMuestreoLogs.descartados().get("muestreo.reservas"));
+    }
+
+    @Test
+    void lasAdvertenciasYErroresNuncaSeDescartan() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(evento("muestreo.errores", Level.WARN)));
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(evento("muestreo.errores", Level.ERROR)));
+        }
+    }
+
+    @Test
+    void gananLosLimitesDelPrefijoMasLargo() {
+        assertEquals(1, filtro.limiteDe("muestreo.sql"));
+        assertEquals(1, filtro.limiteDe("muestreo.sql.Consulta"));
+        assertEquals(0, filtro.limiteDe("muestreo.sql.detalle.Bind"));
+        assertEquals(3, filtro.limiteDe("muestreo.sqlite"));
+        assertEquals(3, filtro.limiteDe("muestreo.malo"));
+
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(evento("muestreo.sql", Level.DEBUG)));
+        assertEquals(FilterReply.DENY, filtro.decide(evento("muestreo.sql", Level.DEBUG)));
+        // Límite 0: sin límite
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, filtro.decide(evento("muestreo.sql.detalle", Level.TRACE)));
+        }
+    }
+
+    private LoggingEvent evento(String logger, Level nivel) {
+        LoggingEvent evento = new LoggingEvent();
+        evento.setLoggerName(logger);
+        evento.setLevel(nivel);
+        evento.setMessage("mensaje");
+        return evento;
+    }
+}
@@ -0,0 +1,65 @@
+package uis.edu.tutouis_project.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimitePeticionesFilterTest {
+
+    private final RegistroMetricas metricas = new RegistroMetricas();
+
+    @Test
+    void sinTurnoLibreRespondeSobrecargaYAlTerminarLoDevuelve() throws Exception {
+        LimitePeticionesFilter filtro = nuevoFiltro(1);
+        AtomicReference<MockHttpServletResponse> anidada = new AtomicReference<>();
+
+        // La primera petición ocupa el único turno mientras llega la segunda
+        FilterChain ocupada = (request, response) -> {
+            MockHttpServletResponse respuesta = new MockHttpServletResponse();
+            filtro.doFilter(new MockHttpServletRequest("GET", "/api/reservas/list"), respuesta,
+                    (req, res) -> { });
+            anidada.set(respuesta);
+        };
+        MockHttpServletResponse primera = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("POST", "/api/reservas/"), primera, ocupada);
+
+        assertEquals(200, primera.getStatus());
+        assertEquals(503, anidada.get().getStatus());
+        assertEquals("1", anidada.get().getHeader("Retry-After"));
+        assertTrue(anidada.get().getContentAsString().contains("SOBRECARGA"));
+        assertEquals(1, metricas.obtenerContador("ejecucion.peticiones.rechazadas"));
+
+        // Liberado el turno, la siguiente pasa
+        MockHttpServletResponse tercera = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/reservas/list"), tercera, (req, res) -> { });
+        assertEquals(200, tercera.getStatus());
+        assertEquals(1, metricas.obtenerContador("ejecucion.peticiones.rechazadas"));
+    }
+
+    @Test
+    void elTurnoSeDevuelveAunqueLaPeticionFalle() throws Exception {
+        LimitePeticionesFilter filtro = nuevoFiltro(1);
+        assertThrows(IllegalStateException.class, () -> filtro.doFilter(
+                new MockHttpServletRequest("GET", "/api/reservas/list"), new MockHttpServletResponse(),
+                (req, res) -> { throw new IllegalStateException("falla en el controlador"); }));
+
+        MockHttpServletResponse siguiente = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/reservas/list"), siguiente, (req, res) -> { });
+        assertEquals(200, siguiente.getStatus());
+    }
+
+    private LimitePeticionesFilter nuevoFiltro(int maxConcurrentes) {
+        LimitePeticionesFilter filtro = new LimitePeticionesFilter(maxConcurrentes, 0);
+        ReflectionTestUtils.setField(filtro, "metricas", metricas);
+        return filtro;
+    }
+}
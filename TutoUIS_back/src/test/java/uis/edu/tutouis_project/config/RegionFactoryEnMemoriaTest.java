@@ -0,0 +1,52 @@
+package uis.edu.tutouis_project.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegionFactoryEnMemoriaTest {
+
+    @Test
+    void alLlenarseSeDescartaLaEntradaMenosUsada() {
+        RegionFactoryEnMemoria.Almacen almacen = new RegionFactoryEnMemoria.Almacen(2);
+        almacen.putIntoCache("rol:1", "ESTUDIANTE", null);
+        almacen.putIntoCache("rol:2", "TUTOR", null);
+
+        // Leer rol:1 lo vuelve el más reciente, así que sale rol:2
+        assertEquals("ESTUDIANTE", almacen.getFromCache("rol:1", null));
+        almacen.putIntoCache("rol:3", "ADMINISTRADOR", null);
+
+        assertEquals(2, almacen.tamano());
+        assertTrue(almacen.contains("rol:1"));
+        assertFalse(almacen.contains("rol:2"));
+        assertEquals("ADMINISTRADOR", almacen.getFromCache("rol:3", null));
+    }
+
+    @Test
+    void sinLimiteNoSePierdenEntradas() {
+        RegionFactoryEnMemoria.Almacen almacen = new RegionFactoryEnMemoria.Almacen(Integer.MAX_VALUE);
+        for (int i = 0; i < 50_000; i++) {
+            almacen.putIntoCache("tabla" + i, (long) i, null);
+        }
+
+        assertEquals(50_000, almacen.tamano());
+        assertEquals(0L, almacen.getFromCache("tabla0", null));
+    }
+
+    @Test
+    void vaciarQuitaUnaEntradaOTodas() {
+        RegionFactoryEnMemoria.Almacen almacen = new RegionFactoryEnMemoria.Almacen(10);
+        almacen.putIntoCache("carrera:1", "Sistemas", null);
+        almacen.putIntoCache("carrera:2", "Civil", null);
+
+        almacen.evictData("carrera:1");
+        assertNull(almacen.getFromCache("carrera:1", null));
+        assertEquals(1, almacen.tamano());
+
+        almacen.evictData();
+        assertEquals(0, almacen.tamano());
+    }
+}
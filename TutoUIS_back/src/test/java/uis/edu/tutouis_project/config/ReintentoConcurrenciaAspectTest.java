@@ -0,0 +1,95 @@
+package uis.edu.tutouis_project.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uis.edu.tutouis_project.exception.ConflictoConcurrenciaException;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReintentoConcurrenciaAspectTest {
+
+    private final RegistroMetricas metricas = new RegistroMetricas();
+    private final Operacion operacion = new Operacion();
+    private Operacion proxy;
+
+    @BeforeEach
+    void configurar() {
+        ReintentoConcurrenciaAspect aspecto = new ReintentoConcurrenciaAspect();
+        ReflectionTestUtils.setField(aspecto, "metricas", metricas);
+        ReflectionTestUtils.setField(aspecto, "maxIntentos", 3);
+        ReflectionTestUtils.setField(aspecto, "esperaBaseMs", 1L);
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(operacion);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(aspecto);
+        proxy = fabrica.getProxy();
+    }
+
+    @Test
+    void reintentaHastaQueElConflictoDesaparece() {
+        operacion.conflictosPendientes = 2;
+
+        assertEquals("ok", proxy.guardar());
+        assertEquals(3, operacion.llamadas.get());
+        assertEquals(2, metricas.obtenerContador("concurrencia.Operacion.guardar.conflictos"));
+        assertEquals(2, metricas.obtenerContador("concurrencia.Operacion.guardar.reintentos"));
+        assertEquals(1, metricas.obtenerContador("concurrencia.Operacion.guardar.recuperadas"));
+        assertEquals(0, metricas.obtenerContador("concurrencia.Operacion.guardar.agotadas"));
+    }
+
+    @Test
+    void alAgotarLosIntentosLanzaConflictoDeConcurrencia() {
+        operacion.conflictosPendientes = 10;
+
+        assertThrows(ConflictoConcurrenciaException.class, () -> proxy.guardar());
+        assertEquals(3, operacion.llamadas.get());
+        assertEquals(2, metricas.obtenerContador("concurrencia.Operacion.guardar.reintentos"));
+        assertEquals(1, metricas.obtenerContador("concurrencia.Operacion.guardar.agotadas"));
+    }
+
+    @Test
+    void noReintentaOtrosErroresNiDentroDeUnaTransaccionAbierta() {
+        operacion.error = new DataIntegrityViolationException("Duplicate entry");
+        assertThrows(DataIntegrityViolationException.class, () -> proxy.guardar());
+        assertEquals(1, operacion.llamadas.get());
+
+        // El conflicto sube hasta quien abrió la transacción, que es quien puede repetirla completa
+        operacion.error = null;
+        operacion.conflictosPendientes = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.guardar());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(2, operacion.llamadas.get());
+        assertEquals(0, metricas.obtenerContador("concurrencia.Operacion.guardar.reintentos"));
+    }
+
+    static class Operacion {
+        final AtomicInteger llamadas = new AtomicInteger();
+        int conflictosPendientes;
+        RuntimeException error;
+
+        @ReintentoConcurrencia
+        public String guardar() {
+            llamadas.incrementAndGet();
+            if (error != null) {
+                throw error;
+            }
+            if (conflictosPendientes > 0) {
+                conflictosPendientes--;
+                throw new ObjectOptimisticLockingFailureException(Operacion.class, 1);
+            }
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package uis.edu.tutouis_project.repositorio;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JdbcSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import uis.edu.tutouis_project.util.MigradorEsquema;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Ejecuta EXPLAIN sobre el SQL de cada @Query de ReservaRepository, DisponibilidadRepository y
+ * TutoriaRepository y falla si alguna recorre completa una tabla grande (type = ALL).
+ *
+ * Necesita un MySQL con datos: solo corre con TUTOUIS_EXPLAIN_URL definida (usuario y clave en
+ * TUTOUIS_EXPLAIN_USUARIO / TUTOUIS_EXPLAIN_CLAVE). Con tablas casi vacías el optimizador prefiere
+ * recorrerlas aunque exista el índice, así que conviene la base del generador de loadtest/:
+ *
+ *   TUTOUIS_EXPLAIN_URL='jdbc:mysql://localhost:3306/tutouis_carga' ./mvnw test -Dtest=PlanesConsultaTest
+ *
+ * Crea el esquema como la aplicación (Hibernate con ddl-auto=update y luego las migraciones), llama
+ * cada método con valores de ejemplo dentro de una transacción que se revierte, y explica cada
+ * sentencia que llegó al driver con los mismos parámetros.
+ */
+@EnabledIfEnvironmentVariable(named = "TUTOUIS_EXPLAIN_URL", matches = ".+")
+class PlanesConsultaTest {
+
+    /** Por debajo de estas filas estimadas un recorrido completo es más barato que el índice (catálogos, estados) */
+    private static final long FILAS_MINIMAS_RECORRIDO = 1_000;
+
+    /** Consultas que recorren la tabla por diseño */
+    private static final Map<String, String> RECORRIDOS_PERMITIDOS = Map.of(
+            "ReservaRepository.findAllWithDetails", "listado completo, sin filtro",
+            "DisponibilidadRepository.findAllWithDetails", "listado completo, sin filtro",
+            "DisponibilidadRepository.findByIdEstadoWithDetails", "casi todas las disponibilidades comparten estado",
+            "DisponibilidadRepository.reconciliarAforos", "revisa todas las disponibilidades una vez al arrancar",
+            "TutoriaRepository.findAllTutoriasWithDetails", "listado completo, sin filtro",
+            "TutoriaRepository.findIdsNoCanceladas", "recálculo completo de estados",
+            "TutoriaRepository.findIdsConFronterasPendientes", "reconstrucción de la cola de fronteras al arrancar");
+
+    private static DataSource dataSource;
+    private static SessionFactory sessionFactory;
+    private static final List<Ejecutada> ejecutadas = new ArrayList<>();
+
+    private record Ejecutada(String sql, List<Object[]> parametros) {
+    }
+
+    @BeforeAll
+    static void crearEsquema() {
+        DriverManagerDataSource mysql = new DriverManagerDataSource(System.getenv("TUTOUIS_EXPLAIN_URL"),
+                System.getenv().getOrDefault("TUTOUIS_EXPLAIN_USUARIO", "root"),
+                System.getenv().getOrDefault("TUTOUIS_EXPLAIN_CLAVE", ""));
+        dataSource = mysql;
+
+        Configuration configuracion = new Configuration();
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false);
+        escaner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        escaner.findCandidateComponents("uis.edu.tutouis_project.modelo").forEach(entidad -> {
+            try {
+                configuracion.addAnnotatedClass(Class.forName(entidad.getBeanClassName()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        configuracion.getProperties().put(JdbcSettings.JAKARTA_NON_JTA_DATASOURCE, new DataSourceRegistrador(mysql));
+        configuracion.setProperty(AvailableSettings.HBM2DDL_AUTO, "update");
+        configuracion.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+        configuracion.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        configuracion.setImplicitNamingStrategy(new SpringImplicitNamingStrategy());
+        sessionFactory = configuracion.buildSessionFactory();
+
+        new MigradorEsquema(mysql, "classpath:db/migracion/*.sql").migrar();
+    }
+
+    @AfterAll
+    static void cerrar() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    void ningunaConsultaRecorreCompletaUnaTablaGrande() throws Exception {
+        List<String> problemas = new ArrayList<>();
+        int revisadas = 0;
+        for (Class<?> repositorio : List.of(ReservaRepository.class, DisponibilidadRepository.class,
+                TutoriaRepository.class)) {
+            for (Method metodo : repositorio.getDeclaredMethods()) {
+                if (!metodo.isAnnotationPresent(Query.class)) {
+                    continue;
+                }
+                String nombre = repositorio.getSimpleName() + "." + metodo.getName();
+                for (Ejecutada sentencia : ejecutar(repositorio, metodo)) {
+                    problemas.addAll(recorridos(nombre, sentencia));
+                }
+                revisadas++;
+            }
+        }
+        assertTrue(revisadas > 0);
+        if (!problemas.isEmpty()) {
+            fail("Consultas que recorren tablas completas:\n" + String.join("\n", problemas));
+        }
+    }
+
+    /**
+     * Llama el método del repositorio con valores de ejemplo y retorna las sentencias que envió
+     */
+    private List<Ejecutada> ejecutar(Class<?> repositorio, Method metodo) throws Exception {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            Object proxy = new JpaRepositoryFactory(entityManager).getRepository(repositorio);
+            entityManager.getTransaction().begin();
+            synchronized (ejecutadas) {
+                ejecutadas.clear();
+            }
+            try {
+                Object resultado = metodo.invoke(proxy, ejemplos(metodo));
+                if (resultado instanceof Stream<?> stream) {
+                    stream.close();
+                }
+            } catch (InvocationTargetException e) {
+                throw new AssertionError(metodo.getName() + " falló con valores de ejemplo", e.getCause());
+            } finally {
+                entityManager.getTransaction().rollback();
+            }
+            synchronized (ejecutadas) {
+                return new ArrayList<>(ejecutadas);
+            }
+        }
+    }
+
+    private static Object[] ejemplos(Method metodo) {
+        Class<?>[] tipos = metodo.getParameterTypes();
+        Object[] valores = new Object[tipos.length];
+        for (int i = 0; i < tipos.length; i++) {
+            Class<?> tipo = tipos[i];
+            if (tipo == Integer.class || tipo == int.class) {
+                valores[i] = 1;
+            } else if (tipo == String.class) {
+                valores[i] = "explain";
+            } else if (tipo == Date.class) {
+                valores[i] = Date.valueOf(LocalDate.now());
+            } else if (tipo == Timestamp.class) {
+                valores[i] = new Timestamp(System.currentTimeMillis());
+            } else if (Collection.class.isAssignableFrom(tipo)) {
+                valores[i] = List.of(1, 2, 3);
+            } else if (tipo == Limit.class) {
+                valores[i] = Limit.of(20);
+            } else {
+                throw new IllegalStateException("Sin valor de ejemplo para " + tipo.getName() + " en " + metodo.getName());
+            }
+        }
+        return valores;
+    }
+
+    private List<String> recorridos(String nombre, Ejecutada sentencia) throws SQLException {
+        List<String> problemas = new ArrayList<>();
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement explain = conexion.prepareStatement("EXPLAIN " + sentencia.sql())) {
+            for (Object[] parametro : sentencia.parametros()) {
+                ((Method) parametro[0]).invoke(explain, (Object[]) parametro[1]);
+            }
+            try (ResultSet plan = explain.executeQuery()) {
+                while (plan.next()) {
+                    String tabla = plan.getString("table");
+                    long filas = plan.getLong("rows");
+                    if ("ALL".equals(plan.getString("type")) && filas >= FILAS_MINIMAS_RECORRIDO) {
+                        String motivo = RECORRIDOS_PERMITIDOS.get(nombre);
+                        if (motivo == null) {
+                            problemas.add(String.format("  %s: tabla %s, ~%d filas, índices posibles %s",
+                                    nombre, tabla, filas, plan.getString("possible_keys")));
+                        }
+                    }
+                }
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return problemas;
+    }
+
+    /**
+     * Guarda el SQL y los set* de cada sentencia preparada que ejecuta Hibernate para repetirlos en el EXPLAIN
+     */
+    private static final class DataSourceRegistrador extends DelegatingDataSource {
+
+        private DataSourceRegistrador(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection conexion = obtainTargetDataSource().getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, metodo, args) -> {
+                        Object resultado = invocar(conexion, metodo, args);
+                        if (metodo.getName().equals("prepareStatement")) {
+                            return registrar((PreparedStatement) resultado, (String) args[0]);
+                        }
+                        return resultado;
+                    });
+        }
+
+        private static PreparedStatement registrar(PreparedStatement sentencia, String sql) {
+            List<Object[]> parametros = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(DataSourceRegistrador.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, metodo, args) -> {
+                        String nombre = metodo.getName();
+                        if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            parametros.add(new Object[]{metodo, args.clone()});
+                        } else if (nombre.equals("clearParameters")) {
+                            parametros.clear();
+                        } else if (nombre.startsWith("execute") && (args == null || args.length == 0)) {
+                            synchronized (ejecutadas) {
+                                ejecutadas.add(new Ejecutada(sql, new ArrayList<>(parametros)));
+                            }
+                        }
+                        return invocar(sentencia, metodo, args);
+                    });
+        }
+
+        private static Object invocar(Object objeto, Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(objeto, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
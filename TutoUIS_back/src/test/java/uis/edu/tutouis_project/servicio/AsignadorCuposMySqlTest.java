@@ -0,0 +1,177 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.modelo.Reserva;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.ReservaRepository;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * La misma tormenta de AsignadorCuposTest, pero contra MySQL: el UPDATE condicional y el INSERT de la reserva
+ * van en una transacción real, y dos AsignadorCupos hacen de dos instancias de la aplicación cuyos contadores
+ * en memoria no se ven entre sí. Al final el aforo y las reservas activas no pueden pasar del aforo máximo.
+ *
+ * Usa la base de PlanesConsultaTest (TUTOUIS_EXPLAIN_URL, con TUTOUIS_EXPLAIN_USUARIO / TUTOUIS_EXPLAIN_CLAVE):
+ * necesita una tutoría y tantos usuarios como intentos, como los que deja el generador de loadtest/.
+ *
+ *   TUTOUIS_EXPLAIN_URL='jdbc:mysql://localhost:3306/tutouis_carga' ./mvnw test -Dtest=AsignadorCuposMySqlTest
+ *
+ * Crea una disponibilidad propia y la borra con sus reservas al terminar.
+ */
+@EnabledIfEnvironmentVariable(named = "TUTOUIS_EXPLAIN_URL", matches = ".+")
+class AsignadorCuposMySqlTest {
+
+    private static final int AFORO_MAXIMO = 5;
+    private static final int HILOS = 32;
+    private static final int INTENTOS = 200;
+    /** Uno de cada tantos intentos se revierte después de tomar el cupo */
+    private static final int CADA_CUANTOS_REVIERTE = 7;
+
+    private static MySqlDePrueba mysql;
+    private static JdbcTemplate jdbc;
+    private static TransactionTemplate transacciones;
+    private static DisponibilidadRepository disponibilidadRepository;
+    private static ReservaRepository reservaRepository;
+
+    private Integer idDisponibilidad;
+
+    @BeforeAll
+    static void crearEsquema() {
+        mysql = MySqlDePrueba.conectar();
+        jdbc = mysql.jdbc;
+        transacciones = mysql.transacciones;
+        disponibilidadRepository = mysql.repositorio(DisponibilidadRepository.class);
+        reservaRepository = mysql.repositorio(ReservaRepository.class);
+    }
+
+    @AfterAll
+    static void cerrar() {
+        if (mysql != null) {
+            mysql.close();
+        }
+    }
+
+    @AfterEach
+    void borrarDisponibilidad() {
+        if (idDisponibilidad != null) {
+            jdbc.update("DELETE FROM reserva WHERE id_disponibilidad = ?", idDisponibilidad);
+            jdbc.update("DELETE FROM disponibilidad WHERE id_disponibilidad = ?", idDisponibilidad);
+        }
+    }
+
+    @Test
+    void tormentaDeReservasEnDosInstanciasNoSobrevendeCupos() throws Exception {
+        List<Integer> tutorias = jdbc.queryForList("SELECT id_tutoria FROM tutoria LIMIT 1", Integer.class);
+        List<Integer> estudiantes = jdbc.queryForList("SELECT id_usuario FROM usuario LIMIT " + INTENTOS, Integer.class);
+        assumeTrue(!tutorias.isEmpty() && estudiantes.size() == INTENTOS,
+                "La base necesita una tutoría y " + INTENTOS + " usuarios (generador de loadtest/)");
+
+        LocalTime inicio = LocalTime.of(9, 0);
+        Disponibilidad nueva = new Disponibilidad(tutorias.get(0), Date.valueOf(LocalDate.now().plusYears(5)), "Lunes",
+                Time.valueOf(inicio), Time.valueOf(inicio.plusHours(1)), AFORO_MAXIMO);
+        idDisponibilidad = transacciones.execute(estado -> disponibilidadRepository.save(nueva).getIdDisponibilidad());
+
+        AsignadorCupos[] instancias = {nuevaInstancia(), nuevaInstancia()};
+        AtomicInteger siguiente = new AtomicInteger();
+        AtomicInteger confirmadas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            AsignadorCupos asignador = instancias[h % instancias.length];
+            tareas.add(hilos.submit(() -> {
+                largada.await();
+                for (int i = siguiente.getAndIncrement(); i < INTENTOS; i = siguiente.getAndIncrement()) {
+                    if (reservar(asignador, estudiantes.get(i), inicio, i % CADA_CUANTOS_REVIERTE == 0)) {
+                        confirmadas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        hilos.shutdown();
+
+        Map<String, Object> fila = jdbc.queryForMap(
+                "SELECT aforo, aforo_maximo FROM disponibilidad WHERE id_disponibilidad = ?", idDisponibilidad);
+        int aforo = ((Number) fila.get("aforo")).intValue();
+        int activas = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM reserva WHERE id_disponibilidad = ? AND id_estado = 1", Integer.class, idDisponibilidad);
+
+        assertEquals(AFORO_MAXIMO, ((Number) fila.get("aforo_maximo")).intValue());
+        assertTrue(aforo <= AFORO_MAXIMO, "aforo " + aforo + " supera el máximo");
+        assertTrue(activas <= AFORO_MAXIMO, activas + " reservas activas superan el máximo");
+        assertEquals(activas, aforo, "el aforo no coincide con las reservas activas");
+        assertEquals(confirmadas.get(), activas);
+        assertTrue(activas > 0);
+    }
+
+    /**
+     * Lo que hace ReservaService.crearReserva con el cupo: leer la disponibilidad, tomar el cupo y guardar la
+     * reserva en la misma transacción
+     * @return true si la reserva quedó confirmada
+     */
+    private boolean reservar(AsignadorCupos asignador, Integer idEstudiante, LocalTime inicio, boolean revertir) {
+        Boolean confirmada = transacciones.execute(estado -> {
+            Disponibilidad disponibilidad = disponibilidadRepository.findById(idDisponibilidad).orElseThrow();
+            if (!asignador.reservarCupo(disponibilidad)) {
+                return false;
+            }
+            Reserva reserva = new Reserva();
+            reserva.setIdDisponibilidad(idDisponibilidad);
+            reserva.setIdEstudiante(idEstudiante);
+            reserva.setIdEstado(1);
+            reserva.setHoraInicio(inicio);
+            reserva.setHoraFin(inicio.plusMinutes(15));
+            reserva.setModalidad("Presencial");
+            reserva.setFechaCreacion(new Timestamp(System.currentTimeMillis()));
+            reservaRepository.saveAndFlush(reserva);
+            if (revertir) {
+                estado.setRollbackOnly();
+                return false;
+            }
+            return true;
+        });
+        return Boolean.TRUE.equals(confirmada);
+    }
+
+    private static AsignadorCupos nuevaInstancia() {
+        AsignadorCupos asignador = new AsignadorCupos();
+        ReflectionTestUtils.setField(asignador, "disponibilidadRepository", disponibilidadRepository);
+        ReflectionTestUtils.setField(asignador, "reservaRepository", reservaRepository);
+        ReflectionTestUtils.setField(asignador, "buscadorFranjasService", mock(BuscadorFranjasService.class));
+        ReflectionTestUtils.setField(asignador, "metricas", new RegistroMetricas());
+        return asignador;
+    }
+}
@@ -0,0 +1,194 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.ReservaRepository;
+import uis.edu.tutouis_project.util.OcupacionFranjas;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsignadorCuposTest {
+
+    private static final int AFORO_MAXIMO = 8;
+
+    @Mock
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private BuscadorFranjasService buscadorFranjasService;
+
+    @InjectMocks
+    private AsignadorCupos asignadorCupos;
+
+    /**
+     * Simula la fila de la tabla disponibilidad: el UPDATE condicional es atómico igual que en MySQL
+     */
+    private final AtomicInteger aforoEnBd = new AtomicInteger();
+    private final AtomicInteger updatesEjecutados = new AtomicInteger();
+
+    @BeforeEach
+    void configurarBaseDeDatosSimulada() {
+        lenient().when(disponibilidadRepository.incrementarAforoSiHayCupo(anyInt())).thenAnswer(inv -> {
+            updatesEjecutados.incrementAndGet();
+            while (true) {
+                int actual = aforoEnBd.get();
+                if (actual >= AFORO_MAXIMO) {
+                    return 0;
+                }
+                if (aforoEnBd.compareAndSet(actual, actual + 1)) {
+                    return 1;
+                }
+            }
+        });
+        lenient().when(disponibilidadRepository.decrementarAforo(anyInt())).thenAnswer(inv -> {
+            int previo = aforoEnBd.getAndUpdate(actual -> actual > 0 ? actual - 1 : 0);
+            return previo > 0 ? 1 : 0;
+        });
+        lenient().when(disponibilidadRepository.findAforoById(anyInt())).thenAnswer(inv -> aforoEnBd.get());
+    }
+
+    @Test
+    void tormentaDeReservasNoSobrevendeCupos() throws Exception {
+        Disponibilidad disponibilidad = nuevaDisponibilidad(1);
+        int hilos = 64;
+        int intentosPorHilo = 50;
+
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        AtomicInteger asignados = new AtomicInteger();
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            tareas.add(pool.submit(() -> {
+                largada.await();
+                for (int i = 0; i < intentosPorHilo; i++) {
+                    if (asignadorCupos.reservarCupo(disponibilidad)) {
+                        asignados.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(AFORO_MAXIMO, asignados.get(), "Se asignaron más cupos que el aforo máximo");
+        assertEquals(AFORO_MAXIMO, aforoEnBd.get(), "El aforo en BD no coincide con los cupos asignados");
+        // El contador local corta la avalancha: casi todos los rechazos no llegan a la BD
+        assertTrue(updatesEjecutados.get() < hilos * intentosPorHilo / 10,
+                "Demasiados UPDATE contra la BD: " + updatesEjecutados.get());
+    }
+
+    @Test
+    void cupoLiberadoVuelveAEstarDisponible() {
+        Disponibilidad disponibilidad = nuevaDisponibilidad(2);
+        for (int i = 0; i < AFORO_MAXIMO; i++) {
+            assertTrue(asignadorCupos.reservarCupo(disponibilidad));
+        }
+        assertFalse(asignadorCupos.reservarCupo(disponibilidad));
+
+        asignadorCupos.liberarCupo(2);
+
+        assertTrue(asignadorCupos.reservarCupo(disponibilidad));
+        assertFalse(asignadorCupos.reservarCupo(disponibilidad));
+        assertEquals(AFORO_MAXIMO, aforoEnBd.get());
+    }
+
+    @Test
+    void contadorAtrasadoNuncaSupera() {
+        // La entidad se leyó cuando estaba vacía, pero otra instancia ya llenó la sesión
+        Disponibilidad disponibilidad = nuevaDisponibilidad(3);
+        aforoEnBd.set(AFORO_MAXIMO);
+
+        assertFalse(asignadorCupos.reservarCupo(disponibilidad));
+        assertFalse(asignadorCupos.reservarCupo(disponibilidad));
+        assertEquals(AFORO_MAXIMO, aforoEnBd.get());
+    }
+
+    @Test
+    void disponibilidadLlenaEnFranjasDistintasNoListaFranjasLibres() {
+        // 8 cupos en 2 horas: 8 franjas de 15 minutos, cada estudiante en una franja distinta
+        Disponibilidad disponibilidad = nuevaDisponibilidad(4);
+        for (int estudiante = 0; estudiante < AFORO_MAXIMO; estudiante++) {
+            LocalTime hora = LocalTime.of(8, 0).plusMinutes(15L * estudiante);
+            if (estudiante == AFORO_MAXIMO - 2) {
+                // Con dos cupos por tomar ninguna franja ofrece más de dos asientos
+                disponibilidad.setAforo(aforoEnBd.get());
+                assertTrue(asignadorCupos.franjasLibres(disponibilidad).stream()
+                        .allMatch(franja -> franja.libres() == 2));
+            }
+            assertEquals(AsignadorCupos.ResultadoFranja.TOMADA,
+                    asignadorCupos.tomarFranja(disponibilidad, 100 + estudiante, hora));
+            assertTrue(asignadorCupos.reservarCupo(disponibilidad));
+        }
+
+        disponibilidad.setAforo(aforoEnBd.get());
+        List<OcupacionFranjas.Franja> libres = asignadorCupos.franjasLibres(disponibilidad);
+
+        assertTrue(libres.isEmpty(), "La disponibilidad está llena y aún lista franjas: " + libres);
+        assertEquals(AsignadorCupos.ResultadoFranja.LLENA,
+                asignadorCupos.tomarFranja(disponibilidad, 200, LocalTime.of(8, 0)));
+        assertFalse(asignadorCupos.reservarCupo(disponibilidad));
+    }
+
+    @Test
+    void franjaLiberadaEnOtraInstanciaSeConfirmaContraLaBd() throws Exception {
+        Disponibilidad disponibilidad = nuevaDisponibilidad(5);
+        Object[] reservaActiva = {Time.valueOf("08:00:00"), 100};
+        // La primera lectura ve la reserva; después otra instancia la cancela
+        when(reservaRepository.findFranjasActivas(5)).thenReturn(List.<Object[]>of(reservaActiva), List.of());
+
+        assertEquals(AsignadorCupos.ResultadoFranja.YA_RESERVADA,
+                asignadorCupos.tomarFranja(disponibilidad, 100, LocalTime.of(8, 0)));
+        // Dentro del intervalo el rechazo local no vuelve a la BD
+        assertEquals(AsignadorCupos.ResultadoFranja.YA_RESERVADA,
+                asignadorCupos.tomarFranja(disponibilidad, 100, LocalTime.of(8, 0)));
+        verify(reservaRepository, times(1)).findFranjasActivas(5);
+
+        Thread.sleep(1100);
+
+        assertEquals(AsignadorCupos.ResultadoFranja.TOMADA,
+                asignadorCupos.tomarFranja(disponibilidad, 100, LocalTime.of(8, 0)));
+        verify(reservaRepository, times(2)).findFranjasActivas(5);
+    }
+
+    private Disponibilidad nuevaDisponibilidad(int id) {
+        Disponibilidad disponibilidad = new Disponibilidad(1, Date.valueOf("2025-11-18"), "Martes",
+                Time.valueOf("08:00:00"), Time.valueOf("10:00:00"), AFORO_MAXIMO);
+        disponibilidad.setIdDisponibilidad(id);
+        return disponibilidad;
+    }
+}
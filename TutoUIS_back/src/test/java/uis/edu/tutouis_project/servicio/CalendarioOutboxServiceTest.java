@@ -0,0 +1,203 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.modelo.EventoCalendarioOutbox;
+import uis.edu.tutouis_project.modelo.Reserva;
+import uis.edu.tutouis_project.modelo.Tutoria;
+import uis.edu.tutouis_project.modelo.Usuario;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.EventoCalendarioOutboxRepository;
+import uis.edu.tutouis_project.repositorio.ReservaRepository;
+import uis.edu.tutouis_project.repositorio.TutoriaRepository;
+import uis.edu.tutouis_project.repositorio.UsuarioRepository;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarioOutboxServiceTest {
+
+    @Mock
+    private EventoCalendarioOutboxRepository outboxRepository;
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Mock
+    private TutoriaRepository tutoriaRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Spy
+    private CalendarioStubService calendarioService;
+
+    @InjectMocks
+    private CalendarioOutboxService outboxService;
+
+    private RegistroMetricas metricas;
+
+    private Reserva reserva;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(outboxService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(outboxService, "tamanoLote", 20);
+        ReflectionTestUtils.setField(outboxService, "maxIntentos", 3);
+        ReflectionTestUtils.setField(outboxService, "backoffBaseMs", 1000L);
+        ReflectionTestUtils.setField(outboxService, "backoffMaxMs", 60000L);
+        ReflectionTestUtils.setField(outboxService, "leaseMs", 60000L);
+        metricas = new RegistroMetricas();
+        ReflectionTestUtils.setField(outboxService, "metricas", metricas);
+
+        reserva = new Reserva();
+        reserva.setIdReserva(10);
+        reserva.setIdDisponibilidad(5);
+        reserva.setIdEstudiante(100);
+        reserva.setIdEstado(1);
+        reserva.setModalidad("Virtual");
+        reserva.setHoraInicio(LocalTime.of(8, 0));
+        reserva.setHoraFin(LocalTime.of(8, 15));
+
+        Disponibilidad disponibilidad = new Disponibilidad(7, Date.valueOf("2025-11-18"), "Martes",
+                Time.valueOf("08:00:00"), Time.valueOf("10:00:00"), 8);
+        disponibilidad.setIdDisponibilidad(5);
+        Tutoria tutoria = new Tutoria(200, 1, "Aula 101", "Cálculo");
+        tutoria.setIdTutoria(7);
+
+        lenient().when(reservaRepository.findById(10)).thenAnswer(inv -> Optional.of(reserva));
+        lenient().when(disponibilidadRepository.findById(5)).thenReturn(Optional.of(disponibilidad));
+        lenient().when(tutoriaRepository.findById(7)).thenReturn(Optional.of(tutoria));
+        lenient().when(usuarioRepository.findById(100)).thenReturn(Optional.of(usuario("estudiante@uis.edu.co")));
+        lenient().when(usuarioRepository.findById(200)).thenReturn(Optional.of(usuario("tutor@uis.edu.co")));
+    }
+
+    @Test
+    void creacionCompletaLaReservaConElEvento() {
+        EventoCalendarioOutbox evento = pendiente(EventoCalendarioOutbox.OPERACION_CREAR, null);
+        when(reservaRepository.actualizarDatosCalendario(eq(10), anyString(), anyString())).thenReturn(1);
+
+        assertEquals(1, outboxService.despacharPendientes());
+
+        assertEquals(EventoCalendarioOutbox.ESTADO_COMPLETADO, evento.getEstado());
+        assertNotNull(evento.getGoogleEventId());
+        assertTrue(calendarioService.getEventosActivos().contains(evento.getGoogleEventId()));
+        verify(reservaRepository).actualizarDatosCalendario(eq(10), eq(evento.getGoogleEventId()),
+                startsWith("https://meet.google.com/"));
+        verify(outboxRepository).saveAll(List.of(evento));
+    }
+
+    @Test
+    void falloDelCalendarioSeReintentaConBackoffHastaAgotarIntentos() {
+        EventoCalendarioOutbox evento = pendiente(EventoCalendarioOutbox.OPERACION_CREAR, null);
+        doThrow(new RuntimeException("503 Service Unavailable")).when(calendarioService)
+                .crearEventoCalendar(anyString(), anyString(), any(), any(), any(), anyString(), anyString(), eq(true));
+
+        long antes = System.currentTimeMillis();
+        outboxService.despacharPendientes();
+
+        assertEquals(EventoCalendarioOutbox.ESTADO_PENDIENTE, evento.getEstado());
+        assertEquals(1, evento.getIntentos());
+        assertEquals("503 Service Unavailable", evento.getUltimoError());
+        assertTrue(evento.getProximoIntento().getTime() >= antes + 1000, "El reintento debe esperar al menos el backoff base");
+
+        outboxService.despacharPendientes();
+        assertTrue(evento.getProximoIntento().getTime() >= antes + 2000, "El backoff debe crecer con cada intento");
+
+        outboxService.despacharPendientes();
+        assertEquals(EventoCalendarioOutbox.ESTADO_FALLIDO, evento.getEstado());
+        assertEquals(3, evento.getIntentos());
+        assertEquals(3, metricas.obtenerContador("calendario.fallos"));
+        assertEquals(1, metricas.obtenerContador("calendario.fallos.definitivos"));
+    }
+
+    @Test
+    void reservaCanceladaMientrasSeCreabaNoDejaEventoHuerfano() {
+        EventoCalendarioOutbox evento = pendiente(EventoCalendarioOutbox.OPERACION_CREAR, null);
+        when(reservaRepository.actualizarDatosCalendario(eq(10), anyString(), any())).thenReturn(0);
+
+        outboxService.despacharPendientes();
+
+        assertEquals(EventoCalendarioOutbox.ESTADO_DESCARTADO, evento.getEstado());
+        assertTrue(calendarioService.getEventosActivos().isEmpty());
+        assertEquals(List.of(evento.getGoogleEventId()), calendarioService.getEventosEliminados());
+    }
+
+    @Test
+    void eliminacionResuelveElEventoDesdeLaReserva() {
+        reserva.setIdEstado(2);
+        reserva.setGoogleEventId("evento-existente");
+        EventoCalendarioOutbox evento = pendiente(EventoCalendarioOutbox.OPERACION_ELIMINAR, null);
+
+        outboxService.despacharPendientes();
+
+        assertEquals(EventoCalendarioOutbox.ESTADO_COMPLETADO, evento.getEstado());
+        assertEquals(List.of("evento-existente"), calendarioService.getEventosEliminados());
+    }
+
+    @Test
+    void eliminacionesMasivasSalenEnUnSoloLote() {
+        List<EventoCalendarioOutbox> lote = List.of(
+                nuevoEvento(1L, EventoCalendarioOutbox.OPERACION_ELIMINAR, "evento-1"),
+                nuevoEvento(2L, EventoCalendarioOutbox.OPERACION_ELIMINAR, "evento-2"),
+                nuevoEvento(3L, EventoCalendarioOutbox.OPERACION_ELIMINAR, "evento-3"));
+        when(outboxRepository.findPendientesParaProcesar(any(), any())).thenReturn(lote);
+
+        assertEquals(3, outboxService.despacharPendientes());
+
+        assertEquals(1, calendarioService.getLotesEjecutados());
+        assertEquals(List.of("evento-1", "evento-2", "evento-3"), calendarioService.getEventosEliminados());
+        lote.forEach(evento -> assertEquals(EventoCalendarioOutbox.ESTADO_COMPLETADO, evento.getEstado()));
+    }
+
+    private EventoCalendarioOutbox nuevoEvento(Long idEvento, String operacion, String googleEventId) {
+        EventoCalendarioOutbox evento = new EventoCalendarioOutbox(10, operacion, googleEventId);
+        evento.setIdEvento(idEvento);
+        return evento;
+    }
+
+    private EventoCalendarioOutbox pendiente(String operacion, String googleEventId) {
+        EventoCalendarioOutbox evento = nuevoEvento(1L, operacion, googleEventId);
+        // Simula la consulta con SKIP LOCKED: devuelve el evento solo mientras siga pendiente
+        lenient().when(outboxRepository.findPendientesParaProcesar(any(), any())).thenAnswer(inv ->
+                EventoCalendarioOutbox.ESTADO_PENDIENTE.equals(evento.getEstado()) ? List.of(evento) : List.of());
+        return evento;
+    }
+
+    private Usuario usuario(String correo) {
+        Usuario usuario = new Usuario();
+        usuario.setCorreo(correo);
+        return usuario;
+    }
+}
@@ -0,0 +1,132 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.modelo.EstadisticaEstudiante;
+import uis.edu.tutouis_project.repositorio.EstadisticaEstudianteRepository;
+import uis.edu.tutouis_project.repositorio.EstadisticaReservaRepository;
+import uis.edu.tutouis_project.servicio.impl.ReporteCacheService;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstadisticasReservaServiceTest {
+
+    private static final Date DIA = Date.valueOf("2025-11-07");
+
+    @Mock
+    private EstadisticaReservaRepository estadisticaReservaRepository;
+
+    @Mock
+    private EstadisticaEstudianteRepository estadisticaEstudianteRepository;
+
+    @Mock
+    private ReporteCacheService reporteCacheService;
+
+    @InjectMocks
+    private EstadisticasReservaService estadisticasReservaService;
+
+    private RegistroMetricas metricas;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(estadisticasReservaService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        metricas = new RegistroMetricas();
+        ReflectionTestUtils.setField(estadisticasReservaService, "metricas", metricas);
+    }
+
+    @Test
+    void registrarReservaSumaAlGrupoYAlEstudiante() {
+        when(estadisticaReservaRepository.agregadoDeReserva(10)).thenReturn(filas(fila(3, 1, 2, 4, 7, 1, 60)));
+
+        estadisticasReservaService.registrarReserva(10);
+
+        verify(estadisticaReservaRepository).acumular(DIA, 3, 1, 2, 4, 1L, 60L);
+        verify(estadisticaEstudianteRepository).acumular(7, 1L);
+        verify(reporteCacheService).invalidar();
+    }
+
+    @Test
+    void cambiarEstadoMueveLaReservaDeGrupoSinTocarAlEstudiante() {
+        when(estadisticaReservaRepository.agregadoDeReserva(10)).thenReturn(filas(fila(3, 1, 2, 4, 7, 1, 60)));
+
+        estadisticasReservaService.cambiarEstado(10, 2);
+
+        verify(estadisticaReservaRepository).acumular(DIA, 3, 1, 2, 4, -1L, -60L);
+        verify(estadisticaReservaRepository).acumular(DIA, 3, 2, 2, 4, 1L, 60L);
+        verify(estadisticaEstudianteRepository, never()).acumular(anyInt(), anyLong());
+    }
+
+    @Test
+    void cambiarAlMismoEstadoNoEscribe() {
+        when(estadisticaReservaRepository.agregadoDeReserva(10)).thenReturn(filas(fila(3, 2, 2, 4, 7, 1, 60)));
+
+        estadisticasReservaService.cambiarEstado(10, 2);
+
+        verify(estadisticaReservaRepository, never()).acumular(any(), any(), any(), any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void verificacionCorrigeSoloLosGruposDesviados() {
+        when(estadisticaReservaRepository.agregadoCompleto()).thenReturn(filas(
+                fila(3, 1, 2, 4, null, 5, 300),
+                fila(3, 3, 2, 4, null, 2, 120)));
+        when(estadisticaReservaRepository.findAcumulados()).thenReturn(filas(
+                fila(3, 1, 2, 4, null, 5, 300),
+                fila(3, 3, 2, 4, null, 1, 60),
+                fila(8, 4, 6, 9, null, 1, 45)));
+        when(estadisticaEstudianteRepository.contarReservasPorEstudiante())
+                .thenReturn(filas(new Object[]{7, 7L}));
+        when(estadisticaEstudianteRepository.findAll()).thenReturn(List.of(estudiante(7, 7L)));
+
+        int desvios = estadisticasReservaService.verificar();
+
+        assertEquals(2, desvios);
+        verify(estadisticaReservaRepository).acumular(DIA, 3, 3, 2, 4, 1L, 60L);
+        verify(estadisticaReservaRepository).acumular(DIA, 8, 4, 6, 9, -1L, -45L);
+        verify(estadisticaReservaRepository, never()).acumular(DIA, 3, 1, 2, 4, 0L, 0L);
+        verify(estadisticaEstudianteRepository, never()).acumular(anyInt(), anyLong());
+        verify(estadisticaReservaRepository).eliminarVacios();
+        assertEquals(2, metricas.obtenerContador("reportes.estadisticas.desvios"));
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    /** Fila con los tipos que entrega el driver de MySQL para las consultas nativas */
+    private static Object[] fila(int asignatura, int estado, int dia, int franja, Integer estudiante,
+                                 long reservas, long minutos) {
+        return new Object[]{DIA, asignatura, estado, dia, BigInteger.valueOf(franja), estudiante,
+                reservas, BigDecimal.valueOf(minutos)};
+    }
+
+    private static EstadisticaEstudiante estudiante(int id, long reservas) {
+        EstadisticaEstudiante estudiante = new EstadisticaEstudiante();
+        estudiante.setIdEstudiante(id);
+        estudiante.setReservas(reservas);
+        return estudiante;
+    }
+}
@@ -0,0 +1,75 @@
+package uis.edu.tutouis_project.servicio;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.cfg.JdbcSettings;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.util.MigradorEsquema;
+
+/**
+ * Base MySQL de las pruebas de concurrencia (TUTOUIS_EXPLAIN_URL, con TUTOUIS_EXPLAIN_USUARIO /
+ * TUTOUIS_EXPLAIN_CLAVE): las entidades con el mismo nombrado de Spring Boot, ddl-auto=update y las migraciones,
+ * y repositorios sobre el EntityManager de la transacción en curso, como en la aplicación.
+ */
+final class MySqlDePrueba implements AutoCloseable {
+
+    final JdbcTemplate jdbc;
+    final TransactionTemplate transacciones;
+
+    private final SessionFactory sessionFactory;
+    private final JpaRepositoryFactory fabrica;
+
+    private MySqlDePrueba(DriverManagerDataSource mysql, SessionFactory sessionFactory) {
+        this.jdbc = new JdbcTemplate(mysql);
+        this.sessionFactory = sessionFactory;
+        EntityManager compartido = SharedEntityManagerCreator.createSharedEntityManager(sessionFactory);
+        this.fabrica = new JpaRepositoryFactory(compartido);
+        this.transacciones = new TransactionTemplate(new JpaTransactionManager(sessionFactory));
+    }
+
+    static MySqlDePrueba conectar() {
+        DriverManagerDataSource mysql = new DriverManagerDataSource(System.getenv("TUTOUIS_EXPLAIN_URL"),
+                System.getenv().getOrDefault("TUTOUIS_EXPLAIN_USUARIO", "root"),
+                System.getenv().getOrDefault("TUTOUIS_EXPLAIN_CLAVE", ""));
+
+        Configuration configuracion = new Configuration();
+        ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false);
+        escaner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+        escaner.findCandidateComponents("uis.edu.tutouis_project.modelo").forEach(entidad -> {
+            try {
+                configuracion.addAnnotatedClass(Class.forName(entidad.getBeanClassName()));
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        configuracion.getProperties().put(JdbcSettings.JAKARTA_NON_JTA_DATASOURCE, mysql);
+        configuracion.setProperty(AvailableSettings.HBM2DDL_AUTO, "update");
+        configuracion.setProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+        configuracion.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        configuracion.setImplicitNamingStrategy(new SpringImplicitNamingStrategy());
+        SessionFactory sessionFactory = configuracion.buildSessionFactory();
+        new MigradorEsquema(mysql, "classpath:db/migracion/*.sql").migrar();
+        return new MySqlDePrueba(mysql, sessionFactory);
+    }
+
+    <T> T repositorio(Class<T> tipo) {
+        return fabrica.getRepository(tipo);
+    }
+
+    @Override
+    public void close() {
+        sessionFactory.close();
+    }
+}
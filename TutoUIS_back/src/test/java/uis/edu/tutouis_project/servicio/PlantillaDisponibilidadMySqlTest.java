@@ -0,0 +1,125 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.test.util.ReflectionTestUtils;
+import uis.edu.tutouis_project.modelo.PlantillaDisponibilidad;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.PlantillaDisponibilidadRepository;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Dos primeras reservas simultáneas de la misma sesión de plantilla, contra MySQL. Las dos transacciones toman
+ * su foto (REPEATABLE READ) antes de que exista la fila; una la guarda y la otra, al encontrar la clave única
+ * ocupada, no inserta nada y tiene que leer la fila que guardó la primera. Las dos deben terminar con el mismo id.
+ *
+ * Usa la base de AsignadorCuposMySqlTest (TUTOUIS_EXPLAIN_URL) y necesita una tutoría:
+ *
+ *   TUTOUIS_EXPLAIN_URL='jdbc:mysql://localhost:3306/tutouis_carga' ./mvnw test -Dtest=PlantillaDisponibilidadMySqlTest
+ *
+ * Crea una plantilla propia y la borra con su sesión al terminar.
+ */
+@EnabledIfEnvironmentVariable(named = "TUTOUIS_EXPLAIN_URL", matches = ".+")
+class PlantillaDisponibilidadMySqlTest {
+
+    private static MySqlDePrueba mysql;
+    private static PlantillaDisponibilidadRepository plantillaRepository;
+    private static DisponibilidadRepository disponibilidadRepository;
+
+    private Integer idPlantilla;
+
+    @BeforeAll
+    static void crearEsquema() {
+        mysql = MySqlDePrueba.conectar();
+        plantillaRepository = mysql.repositorio(PlantillaDisponibilidadRepository.class);
+        disponibilidadRepository = mysql.repositorio(DisponibilidadRepository.class);
+    }
+
+    @AfterAll
+    static void cerrar() {
+        if (mysql != null) {
+            mysql.close();
+        }
+    }
+
+    @AfterEach
+    void borrarPlantilla() {
+        if (idPlantilla != null) {
+            mysql.jdbc.update("DELETE FROM disponibilidad WHERE id_plantilla = ?", idPlantilla);
+            mysql.jdbc.update("DELETE FROM plantilla_disponibilidad_excepcion WHERE id_plantilla = ?", idPlantilla);
+            mysql.jdbc.update("DELETE FROM plantilla_disponibilidad WHERE id_plantilla = ?", idPlantilla);
+        }
+    }
+
+    @Test
+    void dosPrimerasReservasSimultaneasUsanLaMismaSesion() throws Exception {
+        List<Integer> tutorias = mysql.jdbc.queryForList("SELECT id_tutoria FROM tutoria LIMIT 1", Integer.class);
+        assumeTrue(!tutorias.isEmpty(), "La base necesita una tutoría (generador de loadtest/)");
+
+        LocalDate lunes = LocalDate.now().plusYears(5).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+        PlantillaDisponibilidad plantilla = new PlantillaDisponibilidad();
+        plantilla.setIdTutoria(tutorias.get(0));
+        plantilla.setDiaSemana("Lunes");
+        plantilla.setHoraInicio(Time.valueOf("09:00:00"));
+        plantilla.setHoraFin(Time.valueOf("10:00:00"));
+        plantilla.setFechaInicio(Date.valueOf(lunes));
+        plantilla.setFechaFin(Date.valueOf(lunes.plusWeeks(1)));
+        plantilla.setAforoMaximo(5);
+        plantilla.setIdEstado(1);
+        idPlantilla = mysql.transacciones.execute(estado -> plantillaRepository.save(plantilla).getIdPlantilla());
+
+        PlantillaDisponibilidadService servicio = new PlantillaDisponibilidadService();
+        ReflectionTestUtils.setField(servicio, "plantillaRepository", plantillaRepository);
+        ReflectionTestUtils.setField(servicio, "disponibilidadRepository", disponibilidadRepository);
+        ReflectionTestUtils.setField(servicio, "buscadorFranjasService", mock(BuscadorFranjasService.class));
+
+        CyclicBarrier fotosTomadas = new CyclicBarrier(2);
+        ExecutorService hilos = Executors.newFixedThreadPool(2);
+        List<Future<Integer>> ids = hilos.invokeAll(List.of(
+                () -> primeraReserva(servicio, lunes, fotosTomadas),
+                () -> primeraReserva(servicio, lunes, fotosTomadas)));
+        hilos.shutdown();
+
+        Integer primera = ids.get(0).get(1, TimeUnit.MINUTES);
+        Integer segunda = ids.get(1).get(1, TimeUnit.MINUTES);
+        assertNotNull(primera);
+        assertEquals(primera, segunda);
+        assertEquals(1, mysql.jdbc.queryForObject(
+                "SELECT COUNT(*) FROM disponibilidad WHERE id_plantilla = ?", Integer.class, idPlantilla));
+    }
+
+    /**
+     * Lo que hace ReservaService.crearReserva con una sesión de plantilla: la foto de la transacción se toma con la
+     * primera lectura, y las dos transacciones la tienen antes de que cualquiera guarde la sesión
+     */
+    private Integer primeraReserva(PlantillaDisponibilidadService servicio, LocalDate fecha, CyclicBarrier fotosTomadas) {
+        return mysql.transacciones.execute(estado -> {
+            plantillaRepository.findById(idPlantilla);
+            try {
+                fotosTomadas.await(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return servicio.materializar(idPlantilla, fecha).getIdDisponibilidad();
+        });
+    }
+}
@@ -0,0 +1,202 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uis.edu.tutouis_project.exception.ConflictoHorarioException;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.modelo.PlantillaDisponibilidad;
+import uis.edu.tutouis_project.modelo.Tutoria;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.PlantillaDisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.TutoriaRepository;
+import uis.edu.tutouis_project.util.IndiceHorarios;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PlantillaDisponibilidadServiceTest {
+
+    /** Lunes */
+    private static final LocalDate INICIO = LocalDate.of(2025, 11, 3);
+
+    @Mock
+    private PlantillaDisponibilidadRepository plantillaRepository;
+
+    @Mock
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Mock
+    private TutoriaRepository tutoriaRepository;
+
+    @Mock
+    private TutoriaEstadoService tutoriaEstadoService;
+
+    @Mock
+    private BuscadorFranjasService buscadorFranjasService;
+
+    @InjectMocks
+    private PlantillaDisponibilidadService plantillaService;
+
+    @Test
+    void fechasSaltaExcepcionesYRespetaLaVigencia() {
+        PlantillaDisponibilidad plantilla = plantilla("miercoles", INICIO, INICIO.plusWeeks(4), INICIO.plusDays(9));
+
+        List<LocalDate> fechas = PlantillaDisponibilidadService.fechas(plantilla, INICIO.minusWeeks(2), INICIO.plusWeeks(8));
+
+        assertEquals(List.of(INICIO.plusDays(2), INICIO.plusDays(16), INICIO.plusDays(23)), fechas);
+    }
+
+    @Test
+    void expandirCombinaSesionesGuardadasYVirtuales() {
+        PlantillaDisponibilidad plantilla = plantilla("Lunes", INICIO, INICIO.plusWeeks(10));
+        when(plantillaRepository.findVigentesEnRango(7, Date.valueOf(INICIO), Date.valueOf(INICIO.plusDays(20))))
+                .thenReturn(List.of(plantilla));
+        Disponibilidad guardada = new Disponibilidad(7, Date.valueOf(INICIO.plusWeeks(1)), "Lunes",
+                Time.valueOf("09:00:00"), Time.valueOf("10:00:00"), 4);
+        guardada.setIdDisponibilidad(50);
+        guardada.setIdPlantilla(3);
+        when(disponibilidadRepository.findMaterializadasDePlantillas(any(), any(), any())).thenReturn(List.of(guardada));
+
+        List<Disponibilidad> sesiones = plantillaService.expandir(7, INICIO, INICIO.plusDays(20));
+
+        assertEquals(3, sesiones.size());
+        assertNull(sesiones.get(0).getIdDisponibilidad());
+        assertEquals(50, sesiones.get(1).getIdDisponibilidad());
+        assertEquals(Date.valueOf(INICIO.plusWeeks(2)), sesiones.get(2).getFecha());
+        assertEquals(3, sesiones.get(2).getIdPlantilla());
+        assertEquals(0, sesiones.get(2).getAforo());
+    }
+
+    @Test
+    void expandirRechazaRangosDemasiadoLargos() {
+        assertThrows(IllegalArgumentException.class,
+                () -> plantillaService.expandir(null, INICIO, INICIO.plusYears(2)));
+        verify(plantillaRepository, never()).findVigentesEnRango(any(), any(), any());
+    }
+
+    @Test
+    void materializarRechazaFechasSinSesion() {
+        PlantillaDisponibilidad plantilla = plantilla("Lunes", INICIO, INICIO.plusWeeks(10), INICIO.plusWeeks(1));
+        when(plantillaRepository.findById(3)).thenReturn(Optional.of(plantilla));
+
+        assertThrows(IllegalArgumentException.class, () -> plantillaService.materializar(3, INICIO.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> plantillaService.materializar(3, INICIO.plusWeeks(1)));
+        verify(disponibilidadRepository, never()).materializarDesdePlantilla(anyInt(), any());
+    }
+
+    @Test
+    void materializarDevuelveLaFilaAunqueOtraPeticionLaHayaCreado() {
+        when(plantillaRepository.findById(3)).thenReturn(Optional.of(plantilla("Lunes", INICIO, INICIO.plusWeeks(10))));
+        Disponibilidad existente = new Disponibilidad();
+        existente.setIdDisponibilidad(50);
+        when(disponibilidadRepository.materializarDesdePlantilla(3, Date.valueOf(INICIO))).thenReturn(0);
+        when(disponibilidadRepository.findByIdPlantillaAndFecha(3, Date.valueOf(INICIO))).thenReturn(Optional.of(existente));
+
+        assertEquals(50, plantillaService.materializar(3, INICIO).getIdDisponibilidad());
+    }
+
+    @Test
+    void crearPlantillaRechazaSesionesQueSeCruzanConOtrosHorariosDelTutor() {
+        Tutoria tutoria = new Tutoria();
+        tutoria.setIdTutoria(7);
+        tutoria.setIdTutor(20);
+        when(tutoriaRepository.findById(7)).thenReturn(Optional.of(tutoria));
+        Date desde = Date.valueOf(INICIO);
+        Date hasta = Date.valueOf(INICIO.plusWeeks(4));
+
+        // Una disponibilidad guardada de otra tutoría del mismo tutor, el tercer lunes
+        when(disponibilidadRepository.findHorariosActivosDeTutor(20, desde, hasta)).thenReturn(List.<Object[]>of(
+                new Object[]{Date.valueOf(INICIO.plusWeeks(2)), Time.valueOf("09:30:00"), Time.valueOf("10:30:00")}));
+        ConflictoHorarioException conflicto = assertThrows(ConflictoHorarioException.class,
+                () -> plantillaService.crearPlantilla(plantilla("Lunes", INICIO, INICIO.plusWeeks(4))));
+        assertTrue(conflicto.getMessage().contains(INICIO.plusWeeks(2).toString()));
+
+        // Otra plantilla de lunes que se cruza sin tener sesiones guardadas
+        when(disponibilidadRepository.findHorariosActivosDeTutor(20, desde, hasta)).thenReturn(List.of());
+        PlantillaDisponibilidad otra = plantilla("Lunes", INICIO.minusWeeks(2), INICIO.plusWeeks(1));
+        otra.setIdPlantilla(4);
+        otra.setHoraInicio(Time.valueOf("08:30:00"));
+        otra.setHoraFin(Time.valueOf("09:15:00"));
+        when(plantillaRepository.findVigentesDeTutorEnRango(20, desde, hasta)).thenReturn(List.of(otra));
+        assertThrows(ConflictoHorarioException.class,
+                () -> plantillaService.crearPlantilla(plantilla("Lunes", INICIO, INICIO.plusWeeks(4))));
+
+        // Termina justo cuando empieza la nueva: no hay cruce
+        otra.setHoraInicio(Time.valueOf("08:00:00"));
+        otra.setHoraFin(Time.valueOf("09:00:00"));
+        when(plantillaRepository.save(any())).thenAnswer(invocacion -> invocacion.getArgument(0));
+        plantillaService.crearPlantilla(plantilla("Lunes", INICIO, INICIO.plusWeeks(4)));
+        verify(plantillaRepository, times(1)).save(any());
+    }
+
+    @Test
+    void horariosDePlantillasOmitenLasSesionesGuardadas() {
+        PlantillaDisponibilidad plantilla = plantilla("Lunes", INICIO, INICIO.plusWeeks(10), INICIO.plusWeeks(2));
+        when(plantillaRepository.findVigentesDeTutorEnRango(20, Date.valueOf(INICIO), Date.valueOf(INICIO.plusDays(27))))
+                .thenReturn(List.of(plantilla));
+        Disponibilidad guardada = new Disponibilidad(7, Date.valueOf(INICIO.plusWeeks(1)), "Lunes",
+                Time.valueOf("09:00:00"), Time.valueOf("10:00:00"), 4);
+        guardada.setIdPlantilla(3);
+        when(disponibilidadRepository.findMaterializadasDePlantillas(any(), any(), any())).thenReturn(List.of(guardada));
+
+        List<IndiceHorarios.Franja> horarios = plantillaService.horariosDePlantillas(20, INICIO, INICIO.plusDays(27));
+
+        assertEquals(List.of(INICIO, INICIO.plusWeeks(3)), horarios.stream().map(IndiceHorarios.Franja::fecha).toList());
+    }
+
+    @Test
+    void intervalosParaEstadoTomanLaAnteriorLaDeHoyYLaSiguiente() {
+        PlantillaDisponibilidad plantilla = plantilla("Lunes", INICIO, INICIO.plusWeeks(10), INICIO.plusWeeks(3));
+        LocalDateTime ahora = INICIO.plusWeeks(2).atTime(9, 30);
+
+        List<LocalDateTime[]> intervalos = PlantillaDisponibilidadService.intervalosParaEstado(plantilla, ahora);
+
+        assertEquals(List.of(INICIO.plusWeeks(1), INICIO.plusWeeks(2), INICIO.plusWeeks(4)),
+                intervalos.stream().map(i -> i[0].toLocalDate()).toList());
+        assertEquals(2, TutoriaEstadoService.calcularEstadoTutoria(
+                PlantillaDisponibilidadService.intervalosParaEstado(plantilla, INICIO.atTime(8, 0)), INICIO.atTime(8, 0)));
+        assertEquals(4, TutoriaEstadoService.calcularEstadoTutoria(
+                PlantillaDisponibilidadService.intervalosParaEstado(plantilla, INICIO.plusYears(1).atStartOfDay()),
+                INICIO.plusYears(1).atStartOfDay()));
+    }
+
+    private static PlantillaDisponibilidad plantilla(String dia, LocalDate desde, LocalDate hasta, LocalDate... excepciones) {
+        PlantillaDisponibilidad plantilla = new PlantillaDisponibilidad();
+        plantilla.setIdPlantilla(3);
+        plantilla.setIdTutoria(7);
+        plantilla.setDiaSemana(dia);
+        plantilla.setHoraInicio(Time.valueOf("09:00:00"));
+        plantilla.setHoraFin(Time.valueOf("10:00:00"));
+        plantilla.setFechaInicio(Date.valueOf(desde));
+        plantilla.setFechaFin(Date.valueOf(hasta));
+        plantilla.setAforoMaximo(4);
+        plantilla.setIdEstado(1);
+        Set<Date> fechas = new HashSet<>();
+        for (LocalDate excepcion : excepciones) {
+            fechas.add(Date.valueOf(excepcion));
+        }
+        plantilla.setExcepciones(fechas);
+        return plantilla;
+    }
+}
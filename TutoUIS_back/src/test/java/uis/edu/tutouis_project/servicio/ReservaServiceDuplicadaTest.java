@@ -0,0 +1,112 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import uis.edu.tutouis_project.exception.ReservaDuplicadaException;
+import uis.edu.tutouis_project.modelo.Disponibilidad;
+import uis.edu.tutouis_project.modelo.Usuario;
+import uis.edu.tutouis_project.modelo.dto.CreateReservaDto;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.ReservaRepository;
+import uis.edu.tutouis_project.repositorio.UsuarioRepository;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Time;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservaServiceDuplicadaTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private AsignadorCupos asignadorCupos;
+
+    @InjectMocks
+    private ReservaService reservaService;
+
+    private final RegistroMetricas metricas = new RegistroMetricas();
+    private final Disponibilidad disponibilidad = new Disponibilidad();
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(reservaService, "metricas", metricas);
+        disponibilidad.setIdDisponibilidad(7);
+        disponibilidad.setHoraInicio(Time.valueOf("08:00:00"));
+        disponibilidad.setHoraFin(Time.valueOf("10:00:00"));
+        disponibilidad.setAforoMaximo(5);
+        when(disponibilidadRepository.findById(7)).thenReturn(Optional.of(disponibilidad));
+        when(usuarioRepository.findById(40)).thenReturn(Optional.of(new Usuario()));
+    }
+
+    @Test
+    void franjaYaTomadaEnMemoriaEsReservaDuplicada() {
+        when(asignadorCupos.tomarFranja(eq(disponibilidad), eq(40), any()))
+                .thenReturn(AsignadorCupos.ResultadoFranja.YA_RESERVADA);
+
+        assertThrows(ReservaDuplicadaException.class, () -> reservaService.crearReserva(solicitud()));
+        verify(asignadorCupos, never()).reservarCupo(any());
+        assertEquals(1, metricas.obtenerContador("reservas.conflictos.horario"));
+    }
+
+    @Test
+    void violacionDelIndiceUnicoEsReservaDuplicadaYRecargaElEstadoLocal() {
+        when(asignadorCupos.tomarFranja(eq(disponibilidad), eq(40), any()))
+                .thenReturn(AsignadorCupos.ResultadoFranja.TOMADA);
+        when(asignadorCupos.reservarCupo(disponibilidad)).thenReturn(true);
+        when(reservaRepository.save(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement [Duplicate entry '7-08:00:00-40-1' for key 'reserva.uk_reserva_activa_franja']",
+                new SQLIntegrityConstraintViolationException(
+                        "Duplicate entry '7-08:00:00-40-1' for key 'reserva.uk_reserva_activa_franja'", "23000", 1062)));
+
+        assertThrows(ReservaDuplicadaException.class, () -> reservaService.crearReserva(solicitud()));
+        verify(asignadorCupos).olvidar(7);
+        assertEquals(1, metricas.obtenerContador("reservas.conflictos.horario"));
+    }
+
+    @Test
+    void otrasViolacionesDeIntegridadNoSeOcultan() {
+        when(asignadorCupos.tomarFranja(eq(disponibilidad), eq(40), any()))
+                .thenReturn(AsignadorCupos.ResultadoFranja.TOMADA);
+        when(asignadorCupos.reservarCupo(disponibilidad)).thenReturn(true);
+        when(reservaRepository.save(any())).thenThrow(new DataIntegrityViolationException(
+                "Cannot add or update a child row: a foreign key constraint fails"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> reservaService.crearReserva(solicitud()));
+        verify(asignadorCupos, never()).olvidar(anyInt());
+    }
+
+    private static CreateReservaDto solicitud() {
+        CreateReservaDto dto = new CreateReservaDto();
+        dto.setIdDisponibilidad(7);
+        dto.setIdEstudiante(40);
+        dto.setHoraInicio(LocalTime.of(8, 0));
+        dto.setHoraFin(LocalTime.of(8, 15));
+        dto.setModalidad("Presencial");
+        return dto;
+    }
+}
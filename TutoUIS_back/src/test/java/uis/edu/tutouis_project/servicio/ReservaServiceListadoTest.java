@@ -0,0 +1,105 @@
+package uis.edu.tutouis_project.servicio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import uis.edu.tutouis_project.modelo.dto.FiltroReservasDto;
+import uis.edu.tutouis_project.modelo.dto.PaginaReservasDto;
+import uis.edu.tutouis_project.modelo.dto.ReservaResponseDto;
+import uis.edu.tutouis_project.repositorio.ReservaRepository;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservaServiceListadoTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @InjectMocks
+    private ReservaService reservaService;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(reservaService, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(reservaService, "limiteDefecto", 2);
+        ReflectionTestUtils.setField(reservaService, "limiteMaximo", 500);
+        ReflectionTestUtils.setField(reservaService, "metricas", new RegistroMetricas());
+    }
+
+    @Test
+    void paginaLlenaEntregaCursorQueContinuaDesdeLaUltimaReserva() {
+        Timestamp creada = Timestamp.valueOf("2025-11-07 10:30:00.123456");
+        when(reservaRepository.findPaginaReservasConDetalles(
+                isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), eq(Limit.of(3))))
+                .thenReturn(reservas(creada, 30, 29, 28));
+
+        PaginaReservasDto primera = reservaService.listarReservas(new FiltroReservasDto(), null, null);
+
+        assertEquals(2, primera.getReservas().size());
+        assertNotNull(primera.getSiguienteCursor());
+
+        when(reservaRepository.findPaginaReservasConDetalles(
+                isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), eq(creada), eq(29), eq(Limit.of(3))))
+                .thenReturn(reservas(creada, 28));
+
+        PaginaReservasDto segunda = reservaService.listarReservas(new FiltroReservasDto(), primera.getSiguienteCursor(), null);
+
+        assertEquals(1, segunda.getReservas().size());
+        assertNull(segunda.getSiguienteCursor());
+    }
+
+    @Test
+    void cursorInvalidoSeRechaza() {
+        assertThrows(IllegalArgumentException.class,
+                () -> reservaService.listarReservas(new FiltroReservasDto(), "no-es-un-cursor", null));
+    }
+
+    @Test
+    void exportacionEscribeUnaReservaPorLinea() throws Exception {
+        FiltroReservasDto filtro = new FiltroReservasDto();
+        filtro.setIdEstado(1);
+        when(reservaRepository.streamReservasConDetalles(eq(1), isNull(), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(Stream.of(reservas(Timestamp.valueOf("2025-11-07 10:30:00"), 3, 2, 1).toArray(new ReservaResponseDto[0])));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        long escritas = reservaService.exportarReservas(filtro, salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, escritas);
+        assertEquals(3, lineas.length);
+        assertEquals(2, new ObjectMapper().readTree(lineas[1]).get("idReserva").asInt());
+        verify(reservaRepository).streamReservasConDetalles(eq(1), any(), any(), any(), any(), any());
+    }
+
+    private static List<ReservaResponseDto> reservas(Timestamp creada, int... ids) {
+        List<ReservaResponseDto> lista = new ArrayList<>();
+        for (int id : ids) {
+            ReservaResponseDto dto = new ReservaResponseDto(id, 1, 4, 1, "Reservada", null, creada);
+            lista.add(dto);
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,147 @@
+package uis.edu.tutouis_project.servicio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.repositorio.DisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.PlantillaDisponibilidadRepository;
+import uis.edu.tutouis_project.repositorio.TutoriaRepository;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TutoriaEstadoServiceTest {
+
+    @Mock
+    private TutoriaRepository tutoriaRepository;
+
+    @Mock
+    private DisponibilidadRepository disponibilidadRepository;
+
+    @Mock
+    private PlantillaDisponibilidadRepository plantillaDisponibilidadRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @InjectMocks
+    private TutoriaEstadoService tutoriaEstadoService;
+
+    private RegistroMetricas metricas;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(tutoriaEstadoService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        metricas = new RegistroMetricas();
+        ReflectionTestUtils.setField(tutoriaEstadoService, "metricas", metricas);
+    }
+
+    @Test
+    void recalculaConUnUpdatePorEstadoYProgramaLaFronteraMasCercana() {
+        LocalDateTime ahora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime finEnCurso = ahora.plusMinutes(20);
+        assumeTrue(mismoDia(ahora.minusMinutes(10), finEnCurso));
+        List<Object[]> horarios = new ArrayList<>();
+        horarios.add(horario(1, ahora.minusMinutes(10), finEnCurso));
+        horarios.add(horario(3, ahora.plusDays(2), ahora.plusDays(2).plusHours(1)));
+        when(disponibilidadRepository.findHorariosDeTutorias(anyCollection())).thenReturn(horarios);
+        when(tutoriaRepository.actualizarEstadoTutorias(anyCollection(), anyInt())).thenReturn(1);
+
+        int cambios = tutoriaEstadoService.recalcular(List.of(1, 2, 3));
+
+        assertEquals(3, cambios);
+        verify(tutoriaRepository).actualizarEstadoTutorias(List.of(1), 3);
+        verify(tutoriaRepository).actualizarEstadoTutorias(List.of(2), 1);
+        verify(tutoriaRepository).actualizarEstadoTutorias(List.of(3), 2);
+        assertEquals(1, metricas.obtenerContador("tutorias.estado.transiciones.en_curso"));
+        assertEquals(1, metricas.obtenerContador("tutorias.estado.transiciones.pendiente"));
+        assertEquals(1, metricas.obtenerContador("tutorias.estado.transiciones.programada"));
+        assertEquals(3, metricas.obtenerContador("tutorias.estado.transiciones"));
+        assertEquals(finEnCurso, tutoriaEstadoService.obtenerProximaFrontera(1));
+        assertNull(tutoriaEstadoService.obtenerProximaFrontera(2));
+        assertEquals(2, tutoriaEstadoService.fronterasProgramadas());
+        verify(taskScheduler).schedule(any(Runnable.class),
+                eq(finEnCurso.plusNanos(1_000_000).atZone(ZoneId.systemDefault()).toInstant()));
+    }
+
+    @Test
+    void alVencerUnaFronteraSoloSeRecalculaEsaTutoria() throws InterruptedException {
+        // Time guarda segundos: la frontera queda en el próximo segundo exacto
+        LocalDateTime fin = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        assumeTrue(mismoDia(fin.minusMinutes(10), fin));
+        List<Object[]> horarios = new ArrayList<>();
+        horarios.add(horario(1, fin.minusMinutes(10), fin));
+        horarios.add(horario(2, fin.plusDays(1), fin.plusDays(1)));
+        when(disponibilidadRepository.findHorariosDeTutorias(anyCollection())).thenReturn(horarios);
+        tutoriaEstadoService.recalcular(List.of(1, 2));
+        assertEquals(fin, tutoriaEstadoService.obtenerProximaFrontera(1));
+
+        Thread.sleep(Math.max(0, ChronoUnit.MILLIS.between(LocalDateTime.now(), fin)) + 50);
+        tutoriaEstadoService.procesarFronterasVencidas();
+
+        verify(disponibilidadRepository).findHorariosDeTutorias(argThat(ids -> ids.size() == 1 && ids.contains(1)));
+        assertNull(tutoriaEstadoService.obtenerProximaFrontera(1));
+        assertEquals(1, tutoriaEstadoService.fronterasProgramadas());
+    }
+
+    @Test
+    void sinFronterasNoSeProgramaDespertador() {
+        when(disponibilidadRepository.findHorariosDeTutorias(anyCollection())).thenReturn(List.of());
+
+        tutoriaEstadoService.recalcular(List.of(7));
+
+        verify(taskScheduler, never()).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void estadoSegunDisponibilidades() {
+        LocalDateTime ahora = LocalDateTime.of(2025, 11, 10, 10, 0);
+        LocalDateTime[] pasada = {ahora.minusHours(3), ahora.minusHours(2)};
+        LocalDateTime[] enCurso = {ahora.minusMinutes(5), ahora.plusMinutes(10)};
+        LocalDateTime[] futura = {ahora.plusDays(1), ahora.plusDays(1).plusHours(1)};
+
+        assertEquals(1, TutoriaEstadoService.calcularEstadoTutoria(List.of(), ahora));
+        assertEquals(3, TutoriaEstadoService.calcularEstadoTutoria(List.of(pasada, enCurso, futura), ahora));
+        assertEquals(2, TutoriaEstadoService.calcularEstadoTutoria(List.of(pasada, futura), ahora));
+        assertEquals(4, TutoriaEstadoService.calcularEstadoTutoria(List.<LocalDateTime[]>of(pasada), ahora));
+        assertEquals(enCurso[1], TutoriaEstadoService.calcularProximaFrontera(List.of(pasada, enCurso, futura), ahora));
+    }
+
+    private static boolean mismoDia(LocalDateTime inicio, LocalDateTime fin) {
+        return inicio.toLocalDate().equals(fin.toLocalDate());
+    }
+
+    private static Object[] horario(int idTutoria, LocalDateTime inicio, LocalDateTime fin) {
+        return new Object[]{idTutoria, Date.valueOf(inicio.toLocalDate()),
+                Time.valueOf(inicio.toLocalTime()), Time.valueOf(fin.toLocalTime())};
+    }
+}
@@ -0,0 +1,148 @@
+package uis.edu.tutouis_project.servicio.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uis.edu.tutouis_project.modelo.Actividad;
+import uis.edu.tutouis_project.modelo.dto.ActividadRecienteDto;
+import uis.edu.tutouis_project.repositorio.ActividadRepository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ActividadServiceTest {
+
+    @Mock
+    private ActividadRepository actividadRepository;
+
+    private ActividadService actividadService;
+
+    @BeforeEach
+    void configurar() {
+        actividadService = new ActividadService(3);
+        ReflectionTestUtils.setField(actividadService, "actividadRepository", actividadRepository);
+        ReflectionTestUtils.setField(actividadService, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    @Test
+    void alArrancarSeLlenaElBufferDesdeElRegistro() {
+        when(actividadRepository.count()).thenReturn(10L);
+        when(actividadRepository.findAllByOrderByFechaDescIdActividadDesc(Limit.of(3)))
+                .thenReturn(List.of(actividad("c"), actividad("b"), actividad("a")));
+
+        actividadService.cargar();
+
+        assertEquals(List.of("c", "b"), descripciones(actividadService.obtenerActividadReciente(2)));
+        verify(actividadRepository, never()).importarHistorial();
+    }
+
+    @Test
+    void registroVacioImportaElHistorial() {
+        when(actividadRepository.count()).thenReturn(0L);
+        when(actividadRepository.findAllByOrderByFechaDescIdActividadDesc(any())).thenReturn(List.of());
+
+        actividadService.cargar();
+
+        verify(actividadRepository).importarHistorial();
+    }
+
+    @Test
+    void lasAltasSeSirvenDesdeMemoriaYSoloSeGuardanLasUltimas() {
+        for (int id = 1; id <= 4; id++) {
+            when(actividadRepository.describirReserva(id)).thenReturn(fila("Nueva reserva " + id));
+            actividadService.registrarReserva(id);
+        }
+
+        List<ActividadRecienteDto> recientes = actividadService.obtenerActividadReciente(3);
+
+        assertEquals(List.of("Nueva reserva 4", "Nueva reserva 3", "Nueva reserva 2"), descripciones(recientes));
+        assertEquals("RESERVA", recientes.get(0).getTipo());
+        assertEquals("bi-calendar-check", recientes.get(0).getIcono());
+        verify(actividadRepository, never()).findAllByOrderByFechaDescIdActividadDesc(any());
+    }
+
+    @Test
+    void limiteMayorQueElBufferConsultaElRegistro() {
+        when(actividadRepository.findAllByOrderByFechaDescIdActividadDesc(Limit.of(5)))
+                .thenReturn(List.of(actividad("x")));
+
+        assertEquals(List.of("x"), descripciones(actividadService.obtenerActividadReciente(5)));
+    }
+
+    @Test
+    void sinDatosParaElFeedNoSeRegistraNada() {
+        when(actividadRepository.describirTutoria(9)).thenReturn(List.of());
+
+        actividadService.registrarTutoria(9);
+
+        verify(actividadRepository, never()).save(any());
+        assertTrue(actividadService.obtenerActividadReciente(3).isEmpty());
+    }
+
+    @Test
+    void laRecargaTraeLasActividadesDeOtrasInstanciasSinRepetirLasPropias() {
+        when(actividadRepository.count()).thenReturn(10L);
+        when(actividadRepository.findAllByOrderByFechaDescIdActividadDesc(Limit.of(3)))
+                .thenReturn(List.of(actividad(5L, "e")));
+        actividadService.cargar();
+
+        // Alta de esta instancia: la fila guardada recibe el id 7
+        when(actividadRepository.describirReserva(1)).thenReturn(fila("Nueva reserva 1"));
+        when(actividadRepository.save(any())).thenAnswer(invocacion -> {
+            Actividad guardada = invocacion.getArgument(0);
+            guardada.setIdActividad(7L);
+            return guardada;
+        });
+        actividadService.registrarReserva(1);
+
+        // La 6 la guardó otra instancia; la 7 ya está en el buffer
+        when(actividadRepository.findByIdActividadGreaterThanOrderByIdActividadAsc(5L, Limit.of(3)))
+                .thenReturn(List.of(actividad(6L, "f"), actividad(7L, "Nueva reserva 1")));
+        actividadService.refrescar();
+        actividadService.refrescar();
+
+        assertEquals(List.of("f", "Nueva reserva 1", "e"), descripciones(actividadService.obtenerActividadReciente(3)));
+        verify(actividadRepository).findByIdActividadGreaterThanOrderByIdActividadAsc(7L, Limit.of(3));
+    }
+
+    private static List<Object[]> fila(String descripcion) {
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{descripcion, "Ana Pérez", "warning"});
+        return filas;
+    }
+
+    private static Actividad actividad(Long id, String descripcion) {
+        Actividad actividad = actividad(descripcion);
+        actividad.setIdActividad(id);
+        return actividad;
+    }
+
+    private static Actividad actividad(String descripcion) {
+        Actividad actividad = new Actividad();
+        actividad.setTipo("USUARIO");
+        actividad.setDescripcion(descripcion);
+        actividad.setFecha(new Timestamp(System.currentTimeMillis()));
+        return actividad;
+    }
+
+    private static List<String> descripciones(List<ActividadRecienteDto> actividades) {
+        return actividades.stream().map(ActividadRecienteDto::getDescripcion).toList();
+    }
+}
@@ -0,0 +1,124 @@
+package uis.edu.tutouis_project.servicio.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import uis.edu.tutouis_project.modelo.dto.DashboardStatsDto;
+import uis.edu.tutouis_project.util.RegistroMetricas;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReporteCacheServiceTest {
+
+    @Mock
+    private ReporteService reporteService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @InjectMocks
+    private ReporteCacheService reporteCacheService;
+
+    private RegistroMetricas metricas;
+
+    @BeforeEach
+    void configurar() {
+        metricas = new RegistroMetricas();
+        ReflectionTestUtils.setField(reporteCacheService, "metricas", metricas);
+        // Ventana muy larga para que ninguna prueba cruce un corte
+        ReflectionTestUtils.setField(reporteCacheService, "ttlMs", 3_600_000_000L);
+        ReflectionTestUtils.setField(reporteCacheService, "obsoletoMs", 60_000L);
+    }
+
+    @Test
+    void dentroDeLaVentanaSeCalculaUnaSolaVez() {
+        DashboardStatsDto datos = new DashboardStatsDto();
+        when(reporteService.getDashboardStats()).thenReturn(datos);
+
+        assertSame(datos, reporteCacheService.getDashboardStats());
+        assertSame(datos, reporteCacheService.getDashboardStats());
+
+        verify(reporteService, times(1)).getDashboardStats();
+        assertEquals(1, metricas.obtenerContador("reportes.dashboard.cache.fallos"));
+        assertEquals(1, metricas.obtenerContador("reportes.dashboard.cache.aciertos"));
+        assertEquals(1, metricas.obtenerTemporizador("reportes.dashboard.cache.recalculo").getCuenta());
+    }
+
+    @Test
+    void peticionesConcurrentesCompartenUnRecalculo() throws Exception {
+        CountDownLatch calculando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        DashboardStatsDto datos = new DashboardStatsDto();
+        when(reporteService.getDashboardStats()).thenAnswer(invocacion -> {
+            calculando.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return datos;
+        });
+
+        ExecutorService hilos = Executors.newFixedThreadPool(50);
+        try {
+            List<Future<DashboardStatsDto>> respuestas = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                respuestas.add(hilos.submit(reporteCacheService::getDashboardStats));
+            }
+            calculando.await(5, TimeUnit.SECONDS);
+            Thread.sleep(100);
+            liberar.countDown();
+            for (Future<DashboardStatsDto> respuesta : respuestas) {
+                assertSame(datos, respuesta.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        verify(reporteService, times(1)).getDashboardStats();
+    }
+
+    @Test
+    void trasInvalidarSeEntregaElCorteAnteriorYSeRecalculaEnSegundoPlano() {
+        DashboardStatsDto anterior = new DashboardStatsDto();
+        DashboardStatsDto nuevo = new DashboardStatsDto();
+        when(reporteService.getDashboardStats()).thenReturn(anterior, nuevo);
+        reporteCacheService.getDashboardStats();
+
+        reporteCacheService.invalidar();
+
+        assertSame(anterior, reporteCacheService.getDashboardStats());
+        ArgumentCaptor<Runnable> tarea = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(tarea.capture(), any(Instant.class));
+        tarea.getValue().run();
+
+        assertSame(nuevo, reporteCacheService.getDashboardStats());
+        assertEquals(1, metricas.obtenerContador("reportes.dashboard.cache.obsoletos"));
+    }
+
+    @Test
+    void unErrorSinCorteAnteriorLlegaAlLlamador() {
+        when(reporteService.getDashboardStats()).thenThrow(new IllegalStateException("BD caída"));
+
+        assertThrows(IllegalStateException.class, () -> reporteCacheService.getDashboardStats());
+        assertEquals(1, metricas.obtenerContador("reportes.dashboard.cache.errores"));
+    }
+}
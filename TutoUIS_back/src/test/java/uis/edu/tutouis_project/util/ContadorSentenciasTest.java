@@ -0,0 +1,134 @@
+package uis.edu.tutouis_project.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ContadorSentenciasTest {
+
+    private DataSource dataSource;
+    private PreparedStatement sentencia;
+    private ResultSet resultados;
+
+    @BeforeEach
+    void configurar() throws SQLException {
+        DataSource real = mock(DataSource.class);
+        Connection conexion = mock(Connection.class);
+        sentencia = mock(PreparedStatement.class);
+        resultados = mock(ResultSet.class);
+        when(real.getConnection()).thenReturn(conexion);
+        when(conexion.prepareStatement(anyString())).thenReturn(sentencia);
+        when(conexion.createStatement()).thenReturn(mock(Statement.class));
+        when(sentencia.executeQuery()).thenReturn(resultados);
+        dataSource = new DataSourceContador(real);
+    }
+
+    @Test
+    void cuentaSentenciasYFilasDeLaOperacion() throws SQLException {
+        when(resultados.next()).thenReturn(true, true, false);
+
+        ContadorSentencias.Medicion medicion = ContadorSentencias.medir(() -> consultar(
+                "select * from reserva where id_disponibilidad = ?", 1));
+
+        assertEquals(1, medicion.getSentencias());
+        assertEquals(2, medicion.getFilas());
+        assertTrue(medicion.getNanos() >= 0);
+    }
+
+    @Test
+    void unaConsultaPorFilaSeDetectaComoRepetida() throws SQLException {
+        when(resultados.next()).thenReturn(false);
+
+        ContadorSentencias.Medicion medicion = ContadorSentencias.medir(() -> {
+            consultar("select * from reserva", 1);
+            for (int id = 1; id <= 6; id++) {
+                consultar("select * from usuario where id_usuario = " + id, 1);
+            }
+            sinExcepcion(() -> dataSource.getConnection().createStatement().executeUpdate("delete from multa where id = 3"));
+        });
+
+        assertEquals(8, medicion.getSentencias());
+        assertEquals(Map.of("select * from usuario where id_usuario = ?", 6), medicion.repetidas(5));
+        assertTrue(medicion.getFormas().containsKey("delete from multa where id = ?"));
+    }
+
+    @Test
+    void sinMedicionAbiertaNoSeCuentaNada() throws SQLException {
+        when(resultados.next()).thenReturn(true, false);
+
+        consultar("select 1", 1);
+
+        assertNull(ContadorSentencias.actual());
+    }
+
+    @Test
+    void lasMedicionesAnidadasSumanALaExterna() throws SQLException {
+        when(resultados.next()).thenReturn(false);
+
+        ContadorSentencias.Medicion externa = ContadorSentencias.medir(() -> {
+            consultar("select * from tutoria", 1);
+            ContadorSentencias.Medicion interna = ContadorSentencias.medir(() -> consultar("select * from asignatura", 2));
+            assertEquals(1, interna.getSentencias());
+        });
+
+        assertEquals(2, externa.getSentencias());
+        assertNull(ContadorSentencias.actual());
+    }
+
+    @Test
+    void losErroresDelDriverSePropaganYLaSentenciaCuenta() throws SQLException {
+        when(sentencia.executeQuery()).thenThrow(new SQLException("tabla bloqueada"));
+
+        ContadorSentencias.Medicion medicion = ContadorSentencias.medir(() ->
+                assertThrows(SQLException.class, () -> dataSource.getConnection().prepareStatement("select 1").executeQuery()));
+
+        assertEquals(1, medicion.getSentencias());
+    }
+
+    @Test
+    void laFormaIgnoraLiteralesYLargoDeListas() {
+        assertEquals("select * from reserva where id_estado in (?) and observaciones = ?",
+                ContadorSentencias.forma("SELECT *  FROM reserva\n WHERE id_estado IN (1, 2, 3) AND observaciones = 'it''s'"));
+        assertEquals(ContadorSentencias.forma("select x from t where a in (?, ?)"),
+                ContadorSentencias.forma("select x from t where a in (?,?,?,?)"));
+    }
+
+    private void consultar(String sql, int parametro) {
+        sinExcepcion(() -> {
+            PreparedStatement preparada = dataSource.getConnection().prepareStatement(sql);
+            preparada.setInt(1, parametro);
+            ResultSet filas = preparada.executeQuery();
+            while (filas.next()) {
+                filas.getInt(1);
+            }
+            return null;
+        });
+    }
+
+    private interface Jdbc<T> {
+        T ejecutar() throws SQLException;
+    }
+
+    private static <T> T sinExcepcion(Jdbc<T> llamada) {
+        try {
+            return llamada.ejecutar();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package uis.edu.tutouis_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceFranjasTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2025, 11, 10);
+    private static final LocalDateTime AHORA = LUNES.atTime(8, 20);
+
+    private final IndiceFranjas indice = new IndiceFranjas(List.of(
+            entrada(1, 7, LUNES, "08:00", "09:00", 0, "Aula 204"),
+            entrada(2, 7, LUNES, "08:30", "09:00", 0, null),
+            entrada(3, 7, LUNES.plusDays(1), "10:00", "10:30", 2, "Aula 101"),
+            entrada(4, 9, LUNES, "08:30", "09:00", 0, "Aula 5")));
+
+    @Test
+    void ordenaPorFechaYHoraSinFranjasPasadasNiDeOtraAsignatura() {
+        IndiceFranjas.Pagina pagina = indice.buscar(consulta(null, null, false, null, 10));
+
+        assertEquals(List.of("1@08:30", "2@08:30", "1@08:45", "2@08:45", "3@10:00", "3@10:15"), claves(pagina));
+        assertNull(pagina.siguiente());
+    }
+
+    @Test
+    void filtraPorVentanaHorariaYModalidad() {
+        IndiceFranjas.Pagina pagina = indice.buscar(new IndiceFranjas.Consulta(7, LUNES, LUNES.plusDays(3),
+                LocalTime.of(8, 40), LocalTime.of(10, 15), true, AHORA, null, 10));
+
+        assertEquals(List.of("1@08:45", "3@10:00"), claves(pagina));
+    }
+
+    @Test
+    void elCursorContinuaDondeTerminoLaPaginaAnterior() {
+        IndiceFranjas.Pagina primera = indice.buscar(consulta(null, null, false, null, 3));
+        IndiceFranjas.Pagina segunda = indice.buscar(consulta(null, null, false,
+                CursorFranja.decodificar(primera.siguiente().codificar()), 3));
+
+        assertEquals(List.of("1@08:30", "2@08:30", "1@08:45"), claves(primera));
+        assertEquals(List.of("2@08:45", "3@10:00", "3@10:15"), claves(segunda));
+        assertNull(segunda.siguiente());
+    }
+
+    @Test
+    void sinCuposLaDisponibilidadDesapareceHastaQueSeLibera() {
+        indice.ajustarCupos(3, -4);
+        IndiceFranjas.Pagina sinCupo = indice.buscar(consulta(null, null, false, null, 10));
+        indice.ajustarCupos(3, 1);
+        IndiceFranjas.Pagina conCupo = indice.buscar(consulta(null, null, false, null, 10));
+
+        assertTrue(claves(sinCupo).stream().noneMatch(c -> c.startsWith("3@")));
+        assertEquals(1, conCupo.franjas().get(conCupo.franjas().size() - 1).entrada().getRestantes());
+    }
+
+    private static IndiceFranjas.Consulta consulta(LocalTime horaDesde, LocalTime horaHasta, boolean soloPresencial,
+                                                   CursorFranja despuesDe, int limite) {
+        return new IndiceFranjas.Consulta(7, LUNES, LUNES.plusDays(3), horaDesde, horaHasta, soloPresencial, AHORA,
+                despuesDe, limite);
+    }
+
+    private static List<String> claves(IndiceFranjas.Pagina pagina) {
+        List<String> claves = new ArrayList<>();
+        for (IndiceFranjas.Franja franja : pagina.franjas()) {
+            claves.add(franja.entrada().getIdDisponibilidad() + "@" + franja.horaInicio());
+        }
+        return claves;
+    }
+
+    private static IndiceFranjas.Entrada entrada(int id, int asignatura, LocalDate fecha, String inicio, String fin,
+                                                 int ocupados, String lugar) {
+        return new IndiceFranjas.Entrada(id, null, 100 + id, asignatura, fecha, LocalTime.parse(inicio), LocalTime.parse(fin),
+                4, ocupados, lugar, "Ana Pérez");
+    }
+}
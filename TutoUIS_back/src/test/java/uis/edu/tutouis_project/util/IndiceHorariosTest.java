@@ -0,0 +1,102 @@
+package uis.edu.tutouis_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IndiceHorariosTest {
+
+    private static final LocalDate LUNES = LocalDate.of(2025, 11, 10);
+    private static final LocalDate MARTES = LUNES.plusDays(1);
+
+    @Test
+    void detectaCrucesConHorariosExistentes() {
+        IndiceHorarios indice = new IndiceHorarios(List.of(
+                franja(LUNES, "08:00", "12:00"),
+                franja(LUNES, "09:00", "09:30"),
+                franja(LUNES, "14:00", "15:00")));
+
+        assertTrue(indice.seCruza(franja(LUNES, "11:45", "12:15")));
+        assertTrue(indice.seCruza(franja(LUNES, "13:00", "14:15")));
+        assertFalse(indice.seCruza(franja(LUNES, "12:00", "14:00")), "los extremos se pueden tocar");
+        assertFalse(indice.seCruza(franja(MARTES, "08:00", "12:00")));
+    }
+
+    @Test
+    void detectaCrucesDentroDelLote() {
+        IndiceHorarios indice = new IndiceHorarios(List.of());
+        List<IndiceHorarios.Franja> lote = List.of(
+                franja(LUNES, "10:00", "11:00"),
+                franja(MARTES, "10:30", "11:30"),
+                franja(LUNES, "08:00", "09:00"),
+                franja(LUNES, "10:45", "11:15"));
+
+        IndiceHorarios.Conflicto conflicto = indice.buscarConflicto(lote);
+
+        assertEquals(3, conflicto.indice());
+        assertEquals(0, conflicto.indiceCruce());
+        assertNull(indice.buscarConflicto(lote.subList(0, 3)));
+    }
+
+    @Test
+    void losCrucesConDatosGuardadosSeReportanPrimero() {
+        IndiceHorarios indice = new IndiceHorarios(List.of(franja(MARTES, "07:00", "08:00")));
+
+        IndiceHorarios.Conflicto conflicto = indice.buscarConflicto(List.of(
+                franja(LUNES, "10:00", "11:00"),
+                franja(LUNES, "10:30", "11:30"),
+                franja(MARTES, "07:30", "08:30")));
+
+        assertEquals(2, conflicto.indice());
+        assertNull(conflicto.indiceCruce());
+    }
+
+    @Test
+    void coincideConLaComparacionParAPar() {
+        Random aleatorio = new Random(12);
+        for (int ronda = 0; ronda < 200; ronda++) {
+            List<IndiceHorarios.Franja> existentes = aleatorias(aleatorio, 6);
+            List<IndiceHorarios.Franja> lote = aleatorias(aleatorio, 4);
+
+            boolean esperado = false;
+            for (int i = 0; i < lote.size(); i++) {
+                for (IndiceHorarios.Franja otra : existentes) {
+                    esperado |= seCruzan(lote.get(i), otra);
+                }
+                for (int j = 0; j < i; j++) {
+                    esperado |= seCruzan(lote.get(i), lote.get(j));
+                }
+            }
+
+            assertEquals(esperado, new IndiceHorarios(existentes).buscarConflicto(lote) != null);
+        }
+    }
+
+    private static List<IndiceHorarios.Franja> aleatorias(Random aleatorio, int cantidad) {
+        List<IndiceHorarios.Franja> franjas = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            int inicio = aleatorio.nextInt(40) * 15;
+            LocalTime horaInicio = LocalTime.of(6, 0).plusMinutes(inicio);
+            franjas.add(new IndiceHorarios.Franja(LUNES.plusDays(aleatorio.nextInt(2)), horaInicio,
+                    horaInicio.plusMinutes(15 + aleatorio.nextInt(8) * 15)));
+        }
+        return franjas;
+    }
+
+    private static boolean seCruzan(IndiceHorarios.Franja a, IndiceHorarios.Franja b) {
+        return a.fecha().equals(b.fecha()) && a.inicio().isBefore(b.fin()) && a.fin().isAfter(b.inicio());
+    }
+
+    private static IndiceHorarios.Franja franja(LocalDate fecha, String inicio, String fin) {
+        return new IndiceHorarios.Franja(fecha, LocalTime.parse(inicio), LocalTime.parse(fin));
+    }
+}
@@ -0,0 +1,87 @@
+package uis.edu.tutouis_project.util;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "MyVerySecureJWTSecretKey123456789012345678901234567890ABCDE";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void configurar() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "maxEntradasCache", 2);
+        ReflectionTestUtils.setField(jwtUtil, "ttlCacheMs", 600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "metricas", new RegistroMetricas());
+        jwtUtil.init();
+    }
+
+    @Test
+    void tokenValidoSeVerificaYSeSirveDesdeCache() {
+        String token = jwtUtil.generateToken("2201234");
+
+        assertEquals("2201234", jwtUtil.getCodigoFromValidToken(token));
+        assertEquals("2201234", jwtUtil.getCodigoFromValidToken(token));
+        assertEquals("2201234", jwtUtil.getCodigoFromToken(token));
+    }
+
+    @Test
+    void elRolViajaEnElTokenYSeConservaEnCache() {
+        String admin = jwtUtil.generateToken("1000001", JwtUtil.ROL_ADMINISTRADOR);
+        String estudiante = jwtUtil.generateToken("2201234", 3);
+
+        assertTrue(jwtUtil.verificar(admin).esAdministrador());
+        assertTrue(jwtUtil.verificar(admin).esAdministrador());
+        assertFalse(jwtUtil.verificar(estudiante).esAdministrador());
+        // Tokens emitidos antes de incluir el rol: autenticados, pero sin permisos de administrador
+        assertFalse(jwtUtil.verificar(jwtUtil.generateToken("2201234")).esAdministrador());
+    }
+
+    @Test
+    void tokenAlteradoNoSeAceptaAunqueElOriginalEsteEnCache() {
+        String token = jwtUtil.generateToken("2201234");
+        jwtUtil.getCodigoFromValidToken(token);
+
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(jwtUtil.getCodigoFromValidToken(alterado));
+    }
+
+    @Test
+    void tokenCacheadoDejaDeValerAlExpirar() throws InterruptedException {
+        String token = Jwts.builder()
+                .subject("2201234")
+                .expiration(new Date(System.currentTimeMillis() + 1_500))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertEquals("2201234", jwtUtil.getCodigoFromValidToken(token));
+
+        Thread.sleep(1_600);
+
+        assertNull(jwtUtil.getCodigoFromValidToken(token));
+    }
+
+    @Test
+    void cacheLlenaSigueVerificandoCorrectamente() {
+        for (int i = 0; i < 10; i++) {
+            String token = jwtUtil.generateToken("codigo-" + i);
+            assertEquals("codigo-" + i, jwtUtil.getCodigoFromValidToken(token));
+        }
+        assertNull(jwtUtil.getCodigoFromValidToken("no.es.un-token"));
+    }
+}
@@ -0,0 +1,60 @@
+package uis.edu.tutouis_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MigradorEsquemaTest {
+
+    @Test
+    void leeVersionYDescripcionDelNombre() {
+        MigradorEsquema.Migracion migracion = MigradorEsquema.leer("V12__indices_de_prueba.sql", "SELECT 1;");
+
+        assertEquals(12, migracion.version());
+        assertEquals("indices de prueba", migracion.descripcion());
+        assertEquals(64, migracion.checksum().length());
+        // El final de línea no cambia el checksum; el contenido sí
+        assertEquals(MigradorEsquema.leer("V1__a.sql", "A;\nB;").checksum(),
+                MigradorEsquema.leer("V1__a.sql", "A;\r\nB;").checksum());
+        assertNotEquals(MigradorEsquema.leer("V1__a.sql", "A;").checksum(),
+                MigradorEsquema.leer("V1__a.sql", "B;").checksum());
+
+        assertThrows(IllegalStateException.class, () -> MigradorEsquema.leer("indices.sql", ""));
+        assertThrows(IllegalStateException.class, () -> MigradorEsquema.leer("V1_indices.sql", ""));
+    }
+
+    @Test
+    void separaSentenciasSinComentarios() {
+        String contenido = """
+                -- Índices; con punto y coma en el comentario
+                CREATE INDEX idx_a ON reserva (id_estudiante,
+                    id_estado);
+
+                -- Otro
+                CREATE INDEX idx_b ON tutoria (id_tutor);
+                CREATE INDEX idx_c ON disponibilidad (fecha)""";
+
+        assertEquals(List.of(
+                "CREATE INDEX idx_a ON reserva (id_estudiante,\n    id_estado)",
+                "CREATE INDEX idx_b ON tutoria (id_tutor)",
+                "CREATE INDEX idx_c ON disponibilidad (fecha)"), MigradorEsquema.sentencias(contenido));
+    }
+
+    @Test
+    void cargaLasMigracionesDelProyectoEnOrden() {
+        List<MigradorEsquema.Migracion> migraciones =
+                new MigradorEsquema(null, "classpath:db/migracion/*.sql").cargar();
+
+        assertEquals(1, migraciones.get(0).version());
+        for (int i = 1; i < migraciones.size(); i++) {
+            assertTrue(migraciones.get(i).version() > migraciones.get(i - 1).version());
+        }
+        assertTrue(MigradorEsquema.sentencias(migraciones.get(0).contenido()).stream()
+                .allMatch(sentencia -> sentencia.startsWith("CREATE INDEX")));
+    }
+}
@@ -0,0 +1,78 @@
+package uis.edu.tutouis_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OcupacionFranjasTest {
+
+    private final OcupacionFranjas ocupacion = new OcupacionFranjas(LocalTime.of(8, 0), LocalTime.of(9, 0), 2);
+
+    @Test
+    void soloAceptaHorasAlineadasDentroDelRango() {
+        assertEquals(4, ocupacion.getFranjas());
+        assertEquals(0, ocupacion.franja(LocalTime.of(8, 0)));
+        assertEquals(3, ocupacion.franja(LocalTime.of(8, 45)));
+        assertEquals(-1, ocupacion.franja(LocalTime.of(8, 10)));
+        assertEquals(-1, ocupacion.franja(LocalTime.of(9, 0)));
+        assertEquals(-1, ocupacion.franja(LocalTime.of(7, 45)));
+    }
+
+    @Test
+    void unEstudianteNoRepiteFranjaYLaFranjaSeLlenaConElAforo() {
+        assertTrue(ocupacion.ocupar(1, 10));
+        assertFalse(ocupacion.ocupar(1, 10), "mismo estudiante, misma franja");
+        assertTrue(ocupacion.estaLibre(1));
+        assertTrue(ocupacion.ocupar(1, 11));
+
+        assertFalse(ocupacion.estaLibre(1));
+        assertFalse(ocupacion.ocupar(1, 12));
+        assertEquals(List.of(10, 11), ocupacion.titulares(1));
+        assertTrue(ocupacion.tiene(1, 11));
+        assertFalse(ocupacion.tiene(2, 11));
+    }
+
+    @Test
+    void liberarDevuelveElAsientoALasFranjasLibres() {
+        ocupacion.ocupar(0, 10);
+        ocupacion.ocupar(2, 11);
+
+        // El aforo es de la disponibilidad: con 2 de 2 ocupados no queda ninguna franja
+        assertTrue(ocupacion.libres().isEmpty());
+        assertFalse(ocupacion.estaLibre(1));
+        assertFalse(ocupacion.ocupar(1, 12));
+
+        assertTrue(ocupacion.liberar(0, 10));
+        assertFalse(ocupacion.liberar(0, 10));
+        assertEquals(List.of(LocalTime.of(8, 0), LocalTime.of(8, 15), LocalTime.of(8, 30), LocalTime.of(8, 45)),
+                ocupacion.libres().stream().map(OcupacionFranjas.Franja::horaInicio).toList());
+        assertTrue(ocupacion.libres().stream().allMatch(franja -> franja.libres() == 1));
+        assertTrue(ocupacion.ocupar(0, 12));
+        assertEquals(List.of(12), ocupacion.titulares(0));
+    }
+
+    @Test
+    void losAsientosDeCadaFranjaNoSuperanLosRestantesDeLaDisponibilidad() {
+        OcupacionFranjas amplia = new OcupacionFranjas(LocalTime.of(8, 0), LocalTime.of(9, 0), 5);
+        amplia.ocupar(1, 10);
+        amplia.ocupar(1, 11);
+
+        assertEquals(List.of(3, 3, 3, 3), amplia.libres().stream().map(OcupacionFranjas.Franja::libres).toList());
+        // Otra instancia ya tomó dos cupos más: el aforo en la base de datos manda
+        assertEquals(List.of(1, 1, 1, 1), amplia.libres(1).stream().map(OcupacionFranjas.Franja::libres).toList());
+        assertTrue(amplia.libres(0).isEmpty());
+    }
+
+    @Test
+    void sinAforoNoHayFranjasLibres() {
+        OcupacionFranjas sinAforo = new OcupacionFranjas(LocalTime.of(8, 0), LocalTime.of(9, 0), 0);
+
+        assertTrue(sinAforo.libres().isEmpty());
+        assertFalse(sinAforo.ocupar(0, 10));
+    }
+}
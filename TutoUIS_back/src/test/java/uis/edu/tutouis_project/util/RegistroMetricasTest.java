@@ -0,0 +1,67 @@
+package uis.edu.tutouis_project.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RegistroMetricasTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void losPercentilesSalenDelHistograma() {
+        RegistroMetricas metricas = new RegistroMetricas();
+        // 90 llamadas rápidas (3 ms) y 10 lentas (400 ms)
+        for (int i = 0; i < 90; i++) {
+            metricas.registrarTiempo("servicio.ReservaService.crearReserva", 3 * MS);
+        }
+        for (int i = 0; i < 10; i++) {
+            metricas.registrarTiempo("servicio.ReservaService.crearReserva", 400 * MS);
+        }
+
+        RegistroMetricas.Temporizador temporizador = metricas.obtenerTemporizador("servicio.ReservaService.crearReserva");
+
+        double p50 = temporizador.percentilMs(0.50);
+        double p95 = temporizador.percentilMs(0.95);
+        assertTrue(p50 > 2.5 && p50 <= 5, "p50 en la cubeta de 2.5-5 ms: " + p50);
+        assertTrue(p95 > 250 && p95 <= 400, "p95 en la cubeta de 250-500 ms, sin pasar del máximo: " + p95);
+        assertEquals(400.0, temporizador.percentilMs(1.0));
+    }
+
+    @Test
+    void elResumenIncluyePercentiles() {
+        RegistroMetricas metricas = new RegistroMetricas();
+        metricas.registrarTiempo("jwt.verificacion", 20 * MS);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> resumen = (Map<String, Object>) metricas.resumen().get("jwt.verificacion");
+
+        assertEquals(1L, resumen.get("cuenta"));
+        assertEquals(20.0, resumen.get("p99Ms"));
+    }
+
+    @Test
+    void formatoPrometheusConContadoresEHistogramas() {
+        RegistroMetricas metricas = new RegistroMetricas();
+        metricas.incrementar("reservas.creadas", 3);
+        metricas.incrementar("sql.peticion.GET /api/reservas/{id}.sentencias", 2);
+        metricas.registrarTiempo("servicio.ReservaService.crearReserva", 3 * MS);
+        metricas.registrarTiempo("servicio.ReservaService.crearReserva", 20_000 * MS);
+
+        String texto = metricas.prometheus();
+
+        assertTrue(texto.contains("# TYPE tutouis_reservas_creadas_total counter\ntutouis_reservas_creadas_total 3\n"));
+        assertTrue(texto.contains("tutouis_sql_peticion_GET_api_reservas_id_sentencias_total 2\n"));
+        String histograma = "tutouis_servicio_ReservaService_crearReserva_seconds";
+        assertTrue(texto.contains("# TYPE " + histograma + " histogram\n"));
+        assertTrue(texto.contains(histograma + "_bucket{le=\"0.0025\"} 0\n"));
+        assertTrue(texto.contains(histograma + "_bucket{le=\"0.005\"} 1\n"));
+        assertTrue(texto.contains(histograma + "_bucket{le=\"10\"} 1\n"));
+        assertTrue(texto.contains(histograma + "_bucket{le=\"+Inf\"} 2\n"));
+        assertTrue(texto.contains(histograma + "_sum 20.003\n"));
+        assertTrue(texto.contains(histograma + "_count 2\n"));
+    }
+}
@@ -2,7 +2,7 @@ import { Component, OnInit, ChangeDetectorRef, ViewChild } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { RouterLink } from '@angular/router';
 import { FormsModule } from '@angular/forms';
-import { ReservationService, Reserva } from '../../../services/reservation.service';
+import { ReservationService, Reserva, FiltroReservas, PaginaReservas } from '../../../services/reservation.service';
 import { ReservaDetailModalComponent } from '../../../components/reserva-detail-modal/reserva-detail-modal';
 import { ReporteService } from '../../../services/reporte.service';
 
@@ -15,23 +15,31 @@ import { ReporteService } from '../../../services/reporte.service';
 })
 export class AdminReservations implements OnInit {
   @ViewChild(ReservaDetailModalComponent) modalComponent!: ReservaDetailModalComponent;
-  
-  reservas: Reserva[] = [];
+
+  private readonly TAMANO_PAGINA = 50;
+
+  reservas: Reserva[] = []; // Páginas cargadas hasta ahora
   reservasFiltradas: Reserva[] = [];
+  siguienteCursor: string | null = null; // null cuando ya no hay más páginas
   loading = false;
+  cargandoMas = false;
   error: string | null = null;
-  
+
+  // Totales de todo el historial (/api/reportes/dashboard), no solo de las páginas cargadas
+  totales: { total: number; activas: number; completadas: number } | null = null;
+
   // Modal data
   selectedReserva: Reserva | null = null;
   isEditMode = false;
-  
-  // Filtros
+
+  // Filtros: estado y fecha los aplica el servidor; la búsqueda, las reservas cargadas
   searchTerm = '';
-  filterEstado = '';
+  filterEstado: number | null = null;
   filterFecha = '';
 
   constructor(
     private reservationService: ReservationService,
+    private reporteService: ReporteService,
     private cdr: ChangeDetectorRef
   ) {}
 
@@ -50,23 +58,22 @@ export class AdminReservations implements OnInit {
     }, 15000);
   }
 
+  /**
+   * Carga la primera página con los filtros de servidor actuales (descarta las páginas anteriores)
+   */
   loadReservations() {
     console.log('AdminReservations - Iniciando carga de reservas...');
     this.loading = true;
     this.error = null;
-    
-    this.reservationService.getAllReservations().subscribe({
-      next: (data) => {
-        console.log('AdminReservations - Reservas recibidas:', data.length, data);
-        this.reservas = data;
-        this.reservasFiltradas = data;
+    this.loadTotales();
+
+    this.reservationService.getReservationsPage(null, this.TAMANO_PAGINA, this.filtroServidor()).subscribe({
+      next: (pagina) => {
+        console.log('AdminReservations - Primera página recibida:', pagina.reservas.length);
+        this.reservas = [];
+        this.agregarPagina(pagina);
         this.loading = false;
         this.cdr.detectChanges();
-        console.log('AdminReservations - Estado después de cargar:', {
-          reservas: this.reservas.length,
-          filtradas: this.reservasFiltradas.length,
-          loading: this.loading
-        });
       },
       error: (error) => {
         console.error('AdminReservations - Error al cargar reservas:', error);
@@ -77,51 +84,101 @@ export class AdminReservations implements OnInit {
     });
   }
 
-  applyFilters() {
-    this.reservasFiltradas = this.reservas.filter(reserva => {
-      // Filtro por búsqueda (ID estudiante o disponibilidad)
-      const matchSearch = this.searchTerm === '' || 
-        reserva.idEstudiante.toString().includes(this.searchTerm) ||
-        reserva.idDisponibilidad.toString().includes(this.searchTerm) ||
-        reserva.idReserva.toString().includes(this.searchTerm) ||
-        (reserva.nombreEstudiante || '').toLowerCase().includes(this.searchTerm.toLowerCase());
-
-      // Filtro por estado
-      const matchEstado = this.filterEstado === '' || 
-        reserva.nombreEstado === this.filterEstado;
-
-      // Filtro por fecha
-      let matchFecha = true;
-      if (this.filterFecha && reserva.fechaCreacion) {
-        const fechaReserva = new Date(reserva.fechaCreacion);
-        const hoy = new Date();
-        
-        if (this.filterFecha === 'hoy') {
-          matchFecha = fechaReserva.toDateString() === hoy.toDateString();
-        } else if (this.filterFecha === 'semana') {
-          const semanaAtras = new Date();
-          semanaAtras.setDate(hoy.getDate() - 7);
-          matchFecha = fechaReserva >= semanaAtras;
-        } else if (this.filterFecha === 'mes') {
-          const mesAtras = new Date();
-          mesAtras.setMonth(hoy.getMonth() - 1);
-          matchFecha = fechaReserva >= mesAtras;
-        }
+  /**
+   * Trae la página siguiente con el cursor de la última y la agrega a la tabla
+   */
+  cargarMas() {
+    if (!this.siguienteCursor || this.cargandoMas) {
+      return;
+    }
+    this.cargandoMas = true;
+    this.reservationService.getReservationsPage(this.siguienteCursor, this.TAMANO_PAGINA, this.filtroServidor()).subscribe({
+      next: (pagina) => {
+        this.agregarPagina(pagina);
+        this.cargandoMas = false;
+        this.cdr.detectChanges();
+      },
+      error: (error) => {
+        console.error('AdminReservations - Error al cargar más reservas:', error);
+        alert('❌ No se pudieron cargar más reservas: ' + (error.error?.error || error.message || 'Error desconocido'));
+        this.cargandoMas = false;
+        this.cdr.detectChanges();
       }
+    });
+  }
 
-      return matchSearch && matchEstado && matchFecha;
+  private agregarPagina(pagina: PaginaReservas) {
+    this.reservas = this.reservas.concat(pagina.reservas);
+    this.siguienteCursor = pagina.siguienteCursor;
+    this.applyFilters();
+  }
+
+  private loadTotales() {
+    this.reporteService.getDashboardStats().subscribe({
+      next: (data) => {
+        this.totales = {
+          total: data.stats.totalReservas,
+          activas: data.stats.reservasPendientes, // estado 1: reservada, todavía por realizarse
+          completadas: data.stats.reservasCompletadas
+        };
+        this.cdr.detectChanges();
+      },
+      error: (error) => {
+        console.error('AdminReservations - Error al cargar totales:', error);
+        this.totales = null;
+      }
     });
   }
 
+  /**
+   * Filtros que aplica /list. La fecha filtra por creación de la reserva desde el inicio del periodo
+   */
+  private filtroServidor(): FiltroReservas {
+    let desde: Date | null = null;
+    if (this.filterFecha === 'hoy') {
+      desde = new Date();
+      desde.setHours(0, 0, 0, 0);
+    } else if (this.filterFecha === 'semana') {
+      desde = new Date();
+      desde.setDate(desde.getDate() - 7);
+    } else if (this.filterFecha === 'mes') {
+      desde = new Date();
+      desde.setMonth(desde.getMonth() - 1);
+    }
+    return {
+      idEstado: this.filterEstado,
+      desde: desde ? this.fechaHoraLocal(desde) : null
+    };
+  }
+
+  /** "yyyy-MM-ddTHH:mm:ss" en hora local (el servidor lo recibe como LocalDateTime) */
+  private fechaHoraLocal(fecha: Date): string {
+    const dos = (n: number) => String(n).padStart(2, '0');
+    return `${fecha.getFullYear()}-${dos(fecha.getMonth() + 1)}-${dos(fecha.getDate())}T` +
+      `${dos(fecha.getHours())}:${dos(fecha.getMinutes())}:${dos(fecha.getSeconds())}`;
+  }
+
+  get hayFiltros(): boolean {
+    return this.searchTerm !== '' || this.filterEstado !== null || this.filterFecha !== '';
+  }
+
+  /**
+   * Búsqueda sobre las reservas cargadas (ID de reserva, estudiante o disponibilidad, o nombre del estudiante)
+   */
+  applyFilters() {
+    const termino = this.searchTerm.toLowerCase();
+    this.reservasFiltradas = this.searchTerm === '' ? this.reservas : this.reservas.filter(reserva =>
+      reserva.idEstudiante.toString().includes(this.searchTerm) ||
+      reserva.idDisponibilidad.toString().includes(this.searchTerm) ||
+      reserva.idReserva.toString().includes(this.searchTerm) ||
+      (reserva.nombreEstudiante || '').toLowerCase().includes(termino));
+  }
+
   clearFilters() {
     this.searchTerm = '';
-    this.filterEstado = '';
+    this.filterEstado = null;
     this.filterFecha = '';
-    this.reservasFiltradas = this.reservas;
-  }
-
-  getReservasPorEstado(estado: string): number {
-    return this.reservas.filter(r => r.nombreEstado === estado).length;
+    this.loadReservations();
   }
 
   /**
@@ -28,6 +28,24 @@ export interface Reserva {
   lugar?: string; // Lugar de la reserva
 }
 
+export interface PaginaReservas {
+  reservas: Reserva[];
+  siguienteCursor: string | null; // null cuando no hay más páginas
+}
+
+/**
+ * Filtros que /list aplica en el servidor (FiltroReservasDto). Las fechas son de creación de la reserva,
+ * en hora local: "yyyy-MM-ddTHH:mm:ss"
+ */
+export interface FiltroReservas {
+  idEstado?: number | null;
+  idEstudiante?: number | null;
+  idTutor?: number | null;
+  idAsignatura?: number | null;
+  desde?: string | null;
+  hasta?: string | null;
+}
+
 export interface CreateReservaDto {
   idDisponibilidad: number;
   idEstudiante: number;
@@ -46,18 +64,35 @@ export class ReservationService {
     private authService: AuthService
   ) {}
 
-  getAllReservations(): Observable<Reserva[]> {
-    console.log('ReservationService - Solicitando lista de reservas...');
+  /**
+   * Obtiene una página de reservas (de la más reciente a la más antigua)
+   * @param cursor Cursor devuelto por la página anterior; omitir para la primera
+   * @param limite Tamaño de la página
+   * @param filtro Filtros que aplica el servidor; el cursor solo sirve con los mismos filtros que lo generaron
+   */
+  getReservationsPage(cursor?: string | null, limite?: number, filtro?: FiltroReservas): Observable<PaginaReservas> {
     const headers = this.authService.getAuthHeaders();
-    console.log('ReservationService - Headers:', headers.keys());
-    console.log('ReservationService - URL:', `${this.API_URL}/list`);
+    const params: Record<string, string> = {};
+    if (cursor) {
+      params['cursor'] = cursor;
+    }
+    if (limite) {
+      params['limite'] = String(limite);
+    }
+    if (filtro) {
+      for (const [clave, valor] of Object.entries(filtro)) {
+        if (valor !== null && valor !== undefined && valor !== '') {
+          params[clave] = String(valor);
+        }
+      }
+    }
 
-    return this.http.get<Reserva[]>(`${this.API_URL}/list`, { headers }).pipe(
-      tap((reservas: Reserva[]) => {
-        console.log('ReservationService - Respuesta recibida:', reservas.length, 'reservas');
+    return this.http.get<PaginaReservas>(`${this.API_URL}/list`, { headers, params }).pipe(
+      tap((pagina: PaginaReservas) => {
+        console.log('ReservationService - Página recibida:', pagina.reservas.length, 'reservas');
       }),
       catchError((error: any) => {
-        console.error('ReservationService - Error en getAllReservations:', error);
+        console.error('ReservationService - Error en getReservationsPage:', error);
         return throwError(() => error);
       })
     );